@@ -0,0 +1,86 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * Synthetic controller documents used by benchmarks.
+ */
+final class BenchmarkDocuments {
+
+    static final URI AUTHENTICATION = URI.create("https://w3id.org/security#authentication");
+
+    static final MulticodecEncoded KEY = new MulticodecEncoded() {
+
+        final byte[] key = new byte[32];
+
+        @Override
+        public long codecCode() {
+            return 0xed;
+        }
+
+        @Override
+        public byte[] decoded() {
+            return key;
+        }
+    };
+
+    private BenchmarkDocuments() {
+        /* protected */
+    }
+
+    /**
+     * Creates a document with {@code size} verification methods, all bound to
+     * authentication.
+     */
+    static IdentifierDocument document(final URI id, final int size) {
+
+        final Set<VerificationMethod> methods = new LinkedHashSet<>(size * 2);
+
+        for (int i = 0; i < size; i++) {
+            methods.add(Multikey.of(methodId(id, i), id, KEY));
+        }
+
+        final Set<VerificationMethod> authentication = Collections.unmodifiableSet(methods);
+
+        return new IdentifierDocument() {
+
+            @Override
+            public URI id() {
+                return id;
+            }
+
+            @Override
+            public Collection<VerificationMethod> verification() {
+                return authentication;
+            }
+
+            @Override
+            public Set<VerificationMethod> authentication() {
+                return authentication;
+            }
+        };
+    }
+
+    static URI methodId(final URI id, final int index) {
+        return URI.create(id + "#key-" + index);
+    }
+
+    static List<URI> ids(final String prefix, final int count) {
+        final List<URI> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(URI.create(prefix + i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,81 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.apicatalog.cid.datatype.Identifier;
+
+/**
+ * Measures derivation of a controller document identifier from a verification
+ * method identifier.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentUriBenchmark {
+
+    @Param({
+            "did:key:z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK#z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK",
+            "https://controller.example/101#key-20240828"
+    })
+    String methodId;
+
+    URI uri;
+    URI otherUri;
+
+    Identifier identifier;
+    Identifier otherIdentifier;
+
+    @Setup
+    public void setup() {
+        uri = URI.create(methodId);
+        otherUri = URI.create(new String(methodId));
+        identifier = Identifier.of(methodId);
+        otherIdentifier = Identifier.of(new String(methodId));
+    }
+
+    @Benchmark
+    public URI documentUri() throws VerificationMethodException {
+        return VerificationMethodResolver.documentUri(uri);
+    }
+
+    @Benchmark
+    public URI parseAndDocumentUri() throws VerificationMethodException {
+        return VerificationMethodResolver.documentUri(URI.create(methodId));
+    }
+
+    @Benchmark
+    public Identifier identifierBase() {
+        return identifier.base();
+    }
+
+    @Benchmark
+    public Identifier parseAndIdentifierBase() {
+        return Identifier.of(methodId).base();
+    }
+
+    @Benchmark
+    public boolean uriEquals() {
+        return uri.equals(otherUri);
+    }
+
+    @Benchmark
+    public boolean identifierEquals() {
+        return identifier.equals(otherIdentifier);
+    }
+}
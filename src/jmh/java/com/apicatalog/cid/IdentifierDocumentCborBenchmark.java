@@ -0,0 +1,58 @@
+package com.apicatalog.cid;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.apicatalog.cid.cbor.IdentifierDocumentCodec;
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * Measures encoding and decoding controller documents as CBOR, compare with
+ * {@link IdentifierDocumentJsonBenchmark} run with the same sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdentifierDocumentCborBenchmark {
+
+    static final URI DOCUMENT_ID = URI.create("did:example:123");
+
+    @Param({ "1", "10", "100" })
+    int size;
+
+    IdentifierDocument document;
+
+    byte[] cbor;
+
+    @Setup
+    public void setup() {
+        document = BenchmarkDocuments.document(DOCUMENT_ID, size);
+        cbor = IdentifierDocumentCodec.encode(document);
+    }
+
+    @Benchmark
+    public IdentifierDocument decode() throws IOException {
+        return IdentifierDocumentCodec.decode(cbor);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return IdentifierDocumentCodec.encode(document);
+    }
+}
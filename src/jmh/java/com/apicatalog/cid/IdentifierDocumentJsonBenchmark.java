@@ -0,0 +1,65 @@
+package com.apicatalog.cid;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.json.IdentifierDocumentReader;
+import com.apicatalog.cid.json.IdentifierDocumentWriter;
+
+/**
+ * Measures reading and writing controller documents as compact JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdentifierDocumentJsonBenchmark {
+
+    static final URI DOCUMENT_ID = URI.create("did:example:123");
+
+    @Param({ "1", "10", "100" })
+    int size;
+
+    IdentifierDocument document;
+
+    byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        document = BenchmarkDocuments.document(DOCUMENT_ID, size);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        IdentifierDocumentWriter.write(document, output);
+        json = output.toByteArray();
+    }
+
+    @Benchmark
+    public IdentifierDocument read() throws IOException {
+        return IdentifierDocumentReader.read(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(json.length);
+        IdentifierDocumentWriter.write(document, output);
+        return output.size();
+    }
+}
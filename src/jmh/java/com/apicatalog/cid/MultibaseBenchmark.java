@@ -0,0 +1,148 @@
+package com.apicatalog.cid;
+
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.apicatalog.cid.datatype.Multibase;
+
+/**
+ * Compares the built-in multibase codec with the common
+ * {@link BigInteger} based base58 implementation and with
+ * {@link java.util.Base64}.
+ *
+ * <p>
+ * Sizes are of multicodec prefixed public keys, i.e. Ed25519 (34), P-256 (35)
+ * and P-521 (69) bytes.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultibaseBenchmark {
+
+    static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    static final BigInteger BASE = BigInteger.valueOf(58);
+
+    @Param({ "34", "35", "69" })
+    int size;
+
+    byte[] key;
+
+    String base58;
+
+    String base64;
+
+    byte[] output;
+
+    @Setup
+    public void setup() {
+        key = new byte[size];
+        new Random(size).nextBytes(key);
+        key[0] = (byte) 0xed;
+
+        base58 = Multibase.encode(Multibase.BASE_58_BTC, key);
+        base64 = Multibase.encode(Multibase.BASE_64_URL, key);
+
+        output = new byte[Multibase.maxDecodedLength(base58)];
+
+        if (!base58.equals(encodeBigInteger(key))) {
+            throw new IllegalStateException("Encoded values differ");
+        }
+    }
+
+    @Benchmark
+    public byte[] decodeBase58() {
+        return Multibase.decode(base58);
+    }
+
+    @Benchmark
+    public int decodeBase58IntoBuffer() {
+        return Multibase.decode(base58, output, 0);
+    }
+
+    @Benchmark
+    public byte[] decodeBase58BigInteger() {
+        return decodeBigInteger(base58);
+    }
+
+    @Benchmark
+    public String encodeBase58() {
+        return Multibase.encode(Multibase.BASE_58_BTC, key);
+    }
+
+    @Benchmark
+    public String encodeBase58BigInteger() {
+        return encodeBigInteger(key);
+    }
+
+    @Benchmark
+    public int decodeBase64UrlIntoBuffer() {
+        return Multibase.decode(base64, output, 0);
+    }
+
+    @Benchmark
+    public byte[] decodeBase64UrlJdk() {
+        return Base64.getUrlDecoder().decode(base64.substring(1));
+    }
+
+    static byte[] decodeBigInteger(final String value) {
+
+        BigInteger number = BigInteger.ZERO;
+
+        int zeros = 0;
+        while (zeros + 1 < value.length() && value.charAt(zeros + 1) == '1') {
+            zeros++;
+        }
+
+        for (int i = 1; i < value.length(); i++) {
+            final int digit = ALPHABET.indexOf(value.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid base58 character");
+            }
+            number = number.multiply(BASE).add(BigInteger.valueOf(digit));
+        }
+
+        final byte[] bytes = number.toByteArray();
+        // strip the sign byte
+        final int sign = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        final int length = number.signum() == 0 ? 0 : bytes.length - sign;
+
+        final byte[] decoded = new byte[zeros + length];
+        System.arraycopy(bytes, sign, decoded, zeros, length);
+        return decoded;
+    }
+
+    static String encodeBigInteger(final byte[] value) {
+
+        final StringBuilder builder = new StringBuilder();
+
+        BigInteger number = new BigInteger(1, value);
+        while (number.signum() > 0) {
+            final BigInteger[] division = number.divideAndRemainder(BASE);
+            builder.append(ALPHABET.charAt(division[1].intValue()));
+            number = division[0];
+        }
+        for (int i = 0; i < value.length && value[i] == 0; i++) {
+            builder.append('1');
+        }
+        return builder.append(Multibase.BASE_58_BTC).reverse().toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.IndexedIdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+
+/**
+ * Measures {@link VerificationMethodResolver} hot paths: all three
+ * {@code resolve} overloads, hit and miss, over documents of various sizes.
+ *
+ * <p>
+ * The looked up method is the last one of a document, the worst case of a
+ * linear scan. Miss paths return the thrown exception to include its cost.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VerificationMethodResolverBenchmark {
+
+    static final URI DOCUMENT_ID = URI.create("did:example:123");
+
+    @Param({ "1", "10", "100", "1000" })
+    int size;
+
+    VerificationMethodResolver resolver;
+
+    IdentifierDocument document;
+    IndexedIdentifierDocument indexed;
+    Set<VerificationMethod> methods;
+
+    URI hitId;
+    URI missId;
+    URI missDocumentId;
+
+    @Setup
+    public void setup() {
+        document = BenchmarkDocuments.document(DOCUMENT_ID, size);
+        indexed = IndexedIdentifierDocument.of(document);
+        methods = document.authentication();
+
+        hitId = BenchmarkDocuments.methodId(DOCUMENT_ID, size - 1);
+        missId = BenchmarkDocuments.methodId(DOCUMENT_ID, size);
+        missDocumentId = URI.create("did:example:456#key-0");
+
+        final Map<URI, IdentifierDocument> documents = new HashMap<>();
+        documents.put(DOCUMENT_ID, document);
+
+        resolver = new VerificationMethodResolver(Collections.singleton(new MapResolver(documents)));
+    }
+
+    @Benchmark
+    public Object resolveMethodsHit() throws VerificationMethodException {
+        return resolver.resolve(hitId, methods, document);
+    }
+
+    @Benchmark
+    public Object resolveMethodsMiss() {
+        try {
+            return resolver.resolve(missId, methods, document);
+        } catch (VerificationMethodException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object resolveDocumentHit() throws VerificationMethodException {
+        return resolver.resolve(hitId, BenchmarkDocuments.AUTHENTICATION, document);
+    }
+
+    @Benchmark
+    public Object resolveDocumentMiss() {
+        try {
+            return resolver.resolve(missId, BenchmarkDocuments.AUTHENTICATION, document);
+        } catch (VerificationMethodException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object resolveIndexedHit() throws VerificationMethodException {
+        return resolver.resolve(hitId, BenchmarkDocuments.AUTHENTICATION, indexed);
+    }
+
+    @Benchmark
+    public Object resolveIndexedMiss() {
+        try {
+            return resolver.resolve(missId, BenchmarkDocuments.AUTHENTICATION, indexed);
+        } catch (VerificationMethodException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object resolveFetchHit() throws VerificationMethodException {
+        return resolver.resolve(hitId, BenchmarkDocuments.AUTHENTICATION);
+    }
+
+    @Benchmark
+    public Object resolveFetchMiss() {
+        try {
+            return resolver.resolve(missId, BenchmarkDocuments.AUTHENTICATION);
+        } catch (VerificationMethodException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object resolveFetchUnknownDocument() {
+        try {
+            return resolver.resolve(missDocumentId, BenchmarkDocuments.AUTHENTICATION);
+        } catch (VerificationMethodException e) {
+            return e;
+        }
+    }
+
+    /**
+     * The same benchmarks run by four concurrent threads sharing one resolver.
+     */
+    @Threads(4)
+    public static class Contended extends VerificationMethodResolverBenchmark {
+    }
+
+    static final class MapResolver implements IdentifierDocumentResolver {
+
+        final Map<URI, IdentifierDocument> documents;
+
+        MapResolver(Map<URI, IdentifierDocument> documents) {
+            this.documents = documents;
+        }
+
+        @Override
+        public boolean isAccepted(URI id) {
+            return true;
+        }
+
+        @Override
+        public Collection<String> prefixes() {
+            return Collections.singleton("did:example");
+        }
+
+        @Override
+        public IdentifierDocument resolve(URI id) {
+            final IdentifierDocument document = documents.get(id);
+            if (document == null) {
+                throw new IllegalArgumentException("Unknown document " + id);
+            }
+            return document;
+        }
+    }
+}
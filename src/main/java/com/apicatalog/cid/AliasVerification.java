@@ -0,0 +1,94 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The outcome of verifying the {@code alsoKnownAs} aliases of a document, see
+ * {@link AliasVerifier}.
+ */
+public final class AliasVerification {
+
+    /**
+     * The state of a single alias.
+     */
+    public enum Status {
+
+        /** The alias document lists the document as its alias. */
+        VERIFIED,
+
+        /** The alias document does not list the document as its alias. */
+        NOT_RECIPROCAL,
+
+        /** The alias document cannot be resolved. */
+        UNRESOLVABLE
+    }
+
+    final URI id;
+    final Map<URI, Status> aliases;
+
+    AliasVerification(final URI id, final Map<URI, Status> aliases) {
+        this.id = id;
+        this.aliases = Collections.unmodifiableMap(aliases);
+    }
+
+    /** @return the identifier of the verified document */
+    public URI id() {
+        return id;
+    }
+
+    /** @return the state of each alias, in document order */
+    public Map<URI, Status> aliases() {
+        return aliases;
+    }
+
+    /**
+     * Returns the state of the given alias.
+     *
+     * @param alias the alias
+     * @return the state, or {@code null} if the document does not claim the
+     *         alias
+     */
+    public Status status(final URI alias) {
+        return aliases.get(alias);
+    }
+
+    /**
+     * Checks whether the alias is claimed by both documents.
+     *
+     * @param alias the alias
+     * @return {@code true} if the alias is verified
+     */
+    public boolean isVerified(final URI alias) {
+        return aliases.get(alias) == Status.VERIFIED;
+    }
+
+    /** @return the verified aliases */
+    public Set<URI> verified() {
+        final Set<URI> verified = new LinkedHashSet<>();
+        for (final Map.Entry<URI, Status> alias : aliases.entrySet()) {
+            if (alias.getValue() == Status.VERIFIED) {
+                verified.add(alias.getKey());
+            }
+        }
+        return Collections.unmodifiableSet(verified);
+    }
+
+    /** @return {@code true} if all aliases are verified */
+    public boolean isVerified() {
+        for (final Status status : aliases.values()) {
+            if (status != Status.VERIFIED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "AliasVerification[" + id + ", " + aliases + "]";
+    }
+}
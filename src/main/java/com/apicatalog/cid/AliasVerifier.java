@@ -0,0 +1,277 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.apicatalog.cid.cache.BoundedCache;
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * Verifies {@link IdentifierDocument#alsoKnownAs()} claims, i.e. that each
+ * alias document lists the document as its alias too.
+ *
+ * <p>
+ * All aliases of a document are resolved concurrently. Outcomes are cached
+ * per document and alias pair, a verified or a non-reciprocal pair is kept for
+ * the shorter of the time-to-live values computed for the two documents when
+ * the alias is verified. A verifier created with a
+ * {@link CachingIdentifierDocumentResolver} uses the time the documents remain
+ * cached, see {@link CachingIdentifierDocumentResolver#remainingTtl}, so an
+ * outcome never outlives the documents it is derived from. An unresolvable
+ * alias is never cached.
+ * </p>
+ *
+ * <p>
+ * The verifier is safe for concurrent use.
+ * </p>
+ */
+public class AliasVerifier {
+
+    /** The default maximum number of cached outcomes. */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    protected final AsyncIdentifierDocumentResolver resolver;
+
+    protected final BoundedCache<Pair, AliasVerification.Status> cache;
+
+    protected final Function<IdentifierDocument, Duration> ttl;
+
+    /**
+     * Creates a verifier caching outcomes for a fixed time-to-live.
+     *
+     * @param resolver the resolver of alias documents (must not be
+     *                 {@code null})
+     * @param executor the executor running resolutions (must not be
+     *                 {@code null})
+     * @param ttl      how long an outcome is kept (must not be {@code null})
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public AliasVerifier(final IdentifierDocumentResolver resolver, final Executor executor, final Duration ttl) {
+        this(AsyncIdentifierDocumentResolver.of(resolver, executor), DEFAULT_CACHE_SIZE, CachingIdentifierDocumentResolver.constant(ttl));
+    }
+
+    /**
+     * Creates a verifier resolving alias documents with the given caching
+     * resolver and keeping an outcome as long as both documents remain cached.
+     * Outcomes of a document not returned by {@code resolver} are not cached.
+     *
+     * @param resolver the resolver of alias documents (must not be
+     *                 {@code null})
+     * @param executor the executor running resolutions (must not be
+     *                 {@code null})
+     * @param maxSize  the maximum number of cached outcomes
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public AliasVerifier(final CachingIdentifierDocumentResolver resolver, final Executor executor, final int maxSize) {
+        this(AsyncIdentifierDocumentResolver.of(resolver, executor), maxSize, resolver::remainingTtl);
+    }
+
+    /**
+     * Creates a verifier.
+     *
+     * @param resolver the resolver of alias documents (must not be
+     *                 {@code null})
+     * @param maxSize  the maximum number of cached outcomes
+     * @param ttl      provides a time-to-live of a document when an alias is
+     *                 verified, an outcome is kept for the shorter of the
+     *                 values of the two documents, a {@code null} or
+     *                 non-positive duration prevents caching (must not be
+     *                 {@code null})
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public AliasVerifier(
+            final AsyncIdentifierDocumentResolver resolver,
+            final int maxSize,
+            final Function<IdentifierDocument, Duration> ttl) {
+        Objects.requireNonNull(resolver, "resolver must not be null");
+        Objects.requireNonNull(ttl, "ttl must not be null");
+
+        this.resolver = resolver;
+        this.cache = new BoundedCache<>(maxSize);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Verifies all aliases the document claims.
+     *
+     * @param document the document (must not be {@code null})
+     * @return a future completed with the outcome, never completed
+     *         exceptionally because of an alias resolution failure, an alias
+     *         failing to verify for any reason is
+     *         {@link AliasVerification.Status#UNRESOLVABLE}
+     */
+    public CompletableFuture<AliasVerification> verifyAsync(final IdentifierDocument document) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        final URI id = document.id();
+        final Collection<URI> aliases = document.alsoKnownAs();
+
+        final Map<URI, AliasVerification.Status> statuses = new LinkedHashMap<>();
+
+        if (id == null || aliases == null || aliases.isEmpty()) {
+            return CompletableFuture.completedFuture(new AliasVerification(id, statuses));
+        }
+
+        final Map<URI, CompletableFuture<AliasVerification.Status>> pending = new LinkedHashMap<>();
+
+        for (final URI alias : aliases) {
+            if (alias == null || statuses.containsKey(alias) || pending.containsKey(alias)) {
+                continue;
+            }
+
+            final AliasVerification.Status cached = cache.get(new Pair(id, alias));
+
+            if (cached != null) {
+                statuses.put(alias, cached);
+
+            } else {
+                // keeps the document order
+                statuses.put(alias, null);
+                pending.put(alias, verify(document, alias));
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(new AliasVerification(id, statuses));
+        }
+
+        return CompletableFuture
+                .allOf(pending.values().toArray(new CompletableFuture<?>[pending.size()]))
+                .thenApply(all -> {
+                    for (final Map.Entry<URI, CompletableFuture<AliasVerification.Status>> alias : pending.entrySet()) {
+                        statuses.put(alias.getKey(), alias.getValue().join());
+                    }
+                    return new AliasVerification(id, statuses);
+                });
+    }
+
+    /**
+     * Verifies all aliases the document claims, blocking until all alias
+     * documents are resolved.
+     *
+     * @param document the document (must not be {@code null})
+     * @return the outcome
+     */
+    public AliasVerification verify(final IdentifierDocument document) {
+        try {
+            return verifyAsync(document).join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Discards all cached outcomes.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /** @return the number of outcomes served from the cache */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /** @return the number of aliases that had to be resolved */
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    CompletableFuture<AliasVerification.Status> verify(final IdentifierDocument document, final URI alias) {
+
+        final CompletableFuture<IdentifierDocument> future;
+        try {
+            if (!resolver.isAccepted(alias)) {
+                return CompletableFuture.completedFuture(AliasVerification.Status.UNRESOLVABLE);
+            }
+            future = resolver.resolveAsync(alias);
+
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(AliasVerification.Status.UNRESOLVABLE);
+        }
+
+        return future.handle((aliasDocument, e) -> {
+
+            if (e != null || aliasDocument == null) {
+                return AliasVerification.Status.UNRESOLVABLE;
+            }
+
+            try {
+                final AliasVerification.Status status = isReciprocal(document.id(), alias, aliasDocument)
+                        ? AliasVerification.Status.VERIFIED
+                        : AliasVerification.Status.NOT_RECIPROCAL;
+
+                final long ttlNanos = Math.min(
+                        CachingIdentifierDocumentResolver.toNanos(ttl.apply(document)),
+                        CachingIdentifierDocumentResolver.toNanos(ttl.apply(aliasDocument)));
+
+                cache.put(new Pair(document.id(), alias), status, ttlNanos);
+
+                return status;
+
+            } catch (RuntimeException ex) {
+                // e.g. a failing ttl function or alias document accessor
+                return AliasVerification.Status.UNRESOLVABLE;
+            }
+        });
+    }
+
+    /**
+     * @return {@code true} if the alias document is identified by the alias and
+     *         claims the document identifier
+     */
+    static boolean isReciprocal(final URI id, final URI alias, final IdentifierDocument aliasDocument) {
+        final Collection<URI> aliases = aliasDocument.alsoKnownAs();
+        return alias.equals(aliasDocument.id())
+                && aliases != null
+                && aliases.contains(id);
+    }
+
+    /**
+     * A document and alias identifier pair.
+     */
+    static final class Pair {
+
+        final URI id;
+        final URI alias;
+
+        Pair(final URI id, final URI alias) {
+            this.id = id;
+            this.alias = alias;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + alias.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Pair)) {
+                return false;
+            }
+            final Pair other = (Pair) obj;
+            return id.equals(other.id) && alias.equals(other.alias);
+        }
+    }
+}
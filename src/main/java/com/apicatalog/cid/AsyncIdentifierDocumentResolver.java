@@ -0,0 +1,60 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * Asynchronously resolves {@link IdentifierDocument} instances for given
+ * identifiers.
+ *
+ * <p>
+ * This is the non-blocking counterpart of {@link IdentifierDocumentResolver}.
+ * Implementations are expected to return immediately and complete the returned
+ * future once the document has been fetched, so that a single thread can keep
+ * many resolutions in flight.
+ * </p>
+ *
+ * <p>
+ * An existing synchronous resolver can be adapted using
+ * {@link #of(IdentifierDocumentResolver, Executor)}.
+ * </p>
+ *
+ * @see IdentifierDocumentResolver
+ */
+public interface AsyncIdentifierDocumentResolver extends SelectableResolver {
+
+    /**
+     * Resolves the given identifier into a {@link IdentifierDocument}.
+     *
+     * @param id the identifier to resolve (must not be {@code null})
+     * @return a future completed with the resolved {@link IdentifierDocument}, or
+     *         completed exceptionally with an {@link IllegalArgumentException} if
+     *         the identifier cannot be resolved
+     */
+    CompletableFuture<IdentifierDocument> resolveAsync(URI id);
+
+    /**
+     * Adapts a synchronous resolver, running each blocking resolution on the
+     * given executor.
+     *
+     * <p>
+     * If {@code resolver} already implements
+     * {@link AsyncIdentifierDocumentResolver} it is returned as-is.
+     * </p>
+     *
+     * @param resolver the resolver to adapt (must not be {@code null})
+     * @param executor the executor running resolutions (must not be
+     *                 {@code null})
+     * @return an asynchronous resolver delegating to {@code resolver}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    static AsyncIdentifierDocumentResolver of(IdentifierDocumentResolver resolver, Executor executor) {
+        if (resolver instanceof AsyncIdentifierDocumentResolver) {
+            return (AsyncIdentifierDocumentResolver) resolver;
+        }
+        return new AsyncIdentifierDocumentResolverAdapter(resolver, executor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+final class AsyncIdentifierDocumentResolverAdapter implements AsyncIdentifierDocumentResolver {
+
+    final IdentifierDocumentResolver resolver;
+    final Executor executor;
+
+    AsyncIdentifierDocumentResolverAdapter(final IdentifierDocumentResolver resolver, final Executor executor) {
+        this.resolver = Objects.requireNonNull(resolver, "resolver must not be null");
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return resolver.isAccepted(id);
+    }
+
+    @Override
+    public Collection<String> prefixes() {
+        return resolver.prefixes();
+    }
+
+    @Override
+    public CompletableFuture<IdentifierDocument> resolveAsync(final URI id) {
+        return CompletableFuture.supplyAsync(() -> resolver.resolve(id), executor);
+    }
+}
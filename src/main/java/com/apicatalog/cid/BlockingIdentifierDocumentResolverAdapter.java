@@ -0,0 +1,54 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * Serves blocking resolutions by waiting for an asynchronous resolver, which
+ * is used as-is for asynchronous ones.
+ */
+final class BlockingIdentifierDocumentResolverAdapter implements IdentifierDocumentResolver, AsyncIdentifierDocumentResolver {
+
+    final AsyncIdentifierDocumentResolver resolver;
+
+    BlockingIdentifierDocumentResolverAdapter(final AsyncIdentifierDocumentResolver resolver) {
+        this.resolver = Objects.requireNonNull(resolver, "resolver must not be null");
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return resolver.isAccepted(id);
+    }
+
+    @Override
+    public Collection<String> prefixes() {
+        return resolver.prefixes();
+    }
+
+    @Override
+    public IdentifierDocument resolve(final URI id) {
+        try {
+            return resolver.resolveAsync(id).join();
+
+        } catch (CompletionException e) {
+            // rethrow as the resolver failed
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<IdentifierDocument> resolveAsync(final URI id) {
+        return resolver.resolveAsync(id);
+    }
+}
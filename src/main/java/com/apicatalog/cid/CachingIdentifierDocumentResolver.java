@@ -0,0 +1,418 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.apicatalog.cid.cache.BoundedCache;
+import com.apicatalog.cid.cache.IndexSupport;
+import com.apicatalog.cid.cache.TimingWheel;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.IndexedIdentifierDocument;
+import com.apicatalog.cid.document.Validity;
+import com.apicatalog.cid.key.VerificationKeyIndex;
+import com.apicatalog.cid.service.ServiceIndex;
+
+/**
+ * An {@link IdentifierDocumentResolver} decorator that caches resolved
+ * documents.
+ *
+ * <p>
+ * Successfully resolved documents are kept for a time-to-live computed per
+ * document. Failed resolutions, signaled by the wrapped resolver with an
+ * {@link IllegalArgumentException}, are cached for a separate, typically much
+ * shorter, time so that repeated lookups of unknown identifiers do not reach
+ * the backend. Any other exception is considered transient and is never
+ * cached.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded and evicts the least recently used entries. It is safe
+ * for concurrent use.
+ * </p>
+ *
+ * <p>
+ * Cached documents are wrapped as {@link IndexedIdentifierDocument}s, so the
+ * verification method index, including dereferenced relationship entries, is
+ * built once per fetched document and shared by all lookups it serves.
+ * </p>
+ *
+ * <p>
+ * A cached document is discarded as soon as one of its verification methods
+ * is revoked or expires, see {@link Validity}, so the next resolution fetches
+ * the document again, possibly with rotated keys. The times are tracked by a
+ * {@link TimingWheel} advanced on each resolution, no scan of the cache is
+ * needed.
+ * </p>
+ *
+ * <p>
+ * An optional {@link VerificationKeyIndex} is kept in sync with the cached
+ * documents, a document is added when cached and removed when evicted,
+ * expired, invalidated or replaced by a refreshed one. An expired document
+ * stays indexed until it is accessed or evicted, but is no longer found.
+ * </p>
+ *
+ * <p>
+ * An optional {@link ServiceIndex} is maintained the same way, providing
+ * constant-time lookups of services and endpoints of the cached documents.
+ * </p>
+ */
+public class CachingIdentifierDocumentResolver implements IdentifierDocumentResolver {
+
+    protected final IdentifierDocumentResolver resolver;
+
+    protected final BoundedCache<URI, Object> cache;
+
+    protected final Function<IdentifierDocument, Duration> ttl;
+
+    protected final long negativeTtlNanos;
+
+    /** {@code null} if keys are not indexed */
+    protected final VerificationKeyIndex keyIndex;
+
+    /** {@code null} if services are not indexed */
+    protected final ServiceIndex serviceIndex;
+
+    /** The tick duration of the method validity timing wheel. */
+    static final long VALIDITY_TICK_MILLIS = 1000;
+
+    /** cached documents with a method becoming invalid */
+    final TimingWheel<Invalidation> invalidations;
+
+    /** pending invalidations by cached document identifiers */
+    final ConcurrentHashMap<URI, TimingWheel.Timer<Invalidation>> timers;
+
+    /**
+     * Creates a caching resolver with a fixed time-to-live.
+     *
+     * @param resolver    the resolver to delegate to (must not be {@code null})
+     * @param maxSize     the maximum number of cached entries
+     * @param ttl         how long a resolved document is kept (must not be
+     *                    {@code null})
+     * @param negativeTtl how long a failed resolution is kept, or
+     *                    {@link Duration#ZERO} to disable negative caching (must
+     *                    not be {@code null})
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public CachingIdentifierDocumentResolver(
+            final IdentifierDocumentResolver resolver,
+            final int maxSize,
+            final Duration ttl,
+            final Duration negativeTtl) {
+        this(resolver, maxSize, constant(ttl), negativeTtl);
+    }
+
+    /**
+     * Creates a caching resolver computing time-to-live for each resolved
+     * document.
+     *
+     * @param resolver    the resolver to delegate to (must not be {@code null})
+     * @param maxSize     the maximum number of cached entries
+     * @param ttl         provides a time-to-live for a resolved document, a
+     *                    {@code null} or non-positive duration prevents the
+     *                    document from being cached (must not be {@code null})
+     * @param negativeTtl how long a failed resolution is kept, or
+     *                    {@link Duration#ZERO} to disable negative caching (must
+     *                    not be {@code null})
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public CachingIdentifierDocumentResolver(
+            final IdentifierDocumentResolver resolver,
+            final int maxSize,
+            final Function<IdentifierDocument, Duration> ttl,
+            final Duration negativeTtl) {
+        this(resolver, maxSize, ttl, negativeTtl, null);
+    }
+
+    /**
+     * Creates a caching resolver computing time-to-live for each resolved
+     * document and maintaining a reverse key index of the cached documents.
+     *
+     * @param resolver    the resolver to delegate to (must not be {@code null})
+     * @param maxSize     the maximum number of cached entries
+     * @param ttl         provides a time-to-live for a resolved document, a
+     *                    {@code null} or non-positive duration prevents the
+     *                    document from being cached (must not be {@code null})
+     * @param negativeTtl how long a failed resolution is kept, or
+     *                    {@link Duration#ZERO} to disable negative caching (must
+     *                    not be {@code null})
+     * @param keyIndex    the index to keep in sync with the cache, or
+     *                    {@code null}
+     * @throws NullPointerException     if {@code resolver}, {@code ttl} or
+     *                                  {@code negativeTtl} is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public CachingIdentifierDocumentResolver(
+            final IdentifierDocumentResolver resolver,
+            final int maxSize,
+            final Function<IdentifierDocument, Duration> ttl,
+            final Duration negativeTtl,
+            final VerificationKeyIndex keyIndex) {
+        this(resolver, maxSize, ttl, negativeTtl, keyIndex, null);
+    }
+
+    /**
+     * Creates a caching resolver computing time-to-live for each resolved
+     * document and maintaining reverse key and service indexes of the cached
+     * documents.
+     *
+     * @param resolver     the resolver to delegate to (must not be
+     *                     {@code null})
+     * @param maxSize      the maximum number of cached entries
+     * @param ttl          provides a time-to-live for a resolved document, a
+     *                     {@code null} or non-positive duration prevents the
+     *                     document from being cached (must not be {@code null})
+     * @param negativeTtl  how long a failed resolution is kept, or
+     *                     {@link Duration#ZERO} to disable negative caching
+     *                     (must not be {@code null})
+     * @param keyIndex     the key index to keep in sync with the cache, or
+     *                     {@code null}
+     * @param serviceIndex the service index to keep in sync with the cache, or
+     *                     {@code null}
+     * @throws NullPointerException     if {@code resolver}, {@code ttl} or
+     *                                  {@code negativeTtl} is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public CachingIdentifierDocumentResolver(
+            final IdentifierDocumentResolver resolver,
+            final int maxSize,
+            final Function<IdentifierDocument, Duration> ttl,
+            final Duration negativeTtl,
+            final VerificationKeyIndex keyIndex,
+            final ServiceIndex serviceIndex) {
+        Objects.requireNonNull(resolver, "resolver must not be null");
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        Objects.requireNonNull(negativeTtl, "negativeTtl must not be null");
+
+        this.resolver = resolver;
+        this.cache = new BoundedCache<>(maxSize, this::onRemoval);
+        this.ttl = ttl;
+        this.negativeTtlNanos = toNanos(negativeTtl);
+        this.keyIndex = keyIndex;
+        this.serviceIndex = serviceIndex;
+        this.invalidations = new TimingWheel<>(VALIDITY_TICK_MILLIS, System.currentTimeMillis());
+        this.timers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return resolver.isAccepted(id);
+    }
+
+    @Override
+    public Collection<String> prefixes() {
+        return resolver.prefixes();
+    }
+
+    /**
+     * Returns a cached document, or resolves and caches it if absent or expired.
+     *
+     * @param id the identifier to resolve (must not be {@code null})
+     * @return the resolved {@link IdentifierDocument}
+     * @throws IllegalArgumentException if the identifier cannot be resolved, the
+     *                                  same exception instance is re-thrown while
+     *                                  the failure remains cached
+     */
+    @Override
+    public IdentifierDocument resolve(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        final long now = System.currentTimeMillis();
+
+        for (final Invalidation invalidation : invalidations.advance(now)) {
+            final TimingWheel.Timer<Invalidation> timer = timers.get(invalidation.id);
+            if (timer != null && timer.value() == invalidation) {
+                timers.remove(invalidation.id, timer);
+            }
+            cache.invalidate(invalidation.id, invalidation.document);
+        }
+
+        final Object cached = cache.get(id);
+
+        if (cached instanceof IdentifierDocument) {
+            return (IdentifierDocument) cached;
+        }
+        if (cached != null) {
+            throw (IllegalArgumentException) cached;
+        }
+
+        final IdentifierDocument resolved;
+        try {
+            resolved = resolver.resolve(id);
+
+        } catch (IllegalArgumentException e) {
+            cache.put(id, e, negativeTtlNanos);
+            throw e;
+        }
+
+        if (resolved == null) {
+            return null;
+        }
+
+        final long ttlNanos = toNanos(ttl.apply(resolved));
+
+        if (ttlNanos <= 0) {
+            return resolved;
+        }
+
+        // indexed once, lookups served from the cache reuse the index
+        final IdentifierDocument document = IndexedIdentifierDocument.of(resolved);
+
+        // before caching, so that a concurrent eviction finds it indexed
+        if (keyIndex != null) {
+            keyIndex.add(document, IndexSupport.expiresAt(now, ttlNanos));
+        }
+        if (serviceIndex != null) {
+            serviceIndex.add(document, IndexSupport.expiresAt(now, ttlNanos));
+        }
+        cache.put(id, document, ttlNanos);
+        schedule(id, document, now);
+
+        return document;
+    }
+
+    /**
+     * Discards a cached entry, if present.
+     *
+     * @param id the identifier (must not be {@code null})
+     */
+    public void invalidate(final URI id) {
+        cache.invalidate(id);
+    }
+
+    /** Discards all cached entries. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns how long a document returned by this resolver stays cached,
+     * e.g. to keep an outcome derived from it no longer than the document.
+     *
+     * @param document the document (must not be {@code null})
+     * @return the remaining time-to-live, or {@code null} if the document is no
+     *         longer cached
+     */
+    public Duration remainingTtl(final IdentifierDocument document) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        if (document.id() == null) {
+            return null;
+        }
+
+        final long nanos = cache.remainingNanos(document.id(), document);
+
+        return nanos > 0 ? Duration.ofNanos(nanos) : null;
+    }
+
+    /** @return the reverse key index, or {@code null} if keys are not indexed */
+    public VerificationKeyIndex keyIndex() {
+        return keyIndex;
+    }
+
+    /** @return the service index, or {@code null} if services are not indexed */
+    public ServiceIndex serviceIndex() {
+        return serviceIndex;
+    }
+
+    /** @return the number of resolutions served from the cache */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /** @return the number of resolutions delegated to the wrapped resolver */
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    /** @return the number of entries evicted to keep the cache bounded */
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    /** @return the number of cached documents awaiting a method to become invalid */
+    public int pendingInvalidationCount() {
+        return invalidations.size();
+    }
+
+    /**
+     * Schedules invalidation of a cached document at the time the first of its
+     * methods becomes invalid, replacing the timer of a previously cached
+     * document. Nothing is scheduled if the document is no longer cached, e.g.
+     * replaced by a concurrent refresh.
+     */
+    void schedule(final URI id, final IdentifierDocument document, final long now) {
+
+        final long deadline = Validity.next(document, now);
+
+        if (deadline == Validity.UNBOUNDED) {
+            return;
+        }
+
+        // serialized with onRemoval, which runs after the document leaves the cache
+        timers.compute(id, (key, current) -> {
+
+            if (!cache.contains(id, document)) {
+                return current;
+            }
+            if (current != null) {
+                invalidations.cancel(current);
+            }
+            return invalidations.schedule(new Invalidation(id, document), deadline);
+        });
+    }
+
+    void onRemoval(final URI id, final Object value) {
+
+        if (!(value instanceof IdentifierDocument)) {
+            return;
+        }
+
+        timers.computeIfPresent(id, (key, timer) -> {
+            if (timer.value().document != value) {
+                return timer;
+            }
+            invalidations.cancel(timer);
+            return null;
+        });
+
+        if (keyIndex != null) {
+            keyIndex.remove((IdentifierDocument) value);
+        }
+        if (serviceIndex != null) {
+            serviceIndex.remove((IdentifierDocument) value);
+        }
+    }
+
+    static final class Invalidation {
+
+        final URI id;
+        final IdentifierDocument document;
+
+        Invalidation(final URI id, final IdentifierDocument document) {
+            this.id = id;
+            this.document = document;
+        }
+    }
+
+    static Function<IdentifierDocument, Duration> constant(final Duration ttl) {
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        return document -> ttl;
+    }
+
+    static long toNanos(final Duration duration) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            return 0;
+        }
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return BoundedCache.NO_EXPIRATION;
+        }
+    }
+}
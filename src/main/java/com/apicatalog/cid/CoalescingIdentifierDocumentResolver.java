@@ -0,0 +1,139 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * An {@link IdentifierDocumentResolver} decorator that coalesces concurrent
+ * resolutions of the same document.
+ *
+ * <p>
+ * Only one resolution per document identifier, with any fragment removed, is
+ * delegated at a time. Callers arriving while it is in flight wait for it and
+ * receive the same document, or the same exception. Nothing is retained once
+ * the resolution completes.
+ * </p>
+ *
+ * <p>
+ * A delegate resolving the same document again on the thread that leads its
+ * resolution, e.g. while following a controller chain back to the document,
+ * would wait for itself forever. Such a nested resolution fails with an
+ * {@link IllegalStateException} instead.
+ * </p>
+ *
+ * <p>
+ * Combined with {@link CachingIdentifierDocumentResolver}, the cache should be
+ * the outer decorator, so cache hits do not pass through this resolver while
+ * concurrent misses are collapsed into a single fetch.
+ * </p>
+ */
+public class CoalescingIdentifierDocumentResolver implements IdentifierDocumentResolver {
+
+    protected final IdentifierDocumentResolver resolver;
+
+    protected final ConcurrentMap<URI, CompletableFuture<IdentifierDocument>> inFlight;
+
+    /**
+     * Creates a coalescing resolver.
+     *
+     * @param resolver the resolver to delegate to (must not be {@code null})
+     * @throws NullPointerException if {@code resolver} is {@code null}
+     */
+    public CoalescingIdentifierDocumentResolver(final IdentifierDocumentResolver resolver) {
+        Objects.requireNonNull(resolver, "resolver must not be null");
+        this.resolver = resolver;
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return resolver.isAccepted(id);
+    }
+
+    @Override
+    public Collection<String> prefixes() {
+        return resolver.prefixes();
+    }
+
+    @Override
+    public IdentifierDocument resolve(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        final URI key = key(id);
+
+        final Flight flight = new Flight(Thread.currentThread());
+        final CompletableFuture<IdentifierDocument> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            if (existing instanceof Flight && ((Flight) existing).leader == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive resolution of " + key + " led by the current thread");
+            }
+            return await(existing);
+        }
+
+        try {
+            final IdentifierDocument document = resolver.resolve(key);
+            flight.complete(document);
+            return document;
+
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /** @return the number of resolutions currently in flight */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    static IdentifierDocument await(final CompletableFuture<IdentifierDocument> flight) {
+        try {
+            return flight.join();
+
+        } catch (CompletionException e) {
+            // re-throw the exception thrown by the leading caller
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    static URI key(final URI id) {
+        if (id.getRawFragment() == null) {
+            return id;
+        }
+        try {
+            return VerificationMethodResolver.documentUri(id);
+
+        } catch (VerificationMethodException e) {
+            throw new IllegalArgumentException("Invalid identifier: " + id, e);
+        }
+    }
+
+    /**
+     * A resolution in flight and the thread leading it.
+     */
+    static final class Flight extends CompletableFuture<IdentifierDocument> {
+
+        final Thread leader;
+
+        Flight(final Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
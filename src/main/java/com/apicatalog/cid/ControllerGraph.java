@@ -0,0 +1,193 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * A graph of identifier documents linked by {@link IdentifierDocument#controller()}
+ * and, optionally, {@link IdentifierDocument#alsoKnownAs()}, as resolved by a
+ * {@link ControllerGraphResolver}.
+ *
+ * <p>
+ * Nodes are document identifiers. A node is either resolved, see
+ * {@link #document(URI)}, or failed, see {@link #failures()}. Identifiers
+ * linked but not resolved because of the depth or the node limit are reported
+ * by {@link #truncated()}.
+ * </p>
+ */
+public final class ControllerGraph {
+
+    final URI root;
+
+    final Map<URI, IdentifierDocument> documents;
+    final Map<URI, Integer> depths;
+    final Map<URI, Set<URI>> links;
+    final Map<URI, Throwable> failures;
+    final Set<URI> truncated;
+
+    final boolean cyclic;
+
+    ControllerGraph(
+            final URI root,
+            final Map<URI, IdentifierDocument> documents,
+            final Map<URI, Integer> depths,
+            final Map<URI, Set<URI>> links,
+            final Map<URI, Throwable> failures) {
+        this.root = root;
+        this.documents = Collections.unmodifiableMap(documents);
+        this.depths = depths;
+        this.links = links;
+        this.failures = Collections.unmodifiableMap(failures);
+        this.truncated = Collections.unmodifiableSet(truncated(links, depths));
+        this.cyclic = isCyclic(links);
+    }
+
+    /** @return the identifier the graph was resolved from */
+    public URI root() {
+        return root;
+    }
+
+    /** @return the root document */
+    public IdentifierDocument rootDocument() {
+        return documents.get(root);
+    }
+
+    /**
+     * Returns a resolved document.
+     *
+     * @param id the document identifier
+     * @return the document, or {@code null} if not resolved
+     */
+    public IdentifierDocument document(final URI id) {
+        return documents.get(id);
+    }
+
+    /** @return all resolved documents by their identifiers */
+    public Map<URI, IdentifierDocument> documents() {
+        return documents;
+    }
+
+    /**
+     * Returns the length of the shortest path from the root to the given
+     * identifier.
+     *
+     * @param id the document identifier
+     * @return the depth, {@code 0} for the root, or {@code -1} if the identifier
+     *         has not been visited
+     */
+    public int depth(final URI id) {
+        final Integer depth = depths.get(id);
+        return depth != null ? depth : -1;
+    }
+
+    /**
+     * Returns the identifiers the given resolved document links to, without
+     * fragments, in document order.
+     *
+     * @param id the document identifier
+     * @return an unmodifiable set, empty if the document is not resolved
+     */
+    public Set<URI> links(final URI id) {
+        final Set<URI> targets = links.get(id);
+        return targets != null ? targets : Collections.emptySet();
+    }
+
+    /** @return the visited identifiers that could not be resolved and the causes */
+    public Map<URI, Throwable> failures() {
+        return failures;
+    }
+
+    /**
+     * Returns the identifiers linked from resolved documents but not visited
+     * because of the depth or the node limit.
+     *
+     * @return an unmodifiable set, empty if the graph is complete
+     */
+    public Set<URI> truncated() {
+        return truncated;
+    }
+
+    /** @return {@code true} if any linked identifier has not been visited */
+    public boolean isTruncated() {
+        return !truncated.isEmpty();
+    }
+
+    /**
+     * Checks whether the resolved documents link in a cycle. A document
+     * linking to itself, e.g. being its own controller, is not considered a
+     * cycle.
+     *
+     * @return {@code true} if there is a cycle
+     */
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    static Set<URI> truncated(final Map<URI, Set<URI>> links, final Map<URI, Integer> depths) {
+        final Set<URI> truncated = new LinkedHashSet<>();
+        for (final Set<URI> targets : links.values()) {
+            for (final URI target : targets) {
+                if (!depths.containsKey(target)) {
+                    truncated.add(target);
+                }
+            }
+        }
+        return truncated;
+    }
+
+    /**
+     * Removes nodes without incoming links until none is left, or a cycle
+     * remains.
+     */
+    static boolean isCyclic(final Map<URI, Set<URI>> links) {
+
+        final Map<URI, Integer> incoming = new HashMap<>(links.size() * 2);
+
+        for (final Map.Entry<URI, Set<URI>> node : links.entrySet()) {
+            incoming.putIfAbsent(node.getKey(), 0);
+            for (final URI target : node.getValue()) {
+                if (!target.equals(node.getKey()) && links.containsKey(target)) {
+                    incoming.merge(target, 1, Integer::sum);
+                }
+            }
+        }
+
+        final Deque<URI> free = new ArrayDeque<>();
+        for (final Map.Entry<URI, Integer> node : incoming.entrySet()) {
+            if (node.getValue() == 0) {
+                free.add(node.getKey());
+            }
+        }
+
+        int removed = 0;
+
+        while (!free.isEmpty()) {
+            final URI node = free.poll();
+            removed++;
+            for (final URI target : links.get(node)) {
+                if (!target.equals(node) && links.containsKey(target)
+                        && incoming.merge(target, -1, Integer::sum) == 0) {
+                    free.add(target);
+                }
+            }
+        }
+        return removed < incoming.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ControllerGraph[root=" + root
+                + ", documents=" + documents.size()
+                + ", failures=" + failures.size()
+                + ", truncated=" + truncated.size()
+                + ", cyclic=" + cyclic + "]";
+    }
+}
@@ -0,0 +1,353 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * Resolves the graph of documents reachable from an identifier through
+ * {@link IdentifierDocument#controller()} and, optionally,
+ * {@link IdentifierDocument#alsoKnownAs()}.
+ *
+ * <p>
+ * Linked documents are resolved in parallel, a document is followed as soon
+ * as it is resolved, so the latency of a graph is that of its longest chain
+ * rather than the sum of all resolutions. Each identifier, with any fragment
+ * removed, is resolved once per graph, so cycles terminate. The graph is
+ * bounded by a maximum depth, i.e. the number of links from the root, and a
+ * maximum number of visited identifiers. The depth of a document is its
+ * shortest distance from the root, regardless of the order in which
+ * resolutions complete.
+ * </p>
+ *
+ * <p>
+ * A failure to resolve a linked document is recorded in the graph, see
+ * {@link ControllerGraph#failures()}, only a failure to resolve the root fails
+ * the resolution. The resolver is safe for concurrent use.
+ * </p>
+ */
+public class ControllerGraphResolver {
+
+    /** The default maximum depth. */
+    public static final int DEFAULT_MAX_DEPTH = 8;
+
+    /** The default maximum number of visited identifiers. */
+    public static final int DEFAULT_MAX_NODES = 256;
+
+    protected final AsyncIdentifierDocumentResolver resolver;
+
+    protected final int maxDepth;
+
+    protected final int maxNodes;
+
+    protected final boolean alsoKnownAs;
+
+    /**
+     * Creates a resolver following {@code controller} links up to
+     * {@link #DEFAULT_MAX_DEPTH} and {@link #DEFAULT_MAX_NODES}.
+     *
+     * @param resolver the resolver to delegate to (must not be {@code null})
+     * @param executor the executor running resolutions (must not be
+     *                 {@code null})
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public ControllerGraphResolver(final IdentifierDocumentResolver resolver, final Executor executor) {
+        this(AsyncIdentifierDocumentResolver.of(resolver, executor), DEFAULT_MAX_DEPTH, DEFAULT_MAX_NODES, false);
+    }
+
+    /**
+     * Creates a resolver.
+     *
+     * @param resolver    the resolver to delegate to (must not be {@code null})
+     * @param maxDepth    the maximum number of links between the root and a
+     *                    resolved document, {@code 0} resolves the root only
+     * @param maxNodes    the maximum number of visited identifiers, including the
+     *                    root
+     * @param alsoKnownAs {@code true} to follow {@code alsoKnownAs} links too
+     * @throws NullPointerException     if {@code resolver} is {@code null}
+     * @throws IllegalArgumentException if {@code maxDepth} is negative or
+     *                                  {@code maxNodes} is not positive
+     */
+    public ControllerGraphResolver(
+            final AsyncIdentifierDocumentResolver resolver,
+            final int maxDepth,
+            final int maxNodes,
+            final boolean alsoKnownAs) {
+        Objects.requireNonNull(resolver, "resolver must not be null");
+
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative, but was " + maxDepth);
+        }
+        if (maxNodes <= 0) {
+            throw new IllegalArgumentException("maxNodes must be positive, but was " + maxNodes);
+        }
+
+        this.resolver = resolver;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.alsoKnownAs = alsoKnownAs;
+    }
+
+    /**
+     * Resolves the graph reachable from the given identifier.
+     *
+     * @param id the root identifier (must not be {@code null})
+     * @return a future completed with the graph, or completed exceptionally
+     *         with the cause if the root cannot be resolved
+     */
+    public CompletableFuture<ControllerGraph> resolveAsync(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        final URI root;
+        try {
+            root = CoalescingIdentifierDocumentResolver.key(id);
+
+        } catch (IllegalArgumentException e) {
+            final CompletableFuture<ControllerGraph> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        return new Traversal(root).start();
+    }
+
+    /**
+     * Resolves the graph reachable from the given identifier, blocking until
+     * all resolutions complete.
+     *
+     * @param id the root identifier (must not be {@code null})
+     * @return the graph
+     * @throws IllegalArgumentException if the root cannot be resolved
+     */
+    public ControllerGraph resolve(final URI id) {
+        try {
+            return resolveAsync(id).join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A single graph resolution.
+     */
+    final class Traversal {
+
+        final URI root;
+
+        final ConcurrentHashMap<URI, Node> nodes;
+
+        /** resolutions not finished yet */
+        final AtomicInteger pending;
+
+        /** admitted identifiers */
+        final AtomicInteger admitted;
+
+        final CompletableFuture<ControllerGraph> result;
+
+        Traversal(final URI root) {
+            this.root = root;
+            this.nodes = new ConcurrentHashMap<>();
+            this.pending = new AtomicInteger();
+            this.admitted = new AtomicInteger();
+            this.result = new CompletableFuture<>();
+        }
+
+        CompletableFuture<ControllerGraph> start() {
+            pending.incrementAndGet();
+            visit(root, 0);
+            done();
+            return result;
+        }
+
+        /**
+         * Admits a new identifier, or lowers the depth of a visited one,
+         * following its links again if they were cut by the depth limit.
+         */
+        void visit(final URI id, final int depth) {
+
+            Node node = nodes.get(id);
+
+            if (node == null) {
+                if (admitted.incrementAndGet() > maxNodes) {
+                    // the graph is full, the link is reported as truncated
+                    admitted.decrementAndGet();
+                    return;
+                }
+                final Node created = new Node(depth);
+                node = nodes.putIfAbsent(id, created);
+
+                if (node == null) {
+                    resolve(id, created);
+                    return;
+                }
+                admitted.decrementAndGet();
+            }
+
+            final Set<URI> links;
+
+            synchronized (node) {
+                if (depth >= node.depth) {
+                    return;
+                }
+                node.depth = depth;
+                links = node.links;
+            }
+
+            if (links != null) {
+                expand(links, depth);
+            }
+        }
+
+        void resolve(final URI id, final Node node) {
+
+            pending.incrementAndGet();
+
+            CompletableFuture<IdentifierDocument> future;
+            try {
+                future = resolver.resolveAsync(id);
+
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+
+            future.whenComplete((document, e) -> {
+                try {
+                    if (e != null) {
+                        node.failure = e instanceof CompletionException && e.getCause() != null
+                                ? e.getCause()
+                                : e;
+
+                    } else if (document == null) {
+                        node.failure = new IllegalArgumentException("Identifier " + id + " cannot be resolved");
+
+                    } else {
+                        final Set<URI> links = links(document);
+                        final int depth;
+                        synchronized (node) {
+                            node.document = document;
+                            node.links = links;
+                            depth = node.depth;
+                        }
+                        expand(links, depth);
+                    }
+
+                } catch (RuntimeException | Error failure) {
+                    node.failure = failure;
+
+                } finally {
+                    done();
+                }
+            });
+        }
+
+        void expand(final Set<URI> links, final int depth) {
+            if (depth < maxDepth) {
+                for (final URI link : links) {
+                    visit(link, depth + 1);
+                }
+            }
+        }
+
+        void done() {
+            if (pending.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        void complete() {
+
+            final Node rootNode = nodes.get(root);
+
+            if (rootNode.document == null) {
+                result.completeExceptionally(rootNode.failure);
+                return;
+            }
+
+            final Map<URI, IdentifierDocument> documents = new LinkedHashMap<>();
+            final Map<URI, Integer> depths = new LinkedHashMap<>();
+            final Map<URI, Set<URI>> links = new LinkedHashMap<>();
+            final Map<URI, Throwable> failures = new LinkedHashMap<>();
+
+            for (final Map.Entry<URI, Node> entry : nodes.entrySet()) {
+                final Node node = entry.getValue();
+                synchronized (node) {
+                    depths.put(entry.getKey(), node.depth);
+                    if (node.document != null) {
+                        documents.put(entry.getKey(), node.document);
+                        links.put(entry.getKey(), node.links);
+
+                    } else if (node.failure != null) {
+                        failures.put(entry.getKey(), node.failure);
+                    }
+                }
+            }
+
+            result.complete(new ControllerGraph(root, documents, depths, links, failures));
+        }
+    }
+
+    /**
+     * @return linked identifiers without fragments, in document order
+     */
+    Set<URI> links(final IdentifierDocument document) {
+
+        final Set<URI> links = new LinkedHashSet<>();
+
+        add(document.controller(), links);
+
+        if (alsoKnownAs) {
+            add(document.alsoKnownAs(), links);
+        }
+        return Collections.unmodifiableSet(links);
+    }
+
+    static void add(final Collection<URI> ids, final Set<URI> links) {
+        if (ids != null) {
+            for (final URI id : ids) {
+                if (id != null) {
+                    try {
+                        links.add(CoalescingIdentifierDocumentResolver.key(id));
+
+                    } catch (IllegalArgumentException e) {
+                        // not a resolvable identifier, ignored
+                    }
+                }
+            }
+        }
+    }
+
+    static final class Node {
+
+        /** the shortest known distance from the root */
+        int depth;
+
+        IdentifierDocument document;
+        Set<URI> links;
+
+        volatile Throwable failure;
+
+        Node(final int depth) {
+            this.depth = depth;
+        }
+    }
+}
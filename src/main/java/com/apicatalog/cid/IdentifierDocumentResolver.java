@@ -22,16 +22,7 @@ import com.apicatalog.cid.document.IdentifierDocument;
  * @see <a href="https://www.w3.org/TR/cid-1.0/">W3C Controlled Identifiers
  *      1.0</a>
  */
-public interface IdentifierDocumentResolver {
-
-    /**
-     * Checks whether this resolver accepts the given identifier.
-     *
-     * @param id the identifier to test (must not be {@code null})
-     * @return {@code true} if this resolver can resolve the identifier,
-     *         {@code false} otherwise
-     */
-    boolean isAccepted(URI id);
+public interface IdentifierDocumentResolver extends SelectableResolver {
 
     /**
      * Resolves the given identifier into a {@link IdentifierDocument}.
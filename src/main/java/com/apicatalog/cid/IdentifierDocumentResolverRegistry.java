@@ -0,0 +1,115 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * An {@link IdentifierDocumentResolver} routing each identifier to one of the
+ * registered resolvers.
+ *
+ * <p>
+ * The first registered resolver accepting an identifier is selected.
+ * Resolvers declaring {@link IdentifierDocumentResolver#prefixes() prefixes}
+ * are found through a lookup table built once, by DID method name, e.g.
+ * {@code did:web}, or by URI scheme, e.g. {@code https}. A declared prefix is
+ * authoritative, {@link IdentifierDocumentResolver#isAccepted(URI)} is not
+ * consulted. Resolvers declaring no prefixes are tested using
+ * {@link IdentifierDocumentResolver#isAccepted(URI)} when registered before
+ * the matching resolver, or when there is none.
+ * </p>
+ *
+ * <p>
+ * The cost of selecting a resolver with a declared prefix does not depend on
+ * the number of registered resolvers when resolvers declaring no prefixes are
+ * registered last.
+ * </p>
+ */
+public final class IdentifierDocumentResolverRegistry implements IdentifierDocumentResolver {
+
+    final Collection<IdentifierDocumentResolver> resolvers;
+    final ResolverDispatch<IdentifierDocumentResolver> dispatch;
+
+    IdentifierDocumentResolverRegistry(
+            final Collection<IdentifierDocumentResolver> resolvers,
+            final ResolverDispatch<IdentifierDocumentResolver> dispatch) {
+        this.resolvers = resolvers;
+        this.dispatch = dispatch;
+    }
+
+    /**
+     * Creates a registry of the given resolvers.
+     *
+     * @param resolvers the resolvers, in order of precedence (must not be
+     *                  {@code null})
+     * @return a new registry
+     * @throws NullPointerException     if {@code resolvers} is {@code null}
+     * @throws IllegalArgumentException if a resolver declares an invalid prefix
+     */
+    public static IdentifierDocumentResolverRegistry of(final Collection<IdentifierDocumentResolver> resolvers) {
+        Objects.requireNonNull(resolvers, "resolvers must not be null");
+        return new IdentifierDocumentResolverRegistry(
+                Collections.unmodifiableCollection(resolvers),
+                ResolverDispatch.of(
+                        resolvers,
+                        IdentifierDocumentResolver::prefixes,
+                        IdentifierDocumentResolver::isAccepted));
+    }
+
+    /**
+     * Finds a resolver for the given identifier.
+     *
+     * @param id the identifier (must not be {@code null})
+     * @return the selected resolver, or {@code null} if no resolver accepts the
+     *         identifier
+     */
+    public IdentifierDocumentResolver find(final URI id) {
+        return dispatch.find(id);
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return dispatch.find(id) != null;
+    }
+
+    @Override
+    public IdentifierDocument resolve(final URI id) {
+        final IdentifierDocumentResolver resolver = dispatch.find(id);
+        if (resolver == null) {
+            throw new IllegalArgumentException("No resolver accepted identifier: " + id);
+        }
+        return resolver.resolve(id);
+    }
+
+    /**
+     * Returns the prefix an identifier is routed by, i.e. a DID method, e.g.
+     * {@code did:web}, or a URI scheme.
+     *
+     * @param id the identifier (must not be {@code null})
+     * @return the prefix, or {@code null} if the identifier has no scheme
+     */
+    public static String prefix(final URI id) {
+        if (id.getScheme() == null) {
+            return null;
+        }
+
+        final String value = id.toString();
+        final int scheme = value.indexOf(':');
+
+        if (scheme == ResolverDispatch.DID_SCHEME.length() && value.regionMatches(true, 0, ResolverDispatch.DID_SCHEME, 0, scheme)) {
+            final int method = value.indexOf(':', scheme + 1);
+            if (method > scheme + 1) {
+                return value.substring(0, method);
+            }
+        }
+        return value.substring(0, scheme);
+    }
+
+    /** @return the registered resolvers, in order of precedence */
+    public Collection<IdentifierDocumentResolver> resolvers() {
+        return resolvers;
+    }
+}
@@ -0,0 +1,187 @@
+package com.apicatalog.cid;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.store.MappedDocumentStore;
+
+/**
+ * An {@link IdentifierDocumentResolver} decorator persisting resolved documents
+ * in a {@link MappedDocumentStore}, so that they survive a restart.
+ *
+ * <p>
+ * A document present in the store and not expired is decoded and returned,
+ * otherwise the wrapped resolver is called and its result is stored for a
+ * time-to-live computed per document. The store is a best effort tier, a
+ * document that cannot be read from or written to the store is resolved as if
+ * it was absent, see {@link #errorCount()}.
+ * </p>
+ *
+ * <p>
+ * Documents are decoded on every access, the resolver is meant to be wrapped
+ * by a {@link CachingIdentifierDocumentResolver} keeping hot documents in
+ * memory. It is safe for concurrent use.
+ * </p>
+ */
+public class PersistentIdentifierDocumentResolver implements IdentifierDocumentResolver {
+
+    protected final IdentifierDocumentResolver resolver;
+
+    protected final MappedDocumentStore store;
+
+    protected final Function<IdentifierDocument, Duration> ttl;
+
+    final LongAdder hits;
+    final LongAdder misses;
+    final LongAdder errors;
+
+    /**
+     * Creates a persistent resolver with a fixed time-to-live.
+     *
+     * @param resolver the resolver to delegate to (must not be {@code null})
+     * @param store    the store (must not be {@code null})
+     * @param ttl      how long a resolved document is kept (must not be
+     *                 {@code null})
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public PersistentIdentifierDocumentResolver(
+            final IdentifierDocumentResolver resolver,
+            final MappedDocumentStore store,
+            final Duration ttl) {
+        this(resolver, store, CachingIdentifierDocumentResolver.constant(ttl));
+    }
+
+    /**
+     * Creates a persistent resolver computing time-to-live for each resolved
+     * document.
+     *
+     * @param resolver the resolver to delegate to (must not be {@code null})
+     * @param store    the store (must not be {@code null})
+     * @param ttl      provides a time-to-live for a resolved document, a
+     *                 {@code null} or non-positive duration prevents the
+     *                 document from being stored (must not be {@code null})
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public PersistentIdentifierDocumentResolver(
+            final IdentifierDocumentResolver resolver,
+            final MappedDocumentStore store,
+            final Function<IdentifierDocument, Duration> ttl) {
+        Objects.requireNonNull(resolver, "resolver must not be null");
+        Objects.requireNonNull(store, "store must not be null");
+        Objects.requireNonNull(ttl, "ttl must not be null");
+
+        this.resolver = resolver;
+        this.store = store;
+        this.ttl = ttl;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.errors = new LongAdder();
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return resolver.isAccepted(id);
+    }
+
+    @Override
+    public Collection<String> prefixes() {
+        return resolver.prefixes();
+    }
+
+    /**
+     * Returns a stored document, or resolves and stores it if absent or expired.
+     *
+     * @param id the identifier to resolve (must not be {@code null})
+     * @return the resolved {@link IdentifierDocument}
+     * @throws IllegalArgumentException if the identifier cannot be resolved
+     */
+    @Override
+    public IdentifierDocument resolve(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        try {
+            final IdentifierDocument stored = store.get(id);
+            if (stored != null) {
+                hits.increment();
+                return stored;
+            }
+
+        } catch (IOException e) {
+            errors.increment();
+        }
+
+        misses.increment();
+
+        final IdentifierDocument document = resolver.resolve(id);
+
+        if (document != null) {
+            final Instant expires = expires(ttl.apply(document));
+            if (expires != null) {
+                try {
+                    store.put(id, document, expires);
+
+                } catch (IOException | RuntimeException e) {
+                    // e.g. a document the store cannot encode, served but not stored
+                    errors.increment();
+                }
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Removes a stored document, if present.
+     *
+     * @param id the identifier (must not be {@code null})
+     */
+    public void invalidate(final URI id) {
+        try {
+            store.remove(id);
+
+        } catch (IOException e) {
+            errors.increment();
+        }
+    }
+
+    /** @return the number of resolutions served from the store */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /** @return the number of resolutions delegated to the wrapped resolver */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of failed store reads and writes, including documents
+     *         that could not be encoded
+     */
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return the expiration time, {@link Instant#MAX} if the duration overflows,
+     *         or {@code null} if the document should not be stored
+     */
+    static Instant expires(final Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            return null;
+        }
+        try {
+            return Instant.now().plus(ttl);
+
+        } catch (ArithmeticException | DateTimeException e) {
+            return Instant.MAX;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+
+/**
+ * Receives notifications about verification method resolutions performed by a
+ * {@link VerificationMethodResolver}, e.g. to collect metrics.
+ *
+ * <p>
+ * Resolutions fetching a controller document are observed, i.e.
+ * {@link VerificationMethodResolver#resolve(URI, URI)},
+ * {@link VerificationMethodResolver#resolveAsync(URI, URI)}, and
+ * {@link VerificationMethodResolver#resolveAll(java.util.List)}. Each one
+ * reports the duration of its {@link Phase phases} and ends with exactly one
+ * outcome: {@link #onResolved(URI, long)},
+ * {@link #onFailed(URI, VerificationMethodException.Code, long)}, or
+ * {@link #onError(URI, RuntimeException, long)}.
+ * </p>
+ *
+ * <p>
+ * Implementations must be thread-safe, fast, and must not throw. All methods
+ * have empty default implementations. Durations are in nanoseconds and are
+ * measured only if a listener other than {@link #NOOP} is set.
+ * </p>
+ */
+public interface ResolutionListener {
+
+    /** A listener ignoring all notifications. */
+    ResolutionListener NOOP = new ResolutionListener() {
+    };
+
+    /** Phases of resolving a verification method. */
+    enum Phase {
+        /** Deriving the controller document URI from the method identifier. */
+        DOCUMENT_URI,
+        /** Selecting an {@link IdentifierDocumentResolver}. */
+        DISPATCH,
+        /** Fetching the controller document. */
+        FETCH,
+        /** Checking the controller document identifier. */
+        ID_CHECK,
+        /** Looking up the method within the verification relationship. */
+        RELATIONSHIP
+    }
+
+    /**
+     * Called when a phase completes successfully.
+     *
+     * @param phase       the completed phase
+     * @param documentUri the controller document URI
+     * @param nanos       the duration of the phase
+     */
+    default void onPhase(Phase phase, URI documentUri, long nanos) {
+    }
+
+    /**
+     * Called when a resolver has been selected to fetch a controller document.
+     *
+     * @param documentUri the controller document URI
+     * @param resolver    the selected resolver
+     */
+    default void onDispatch(URI documentUri, IdentifierDocumentResolver resolver) {
+    }
+
+    /**
+     * Called when a verification method has been resolved.
+     *
+     * @param methodId the verification method identifier
+     * @param nanos    the total duration of the resolution
+     */
+    default void onResolved(URI methodId, long nanos) {
+    }
+
+    /**
+     * Called when resolution fails with a {@link VerificationMethodException}.
+     *
+     * @param methodId the verification method identifier
+     * @param code     the error code
+     * @param nanos    the total duration of the resolution
+     */
+    default void onFailed(URI methodId, VerificationMethodException.Code code, long nanos) {
+    }
+
+    /**
+     * Called when resolution fails unexpectedly, typically when a resolver
+     * throws.
+     *
+     * @param methodId the verification method identifier
+     * @param error    the exception
+     * @param nanos    the total duration of the resolution
+     */
+    default void onError(URI methodId, RuntimeException error, long nanos) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Selects a resolver for an identifier using a prebuilt table of declared
+ * prefixes, falling back to a sequential acceptance test.
+ *
+ * <p>
+ * A prefix is either a URI scheme, e.g. {@code https}, or a DID method, e.g.
+ * {@code did:key}. The selected resolver is the one a sequential test in
+ * registration order would select, given that a resolver declaring a prefix
+ * accepts every identifier starting with it. Only resolvers declaring no
+ * prefixes registered before the first resolver declaring a matching prefix
+ * are tested, so registering them last keeps the selection a single table
+ * lookup. Lookups match regions of {@link URI#toString()} and do not allocate.
+ * </p>
+ *
+ * @param <T> the type of resolvers
+ */
+final class ResolverDispatch<T> {
+
+    static final String DID_SCHEME = "did";
+
+    final String[] keys;
+    final Object[] values;
+    /** registration positions of the resolvers in values */
+    final int[] positions;
+    final int mask;
+
+    final List<T> fallbacks;
+    /** registration positions of the fallbacks, ascending */
+    final int[] fallbackPositions;
+    final BiPredicate<T, URI> accepts;
+
+    ResolverDispatch(String[] keys, Object[] values, int[] positions, List<T> fallbacks, int[] fallbackPositions, BiPredicate<T, URI> accepts) {
+        this.keys = keys;
+        this.values = values;
+        this.positions = positions;
+        this.mask = keys.length - 1;
+        this.fallbacks = fallbacks;
+        this.fallbackPositions = fallbackPositions;
+        this.accepts = accepts;
+    }
+
+    static <T> ResolverDispatch<T> of(
+            final Collection<? extends T> resolvers,
+            final Function<T, Collection<String>> prefixes,
+            final BiPredicate<T, URI> accepts) {
+
+        final List<String> declared = new ArrayList<>();
+        final List<T> owners = new ArrayList<>();
+        final List<Integer> ownerPositions = new ArrayList<>();
+        final List<T> fallbacks = new ArrayList<>();
+        final List<Integer> fallbackPositions = new ArrayList<>();
+
+        int position = 0;
+
+        for (final T resolver : resolvers) {
+
+            final Collection<String> resolverPrefixes = prefixes.apply(resolver);
+
+            if (resolverPrefixes == null || resolverPrefixes.isEmpty()) {
+                fallbacks.add(resolver);
+                fallbackPositions.add(position++);
+                continue;
+            }
+
+            for (final String prefix : resolverPrefixes) {
+                final String key = normalize(prefix);
+                if (!declared.contains(key)) {
+                    declared.add(key);
+                    owners.add(resolver);
+                    ownerPositions.add(position);
+                }
+            }
+            position++;
+        }
+
+        int capacity = 2;
+        while (capacity < declared.size() * 2) {
+            capacity <<= 1;
+        }
+
+        final String[] keys = new String[capacity];
+        final Object[] values = new Object[capacity];
+        final int[] positions = new int[capacity];
+
+        for (int i = 0; i < declared.size(); i++) {
+            final String key = declared.get(i);
+            int slot = hash(key, key.length()) & (capacity - 1);
+            while (keys[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = key;
+            values[slot] = owners.get(i);
+            positions[slot] = ownerPositions.get(i);
+        }
+
+        final int[] fallbackOrder = new int[fallbackPositions.size()];
+        for (int i = 0; i < fallbackOrder.length; i++) {
+            fallbackOrder[i] = fallbackPositions.get(i);
+        }
+
+        return new ResolverDispatch<>(keys, values, positions, fallbacks, fallbackOrder, accepts);
+    }
+
+    /**
+     * Returns a resolver for the given identifier.
+     *
+     * @param id the identifier
+     * @return a resolver, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    T find(final URI id) {
+
+        final String value = id.toString();
+        final int scheme = value.indexOf(':');
+
+        int slot = -1;
+
+        if (scheme > 0) {
+            if (scheme == DID_SCHEME.length() && value.regionMatches(true, 0, DID_SCHEME, 0, scheme)) {
+                final int method = value.indexOf(':', scheme + 1);
+                if (method > scheme + 1) {
+                    slot = slot(value, method);
+                }
+            }
+            final int schemeSlot = slot(value, scheme);
+            if (schemeSlot != -1 && (slot == -1 || positions[schemeSlot] < positions[slot])) {
+                slot = schemeSlot;
+            }
+        }
+
+        // resolvers declaring no prefixes registered before the selected one
+        final int position = slot != -1 ? positions[slot] : Integer.MAX_VALUE;
+
+        for (int i = 0; i < fallbackPositions.length && fallbackPositions[i] < position; i++) {
+            final T resolver = fallbacks.get(i);
+            if (accepts.test(resolver, id)) {
+                return resolver;
+            }
+        }
+
+        return slot != -1 ? (T) values[slot] : null;
+    }
+
+    /**
+     * Returns the slot of a resolver declaring the prefix
+     * {@code value[0, length)}, or {@code -1}.
+     */
+    int slot(final String value, final int length) {
+        int slot = hash(value, length) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.length() == length && key.regionMatches(true, 0, value, 0, length)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    static int hash(final String value, final int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + Character.toLowerCase(value.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    static String normalize(final String prefix) {
+        if (prefix == null
+                || prefix.isEmpty()
+                || prefix.indexOf(':') == 0
+                || prefix.endsWith(":")
+                || prefix.indexOf(':') != prefix.lastIndexOf(':')
+                || (prefix.indexOf(':') > 0 && !prefix.regionMatches(true, 0, DID_SCHEME + ":", 0, DID_SCHEME.length() + 1))) {
+            throw new IllegalArgumentException("Invalid prefix [" + prefix + "], expected a URI scheme or a DID method, e.g. did:key");
+        }
+        return prefix.toLowerCase(Locale.ROOT);
+    }
+}
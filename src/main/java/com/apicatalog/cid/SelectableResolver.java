@@ -0,0 +1,40 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Selection of a resolver for an identifier, shared by
+ * {@link IdentifierDocumentResolver} and
+ * {@link AsyncIdentifierDocumentResolver} so that a resolver implementing both
+ * inherits a single {@link #prefixes()} default.
+ */
+public interface SelectableResolver {
+
+    /**
+     * Checks whether this resolver accepts the given identifier.
+     *
+     * @param id the identifier to test (must not be {@code null})
+     * @return {@code true} if this resolver can resolve the identifier,
+     *         {@code false} otherwise
+     */
+    boolean isAccepted(URI id);
+
+    /**
+     * Returns identifier prefixes this resolver handles, allowing it to be
+     * selected without calling {@link #isAccepted(URI)}.
+     *
+     * <p>
+     * A prefix is either a URI scheme, e.g. {@code https}, or a DID method, e.g.
+     * {@code did:key}. A resolver declaring a prefix must accept every
+     * identifier starting with it.
+     * </p>
+     *
+     * @return a collection of prefixes, or an empty collection if the resolver
+     *         relies on {@link #isAccepted(URI)} only
+     */
+    default Collection<String> prefixes() {
+        return Collections.emptySet();
+    }
+}
@@ -7,6 +7,12 @@ package com.apicatalog.cid;
  * The {@link Code} enum indicates the reason for failure, allowing callers to
  * branch on error conditions.
  * </p>
+ *
+ * <p>
+ * An exception can be created without a stack trace, see
+ * {@link #VerificationMethodException(Code, String, Throwable, boolean)},
+ * which makes it considerably cheaper when failures are frequent and expected.
+ * </p>
  */
 public class VerificationMethodException extends Exception {
 
@@ -18,7 +24,9 @@ public class VerificationMethodException extends Exception {
         INVALID_VERIFICATION_METHOD,
         INVALID_CONTROLLER_DOCUMENT,
         INVALID_CONTROLLER_DOCUMENT_ID,
-        INVALID_METHOD_ID
+        INVALID_METHOD_ID,
+        REVOKED_VERIFICATION_METHOD,
+        EXPIRED_VERIFICATION_METHOD
     }
 
     private final Code code;
@@ -33,6 +41,19 @@ public class VerificationMethodException extends Exception {
         this.code = code;
     }
 
+    /**
+     * Creates a new exception, optionally without a stack trace.
+     *
+     * @param code               the error code
+     * @param message            the detail message
+     * @param cause              the cause, or {@code null}
+     * @param writableStackTrace {@code false} to create a stackless exception
+     */
+    public VerificationMethodException(Code code, String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+        this.code = code;
+    }
+
     /** @return the error code indicating why resolution failed */
     public Code getCode() {
         return code;
@@ -0,0 +1,69 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * A request to resolve a verification method identified by {@link #methodId()}
+ * for the verification relationship {@link #relation()}.
+ *
+ * @see VerificationMethodResolver#resolveAll(java.util.List)
+ */
+public final class VerificationMethodQuery {
+
+    final URI methodId;
+    final URI relation;
+
+    VerificationMethodQuery(final URI methodId, final URI relation) {
+        this.methodId = methodId;
+        this.relation = relation;
+    }
+
+    /**
+     * Creates a new query.
+     *
+     * @param methodId the verification method identifier (must not be
+     *                 {@code null})
+     * @param relation the verification relationship IRI (must not be
+     *                 {@code null})
+     * @return a new immutable query
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public static VerificationMethodQuery of(final URI methodId, final URI relation) {
+        Objects.requireNonNull(methodId, "methodId must not be null");
+        Objects.requireNonNull(relation, "relation must not be null");
+        return new VerificationMethodQuery(methodId, relation);
+    }
+
+    /** @return the verification method identifier */
+    public URI methodId() {
+        return methodId;
+    }
+
+    /** @return the verification relationship IRI */
+    public URI relation() {
+        return relation;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * methodId.hashCode() + relation.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VerificationMethodQuery)) {
+            return false;
+        }
+        final VerificationMethodQuery other = (VerificationMethodQuery) obj;
+        return methodId.equals(other.methodId) && relation.equals(other.relation);
+    }
+
+    @Override
+    public String toString() {
+        return "VerificationMethodQuery [methodId=" + methodId + ", relation=" + relation + "]";
+    }
+}
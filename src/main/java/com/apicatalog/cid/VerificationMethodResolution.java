@@ -0,0 +1,271 @@
+package com.apicatalog.cid;
+
+import java.net.URI;
+import java.util.Objects;
+
+import com.apicatalog.cid.datatype.Identifier;
+import com.apicatalog.cid.document.VerificationMethod;
+
+/**
+ * The outcome of resolving a verification method, holding either the resolved
+ * {@link VerificationMethod} or an error {@link VerificationMethodException.Code
+ * code} describing why resolution failed.
+ *
+ * <p>
+ * A failed resolution is lightweight, the detail message is formatted and an
+ * exception is created only when requested, see {@link #detail()} and
+ * {@link #exception()}. This makes rejecting invalid input about as cheap as
+ * resolving valid input.
+ * </p>
+ *
+ * @see VerificationMethodResolver#tryResolve(URI, URI)
+ */
+public final class VerificationMethodResolution {
+
+    /**
+     * Reasons of failure, each one bound to an error code and a message
+     * followed by the given number of values.
+     */
+    enum Reason {
+
+        INVALID_METHOD_ID(
+                VerificationMethodException.Code.INVALID_METHOD_ID,
+                0, "Invalid methodId, failed to derive controller document URI"),
+
+        NO_RESOLVER(
+                VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT,
+                1, "No resolver accepted controller document: "),
+
+        FETCH_FAILED(
+                VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT,
+                1, "Failed to resolve controller document: "),
+
+        DOCUMENT_ID_MISMATCH(
+                VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT_ID,
+                2, "Controller document id mismatch, expected ", " but got "),
+
+        UNSUPPORTED_RELATIONSHIP(
+                VerificationMethodException.Code.INVALID_RELATIONSHIP_FOR_VERIFICATION_METHOD,
+                1, "Unsupported verification relationship: "),
+
+        NO_METHODS(
+                VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
+                1, "No verification methods for relation: "),
+
+        NOT_FOUND(
+                VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
+                1, "Verification method not found: "),
+
+        CONTROLLER_MISMATCH(
+                VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
+                2, "Verification method controller mismatch, expected ", " but got "),
+
+        REVOKED(
+                VerificationMethodException.Code.REVOKED_VERIFICATION_METHOD,
+                1, "Verification method has been revoked: "),
+
+        EXPIRED(
+                VerificationMethodException.Code.EXPIRED_VERIFICATION_METHOD,
+                1, "Verification method has expired: ");
+
+        final VerificationMethodException.Code code;
+        final String message;
+        final String infix;
+        final int arity;
+
+        /**
+         * @param arity {@code 0} for the message only, {@code 1} to append the
+         *              expected value
+         */
+        Reason(VerificationMethodException.Code code, int arity, String message) {
+            this(code, arity, message, null);
+        }
+
+        /**
+         * @param arity {@code 2} to append the expected and the actual value
+         *              separated by {@code infix}
+         */
+        Reason(VerificationMethodException.Code code, int arity, String message, String infix) {
+            this.code = code;
+            this.message = message;
+            this.infix = infix;
+            this.arity = arity;
+        }
+
+        String format(final Object expected, final Object actual) {
+            if (arity == 0) {
+                return message;
+            }
+            final StringBuilder builder = new StringBuilder(message).append(expected);
+            if (arity == 2) {
+                builder.append(infix).append(actual);
+            }
+            return builder.toString();
+        }
+
+        VerificationMethodException exception(final Object expected, final Object actual) {
+            return new VerificationMethodException(code, format(expected, actual));
+        }
+    }
+
+    final Identifier methodId;
+    final URI relation;
+    final VerificationMethod method;
+
+    final Reason reason;
+    final Object expected;
+    final Object actual;
+    final Throwable cause;
+
+    VerificationMethodResolution(
+            final Identifier methodId,
+            final URI relation,
+            final VerificationMethod method,
+            final Reason reason,
+            final Object expected,
+            final Object actual,
+            final Throwable cause) {
+        this.methodId = methodId;
+        this.relation = relation;
+        this.method = method;
+        this.reason = reason;
+        this.expected = expected;
+        this.actual = actual;
+        this.cause = cause;
+    }
+
+    static VerificationMethodResolution resolved(final Identifier methodId, final URI relation, final VerificationMethod method) {
+        return new VerificationMethodResolution(methodId, relation, Objects.requireNonNull(method), null, null, null, null);
+    }
+
+    static VerificationMethodResolution failed(final Identifier methodId, final URI relation, final Reason reason, final Object expected) {
+        return new VerificationMethodResolution(methodId, relation, null, reason, expected, null, null);
+    }
+
+    static VerificationMethodResolution failed(final Identifier methodId, final URI relation, final Reason reason, final Object expected, final Object actual) {
+        return new VerificationMethodResolution(methodId, relation, null, reason, expected, actual, null);
+    }
+
+    static VerificationMethodResolution failed(final Identifier methodId, final URI relation, final Reason reason, final Object expected, final Throwable cause) {
+        return new VerificationMethodResolution(methodId, relation, null, reason, expected, null, cause);
+    }
+
+    /**
+     * Returns the verification method identifier.
+     *
+     * @return the identifier, or {@code null} if the identifier is not a valid
+     *         URI
+     */
+    public URI methodId() {
+        if (methodId == null) {
+            return null;
+        }
+        try {
+            return methodId.uri();
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** @return the verification method identifier */
+    public Identifier identifier() {
+        return methodId;
+    }
+
+    /**
+     * Returns the verification relationship the method has been resolved for.
+     *
+     * @return the relationship IRI, or {@code null} if not constrained by a
+     *         relationship
+     */
+    public URI relation() {
+        return relation;
+    }
+
+    /** @return {@code true} if a verification method has been resolved */
+    public boolean isResolved() {
+        return reason == null;
+    }
+
+    /**
+     * Returns the resolved verification method.
+     *
+     * @return the verification method, or {@code null} if resolution failed
+     */
+    public VerificationMethod method() {
+        return method;
+    }
+
+    /**
+     * Returns the error code of a failed resolution.
+     *
+     * @return the error code, or {@code null} if resolution succeeded
+     */
+    public VerificationMethodException.Code code() {
+        return reason != null ? reason.code : null;
+    }
+
+    /**
+     * Returns a human readable description of the failure, formatted on each
+     * call.
+     *
+     * @return the detail message, or {@code null} if resolution succeeded
+     */
+    public String detail() {
+        return reason != null ? reason.format(expected, actual) : null;
+    }
+
+    /**
+     * Returns the exception that caused the failure, e.g. thrown by an
+     * {@link IdentifierDocumentResolver}.
+     *
+     * @return the cause, or {@code null}
+     */
+    public Throwable cause() {
+        return cause;
+    }
+
+    /**
+     * Creates an exception describing the failure.
+     *
+     * @return a new exception, or {@code null} if resolution succeeded
+     */
+    public VerificationMethodException exception() {
+        return exception(false);
+    }
+
+    /**
+     * Creates an exception describing the failure, optionally without a stack
+     * trace.
+     *
+     * @param stackless {@code true} to skip filling in the stack trace
+     * @return a new exception, or {@code null} if resolution succeeded
+     */
+    public VerificationMethodException exception(final boolean stackless) {
+        if (reason == null) {
+            return null;
+        }
+        return new VerificationMethodException(reason.code, detail(), cause, !stackless);
+    }
+
+    /**
+     * Returns the resolved verification method or throws the failure.
+     *
+     * @return the resolved verification method
+     * @throws VerificationMethodException if resolution failed
+     */
+    public VerificationMethod get() throws VerificationMethodException {
+        if (reason != null) {
+            throw exception();
+        }
+        return method;
+    }
+
+    @Override
+    public String toString() {
+        return reason == null
+                ? "VerificationMethodResolution [methodId=" + methodId + ", resolved]"
+                : "VerificationMethodResolution [methodId=" + methodId + ", code=" + reason.code + ", detail=" + detail() + "]";
+    }
+}
@@ -1,16 +1,30 @@
 package com.apicatalog.cid;
 
 import java.net.URI;
-import java.net.URISyntaxException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import com.apicatalog.cid.VerificationMethodResolution.Reason;
+import com.apicatalog.cid.datatype.Identifier;
 import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.IndexedIdentifierDocument;
+import com.apicatalog.cid.document.Validity;
 import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.document.VerificationRelationship;
 
 /**
  * Resolves a {@link VerificationMethod} referenced from an
@@ -27,6 +41,20 @@ import com.apicatalog.cid.document.VerificationMethod;
  * <li><code>https://w3id.org/security#capabilityInvocationMethod</code></li>
  * <li><code>https://w3id.org/security#capabilityDelegationMethod</code></li>
  * </ul>
+ *
+ * <p>
+ * A method revoked or expired at the time of resolution, see {@link Validity},
+ * is rejected with the {@code REVOKED_VERIFICATION_METHOD} or
+ * {@code EXPIRED_VERIFICATION_METHOD} code. The validity of a method of an
+ * {@link IndexedIdentifierDocument} is checked using precomputed epoch values.
+ * </p>
+ *
+ * <p>
+ * A relationship entry holding the method identifier only, see
+ * {@link VerificationMethod#isReference()}, resolves to the method declared in
+ * {@link IdentifierDocument#verification()}. An
+ * {@link IndexedIdentifierDocument} dereferences entries once, when indexed.
+ * </p>
  */
 public class VerificationMethodResolver {
 
@@ -35,58 +63,201 @@ public class VerificationMethodResolver {
 
     static {
         RELS = new HashMap<>();
-        RELS.put(URI.create("https://w3id.org/security#authentication"),
-                IdentifierDocument::authentication);
-        RELS.put(URI.create("https://w3id.org/security#assertionMethod"),
-                IdentifierDocument::assertion);
-        RELS.put(URI.create("https://w3id.org/security#keyAgreementMethod"),
-                IdentifierDocument::keyAgreement);
-        RELS.put(URI.create("https://w3id.org/security#capabilityInvocationMethod"),
-                IdentifierDocument::capabilityInvocation);
-        RELS.put(URI.create("https://w3id.org/security#capabilityDelegationMethod"),
-                IdentifierDocument::capabilityDelegation);
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            RELS.put(relationship.uri(), relationship::methods);
+        }
     }
 
     protected final Collection<IdentifierDocumentResolver> resolvers;
 
+    protected final Collection<AsyncIdentifierDocumentResolver> asyncResolvers;
+
+    protected final IdentifierDocumentResolverRegistry registry;
+
+    final ResolverDispatch<AsyncIdentifierDocumentResolver> asyncDispatch;
+
+    protected final ResolutionListener listener;
+
+    /** provides the time a resolved method must be valid at */
+    protected final Clock clock;
+
     /**
      * Creates a resolver that can delegate to the given
      * {@link IdentifierDocumentResolver}s when a controller document must be
      * fetched.
      *
+     * <p>
+     * Asynchronous resolution, see {@link #resolveAsync(URI, URI)} and
+     * {@link #resolveAll(List)}, runs resolvers not implementing
+     * {@link AsyncIdentifierDocumentResolver} on the calling thread, blocking
+     * it and fetching documents one by one. Use
+     * {@link #VerificationMethodResolver(Collection, Executor)} to run them on
+     * an executor instead.
+     * </p>
+     *
      * @param resolvers non-empty collection of resolvers
      * @throws NullPointerException     if {@code resolvers} is {@code null}
-     * @throws IllegalArgumentException if {@code resolvers} is empty
+     * @throws IllegalArgumentException if {@code resolvers} is empty or a
+     *                                  resolver declares an invalid prefix
      */
     public VerificationMethodResolver(final Collection<IdentifierDocumentResolver> resolvers) {
+        this(resolvers, Runnable::run);
+    }
+
+    /**
+     * Creates a resolver that can delegate to the given
+     * {@link IdentifierDocumentResolver}s when a controller document must be
+     * fetched.
+     *
+     * <p>
+     * Resolvers implementing {@link AsyncIdentifierDocumentResolver} are used
+     * as-is by {@link #resolveAsync(URI, URI)}, others are adapted to run on the
+     * given {@code executor}.
+     * </p>
+     *
+     * @param resolvers non-empty collection of resolvers
+     * @param executor  runs blocking resolutions requested asynchronously
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code resolvers} is empty or a
+     *                                  resolver declares an invalid prefix
+     */
+    public VerificationMethodResolver(final Collection<IdentifierDocumentResolver> resolvers, final Executor executor) {
+        this(resolvers, executor, ResolutionListener.NOOP);
+    }
+
+    /**
+     * Creates a resolver that delegates to the given
+     * {@link AsyncIdentifierDocumentResolver}s when a controller document must
+     * be fetched.
+     *
+     * <p>
+     * Blocking resolution, e.g. {@link #resolve(URI, URI)}, waits for the
+     * asynchronous resolver on the calling thread.
+     * </p>
+     *
+     * @param resolvers non-empty collection of resolvers
+     * @param listener  receives resolution phases and outcomes, use
+     *                  {@link ResolutionListener#NOOP} to disable
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code resolvers} is empty or a
+     *                                  resolver declares an invalid prefix
+     */
+    public VerificationMethodResolver(final Collection<AsyncIdentifierDocumentResolver> resolvers, final ResolutionListener listener) {
+        this(resolvers, listener, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a resolver that delegates to the given
+     * {@link AsyncIdentifierDocumentResolver}s when a controller document must
+     * be fetched, rejecting methods revoked or expired at the time provided by
+     * the given {@code clock}.
+     *
+     * <p>
+     * Blocking resolution, e.g. {@link #resolve(URI, URI)}, waits for the
+     * asynchronous resolver on the calling thread.
+     * </p>
+     *
+     * @param resolvers non-empty collection of resolvers
+     * @param listener  receives resolution phases and outcomes, use
+     *                  {@link ResolutionListener#NOOP} to disable
+     * @param clock     provides the current time
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code resolvers} is empty or a
+     *                                  resolver declares an invalid prefix
+     */
+    public VerificationMethodResolver(final Collection<AsyncIdentifierDocumentResolver> resolvers, final ResolutionListener listener, final Clock clock) {
+        // all adapted resolvers are asynchronous, the executor is never used
+        this(blocking(resolvers), Runnable::run, listener, clock);
+    }
+
+    /**
+     * Creates a resolver that can delegate to the given
+     * {@link IdentifierDocumentResolver}s when a controller document must be
+     * fetched, reporting resolutions to the given {@code listener}.
+     *
+     * @param resolvers non-empty collection of resolvers
+     * @param executor  runs blocking resolutions requested asynchronously
+     * @param listener  receives resolution phases and outcomes, use
+     *                  {@link ResolutionListener#NOOP} to disable
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code resolvers} is empty or a
+     *                                  resolver declares an invalid prefix
+     */
+    public VerificationMethodResolver(final Collection<IdentifierDocumentResolver> resolvers, final Executor executor, final ResolutionListener listener) {
+        this(resolvers, executor, listener, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a resolver that can delegate to the given
+     * {@link IdentifierDocumentResolver}s when a controller document must be
+     * fetched, reporting resolutions to the given {@code listener} and
+     * rejecting methods revoked or expired at the time provided by the given
+     * {@code clock}.
+     *
+     * @param resolvers non-empty collection of resolvers
+     * @param executor  runs blocking resolutions requested asynchronously
+     * @param listener  receives resolution phases and outcomes, use
+     *                  {@link ResolutionListener#NOOP} to disable
+     * @param clock     provides the current time
+     * @throws NullPointerException     if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code resolvers} is empty or a
+     *                                  resolver declares an invalid prefix
+     */
+    public VerificationMethodResolver(final Collection<IdentifierDocumentResolver> resolvers, final Executor executor, final ResolutionListener listener, final Clock clock) {
         Objects.requireNonNull(resolvers, "resolvers must not be null");
+        Objects.requireNonNull(executor, "executor must not be null");
+        Objects.requireNonNull(listener, "listener must not be null");
+        Objects.requireNonNull(clock, "clock must not be null");
         if (resolvers.isEmpty()) {
             throw new IllegalArgumentException("resolvers must not be empty");
         }
         this.resolvers = resolvers;
-    }
-
-    public VerificationMethod resolve(final URI methodId, final Set<VerificationMethod> methods, final IdentifierDocument document) throws VerificationMethodException {
-        final VerificationMethod method = methods.stream()
-                .filter(m -> methodId.equals(m.id()))
-                .findFirst()
-                .orElseThrow(() -> new VerificationMethodException(
-                        VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
-                        "Verification method not found: " + methodId));
 
-        if (!document.id().equals(method.controller())) {
-            throw new VerificationMethodException(
-                    VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
-                    "Verification method controller mismatch, expected " + document.id() + " but got " + method.controller());
+        final Collection<AsyncIdentifierDocumentResolver> async = new ArrayList<>(resolvers.size());
+        for (final IdentifierDocumentResolver resolver : resolvers) {
+            async.add(AsyncIdentifierDocumentResolver.of(resolver, executor));
         }
+        this.asyncResolvers = Collections.unmodifiableCollection(async);
 
-        return method;
+        this.registry = IdentifierDocumentResolverRegistry.of(resolvers);
+        this.asyncDispatch = ResolverDispatch.of(
+                asyncResolvers,
+                AsyncIdentifierDocumentResolver::prefixes,
+                AsyncIdentifierDocumentResolver::isAccepted);
+
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    /**
+     * Resolves a verification method by {@code methodId} within the supplied
+     * set of {@code methods} of the {@code document}.
+     *
+     * @param methodId the verification method identifier
+     * @param methods  the verification methods to search
+     * @param document the controller document that lists the methods
+     * @return the matching {@link VerificationMethod}
+     * @throws VerificationMethodException with {@code INVALID_VERIFICATION_METHOD}
+     *                                     code if the method is not found or is
+     *                                     not controlled by the document, or
+     *                                     with {@code REVOKED_VERIFICATION_METHOD}
+     *                                     or {@code EXPIRED_VERIFICATION_METHOD}
+     *                                     code if the method is no longer valid
+     */
+    public VerificationMethod resolve(final URI methodId, final Set<VerificationMethod> methods, final IdentifierDocument document) throws VerificationMethodException {
+        final Identifier id = Identifier.of(methodId);
+        return validate(select(id, null, find(id, methods), document), document, clock.millis()).get();
     }
 
     /**
      * Resolves a verification method by {@code methodId} within the supplied
      * {@code document}, constrained by the verification {@code relation}.
      *
+     * <p>
+     * If the document is an {@link IndexedIdentifierDocument} the method is
+     * looked up in constant time using its index.
+     * </p>
+     *
      * @param methodId the verification method identifier (must not be {@code null})
      * @param relation the verification relationship IRI (must not be {@code null})
      * @param document the controller document that lists the method (must not be
@@ -97,40 +268,72 @@ public class VerificationMethodResolver {
      *                                     <ul>
      *                                     <li>{@code INVALID_RELATIONSHIP_FOR_VERIFICATION_METHOD}</li>
      *                                     <li>{@code INVALID_VERIFICATION_METHOD}</li>
+     *                                     <li>{@code REVOKED_VERIFICATION_METHOD}</li>
+     *                                     <li>{@code EXPIRED_VERIFICATION_METHOD}</li>
      *                                     </ul>
      * @throws NullPointerException        if any argument is {@code null}
      */
     public VerificationMethod resolve(final URI methodId, final URI relation, final IdentifierDocument document) throws VerificationMethodException {
+        return tryResolve(methodId, relation, document).get();
+    }
+
+    /**
+     * Resolves a verification method by {@code methodId} within the supplied
+     * {@code document}, constrained by the verification {@code relation},
+     * without throwing {@link VerificationMethodException}.
+     *
+     * @param methodId the verification method identifier (must not be {@code null})
+     * @param relation the verification relationship IRI (must not be {@code null})
+     * @param document the controller document that lists the method (must not be
+     *                 {@code null})
+     * @return the resolution holding either the matching
+     *         {@link VerificationMethod} or the error code as listed by
+     *         {@link #resolve(URI, URI, IdentifierDocument)}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public VerificationMethodResolution tryResolve(final URI methodId, final URI relation, final IdentifierDocument document) {
 
         Objects.requireNonNull(methodId, "methodId must not be null");
         Objects.requireNonNull(relation, "relation must not be null");
         Objects.requireNonNull(document, "document must not be null");
         Objects.requireNonNull(document.id(), "document.id() must not be null");
 
-        final Function<IdentifierDocument, Set<VerificationMethod>> methodProvider = RELS.get(relation);
+        return lookup(Identifier.of(methodId), relation, VerificationRelationship.of(relation), document, clock.millis());
+    }
 
-        if (methodProvider == null) {
-            throw new VerificationMethodException(
-                    VerificationMethodException.Code.INVALID_RELATIONSHIP_FOR_VERIFICATION_METHOD,
-                    "Unsupported verification relationship: " + relation);
-        }
+    /**
+     * Resolves a verification method by {@code methodId} within the supplied
+     * {@code document}, constrained by the verification {@code relationship},
+     * without throwing {@link VerificationMethodException}.
+     *
+     * @param methodId     the verification method identifier (must not be
+     *                     {@code null})
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @param document     the controller document that lists the method (must
+     *                     not be {@code null})
+     * @return the resolution holding either the matching
+     *         {@link VerificationMethod} or the error code as listed by
+     *         {@link #resolve(URI, URI, IdentifierDocument)}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public VerificationMethodResolution tryResolve(final Identifier methodId, final VerificationRelationship relationship, final IdentifierDocument document) {
 
-        final Set<VerificationMethod> methods = methodProvider.apply(document);
-        if (methods == null || methods.isEmpty()) {
-            throw new VerificationMethodException(
-                    VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
-                    "No verification methods for relation: " + relation);
-        }
+        Objects.requireNonNull(methodId, "methodId must not be null");
+        Objects.requireNonNull(relationship, "relationship must not be null");
+        Objects.requireNonNull(document, "document must not be null");
+        Objects.requireNonNull(document.id(), "document.id() must not be null");
 
-        return resolve(methodId, methods, document);
+        return lookup(methodId, relationship.uri(), relationship, document, clock.millis());
     }
 
     /**
      * Resolves a verification method by {@code methodId} and {@code relation},
-     * fetching the controller document using the first
-     * {@link IdentifierDocumentResolver} that
-     * {@link IdentifierDocumentResolver#isAccepted(URI) accepts} the derived
-     * document URI.
+     * fetching the controller document using the first registered
+     * {@link IdentifierDocumentResolver} declaring a matching
+     * {@link IdentifierDocumentResolver#prefixes() prefix} or
+     * {@link IdentifierDocumentResolver#isAccepted(URI) accepting} the derived
+     * document URI, see {@link IdentifierDocumentResolverRegistry}.
      *
      * <p>
      * The document URI is derived from {@code methodId} by removing its fragment.
@@ -149,40 +352,679 @@ public class VerificationMethodResolver {
      *                                     <li>{@code INVALID_CONTROLLER_DOCUMENT_ID}</li>
      *                                     <li>{@code INVALID_RELATIONSHIP_FOR_VERIFICATION_METHOD}</li>
      *                                     <li>{@code INVALID_VERIFICATION_METHOD}</li>
+     *                                     <li>{@code REVOKED_VERIFICATION_METHOD}</li>
+     *                                     <li>{@code EXPIRED_VERIFICATION_METHOD}</li>
      *                                     </ul>
      * @throws NullPointerException        if any argument is {@code null}
      */
     public VerificationMethod resolve(final URI methodId, final URI relation) throws VerificationMethodException {
 
+        return rethrow(tryResolve(methodId, relation));
+    }
+
+    /**
+     * Resolves a verification method by {@code methodId} and {@code relation},
+     * fetching the controller document as {@link #resolve(URI, URI)} does,
+     * without throwing {@link VerificationMethodException}.
+     *
+     * <p>
+     * An exception thrown by the {@link IdentifierDocumentResolver} results in
+     * the {@code INVALID_CONTROLLER_DOCUMENT} code, the exception is available
+     * as {@link VerificationMethodResolution#cause()}.
+     * </p>
+     *
+     * @param methodId the verification method identifier (must not be {@code null})
+     * @param relation the verification relationship IRI (must not be {@code null})
+     * @return the resolution holding either the matching
+     *         {@link VerificationMethod} or the error code as listed by
+     *         {@link #resolve(URI, URI)}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public VerificationMethodResolution tryResolve(final URI methodId, final URI relation) {
+
+        Objects.requireNonNull(methodId, "methodId must not be null");
+        Objects.requireNonNull(relation, "relation must not be null");
+
+        return tryResolve(Identifier.of(methodId), relation, VerificationRelationship.of(relation));
+    }
+
+    /**
+     * Resolves a verification method by {@code methodId} and
+     * {@code relationship}, fetching the controller document as
+     * {@link #resolve(URI, URI)} does.
+     *
+     * <p>
+     * The controller document identifier is obtained from
+     * {@link Identifier#base()}, it is compared to
+     * {@link IdentifierDocument#identifier()} of the fetched document.
+     * </p>
+     *
+     * @param methodId     the verification method identifier (must not be
+     *                     {@code null})
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return the matching {@link VerificationMethod}
+     *
+     * @throws VerificationMethodException with one of the codes listed by
+     *                                     {@link #resolve(URI, URI)}
+     * @throws NullPointerException        if any argument is {@code null}
+     */
+    public VerificationMethod resolve(final Identifier methodId, final VerificationRelationship relationship) throws VerificationMethodException {
+        return rethrow(tryResolve(methodId, relationship));
+    }
+
+    /**
+     * Resolves a verification method by {@code methodId} and
+     * {@code relationship}, fetching the controller document as
+     * {@link #resolve(Identifier, VerificationRelationship)} does, without
+     * throwing {@link VerificationMethodException}.
+     *
+     * @param methodId     the verification method identifier (must not be
+     *                     {@code null})
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return the resolution holding either the matching
+     *         {@link VerificationMethod} or the error code as listed by
+     *         {@link #resolve(URI, URI)}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public VerificationMethodResolution tryResolve(final Identifier methodId, final VerificationRelationship relationship) {
+
+        Objects.requireNonNull(methodId, "methodId must not be null");
+        Objects.requireNonNull(relationship, "relationship must not be null");
+
+        return tryResolve(methodId, relationship.uri(), relationship);
+    }
+
+    VerificationMethodResolution tryResolve(final Identifier methodId, final URI relation, final VerificationRelationship relationship) {
+
+        if (listener == ResolutionListener.NOOP) {
+            return fetch(methodId, relation, relationship, false, 0);
+        }
+
+        final long start = System.nanoTime();
+
+        final VerificationMethodResolution resolution = fetch(methodId, relation, relationship, true, start);
+
+        report(resolution, System.nanoTime() - start);
+
+        return resolution;
+    }
+
+    /**
+     * Asynchronously resolves a verification method by {@code methodId} and
+     * {@code relation}, fetching the controller document using an
+     * {@link AsyncIdentifierDocumentResolver} selected as in
+     * {@link #resolve(URI, URI)}.
+     *
+     * <p>
+     * Behaves as {@link #resolve(URI, URI)} without blocking the calling thread,
+     * unless the resolver was created without an executor and the selected
+     * resolver is not asynchronous, see
+     * {@link #VerificationMethodResolver(Collection)}.
+     * Resolution failures complete the returned future exceptionally with a
+     * {@link VerificationMethodException}, wrapped in a
+     * {@link CompletionException} when observed by dependent stages.
+     * </p>
+     *
+     * @param methodId the verification method identifier (must not be {@code null})
+     * @param relation the verification relationship IRI (must not be {@code null})
+     * @return a future completed with the matching {@link VerificationMethod}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public CompletableFuture<VerificationMethod> resolveAsync(final URI methodId, final URI relation) {
+
         Objects.requireNonNull(methodId, "methodId must not be null");
         Objects.requireNonNull(relation, "relation must not be null");
 
+        final boolean timed = listener != ResolutionListener.NOOP;
+        final long start = timed ? System.nanoTime() : 0;
+
+        final CompletableFuture<VerificationMethod> method = fetchAsync(
+                Identifier.of(methodId),
+                relation,
+                VerificationRelationship.of(relation),
+                timed,
+                start);
+
+        if (timed) {
+            return method.whenComplete((m, e) -> {
+                final long nanos = System.nanoTime() - start;
+
+                final Throwable cause = e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause()
+                        : e;
+
+                if (cause == null) {
+                    listener.onResolved(methodId, nanos);
+
+                } else if (cause instanceof VerificationMethodException) {
+                    listener.onFailed(methodId, ((VerificationMethodException) cause).getCode(), nanos);
+
+                } else if (cause instanceof RuntimeException) {
+                    listener.onError(methodId, (RuntimeException) cause, nanos);
+                }
+            });
+        }
+        return method;
+    }
+
+    /**
+     * Resolves many verification methods at once, fetching each controller
+     * document only once.
+     *
+     * <p>
+     * Queries are grouped by the controller document URI derived from
+     * {@link VerificationMethodQuery#methodId()}. All documents are requested
+     * before any is awaited, so they are fetched in parallel when the resolver
+     * was created with an {@link Executor} or the underlying resolvers are
+     * asynchronous.
+     * </p>
+     *
+     * <p>
+     * A failure affects only the queries it relates to. A controller document
+     * that cannot be fetched fails all its queries with the
+     * {@code INVALID_CONTROLLER_DOCUMENT} code.
+     * </p>
+     *
+     * @param queries the queries to resolve (must not be {@code null})
+     * @return the resolutions, in the order of {@code queries}
+     * @throws NullPointerException if {@code queries} is {@code null} or contains
+     *                              a {@code null} element
+     */
+    public List<VerificationMethodResolution> resolveAll(final List<VerificationMethodQuery> queries) {
+
+        Objects.requireNonNull(queries, "queries must not be null");
+
+        final boolean timed = listener != ResolutionListener.NOOP;
+        final long start = timed ? System.nanoTime() : 0;
+
+        final VerificationMethodResolution[] resolutions = new VerificationMethodResolution[queries.size()];
+
+        final Identifier[] methodIds = new Identifier[resolutions.length];
+
+        // group query indices by controller document
+        final Map<Identifier, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < resolutions.length; i++) {
+            final VerificationMethodQuery query = Objects.requireNonNull(queries.get(i), "query must not be null");
+            methodIds[i] = Identifier.of(query.methodId());
+            groups.computeIfAbsent(methodIds[i].base(), k -> new ArrayList<>()).add(i);
+        }
+
+        // request all documents first
+        final Map<Identifier, CompletableFuture<IdentifierDocument>> documents = new HashMap<>(groups.size() * 2);
+
+        for (final Map.Entry<Identifier, List<Integer>> group : groups.entrySet()) {
+
+            final Identifier documentId = group.getKey();
+
+            final URI documentUri;
+            try {
+                documentUri = documentUri(documentId);
+
+            } catch (IllegalArgumentException e) {
+                for (final int index : group.getValue()) {
+                    resolutions[index] = VerificationMethodResolution.failed(methodIds[index], queries.get(index).relation(), Reason.INVALID_METHOD_ID, null, e);
+                }
+                continue;
+            }
+
+            final AsyncIdentifierDocumentResolver resolver = asyncDispatch.find(documentUri);
+
+            if (resolver == null) {
+                documents.put(documentId, null);
+                continue;
+            }
+
+            final CompletableFuture<IdentifierDocument> document;
+            try {
+                if (timed) {
+                    listener.onDispatch(documentUri, unwrap(resolver));
+                    final long fetchStart = System.nanoTime();
+                    document = resolver.resolveAsync(documentUri)
+                            .whenComplete((d, e) -> {
+                                if (e == null) {
+                                    lap(ResolutionListener.Phase.FETCH, documentUri, fetchStart);
+                                }
+                            });
+
+                } else {
+                    document = resolver.resolveAsync(documentUri);
+                }
+
+            } catch (RuntimeException e) {
+                documents.put(documentId, failed(e));
+                continue;
+            }
+
+            documents.put(documentId, document);
+        }
+
+        final long now = clock.millis();
+
+        for (final Map.Entry<Identifier, List<Integer>> group : groups.entrySet()) {
+
+            final Identifier documentId = group.getKey();
+
+            if (!documents.containsKey(documentId)) {
+                // an invalid identifier, already failed
+                continue;
+            }
+
+            IdentifierDocument document = null;
+            Reason reason = null;
+            Throwable cause = null;
+
+            final CompletableFuture<IdentifierDocument> future = documents.get(documentId);
+
+            if (future == null) {
+                reason = Reason.NO_RESOLVER;
+
+            } else {
+                try {
+                    document = future.join();
+
+                } catch (CompletionException | CancellationException e) {
+                    reason = Reason.FETCH_FAILED;
+                    cause = e.getCause() != null ? e.getCause() : e;
+
+                } catch (RuntimeException e) {
+                    reason = Reason.FETCH_FAILED;
+                    cause = e;
+                }
+            }
+
+            for (final int index : group.getValue()) {
+                final VerificationMethodQuery query = queries.get(index);
+
+                if (reason != null) {
+                    resolutions[index] = VerificationMethodResolution.failed(methodIds[index], query.relation(), reason, documentId, cause);
+                    continue;
+                }
+
+                final VerificationMethodResolution mismatch = verify(methodIds[index], query.relation(), documentId, document);
+
+                resolutions[index] = mismatch != null
+                        ? mismatch
+                        : lookup(methodIds[index], query.relation(), VerificationRelationship.of(query.relation()), document, now);
+            }
+        }
+
+        if (timed) {
+            final long nanos = System.nanoTime() - start;
+            for (final VerificationMethodResolution resolution : resolutions) {
+                report(resolution, nanos);
+            }
+        }
+
+        return Arrays.asList(resolutions);
+    }
+
+    /**
+     * Looks up a verification method within the relationship of the
+     * {@code document}.
+     *
+     * @param relation     the relationship IRI as requested
+     * @param relationship the relationship, or {@code null} if {@code relation}
+     *                     is not supported
+     */
+    static VerificationMethodResolution lookup(final Identifier methodId, final URI relation, final VerificationRelationship relationship, final IdentifierDocument document, final long now) {
+
+        if (relationship == null) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.UNSUPPORTED_RELATIONSHIP, relation);
+        }
+
+        if (document instanceof IndexedIdentifierDocument) {
+            final IndexedIdentifierDocument indexed = (IndexedIdentifierDocument) document;
+
+            if (!indexed.hasMethods(relationship)) {
+                return VerificationMethodResolution.failed(methodId, relation, Reason.NO_METHODS, relation);
+            }
+            return validate(select(methodId, relation, indexed.method(methodId, relationship), document), indexed, now);
+        }
+
+        final Set<VerificationMethod> methods = relationship.methods(document);
+        if (methods == null || methods.isEmpty()) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.NO_METHODS, relation);
+        }
+
+        return validate(select(methodId, relation, find(methodId, methods), document), document, now);
+    }
+
+    VerificationMethodResolution fetch(final Identifier methodId, final URI relation, final VerificationRelationship relationship, final boolean timed, final long start) {
+
+        long time = start;
+
+        final Identifier documentId = methodId.base();
         final URI documentUri;
         try {
-            // Strip fragment to obtain the controller document identifier
-            documentUri = new URI(methodId.getScheme(), methodId.getSchemeSpecificPart(), null);
+            documentUri = documentUri(documentId);
+
+        } catch (IllegalArgumentException e) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.INVALID_METHOD_ID, null, e);
+        }
+
+        if (timed) {
+            time = lap(ResolutionListener.Phase.DOCUMENT_URI, documentUri, time);
+        }
+
+        final IdentifierDocumentResolver resolver = registry.find(documentUri);
+
+        if (resolver == null) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.NO_RESOLVER, documentId);
+        }
+
+        if (timed) {
+            time = lap(ResolutionListener.Phase.DISPATCH, documentUri, time);
+            listener.onDispatch(documentUri, resolver);
+        }
+
+        final IdentifierDocument document;
+        try {
+            document = resolver.resolve(documentUri);
+
+        } catch (RuntimeException e) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.FETCH_FAILED, documentId, e);
+        }
+
+        if (timed) {
+            time = lap(ResolutionListener.Phase.FETCH, documentUri, time);
+        }
+
+        final VerificationMethodResolution mismatch = verify(methodId, relation, documentId, document);
+
+        if (mismatch != null) {
+            return mismatch;
+        }
+
+        if (timed) {
+            time = lap(ResolutionListener.Phase.ID_CHECK, documentUri, time);
+        }
+
+        final VerificationMethodResolution resolution = lookup(methodId, relation, relationship, document, clock.millis());
+
+        if (timed && resolution.isResolved()) {
+            lap(ResolutionListener.Phase.RELATIONSHIP, documentUri, time);
+        }
+
+        return resolution;
+    }
+
+    CompletableFuture<VerificationMethod> fetchAsync(final Identifier methodId, final URI relation, final VerificationRelationship relationship, final boolean timed, final long start) {
+
+        final Identifier documentId = methodId.base();
+        final URI documentUri;
+        try {
+            documentUri = documentUri(documentId);
+
+        } catch (IllegalArgumentException e) {
+            return failed(VerificationMethodResolution.failed(methodId, relation, Reason.INVALID_METHOD_ID, null, e).exception());
+        }
+
+        final long dispatchStart = timed
+                ? lap(ResolutionListener.Phase.DOCUMENT_URI, documentUri, start)
+                : 0;
+
+        final AsyncIdentifierDocumentResolver resolver = asyncDispatch.find(documentUri);
+
+        if (resolver == null) {
+            return failed(Reason.NO_RESOLVER.exception(documentId, null));
+        }
+
+        final long fetchStart;
+
+        if (timed) {
+            fetchStart = lap(ResolutionListener.Phase.DISPATCH, documentUri, dispatchStart);
+            listener.onDispatch(documentUri, unwrap(resolver));
+
+        } else {
+            fetchStart = 0;
+        }
+
+        final CompletableFuture<IdentifierDocument> fetched;
+        try {
+            fetched = resolver.resolveAsync(documentUri);
+
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+
+        return fetched.thenApply(document -> {
+
+            long time = timed
+                    ? lap(ResolutionListener.Phase.FETCH, documentUri, fetchStart)
+                    : 0;
+
+            final VerificationMethodResolution mismatch = verify(methodId, relation, documentId, document);
+
+            if (mismatch != null) {
+                throw new CompletionException(mismatch.exception());
+            }
+
+            if (timed) {
+                time = lap(ResolutionListener.Phase.ID_CHECK, documentUri, time);
+            }
+
+            final VerificationMethodResolution resolution = lookup(methodId, relation, relationship, document, clock.millis());
+
+            if (!resolution.isResolved()) {
+                throw new CompletionException(resolution.exception());
+            }
+
+            if (timed) {
+                lap(ResolutionListener.Phase.RELATIONSHIP, documentUri, time);
+            }
+            return resolution.method();
+        });
+    }
+
+    /**
+     * Returns the controller document identifier as a {@link URI}, parsed once
+     * per identifier instance, see {@link Identifier#uri()}.
+     *
+     * @param documentId the controller document identifier
+     * @return the controller document URI
+     * @throws IllegalArgumentException if the identifier is not a valid URI
+     */
+    URI documentUri(final Identifier documentId) {
+        return documentId.uri();
+    }
+
+    /**
+     * Derives the controller document identifier by removing the fragment from
+     * the given verification method identifier.
+     *
+     * @param methodId the verification method identifier
+     * @return the controller document identifier
+     * @throws VerificationMethodException with {@code INVALID_METHOD_ID} code if
+     *                                     the identifier cannot be derived
+     */
+    protected static URI documentUri(final URI methodId) throws VerificationMethodException {
+        final Identifier id = Identifier.of(methodId);
+        try {
+            return id.base().uri();
+
+        } catch (IllegalArgumentException e) {
+            throw VerificationMethodResolution.failed(id, null, Reason.INVALID_METHOD_ID, null, e).exception();
+        }
+    }
+
+    /**
+     * Checks that a resolved controller document is identified by the URI it was
+     * resolved from.
+     *
+     * @param documentUri the controller document identifier
+     * @param document    the resolved controller document
+     * @throws VerificationMethodException with {@code INVALID_CONTROLLER_DOCUMENT_ID}
+     *                                     code if the identifiers do not match
+     */
+    protected static void assertDocumentId(final URI documentUri, final IdentifierDocument document) throws VerificationMethodException {
+        final VerificationMethodResolution mismatch = verify(null, null, Identifier.of(documentUri), document);
+        if (mismatch != null) {
+            throw mismatch.exception();
+        }
+    }
+
+    /**
+     * Checks that a verification method is controlled by the document it has
+     * been resolved from.
+     *
+     * @param method   the verification method
+     * @param document the controller document
+     * @throws VerificationMethodException with {@code INVALID_VERIFICATION_METHOD}
+     *                                     code if the controller does not match
+     */
+    protected static void assertController(final VerificationMethod method, final IdentifierDocument document) throws VerificationMethodException {
+        select(method.identifier(), null, method, document).get();
+    }
+
+    /**
+     * @return a failed resolution if the document is not identified by
+     *         {@code documentUri}, {@code null} otherwise
+     */
+    static VerificationMethodResolution verify(final Identifier methodId, final URI relation, final Identifier documentId, final IdentifierDocument document) {
+        final Identifier actual = document != null ? document.identifier() : null;
+        if (!documentId.equals(actual)) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.DOCUMENT_ID_MISMATCH, documentId, actual);
+        }
+        return null;
+    }
+
+    static VerificationMethodResolution select(final Identifier methodId, final URI relation, final VerificationMethod listed, final IdentifierDocument document) {
+
+        final VerificationMethod method = dereference(listed, document);
+
+        if (method == null) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.NOT_FOUND, methodId);
+        }
+        if (!document.id().equals(method.controller())) {
+            return VerificationMethodResolution.failed(methodId, relation, Reason.CONTROLLER_MISMATCH, document.id(), method.controller());
+        }
+        return VerificationMethodResolution.resolved(methodId, relation, method);
+    }
+
+    /**
+     * @return the resolution, or a failed one if the resolved method is revoked
+     *         or expired at {@code now}
+     */
+    static VerificationMethodResolution validate(final VerificationMethodResolution resolution, final IdentifierDocument document, final long now) {
+
+        if (!resolution.isResolved()) {
+            return resolution;
+        }
 
-        } catch (URISyntaxException e) {
-            throw new VerificationMethodException(
-                    VerificationMethodException.Code.INVALID_METHOD_ID,
-                    "Invalid methodId, failed to derive controller document URI",
-                    e);
+        final Validity validity = document instanceof IndexedIdentifierDocument
+                ? ((IndexedIdentifierDocument) document).validity(resolution.methodId, now)
+                : Validity.of(resolution.method, now);
+
+        if (validity == Validity.REVOKED) {
+            return VerificationMethodResolution.failed(resolution.methodId, resolution.relation, Reason.REVOKED, resolution.methodId);
+        }
+        if (validity == Validity.EXPIRED) {
+            return VerificationMethodResolution.failed(resolution.methodId, resolution.relation, Reason.EXPIRED, resolution.methodId);
         }
+        return resolution;
+    }
 
-        final IdentifierDocument document = resolvers.stream()
-                .filter(r -> r.isAccepted(documentUri))
-                .findFirst()
-                .map(r -> r.resolve(documentUri))
-                .orElseThrow(() -> new VerificationMethodException(
-                        VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT,
-                        "No resolver accepted controller document: " + documentUri));
+    /**
+     * @return the method declared in {@code verificationMethod} if the given
+     *         method is a reference to it, otherwise {@code method}
+     */
+    static VerificationMethod dereference(final VerificationMethod method, final IdentifierDocument document) {
+
+        if (method == null || !method.isReference()) {
+            return method;
+        }
 
-        if (!documentUri.equals(document.id())) {
-            throw new VerificationMethodException(
-                    VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT_ID,
-                    "Controller document id mismatch, expected " + documentUri + " but got " + document.id());
+        if (document instanceof IndexedIdentifierDocument) {
+            return ((IndexedIdentifierDocument) document).dereference(method);
         }
 
-        return resolve(methodId, relation, document);
+        final Collection<VerificationMethod> verification = document.verification();
+
+        if (verification != null) {
+            final VerificationMethod declared = find(method.identifier(), verification);
+            if (declared != null) {
+                return declared;
+            }
+        }
+        return method;
+    }
+
+    static VerificationMethod find(final Identifier methodId, final Collection<VerificationMethod> methods) {
+        for (final VerificationMethod method : methods) {
+            if (methodId.equals(method.identifier())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the resolved method, throws a resolver failure as it is.
+     */
+    static VerificationMethod rethrow(final VerificationMethodResolution resolution) throws VerificationMethodException {
+        if (resolution.reason == Reason.FETCH_FAILED && resolution.cause instanceof RuntimeException) {
+            // propagate resolver failures as they are
+            throw (RuntimeException) resolution.cause;
+        }
+        return resolution.get();
+    }
+
+    /**
+     * Reports the outcome of a resolution.
+     */
+    void report(final VerificationMethodResolution resolution, final long nanos) {
+        if (resolution.isResolved()) {
+            listener.onResolved(resolution.methodId(), nanos);
+
+        } else if (resolution.reason == Reason.FETCH_FAILED && resolution.cause instanceof RuntimeException) {
+            listener.onError(resolution.methodId(), (RuntimeException) resolution.cause, nanos);
+
+        } else {
+            listener.onFailed(resolution.methodId(), resolution.code(), nanos);
+        }
+    }
+
+    /**
+     * Reports a completed phase.
+     *
+     * @return the time the phase has been completed at
+     */
+    long lap(final ResolutionListener.Phase phase, final URI documentUri, final long start) {
+        final long now = System.nanoTime();
+        listener.onPhase(phase, documentUri, now - start);
+        return now;
+    }
+
+    static IdentifierDocumentResolver unwrap(final AsyncIdentifierDocumentResolver resolver) {
+        if (resolver instanceof AsyncIdentifierDocumentResolverAdapter) {
+            return ((AsyncIdentifierDocumentResolverAdapter) resolver).resolver;
+        }
+        // registered as synchronous resolvers, natively or adapted, see blocking
+        return (IdentifierDocumentResolver) resolver;
+    }
+
+    /**
+     * Adapts asynchronous resolvers to blocking ones that remain asynchronous.
+     */
+    static Collection<IdentifierDocumentResolver> blocking(final Collection<AsyncIdentifierDocumentResolver> resolvers) {
+        Objects.requireNonNull(resolvers, "resolvers must not be null");
+
+        final Collection<IdentifierDocumentResolver> blocking = new ArrayList<>(resolvers.size());
+        for (final AsyncIdentifierDocumentResolver resolver : resolvers) {
+            Objects.requireNonNull(resolver, "resolver must not be null");
+            blocking.add(resolver instanceof IdentifierDocumentResolver
+                    ? (IdentifierDocumentResolver) resolver
+                    : new BlockingIdentifierDocumentResolverAdapter(resolver));
+        }
+        return Collections.unmodifiableCollection(blocking);
+    }
+
+    static <T> CompletableFuture<T> failed(final Throwable e) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
     }
 }
@@ -0,0 +1,448 @@
+package com.apicatalog.cid.cache;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A size-bounded, thread-safe cache with per-entry time-to-live.
+ *
+ * <p>
+ * Entries are spread over independently locked segments, each one maintaining
+ * its own least-recently-used order, so concurrent readers and writers contend
+ * only when they hit the same segment. The bound is enforced per segment, which
+ * makes eviction an approximation of a global LRU policy.
+ * </p>
+ *
+ * <p>
+ * Expired entries are removed lazily when they are accessed or when a segment
+ * evicts to make room.
+ * </p>
+ *
+ * <p>
+ * An optional removal listener is notified of each value leaving the cache,
+ * i.e. evicted, expired and removed, invalidated, or replaced, even by the same
+ * value. The listener is called by the thread performing the operation, after
+ * the segment lock has been released.
+ * </p>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public final class BoundedCache<K, V> {
+
+    /** Time-to-live value of entries that never expire. */
+    public static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+    static final int MAX_SEGMENTS = 16;
+
+    final Segment<K, V>[] segments;
+    final int segmentMask;
+
+    final LongAdder hits;
+    final LongAdder misses;
+    final LongAdder evictions;
+
+    /**
+     * Creates a new cache holding at most {@code maxSize} entries.
+     *
+     * @param maxSize the maximum number of entries, must be positive
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public BoundedCache(final int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * Creates a new cache holding at most {@code maxSize} entries and notifying
+     * the given listener of removed values.
+     *
+     * @param maxSize         the maximum number of entries, must be positive
+     * @param removalListener called with the key and the value of each removed
+     *                        entry, or {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public BoundedCache(final int maxSize, final BiConsumer<? super K, ? super V> removalListener) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive, but was " + maxSize);
+        }
+
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= maxSize) {
+            count <<= 1;
+        }
+
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+
+        for (int i = 0; i < count; i++) {
+            // distribute the remainder so the capacities sum up to maxSize
+            segments[i] = new Segment<>(maxSize / count + (i < maxSize % count ? 1 : 0), removalListener);
+        }
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Returns the value associated with the given key if present and not
+     * expired.
+     *
+     * @param key the key (must not be {@code null})
+     * @return the cached value, or {@code null} if absent or expired
+     */
+    public V get(final K key) {
+        Objects.requireNonNull(key, "key must not be null");
+
+        final V value = segment(key).get(key, System.nanoTime());
+
+        if (value != null) {
+            hits.increment();
+
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Associates the value with the given key, replacing any previous mapping.
+     *
+     * @param key      the key (must not be {@code null})
+     * @param value    the value (must not be {@code null})
+     * @param ttlNanos time-to-live in nanoseconds, or {@link #NO_EXPIRATION}
+     */
+    public void put(final K key, final V value, final long ttlNanos) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+
+        if (ttlNanos <= 0) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+
+        // saturate to avoid overflow of long-lived entries
+        final long expiresAt = ttlNanos >= NO_EXPIRATION - now
+                ? NO_EXPIRATION
+                : now + ttlNanos;
+
+        evictions.add(segment(key).put(key, value, expiresAt, now));
+    }
+
+    /**
+     * Removes the mapping for the given key, if present.
+     *
+     * @param key the key (must not be {@code null})
+     */
+    public void invalidate(final K key) {
+        Objects.requireNonNull(key, "key must not be null");
+
+        segment(key).remove(key);
+    }
+
+    /**
+     * Removes the mapping for the given key if it maps to the given value
+     * instance.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param value the value (must not be {@code null})
+     * @return {@code true} if the mapping has been removed
+     */
+    public boolean invalidate(final K key, final V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+
+        return segment(key).remove(key, value);
+    }
+
+    /**
+     * Checks whether the key maps to the given value instance, expired or not.
+     * The check is not counted as a hit or a miss.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param value the value (must not be {@code null})
+     * @return {@code true} if the key maps to {@code value}
+     */
+    public boolean contains(final K key, final V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+
+        return segment(key).contains(key, value);
+    }
+
+    /**
+     * Returns how long the key keeps mapping to the given value instance. The
+     * check is not counted as a hit or a miss.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param value the value (must not be {@code null})
+     * @return the remaining time-to-live in nanoseconds, {@link #NO_EXPIRATION},
+     *         or {@code 0} if the key does not map to {@code value} or it has
+     *         expired
+     */
+    public long remainingNanos(final K key, final V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+
+        return segment(key).remainingNanos(key, value, System.nanoTime());
+    }
+
+    /** Removes all entries. */
+    public void invalidateAll() {
+        for (final Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries, including those expired but not yet
+     * removed.
+     *
+     * @return the approximate number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /** @return the number of lookups that returned a cached value */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /** @return the number of lookups that found no live value */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /** @return the number of entries removed to keep the cache bounded */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    Segment<K, V> segment(final K key) {
+        final int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    static final class Node<V> {
+
+        final V value;
+        final long expiresAt;
+
+        Node(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != NO_EXPIRATION && now - expiresAt >= 0;
+        }
+    }
+
+    static final class Segment<K, V> {
+
+        final ReentrantLock lock;
+        final LinkedHashMap<K, Node<V>> entries;
+        final int capacity;
+
+        /** {@code null} if removals are not observed */
+        final BiConsumer<? super K, ? super V> removalListener;
+
+        Segment(int capacity, BiConsumer<? super K, ? super V> removalListener) {
+            this.lock = new ReentrantLock();
+            this.entries = new LinkedHashMap<>(16, 0.75f, true);
+            this.capacity = capacity;
+            this.removalListener = removalListener;
+        }
+
+        V get(K key, long now) {
+            List<Map.Entry<K, V>> removed = null;
+            V value = null;
+
+            lock.lock();
+            try {
+                final Node<V> node = entries.get(key);
+                if (node != null) {
+                    if (node.isExpired(now)) {
+                        entries.remove(key);
+                        removed = collect(key, node, removed);
+
+                    } else {
+                        value = node.value;
+                    }
+                }
+
+            } finally {
+                lock.unlock();
+            }
+
+            notify(removed);
+            return value;
+        }
+
+        /**
+         * @return the number of live entries evicted to make room
+         */
+        int put(K key, V value, long expiresAt, long now) {
+            List<Map.Entry<K, V>> removed = null;
+            int evicted = 0;
+
+            lock.lock();
+            try {
+                final Node<V> previous = entries.put(key, new Node<>(value, expiresAt));
+
+                if (previous != null) {
+                    removed = collect(key, previous, removed);
+                }
+
+                if (entries.size() > capacity) {
+                    final Iterator<Map.Entry<K, Node<V>>> it = entries.entrySet().iterator();
+                    while (entries.size() > capacity && it.hasNext()) {
+                        final Map.Entry<K, Node<V>> eldest = it.next();
+                        it.remove();
+                        removed = collect(eldest.getKey(), eldest.getValue(), removed);
+                        if (!eldest.getValue().isExpired(now)) {
+                            evicted++;
+                        }
+                    }
+                }
+
+            } finally {
+                lock.unlock();
+            }
+
+            notify(removed);
+            return evicted;
+        }
+
+        void remove(K key) {
+            List<Map.Entry<K, V>> removed = null;
+
+            lock.lock();
+            try {
+                final Node<V> node = entries.remove(key);
+                if (node != null) {
+                    removed = collect(key, node, removed);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            notify(removed);
+        }
+
+        boolean remove(K key, V value) {
+            List<Map.Entry<K, V>> removed = null;
+
+            lock.lock();
+            try {
+                final Node<V> node = entries.get(key);
+                if (node == null || node.value != value) {
+                    return false;
+                }
+                entries.remove(key);
+                removed = collect(key, node, removed);
+
+            } finally {
+                lock.unlock();
+            }
+
+            notify(removed);
+            return true;
+        }
+
+        boolean contains(K key, V value) {
+            lock.lock();
+            try {
+                final Node<V> node = entries.get(key);
+                return node != null && node.value == value;
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long remainingNanos(K key, V value, long now) {
+            lock.lock();
+            try {
+                final Node<V> node = entries.get(key);
+                if (node == null || node.value != value || node.isExpired(now)) {
+                    return 0;
+                }
+                return node.expiresAt == NO_EXPIRATION
+                        ? NO_EXPIRATION
+                        : node.expiresAt - now;
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            List<Map.Entry<K, V>> removed = null;
+
+            lock.lock();
+            try {
+                for (final Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+                    removed = collect(entry.getKey(), entry.getValue(), removed);
+                }
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+
+            notify(removed);
+        }
+
+        /**
+         * Adds a removed entry to the list, created on the first removal, if
+         * removals are observed.
+         *
+         * @return the list, or {@code null} if there is nothing to notify
+         */
+        List<Map.Entry<K, V>> collect(K key, Node<V> node, List<Map.Entry<K, V>> removed) {
+            if (removalListener == null) {
+                return null;
+            }
+            if (removed == null) {
+                removed = new ArrayList<>(2);
+            }
+            removed.add(new SimpleImmutableEntry<>(key, node.value));
+            return removed;
+        }
+
+        /**
+         * Notifies the listener, called after the lock has been released.
+         */
+        void notify(List<Map.Entry<K, V>> removed) {
+            if (removed != null) {
+                for (final Map.Entry<K, V> entry : removed) {
+                    removalListener.accept(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.apicatalog.cid.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bookkeeping shared by reverse indexes over many documents, e.g.
+ * {@code VerificationKeyIndex} and {@code ServiceIndex}.
+ *
+ * <p>
+ * Documents are tracked by instance identity. Additions of the same instance
+ * are counted, a document is indexed on its first addition and removed from the
+ * index by the matching number of removals. Indexed references are kept in
+ * arrays replaced on each change, see {@link #concat(Object[], Object[])} and
+ * {@link #without(Object[], Object, Function)}, so lookups read a consistent
+ * array without locking.
+ * </p>
+ *
+ * <p>
+ * Each document holds a {@link Lease} expiring at a given time, e.g. when the
+ * document leaves a cache. References of a document whose lease has expired
+ * are skipped by lookups, see {@link #live(Object[], Function, long)}, even
+ * before the document is removed.
+ * </p>
+ */
+public final class IndexSupport {
+
+    /** Marks a lease that never expires. */
+    public static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+    /** the lease of each indexed document */
+    final ConcurrentHashMap<Key, Lease> documents;
+
+    /**
+     * Creates an empty registry.
+     */
+    public IndexSupport() {
+        this.documents = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Counts an addition of the document, calling {@code index} with a new
+     * lease if this is the first one, otherwise extending the existing lease to
+     * {@code expiresAt} if later. No other addition or removal of the same
+     * document runs concurrently with {@code index}.
+     *
+     * @param document  the document (must not be {@code null})
+     * @param expiresAt the time in milliseconds since the epoch the document
+     *                  expires at, or {@link #NO_EXPIRATION}
+     * @param index     indexes the document (must not be {@code null})
+     */
+    public void add(final Object document, final long expiresAt, final Consumer<Lease> index) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        documents.compute(new Key(document), (key, lease) -> {
+            if (lease == null) {
+                final Lease created = new Lease(expiresAt);
+                index.accept(created);
+                return created;
+            }
+            lease.count++;
+            if (expiresAt > lease.expiresAt) {
+                lease.expiresAt = expiresAt;
+            }
+            return lease;
+        });
+    }
+
+    /**
+     * Counts a removal of the document, calling {@code unindex} if it has been
+     * removed as many times as added. Does nothing if the document has not been
+     * added.
+     *
+     * @param document the document (must not be {@code null})
+     * @param unindex  removes the document from the index (must not be
+     *                 {@code null})
+     */
+    public void remove(final Object document, final Runnable unindex) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        documents.computeIfPresent(new Key(document), (key, lease) -> {
+            if (lease.count > 1) {
+                lease.count--;
+                return lease;
+            }
+            unindex.run();
+            return null;
+        });
+    }
+
+    /**
+     * Forgets all documents. The caller clears the index itself.
+     */
+    public void clear() {
+        documents.clear();
+    }
+
+    /** @return the number of distinct documents */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @param <R>        the type of references
+     * @param references the references, or {@code null}
+     * @return an unmodifiable view of the references, possibly empty
+     */
+    public static <R> List<R> list(final R[] references) {
+        return references != null
+                ? Collections.unmodifiableList(Arrays.asList(references))
+                : Collections.emptyList();
+    }
+
+    /**
+     * @param <R>        the type of references
+     * @param references the references, or {@code null}
+     * @param lease      provides the lease of a reference
+     * @param now        the time in milliseconds since the epoch
+     * @return an unmodifiable list of the references with a lease not expired
+     *         at {@code now}, possibly empty
+     */
+    public static <R> List<R> live(final R[] references, final Function<? super R, Lease> lease, final long now) {
+
+        if (references == null) {
+            return Collections.emptyList();
+        }
+
+        int expired = 0;
+        for (final R reference : references) {
+            if (lease.apply(reference).isExpired(now)) {
+                expired++;
+            }
+        }
+
+        if (expired == 0) {
+            return list(references);
+        }
+
+        final List<R> live = new ArrayList<>(references.length - expired);
+        for (final R reference : references) {
+            if (!lease.apply(reference).isExpired(now)) {
+                live.add(reference);
+            }
+        }
+        return Collections.unmodifiableList(live);
+    }
+
+    /**
+     * @param <R>        the type of references
+     * @param references the current references (must not be {@code null})
+     * @param added      the references to append (must not be {@code null})
+     * @return a new array holding both
+     */
+    public static <R> R[] concat(final R[] references, final R[] added) {
+        final R[] result = Arrays.copyOf(references, references.length + added.length);
+        System.arraycopy(added, 0, result, references.length, added.length);
+        return result;
+    }
+
+    /**
+     * @param <R>        the type of references
+     * @param references the current references (must not be {@code null})
+     * @param document   the document to remove
+     * @param owner      provides the document of a reference
+     * @return {@code references} if none is owned by the document, a new array
+     *         of the remaining references, or {@code null} if none remains
+     */
+    public static <R> R[] without(final R[] references, final Object document, final Function<? super R, ?> owner) {
+
+        int count = 0;
+        for (final R reference : references) {
+            if (owner.apply(reference) != document) {
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return null;
+        }
+        if (count == references.length) {
+            return references;
+        }
+
+        final R[] result = Arrays.copyOf(references, count);
+        int index = 0;
+        for (final R reference : references) {
+            if (owner.apply(reference) != document) {
+                result[index++] = reference;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param nowMillis the current time in milliseconds since the epoch
+     * @param ttlNanos  time-to-live in nanoseconds
+     * @return the expiration time in milliseconds since the epoch, never later
+     *         than {@code ttlNanos} from now, or {@link #NO_EXPIRATION}
+     */
+    public static long expiresAt(final long nowMillis, final long ttlNanos) {
+        final long ttlMillis = TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+        return ttlMillis >= NO_EXPIRATION - nowMillis
+                ? NO_EXPIRATION
+                : nowMillis + ttlMillis;
+    }
+
+    /**
+     * The lifetime of an indexed document.
+     */
+    public static final class Lease {
+
+        /** guarded by the registry map */
+        int count;
+
+        volatile long expiresAt;
+
+        Lease(final long expiresAt) {
+            this.count = 1;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return the time in milliseconds since the epoch the document expires
+         *         at, or {@link IndexSupport#NO_EXPIRATION}
+         */
+        public long expiresAt() {
+            return expiresAt;
+        }
+
+        /**
+         * @param now the time in milliseconds since the epoch
+         * @return {@code true} if the document has expired at {@code now}
+         */
+        public boolean isExpired(final long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    /**
+     * Identifies a document instance.
+     */
+    static final class Key {
+
+        final Object document;
+
+        Key(final Object document) {
+            this.document = document;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(document);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Key
+                    && ((Key) obj).document == document;
+        }
+    }
+}
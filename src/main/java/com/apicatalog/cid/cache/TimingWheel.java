@@ -0,0 +1,355 @@
+package com.apicatalog.cid.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A hierarchical timing wheel scheduling values for wall-clock deadlines.
+ *
+ * <p>
+ * Time is divided into ticks. Each of the {@value #LEVELS} levels has
+ * {@value #SLOTS} slots, a slot of the first level spans a single tick, of
+ * each next level {@value #SLOTS} times more. A value is placed on the lowest
+ * level able to hold its deadline and cascades to lower levels as the wheel
+ * advances, so scheduling, cancelling and expiring a value take constant time
+ * and no scan of pending values is needed. Deadlines beyond the span of the
+ * wheel are parked on the last level and rescheduled when reached.
+ * </p>
+ *
+ * <p>
+ * The wheel does not run on its own, it is advanced by
+ * {@link #advance(long)}, typically on each access of the structure it
+ * maintains. A value is expired by the first advance past its deadline, late
+ * by less than a tick, never early. The wheel is safe for concurrent use.
+ * </p>
+ *
+ * @param <T> the type of scheduled values
+ */
+public final class TimingWheel<T> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int SLOT_MASK = SLOTS - 1;
+    static final int LEVELS = 4;
+
+    final long tickMillis;
+
+    /** slot heads, indexed by level * SLOTS + slot */
+    final Timer<T>[] slots;
+
+    /** bits of non-empty slots, a word per level */
+    final long[] occupied;
+
+    final ReentrantLock lock;
+
+    /** the last tick processed */
+    long currentTick;
+
+    /** the first tick not processed yet, read without the lock */
+    volatile long nextTick;
+
+    int size;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis the tick duration in milliseconds, must be positive
+     * @param nowMillis  the current time in epoch milliseconds
+     * @throws IllegalArgumentException if {@code tickMillis} is not positive
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TimingWheel(final long tickMillis, final long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive, but was " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new Timer[LEVELS * SLOTS];
+        this.occupied = new long[LEVELS];
+        this.lock = new ReentrantLock();
+        this.currentTick = nowMillis / tickMillis;
+        this.nextTick = currentTick + 1;
+        this.size = 0;
+    }
+
+    /**
+     * Schedules a value.
+     *
+     * @param value          the value (must not be {@code null})
+     * @param deadlineMillis the deadline in epoch milliseconds
+     * @return a handle to cancel the timer, see {@link #cancel(Timer)}
+     */
+    public Timer<T> schedule(final T value, final long deadlineMillis) {
+        Objects.requireNonNull(value, "value must not be null");
+
+        // round up, a value never expires before its deadline
+        final long tick = deadlineMillis / tickMillis + (deadlineMillis % tickMillis > 0 ? 1 : 0);
+
+        final Timer<T> timer = new Timer<>(value, deadlineMillis, tick);
+
+        lock.lock();
+        try {
+            // the current tick has been processed
+            insert(timer, currentTick + 1);
+            size++;
+
+        } finally {
+            lock.unlock();
+        }
+        return timer;
+    }
+
+    /**
+     * Cancels a timer, if not expired yet.
+     *
+     * @param timer the timer (must not be {@code null})
+     * @return {@code true} if the timer has been cancelled, {@code false} if it
+     *         has expired or has been cancelled before
+     */
+    public boolean cancel(final Timer<T> timer) {
+        Objects.requireNonNull(timer, "timer must not be null");
+
+        lock.lock();
+        try {
+            if (timer.slot < 0) {
+                return false;
+            }
+            unlink(timer);
+            size--;
+            return true;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time, returning values whose deadlines
+     * have passed. Returns immediately if no tick has elapsed since the last
+     * advance, or if another thread is advancing the wheel.
+     *
+     * <p>
+     * Ticks reaching empty slots only are skipped, so the cost of an advance
+     * does not depend on the time elapsed since the last one.
+     * </p>
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the expired values, in no particular order, possibly empty
+     */
+    public List<T> advance(final long nowMillis) {
+
+        final long tick = nowMillis / tickMillis;
+
+        if (tick < nextTick || !lock.tryLock()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            List<T> expired = null;
+
+            while (currentTick < tick) {
+
+                final long nextOccupied = nextOccupiedTick();
+
+                if (nextOccupied > tick) {
+                    // nothing to cascade or expire
+                    currentTick = tick;
+                    break;
+                }
+
+                currentTick = nextOccupied;
+
+                cascade();
+
+                final int index = (int) (currentTick & SLOT_MASK);
+
+                Timer<T> timer = slots[index];
+                slots[index] = null;
+                occupied[0] &= ~(1L << index);
+
+                while (timer != null) {
+                    final Timer<T> next = timer.next;
+                    timer.slot = -1;
+                    timer.previous = null;
+                    timer.next = null;
+
+                    if (timer.tick > currentTick) {
+                        // parked beyond the span of the wheel
+                        insert(timer, currentTick + 1);
+
+                    } else {
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(timer.value);
+                        size--;
+                    }
+                    timer = next;
+                }
+            }
+
+            nextTick = currentTick + 1;
+
+            return expired != null ? expired : Collections.emptyList();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return the number of scheduled values */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the first tick after the current one reaching a non-empty slot,
+     *         or {@link Long#MAX_VALUE} if the wheel is empty
+     */
+    long nextOccupiedTick() {
+
+        long next = Long.MAX_VALUE;
+
+        for (int level = 0; level < LEVELS; level++) {
+
+            if (occupied[level] == 0) {
+                continue;
+            }
+
+            final int shift = SLOT_BITS * level;
+
+            // the first span of the level after the current tick
+            final long span = (currentTick >>> shift) + 1;
+
+            // the distance to the next non-empty slot, wrapping around
+            final int distance = Long.numberOfTrailingZeros(Long.rotateRight(occupied[level], (int) (span & SLOT_MASK)));
+
+            next = Math.min(next, (span + distance) << shift);
+        }
+        return next;
+    }
+
+    /**
+     * Moves timers of the higher level slots reached by the current tick to
+     * lower levels.
+     */
+    void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+
+            // the lower level has not wrapped around
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+
+            final int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            final int index = level * SLOTS + slot;
+
+            Timer<T> timer = slots[index];
+            slots[index] = null;
+            occupied[level] &= ~(1L << slot);
+
+            while (timer != null) {
+                final Timer<T> next = timer.next;
+                timer.slot = -1;
+                timer.previous = null;
+                timer.next = null;
+                // the current tick is processed after cascading
+                insert(timer, currentTick);
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * @param minTick the first tick still to be processed
+     */
+    void insert(final Timer<T> timer, final long minTick) {
+
+        // an overdue timer expires on the first tick processed
+        final long tick = Math.max(timer.tick, minTick);
+        final long delta = tick - currentTick;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        final long slotTick = level == LEVELS - 1 && delta >= (1L << (SLOT_BITS * LEVELS))
+                // park on the farthest slot of the last level
+                ? currentTick + (1L << (SLOT_BITS * LEVELS)) - (1L << (SLOT_BITS * (LEVELS - 1)))
+                : tick;
+
+        final int slot = (int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        final int index = level * SLOTS + slot;
+
+        timer.slot = index;
+        timer.previous = null;
+        timer.next = slots[index];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        slots[index] = timer;
+        occupied[level] |= 1L << slot;
+    }
+
+    void unlink(final Timer<T> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+
+        } else {
+            slots[timer.slot] = timer.next;
+            if (timer.next == null) {
+                occupied[timer.slot / SLOTS] &= ~(1L << (timer.slot & SLOT_MASK));
+            }
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.slot = -1;
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    /**
+     * A scheduled value.
+     *
+     * @param <T> the type of the value
+     */
+    public static final class Timer<T> {
+
+        final T value;
+        final long deadline;
+        final long tick;
+
+        /** the slot index, or {@code -1} if expired or cancelled */
+        int slot;
+
+        Timer<T> previous;
+        Timer<T> next;
+
+        Timer(final T value, final long deadline, final long tick) {
+            this.value = value;
+            this.deadline = deadline;
+            this.tick = tick;
+            this.slot = -1;
+        }
+
+        /** @return the scheduled value */
+        public T value() {
+            return value;
+        }
+
+        /** @return the deadline in epoch milliseconds */
+        public long deadline() {
+            return deadline;
+        }
+    }
+}
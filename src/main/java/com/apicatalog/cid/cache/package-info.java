@@ -0,0 +1,9 @@
+/**
+ * Concurrent, size-bounded caching primitives used by resolvers and indexes.
+ *
+ * <p>
+ * The structures in this package have no external dependencies and are safe
+ * for use by multiple threads without a global lock.
+ * </p>
+ */
+package com.apicatalog.cid.cache;
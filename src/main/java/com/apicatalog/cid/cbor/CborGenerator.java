@@ -0,0 +1,298 @@
+package com.apicatalog.cid.cbor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes CBOR data items, definite length only, into a growing buffer.
+ *
+ * <p>
+ * Buffers are allocated once per thread and reused, see {@link #acquire()}. A
+ * generator must be {@link #release() released} once its output has been
+ * taken.
+ * </p>
+ */
+final class CborGenerator {
+
+    static final int MAJOR_UNSIGNED = 0;
+    static final int MAJOR_NEGATIVE = 1;
+    static final int MAJOR_BYTES = 2;
+    static final int MAJOR_TEXT = 3;
+    static final int MAJOR_ARRAY = 4;
+    static final int MAJOR_MAP = 5;
+    static final int MAJOR_TAG = 6;
+    static final int MAJOR_SIMPLE = 7;
+
+    static final int FALSE = 0xf4;
+    static final int TRUE = 0xf5;
+    static final int NULL = 0xf6;
+    static final int FLOAT_64 = 0xfb;
+
+    static final long TAG_EPOCH_TIME = 1;
+    static final long TAG_POSITIVE_BIGNUM = 2;
+    static final long TAG_NEGATIVE_BIGNUM = 3;
+    static final long TAG_DECIMAL_FRACTION = 4;
+
+    static final int INITIAL_SIZE = 1024;
+
+    /** buffers grown beyond the limit are not kept for reuse */
+    static final int RETAINED_SIZE = 64 * 1024;
+
+    static final ThreadLocal<CborGenerator> GENERATORS = ThreadLocal.withInitial(CborGenerator::new);
+
+    byte[] buffer;
+    int length;
+
+    boolean inUse;
+
+    CborGenerator() {
+        this.buffer = new byte[INITIAL_SIZE];
+        this.length = 0;
+    }
+
+    static CborGenerator acquire() {
+        final CborGenerator generator = GENERATORS.get();
+        if (generator.inUse) {
+            // nested use on the same thread
+            final CborGenerator nested = new CborGenerator();
+            nested.inUse = true;
+            return nested;
+        }
+        generator.inUse = true;
+        return generator;
+    }
+
+    /**
+     * Resets and releases the generator.
+     */
+    void release() {
+        length = 0;
+        if (buffer.length > RETAINED_SIZE) {
+            buffer = new byte[INITIAL_SIZE];
+        }
+        inUse = false;
+    }
+
+    /** @return a copy of the written bytes */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    void writeTo(final OutputStream output) throws IOException {
+        output.write(buffer, 0, length);
+    }
+
+    CborGenerator beginArray(final int size) {
+        head(MAJOR_ARRAY, size);
+        return this;
+    }
+
+    CborGenerator beginMap(final int size) {
+        head(MAJOR_MAP, size);
+        return this;
+    }
+
+    CborGenerator tag(final long tag) {
+        head(MAJOR_TAG, tag);
+        return this;
+    }
+
+    CborGenerator value(final long value) {
+        if (value >= 0) {
+            head(MAJOR_UNSIGNED, value);
+        } else {
+            head(MAJOR_NEGATIVE, -1 - value);
+        }
+        return this;
+    }
+
+    CborGenerator value(final boolean value) {
+        ensure(1);
+        buffer[length++] = (byte) (value ? TRUE : FALSE);
+        return this;
+    }
+
+    CborGenerator value(final double value) {
+        ensure(9);
+        buffer[length++] = (byte) FLOAT_64;
+        writeLong(Double.doubleToLongBits(value));
+        return this;
+    }
+
+    CborGenerator value(final BigInteger value) {
+        if (value.bitLength() < 64) {
+            return value(value.longValue());
+        }
+        if (value.signum() >= 0) {
+            tag(TAG_POSITIVE_BIGNUM);
+            return magnitude(value);
+        }
+        tag(TAG_NEGATIVE_BIGNUM);
+        return magnitude(BigInteger.ONE.negate().subtract(value));
+    }
+
+    /**
+     * Writes a decimal fraction, i.e. {@code [exponent, mantissa]}.
+     */
+    CborGenerator value(final BigDecimal value) {
+        tag(TAG_DECIMAL_FRACTION);
+        beginArray(2);
+        value(-(long) value.scale());
+        return value(value.unscaledValue());
+    }
+
+    CborGenerator nullValue() {
+        ensure(1);
+        buffer[length++] = (byte) NULL;
+        return this;
+    }
+
+    CborGenerator value(final byte[] value) {
+        head(MAJOR_BYTES, value.length);
+        ensure(value.length);
+        System.arraycopy(value, 0, buffer, length, value.length);
+        length += value.length;
+        return this;
+    }
+
+    /**
+     * Writes the remaining bytes as a byte string, the buffer position is not
+     * changed.
+     */
+    CborGenerator value(final ByteBuffer value) {
+        final int size = value.remaining();
+        head(MAJOR_BYTES, size);
+        ensure(size);
+        value.duplicate().get(buffer, length, size);
+        length += size;
+        return this;
+    }
+
+    /**
+     * Writes a text string, UTF-8 encoded in place.
+     */
+    CborGenerator value(final String value) {
+
+        final int size = value.length();
+
+        int encoded = 0;
+        for (int i = 0; i < size; i++) {
+            final char ch = value.charAt(i);
+            if (ch < 0x80) {
+                encoded++;
+
+            } else if (ch < 0x800) {
+                encoded += 2;
+
+            } else if (Character.isHighSurrogate(ch) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+                encoded += 4;
+                i++;
+
+            } else if (Character.isSurrogate(ch)) {
+                encoded++;
+
+            } else {
+                encoded += 3;
+            }
+        }
+
+        head(MAJOR_TEXT, encoded);
+        ensure(encoded);
+
+        if (encoded == size) {
+            for (int i = 0; i < size; i++) {
+                buffer[length++] = (byte) value.charAt(i);
+            }
+            return this;
+        }
+
+        for (int i = 0; i < size; i++) {
+            final char ch = value.charAt(i);
+
+            if (ch < 0x80) {
+                buffer[length++] = (byte) ch;
+
+            } else if (ch < 0x800) {
+                buffer[length++] = (byte) (0xc0 | (ch >> 6));
+                buffer[length++] = (byte) (0x80 | (ch & 0x3f));
+
+            } else if (Character.isHighSurrogate(ch) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(ch, value.charAt(++i));
+                buffer[length++] = (byte) (0xf0 | (cp >> 18));
+                buffer[length++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buffer[length++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (cp & 0x3f));
+
+            } else if (Character.isSurrogate(ch)) {
+                // unpaired surrogate
+                buffer[length++] = (byte) '?';
+
+            } else {
+                buffer[length++] = (byte) (0xe0 | (ch >> 12));
+                buffer[length++] = (byte) (0x80 | ((ch >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (ch & 0x3f));
+            }
+        }
+        return this;
+    }
+
+    CborGenerator magnitude(final BigInteger value) {
+        final byte[] bytes = value.toByteArray();
+        // strip the sign byte
+        if (bytes.length > 1 && bytes[0] == 0) {
+            return value(Arrays.copyOfRange(bytes, 1, bytes.length));
+        }
+        return value(bytes);
+    }
+
+    /**
+     * Writes an initial byte and the shortest argument holding the unsigned
+     * value.
+     */
+    void head(final int major, final long value) {
+        ensure(9);
+
+        final int type = major << 5;
+
+        if (value >= 0 && value < 24) {
+            buffer[length++] = (byte) (type | value);
+
+        } else if (value >= 0 && value <= 0xff) {
+            buffer[length++] = (byte) (type | 24);
+            buffer[length++] = (byte) value;
+
+        } else if (value >= 0 && value <= 0xffff) {
+            buffer[length++] = (byte) (type | 25);
+            buffer[length++] = (byte) (value >> 8);
+            buffer[length++] = (byte) value;
+
+        } else if (value >= 0 && value <= 0xffffffffL) {
+            buffer[length++] = (byte) (type | 26);
+            buffer[length++] = (byte) (value >> 24);
+            buffer[length++] = (byte) (value >> 16);
+            buffer[length++] = (byte) (value >> 8);
+            buffer[length++] = (byte) value;
+
+        } else {
+            // a negative long is an unsigned value above Long.MAX_VALUE
+            buffer[length++] = (byte) (type | 27);
+            writeLong(value);
+        }
+    }
+
+    void writeLong(final long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (value >> shift);
+        }
+    }
+
+    void ensure(final int count) {
+        if (length + count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+        }
+    }
+}
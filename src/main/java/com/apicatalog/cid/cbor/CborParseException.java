@@ -0,0 +1,27 @@
+package com.apicatalog.cid.cbor;
+
+/**
+ * Thrown when CBOR input is malformed or does not describe a valid
+ * Controlled Identifier Document.
+ */
+public class CborParseException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = -2719526094352186731L;
+
+    private final long offset;
+
+    public CborParseException(String message, long offset) {
+        super(message + " at offset " + offset);
+        this.offset = offset;
+    }
+
+    public CborParseException(String message, long offset, Throwable cause) {
+        super(message + " at offset " + offset, cause);
+        this.offset = offset;
+    }
+
+    /** @return the number of bytes read when the error was detected */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,300 @@
+package com.apicatalog.cid.cbor;
+
+import static com.apicatalog.cid.cbor.CborGenerator.FALSE;
+import static com.apicatalog.cid.cbor.CborGenerator.FLOAT_64;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_ARRAY;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_BYTES;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_MAP;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_NEGATIVE;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_TAG;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_TEXT;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_UNSIGNED;
+import static com.apicatalog.cid.cbor.CborGenerator.NULL;
+import static com.apicatalog.cid.cbor.CborGenerator.TAG_DECIMAL_FRACTION;
+import static com.apicatalog.cid.cbor.CborGenerator.TAG_NEGATIVE_BIGNUM;
+import static com.apicatalog.cid.cbor.CborGenerator.TAG_POSITIVE_BIGNUM;
+import static com.apicatalog.cid.cbor.CborGenerator.TRUE;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads definite length CBOR data items from a byte array.
+ *
+ * <p>
+ * Declared sizes are checked against the remaining input before anything is
+ * allocated, so a truncated or forged item cannot cause a large allocation.
+ * </p>
+ */
+final class CborParser {
+
+    /** the maximum nesting of generic values */
+    static final int MAX_DEPTH = 64;
+
+    final byte[] input;
+    final int start;
+    final int limit;
+
+    int position;
+
+    CborParser(final byte[] input, final int offset, final int length) {
+        this.input = input;
+        this.start = offset;
+        this.limit = offset + length;
+        this.position = offset;
+    }
+
+    /** @return {@code true} if all the input has been consumed */
+    boolean isDone() {
+        return position == limit;
+    }
+
+    /** @return the major type of the next item */
+    int peekMajor() throws CborParseException {
+        if (position == limit) {
+            throw error("Unexpected end of input");
+        }
+        return (input[position] & 0xff) >>> 5;
+    }
+
+    /** @return {@code true} if the next item is {@code null}, consumed if so */
+    boolean nextNull() throws CborParseException {
+        if (position == limit) {
+            throw error("Unexpected end of input");
+        }
+        if ((input[position] & 0xff) == NULL) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads an item head of the given major type.
+     *
+     * @return the head argument
+     */
+    long head(final int major) throws CborParseException {
+        if (peekMajor() != major) {
+            throw error("Unexpected major type " + peekMajor() + ", expected " + major);
+        }
+        return argument();
+    }
+
+    /**
+     * Reads an array or a map head, or a string length.
+     *
+     * @return the size, never larger than the remaining input
+     */
+    int size(final int major) throws CborParseException {
+        final long size = head(major);
+        if (size < 0 || size > limit - position) {
+            throw error("Declared size " + Long.toUnsignedString(size) + " exceeds the input");
+        }
+        return (int) size;
+    }
+
+    long readLong() throws CborParseException {
+        final int major = peekMajor();
+        if (major != MAJOR_UNSIGNED && major != MAJOR_NEGATIVE) {
+            throw error("Expected an integer");
+        }
+        final long value = argument();
+        if (value < 0) {
+            throw error("Integer out of range");
+        }
+        return major == MAJOR_UNSIGNED ? value : -1 - value;
+    }
+
+    int readInt() throws CborParseException {
+        final long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("Integer out of range");
+        }
+        return (int) value;
+    }
+
+    String readText() throws CborParseException {
+        final int size = size(MAJOR_TEXT);
+        final String text = new String(input, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return text;
+    }
+
+    byte[] readBytes() throws CborParseException {
+        final int size = size(MAJOR_BYTES);
+        final byte[] bytes = new byte[size];
+        System.arraycopy(input, position, bytes, 0, size);
+        position += size;
+        return bytes;
+    }
+
+    /**
+     * Reads a generic value into a map, a list, a string, a byte array, a
+     * number, a boolean, or {@code null}. Maps are read with text keys only.
+     */
+    Object readValue() throws CborParseException {
+        return readValue(0);
+    }
+
+    Object readValue(final int depth) throws CborParseException {
+
+        if (depth > MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+
+        switch (peekMajor()) {
+        case MAJOR_UNSIGNED:
+            final long unsigned = argument();
+            return unsigned >= 0
+                    ? (Object) unsigned
+                    : new BigInteger(Long.toUnsignedString(unsigned));
+
+        case MAJOR_NEGATIVE:
+            final long negative = argument();
+            return negative >= 0
+                    ? (Object) (-1 - negative)
+                    : BigInteger.ONE.negate().subtract(new BigInteger(Long.toUnsignedString(negative)));
+
+        case MAJOR_BYTES:
+            return readBytes();
+
+        case MAJOR_TEXT:
+            return readText();
+
+        case MAJOR_ARRAY:
+            final int size = size(MAJOR_ARRAY);
+            final List<Object> array = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                array.add(readValue(depth + 1));
+            }
+            return Collections.unmodifiableList(array);
+
+        case MAJOR_MAP:
+            final int members = size(MAJOR_MAP);
+            final Map<String, Object> map = new LinkedHashMap<>(members * 2);
+            for (int i = 0; i < members; i++) {
+                final String key = readText();
+                map.put(key, readValue(depth + 1));
+            }
+            return Collections.unmodifiableMap(map);
+
+        case MAJOR_TAG:
+            return readTagged(depth);
+
+        default:
+            return readSimple();
+        }
+    }
+
+    Object readTagged(final int depth) throws CborParseException {
+
+        final long tag = argument();
+
+        if (tag == TAG_POSITIVE_BIGNUM) {
+            return new BigInteger(1, readBytes());
+        }
+        if (tag == TAG_NEGATIVE_BIGNUM) {
+            return BigInteger.ONE.negate().subtract(new BigInteger(1, readBytes()));
+        }
+        if (tag == TAG_DECIMAL_FRACTION) {
+            if (size(MAJOR_ARRAY) != 2) {
+                throw error("Invalid decimal fraction");
+            }
+            final int scale = -readInt();
+            final Object mantissa = readValue(depth + 1);
+
+            if (mantissa instanceof Long) {
+                return BigDecimal.valueOf((Long) mantissa, scale);
+            }
+            if (mantissa instanceof BigInteger) {
+                return new BigDecimal((BigInteger) mantissa, scale);
+            }
+            throw error("Invalid decimal fraction");
+        }
+        throw error("Unsupported tag " + Long.toUnsignedString(tag));
+    }
+
+    Object readSimple() throws CborParseException {
+
+        final int initial = input[position] & 0xff;
+
+        switch (initial) {
+        case FALSE:
+            position++;
+            return Boolean.FALSE;
+
+        case TRUE:
+            position++;
+            return Boolean.TRUE;
+
+        case NULL:
+            position++;
+            return null;
+
+        case FLOAT_64:
+            return Double.longBitsToDouble(argument());
+
+        default:
+            throw error("Unsupported simple value 0x" + Integer.toHexString(initial));
+        }
+    }
+
+    /**
+     * Reads the head at the current position.
+     *
+     * @return the argument, a negative value stands for an unsigned value above
+     *         {@link Long#MAX_VALUE}
+     */
+    long argument() throws CborParseException {
+
+        final int initial = input[position++] & 0xff;
+        final int info = initial & 0x1f;
+
+        if (info < 24) {
+            return info;
+        }
+
+        final int count;
+        switch (info) {
+        case 24:
+            count = 1;
+            break;
+        case 25:
+            count = 2;
+            break;
+        case 26:
+            count = 4;
+            break;
+        case 27:
+            count = 8;
+            break;
+        case 31:
+            position--;
+            throw error("Indefinite length items are not supported");
+        default:
+            position--;
+            throw error("Invalid additional information " + info);
+        }
+
+        if (count > limit - position) {
+            throw error("Unexpected end of input");
+        }
+
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 8) | (input[position++] & 0xff);
+        }
+        return value;
+    }
+
+    CborParseException error(final String message) {
+        return new CborParseException(message, position - start);
+    }
+}
@@ -0,0 +1,818 @@
+package com.apicatalog.cid.cbor;
+
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_ARRAY;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_MAP;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_TAG;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_TEXT;
+import static com.apicatalog.cid.cbor.CborGenerator.MAJOR_UNSIGNED;
+import static com.apicatalog.cid.cbor.CborGenerator.TAG_EPOCH_TIME;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * Encodes an {@link IdentifierDocument} as CBOR and decodes it back into the
+ * immutable model.
+ *
+ * <p>
+ * The encoding is a compact private schema, not a CBOR-LD or JSON mapping.
+ * Properties are maps keyed by small integers, {@link Multikey} keys are stored
+ * as the multicodec code and the raw bytes of
+ * {@link MulticodecEncoded#decoded()}, method types and dates are stored as
+ * numbers. A verification relationship entry declared in
+ * {@code verificationMethod} is stored as an index into it. An unknown format
+ * version or property is rejected when decoding.
+ * </p>
+ *
+ * <p>
+ * Secret keys are omitted unless requested, see
+ * {@link #encode(IdentifierDocument, boolean)}. Service endpoints without an
+ * id are skipped.
+ * </p>
+ *
+ * <p>
+ * The codec holds no state and is safe for concurrent use.
+ * </p>
+ */
+public final class IdentifierDocumentCodec {
+
+    /** The format version written into each document. */
+    public static final int VERSION = 1;
+
+    // document properties
+    static final int DOCUMENT_VERSION = 0;
+    static final int DOCUMENT_ID = 1;
+    static final int DOCUMENT_CONTROLLER = 2;
+    static final int DOCUMENT_ALSO_KNOWN_AS = 3;
+    static final int DOCUMENT_VERIFICATION_METHOD = 4;
+    static final int DOCUMENT_AUTHENTICATION = 5;
+    static final int DOCUMENT_ASSERTION_METHOD = 6;
+    static final int DOCUMENT_KEY_AGREEMENT = 7;
+    static final int DOCUMENT_CAPABILITY_INVOCATION = 8;
+    static final int DOCUMENT_CAPABILITY_DELEGATION = 9;
+    static final int DOCUMENT_SERVICE = 10;
+
+    // verification method properties
+    static final int METHOD_ID = 1;
+    static final int METHOD_TYPE = 2;
+    static final int METHOD_CONTROLLER = 3;
+    static final int METHOD_REVOKED = 4;
+    static final int METHOD_EXPIRES = 5;
+    static final int METHOD_PUBLIC_KEY = 6;
+    static final int METHOD_SECRET_KEY = 7;
+    static final int METHOD_PUBLIC_KEY_JWK = 8;
+    static final int METHOD_SECRET_KEY_JWK = 9;
+
+    // well known method types, other types are stored as text
+    static final int TYPE_MULTIKEY = 0;
+    static final int TYPE_JSON_WEB_KEY = 1;
+
+    // service properties
+    static final int SERVICE_ID = 1;
+    static final int SERVICE_TYPE = 2;
+    static final int SERVICE_ENDPOINT = 3;
+
+    private IdentifierDocumentCodec() {
+    }
+
+    /**
+     * Encodes the document, omitting secret keys.
+     *
+     * @param document the document to encode (must not be {@code null})
+     * @return a new byte array holding the encoded document
+     * @throws IllegalArgumentException if the document holds a value that
+     *                                  cannot be encoded, e.g. a JSON Web Key
+     *                                  member of an unsupported type
+     */
+    public static byte[] encode(final IdentifierDocument document) {
+        return encode(document, false);
+    }
+
+    /**
+     * Encodes the document.
+     *
+     * @param document       the document to encode (must not be {@code null})
+     * @param includeSecrets {@code true} to encode secret keys as well
+     * @return a new byte array holding the encoded document
+     * @throws IllegalArgumentException if the document holds a value that
+     *                                  cannot be encoded, e.g. a JSON Web Key
+     *                                  member of an unsupported type
+     */
+    public static byte[] encode(final IdentifierDocument document, final boolean includeSecrets) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        final CborGenerator generator = CborGenerator.acquire();
+        try {
+            writeDocument(document, generator, includeSecrets);
+            return generator.toByteArray();
+
+        } finally {
+            generator.release();
+        }
+    }
+
+    /**
+     * Encodes the document into the given stream, omitting secret keys. The
+     * stream is neither flushed nor closed.
+     *
+     * @param document the document to encode (must not be {@code null})
+     * @param output   the output stream (must not be {@code null})
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the document holds a value that
+     *                                  cannot be encoded
+     */
+    public static void encode(final IdentifierDocument document, final OutputStream output) throws IOException {
+        encode(document, output, false);
+    }
+
+    /**
+     * Encodes the document into the given stream. The stream is neither flushed
+     * nor closed.
+     *
+     * @param document       the document to encode (must not be {@code null})
+     * @param output         the output stream (must not be {@code null})
+     * @param includeSecrets {@code true} to encode secret keys as well
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the document holds a value that
+     *                                  cannot be encoded
+     */
+    public static void encode(final IdentifierDocument document, final OutputStream output, final boolean includeSecrets) throws IOException {
+        Objects.requireNonNull(document, "document must not be null");
+        Objects.requireNonNull(output, "output must not be null");
+
+        final CborGenerator generator = CborGenerator.acquire();
+        try {
+            writeDocument(document, generator, includeSecrets);
+            generator.writeTo(output);
+
+        } finally {
+            generator.release();
+        }
+    }
+
+    /**
+     * Decodes a document.
+     *
+     * @param encoded the encoded document (must not be {@code null})
+     * @return a new immutable document
+     * @throws CborParseException if the input is not a valid encoded document
+     */
+    public static IdentifierDocument decode(final byte[] encoded) throws CborParseException {
+        Objects.requireNonNull(encoded, "encoded must not be null");
+        return decode(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Decodes a document occupying exactly the given range of the array.
+     *
+     * @param encoded the array holding the encoded document (must not be
+     *                {@code null})
+     * @param offset  the index of the first byte
+     * @param length  the number of bytes
+     * @return a new immutable document
+     * @throws CborParseException        if the input is not a valid encoded
+     *                                   document
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public static IdentifierDocument decode(final byte[] encoded, final int offset, final int length) throws CborParseException {
+        Objects.requireNonNull(encoded, "encoded must not be null");
+
+        if (offset < 0 || length < 0 || offset > encoded.length - length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + offset + ", " + length + "] of " + encoded.length + " bytes");
+        }
+
+        final CborParser parser = new CborParser(encoded, offset, length);
+
+        final IdentifierDocument document = readDocument(parser);
+
+        if (!parser.isDone()) {
+            throw parser.error("Unexpected content after document");
+        }
+        return document;
+    }
+
+    static void writeDocument(final IdentifierDocument document, final CborGenerator generator, final boolean includeSecrets) {
+
+        final Collection<VerificationMethod> verification = document.verification();
+
+        final Set<VerificationMethod>[] relationships = relationships(document);
+
+        int size = 1;
+        if (document.id() != null) {
+            size++;
+        }
+        if (isPresent(document.controller())) {
+            size++;
+        }
+        if (isPresent(document.alsoKnownAs())) {
+            size++;
+        }
+        if (isPresent(verification)) {
+            size++;
+        }
+        for (final Set<VerificationMethod> relationship : relationships) {
+            if (isPresent(relationship)) {
+                size++;
+            }
+        }
+        if (isPresent(document.service())) {
+            size++;
+        }
+
+        generator.beginMap(size);
+
+        generator.value(DOCUMENT_VERSION).value(VERSION);
+
+        if (document.id() != null) {
+            generator.value(DOCUMENT_ID).value(document.id().toString());
+        }
+
+        writeUris(DOCUMENT_CONTROLLER, document.controller(), generator);
+        writeUris(DOCUMENT_ALSO_KNOWN_AS, document.alsoKnownAs(), generator);
+
+        Map<URI, Integer> declared = null;
+
+        if (isPresent(verification)) {
+
+            declared = new HashMap<>(verification.size() * 2);
+
+            generator.value(DOCUMENT_VERIFICATION_METHOD).beginArray(verification.size());
+
+            int index = 0;
+            for (final VerificationMethod method : verification) {
+                writeMethod(method, generator, includeSecrets);
+                if (method.id() != null) {
+                    declared.putIfAbsent(method.id(), index);
+                }
+                index++;
+            }
+        }
+
+        for (int i = 0; i < relationships.length; i++) {
+            writeRelationship(DOCUMENT_AUTHENTICATION + i, relationships[i], declared, generator, includeSecrets);
+        }
+
+        final Set<Service> service = document.service();
+
+        if (isPresent(service)) {
+            generator.value(DOCUMENT_SERVICE).beginArray(service.size());
+            for (final Service entry : service) {
+                writeService(entry, generator);
+            }
+        }
+    }
+
+    /**
+     * @return the relationships in the order of the property keys
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Set<VerificationMethod>[] relationships(final IdentifierDocument document) {
+        return new Set[] {
+                document.authentication(),
+                document.assertion(),
+                document.keyAgreement(),
+                document.capabilityInvocation(),
+                document.capabilityDelegation()
+        };
+    }
+
+    static void writeRelationship(final int key, final Set<VerificationMethod> methods, final Map<URI, Integer> declared, final CborGenerator generator, final boolean includeSecrets) {
+
+        if (!isPresent(methods)) {
+            return;
+        }
+
+        generator.value(key).beginArray(methods.size());
+
+        for (final VerificationMethod method : methods) {
+
+            final Integer index = method.id() != null && declared != null
+                    ? declared.get(method.id())
+                    : null;
+
+            if (index != null) {
+                generator.value(index);
+
+            } else if (method.id() != null && method.isReference()) {
+                generator.value(method.id().toString());
+
+            } else {
+                writeMethod(method, generator, includeSecrets);
+            }
+        }
+    }
+
+    static void writeMethod(final VerificationMethod method, final CborGenerator generator, final boolean includeSecrets) {
+
+        MulticodecEncoded publicKey = null;
+        MulticodecEncoded secretKey = null;
+        Map<String, Object> publicKeyJwk = null;
+        Map<String, Object> secretKeyJwk = null;
+
+        if (method instanceof Multikey) {
+            publicKey = ((Multikey) method).publicKey();
+            if (includeSecrets) {
+                secretKey = ((Multikey) method).secretKey();
+            }
+
+        } else if (method instanceof JsonWebKey) {
+            publicKeyJwk = ((JsonWebKey) method).publicKey();
+            if (includeSecrets) {
+                secretKeyJwk = ((JsonWebKey) method).secretKey();
+            }
+        }
+
+        final String type = method.type();
+
+        final int size = count(method.id(), type, method.controller(), method.revoked(), method.expires(),
+                publicKey, secretKey, publicKeyJwk, secretKeyJwk);
+
+        generator.beginMap(size);
+
+        if (method.id() != null) {
+            generator.value(METHOD_ID).value(method.id().toString());
+        }
+
+        if (type != null) {
+            generator.value(METHOD_TYPE);
+            if (Multikey.TYPE.equals(type)) {
+                generator.value(TYPE_MULTIKEY);
+
+            } else if (JsonWebKey.TYPE.equals(type)) {
+                generator.value(TYPE_JSON_WEB_KEY);
+
+            } else {
+                generator.value(type);
+            }
+        }
+
+        if (method.controller() != null) {
+            generator.value(METHOD_CONTROLLER).value(method.controller().toString());
+        }
+
+        writeInstant(METHOD_REVOKED, method.revoked(), generator);
+        writeInstant(METHOD_EXPIRES, method.expires(), generator);
+
+        writeKey(METHOD_PUBLIC_KEY, publicKey, generator);
+        writeKey(METHOD_SECRET_KEY, secretKey, generator);
+
+        if (publicKeyJwk != null) {
+            writeValue(generator.value(METHOD_PUBLIC_KEY_JWK), publicKeyJwk);
+        }
+        if (secretKeyJwk != null) {
+            writeValue(generator.value(METHOD_SECRET_KEY_JWK), secretKeyJwk);
+        }
+    }
+
+    /**
+     * @return the number of non-null values
+     */
+    static int count(final Object... values) {
+        int count = 0;
+        for (final Object value : values) {
+            if (value != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes a key as {@code [code, bytes]}.
+     */
+    static void writeKey(final int key, final MulticodecEncoded value, final CborGenerator generator) {
+        if (value != null) {
+            generator.value(key)
+                    .beginArray(2)
+                    .value(value.codecCode())
+                    .value(value.decodedBuffer());
+        }
+    }
+
+    /**
+     * Writes epoch seconds, or {@code [seconds, nanos]} if the instant is not a
+     * whole second.
+     */
+    static void writeInstant(final int key, final Instant instant, final CborGenerator generator) {
+        if (instant == null) {
+            return;
+        }
+        generator.value(key);
+        if (instant.getNano() == 0) {
+            generator.tag(TAG_EPOCH_TIME).value(instant.getEpochSecond());
+
+        } else {
+            generator.beginArray(2).value(instant.getEpochSecond()).value(instant.getNano());
+        }
+    }
+
+    static void writeService(final Service service, final CborGenerator generator) {
+
+        final Collection<String> type = service.type();
+        final Collection<ServiceEndpoint> endpoint = service.endpoint();
+
+        final int endpoints = countEndpoints(endpoint);
+
+        int size = service.id() != null ? 1 : 0;
+        if (isPresent(type)) {
+            size++;
+        }
+        if (endpoints > 0) {
+            size++;
+        }
+
+        generator.beginMap(size);
+
+        if (service.id() != null) {
+            generator.value(SERVICE_ID).value(service.id().toString());
+        }
+
+        if (isPresent(type)) {
+            generator.value(SERVICE_TYPE).beginArray(type.size());
+            for (final String value : type) {
+                generator.value(value);
+            }
+        }
+
+        if (endpoints > 0) {
+            generator.value(SERVICE_ENDPOINT).beginArray(endpoints);
+            for (final ServiceEndpoint value : endpoint) {
+                if (value != null && value.id() != null) {
+                    generator.value(value.id().toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of endpoints with an id
+     */
+    static int countEndpoints(final Collection<ServiceEndpoint> endpoint) {
+        int count = 0;
+        if (endpoint != null) {
+            for (final ServiceEndpoint value : endpoint) {
+                if (value != null && value.id() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static void writeUris(final int key, final Collection<URI> uris, final CborGenerator generator) {
+        if (isPresent(uris)) {
+            generator.value(key).beginArray(uris.size());
+            for (final URI uri : uris) {
+                generator.value(uri.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes a JSON value represented by a map, a list, a string, a number, a
+     * boolean, or {@code null}.
+     */
+    static void writeValue(final CborGenerator generator, final Object value) {
+
+        if (value == null) {
+            generator.nullValue();
+
+        } else if (value instanceof String) {
+            generator.value((String) value);
+
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            generator.value(((Number) value).longValue());
+
+        } else if (value instanceof BigInteger) {
+            generator.value((BigInteger) value);
+
+        } else if (value instanceof BigDecimal) {
+            generator.value((BigDecimal) value);
+
+        } else if (value instanceof Number) {
+            generator.value(((Number) value).doubleValue());
+
+        } else if (value instanceof Boolean) {
+            generator.value(((Boolean) value).booleanValue());
+
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            generator.beginMap(map.size());
+            for (final Map.Entry<?, ?> member : map.entrySet()) {
+                generator.value(String.valueOf(member.getKey()));
+                writeValue(generator, member.getValue());
+            }
+
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            generator.beginArray(list.size());
+            for (final Object item : list) {
+                writeValue(generator, item);
+            }
+
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value type " + value.getClass().getName());
+        }
+    }
+
+    static boolean isPresent(final Collection<?> collection) {
+        return collection != null && !collection.isEmpty();
+    }
+
+    static IdentifierDocument readDocument(final CborParser parser) throws CborParseException {
+
+        final int size = parser.size(MAJOR_MAP);
+
+        if (size == 0 || parser.readLong() != DOCUMENT_VERSION) {
+            throw parser.error("Expected a format version");
+        }
+
+        final long version = parser.readLong();
+        if (version != VERSION) {
+            throw parser.error("Unsupported format version " + version);
+        }
+
+        URI id = null;
+        Collection<URI> controller = null;
+        Collection<URI> alsoKnownAs = null;
+        List<VerificationMethod> verification = null;
+        Set<Service> service = null;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final Set<VerificationMethod>[] relationships = new Set[DOCUMENT_CAPABILITY_DELEGATION - DOCUMENT_AUTHENTICATION + 1];
+
+        for (int i = 1; i < size; i++) {
+
+            final long key = parser.readLong();
+
+            if (key == DOCUMENT_ID) {
+                id = readUri(parser);
+
+            } else if (key == DOCUMENT_CONTROLLER) {
+                controller = readUris(parser);
+
+            } else if (key == DOCUMENT_ALSO_KNOWN_AS) {
+                alsoKnownAs = readUris(parser);
+
+            } else if (key == DOCUMENT_VERIFICATION_METHOD) {
+                final int count = parser.size(MAJOR_ARRAY);
+                verification = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    verification.add(readMethod(parser));
+                }
+                verification = Collections.unmodifiableList(verification);
+
+            } else if (key >= DOCUMENT_AUTHENTICATION && key <= DOCUMENT_CAPABILITY_DELEGATION) {
+                relationships[(int) key - DOCUMENT_AUTHENTICATION] = readRelationship(parser, verification);
+
+            } else if (key == DOCUMENT_SERVICE) {
+                final int count = parser.size(MAJOR_ARRAY);
+                final Set<Service> services = new LinkedHashSet<>(count * 2);
+                for (int j = 0; j < count; j++) {
+                    services.add(readService(parser));
+                }
+                service = Collections.unmodifiableSet(services);
+
+            } else {
+                throw parser.error("Unknown property " + key);
+            }
+        }
+
+        return IdentifierDocument.of(
+                id,
+                controller,
+                alsoKnownAs,
+                verification,
+                relationships[0],
+                relationships[1],
+                relationships[2],
+                relationships[3],
+                relationships[4],
+                service);
+    }
+
+    /**
+     * Reads relationship entries, i.e. indices into the declared methods,
+     * references, or embedded methods.
+     */
+    static Set<VerificationMethod> readRelationship(final CborParser parser, final List<VerificationMethod> declared) throws CborParseException {
+
+        final int count = parser.size(MAJOR_ARRAY);
+
+        final Set<VerificationMethod> methods = new LinkedHashSet<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+
+            final int major = parser.peekMajor();
+
+            if (major == MAJOR_UNSIGNED) {
+                final long index = parser.readLong();
+                if (declared == null || index >= declared.size()) {
+                    throw parser.error("Invalid verification method index " + index);
+                }
+                methods.add(declared.get((int) index));
+
+            } else if (major == MAJOR_TEXT) {
+                methods.add(VerificationMethod.of(readUri(parser)));
+
+            } else {
+                methods.add(readMethod(parser));
+            }
+        }
+        return Collections.unmodifiableSet(methods);
+    }
+
+    static VerificationMethod readMethod(final CborParser parser) throws CborParseException {
+
+        final int size = parser.size(MAJOR_MAP);
+
+        URI id = null;
+        String type = null;
+        URI controller = null;
+        Instant revoked = null;
+        Instant expires = null;
+        MulticodecEncoded publicKey = null;
+        MulticodecEncoded secretKey = null;
+        Map<String, Object> publicKeyJwk = null;
+        Map<String, Object> secretKeyJwk = null;
+
+        for (int i = 0; i < size; i++) {
+
+            final long key = parser.readLong();
+
+            if (key == METHOD_ID) {
+                id = readUri(parser);
+
+            } else if (key == METHOD_TYPE) {
+                type = readType(parser);
+
+            } else if (key == METHOD_CONTROLLER) {
+                controller = readUri(parser);
+
+            } else if (key == METHOD_REVOKED) {
+                revoked = readInstant(parser);
+
+            } else if (key == METHOD_EXPIRES) {
+                expires = readInstant(parser);
+
+            } else if (key == METHOD_PUBLIC_KEY) {
+                publicKey = readKey(parser);
+
+            } else if (key == METHOD_SECRET_KEY) {
+                secretKey = readKey(parser);
+
+            } else if (key == METHOD_PUBLIC_KEY_JWK) {
+                publicKeyJwk = readObject(parser);
+
+            } else if (key == METHOD_SECRET_KEY_JWK) {
+                secretKeyJwk = readObject(parser);
+
+            } else {
+                throw parser.error("Unknown property " + key);
+            }
+        }
+
+        if (Multikey.TYPE.equals(type)) {
+            return Multikey.of(id, controller, publicKey, secretKey, revoked, expires);
+        }
+
+        if (JsonWebKey.TYPE.equals(type)) {
+            return JsonWebKey.of(id, controller, publicKeyJwk, secretKeyJwk, revoked, expires);
+        }
+
+        return VerificationMethod.of(id, type, controller, revoked, expires);
+    }
+
+    static String readType(final CborParser parser) throws CborParseException {
+
+        if (parser.peekMajor() == MAJOR_TEXT) {
+            return parser.readText();
+        }
+
+        final long type = parser.readLong();
+
+        if (type == TYPE_MULTIKEY) {
+            return Multikey.TYPE;
+        }
+        if (type == TYPE_JSON_WEB_KEY) {
+            return JsonWebKey.TYPE;
+        }
+        throw parser.error("Unknown verification method type " + type);
+    }
+
+    static MulticodecEncoded readKey(final CborParser parser) throws CborParseException {
+        if (parser.size(MAJOR_ARRAY) != 2) {
+            throw parser.error("Expected a key as [code, bytes]");
+        }
+        final long code = parser.readLong();
+        return MulticodecEncoded.of(code, parser.readBytes());
+    }
+
+    static Instant readInstant(final CborParser parser) throws CborParseException {
+        try {
+            if (parser.peekMajor() == MAJOR_TAG) {
+                if (parser.head(MAJOR_TAG) != TAG_EPOCH_TIME) {
+                    throw parser.error("Expected an epoch time");
+                }
+                return Instant.ofEpochSecond(parser.readLong());
+            }
+
+            if (parser.size(MAJOR_ARRAY) != 2) {
+                throw parser.error("Expected an epoch time as [seconds, nanos]");
+            }
+            final long seconds = parser.readLong();
+            return Instant.ofEpochSecond(seconds, parser.readLong());
+
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new CborParseException("Invalid epoch time: " + e.getMessage(), parser.position - parser.start, e);
+        }
+    }
+
+    static Service readService(final CborParser parser) throws CborParseException {
+
+        final int size = parser.size(MAJOR_MAP);
+
+        URI id = null;
+        Collection<String> type = null;
+        Collection<ServiceEndpoint> endpoint = null;
+
+        for (int i = 0; i < size; i++) {
+
+            final long key = parser.readLong();
+
+            if (key == SERVICE_ID) {
+                id = readUri(parser);
+
+            } else if (key == SERVICE_TYPE) {
+                final int count = parser.size(MAJOR_ARRAY);
+                final List<String> types = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    types.add(parser.readText());
+                }
+                type = Collections.unmodifiableList(types);
+
+            } else if (key == SERVICE_ENDPOINT) {
+                final int count = parser.size(MAJOR_ARRAY);
+                final List<ServiceEndpoint> endpoints = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    endpoints.add(ServiceEndpoint.of(readUri(parser)));
+                }
+                endpoint = Collections.unmodifiableList(endpoints);
+
+            } else {
+                throw parser.error("Unknown property " + key);
+            }
+        }
+
+        return Service.of(id, type, endpoint);
+    }
+
+    static URI readUri(final CborParser parser) throws CborParseException {
+        final String value = parser.readText();
+        try {
+            return URI.create(value);
+
+        } catch (IllegalArgumentException e) {
+            throw new CborParseException("Invalid URI: " + e.getMessage(), parser.position - parser.start, e);
+        }
+    }
+
+    static Collection<URI> readUris(final CborParser parser) throws CborParseException {
+        final int count = parser.size(MAJOR_ARRAY);
+        final List<URI> uris = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            uris.add(readUri(parser));
+        }
+        return Collections.unmodifiableList(uris);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readObject(final CborParser parser) throws CborParseException {
+        if (parser.peekMajor() != MAJOR_MAP) {
+            throw parser.error("Expected a map");
+        }
+        return (Map<String, Object>) parser.readValue();
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Compact binary encoding of Controlled Identifier Documents using
+ * <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a>.
+ * <p>
+ * Intended for cache tiers and for transfer between nodes, i.e. where both
+ * sides use this library. Keys are stored as raw bytes rather than multibase
+ * text. No external CBOR library is required.
+ * </p>
+ */
+package com.apicatalog.cid.cbor;
@@ -0,0 +1,88 @@
+package com.apicatalog.cid.datatype;
+
+import java.util.Arrays;
+
+/**
+ * Encodes and decodes hexadecimal digits used by the {@code base16}
+ * multibases. Both cases are accepted when decoding.
+ */
+final class Base16 {
+
+    static final char[] LOWER = "0123456789abcdef".toCharArray();
+
+    static final char[] UPPER = "0123456789ABCDEF".toCharArray();
+
+    static final byte[] INDEX = new byte[128];
+
+    static {
+        Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            INDEX[LOWER[i]] = (byte) i;
+            INDEX[UPPER[i]] = (byte) i;
+        }
+    }
+
+    private Base16() {
+    }
+
+    /**
+     * @return the decoded length
+     * @throws IllegalArgumentException if the length is odd
+     */
+    static int decodedLength(final CharSequence value, final int offset) {
+        final int length = value.length() - offset;
+        if (length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid base16 length " + length);
+        }
+        return length / 2;
+    }
+
+    static byte[] decode(final CharSequence value, final int offset) {
+        final byte[] decoded = new byte[decodedLength(value, offset)];
+        decode(value, offset, decoded, 0);
+        return decoded;
+    }
+
+    /**
+     * Decodes the given characters into {@code output}.
+     *
+     * @return the number of decoded bytes
+     */
+    static int decode(final CharSequence value, final int offset, final byte[] output, final int outputOffset) {
+
+        final int size = decodedLength(value, offset);
+
+        if (size > output.length - outputOffset) {
+            throw new IndexOutOfBoundsException("The decoded value of " + size + " bytes exceeds the output of " + (output.length - outputOffset) + " bytes");
+        }
+
+        for (int i = 0, index = offset; i < size; i++, index += 2) {
+            output[outputOffset + i] = (byte) (digit(value, index) << 4 | digit(value, index + 1));
+        }
+        return size;
+    }
+
+    static int digit(final CharSequence value, final int index) {
+        final char ch = value.charAt(index);
+        final int digit = ch < 128 ? INDEX[ch] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid base16 character '" + ch + "' at " + index);
+        }
+        return digit;
+    }
+
+    /**
+     * Encodes the given bytes into {@code output}.
+     *
+     * @return the number of characters written
+     */
+    static int encode(final byte[] value, final int offset, final int length, final char[] output, final int outputOffset, final boolean upper) {
+        final char[] digits = upper ? UPPER : LOWER;
+        for (int i = 0; i < length; i++) {
+            final int b = value[offset + i] & 0xff;
+            output[outputOffset + 2 * i] = digits[b >>> 4];
+            output[outputOffset + 2 * i + 1] = digits[b & 0x0f];
+        }
+        return length * 2;
+    }
+}
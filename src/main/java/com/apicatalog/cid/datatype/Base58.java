@@ -0,0 +1,275 @@
+package com.apicatalog.cid.datatype;
+
+import java.util.Arrays;
+
+/**
+ * Encodes and decodes the Bitcoin base58 alphabet used by the
+ * {@code base58btc} multibase.
+ *
+ * <p>
+ * Digits are processed five at a time, and the value is kept in 32-bit limbs,
+ * so a 34-byte key takes tens of limb operations instead of a
+ * {@link java.math.BigInteger} multiplication per digit.
+ * </p>
+ */
+final class Base58 {
+
+    static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    static final char[] DIGITS = ALPHABET.toCharArray();
+
+    static final byte[] INDEX = new byte[128];
+
+    /** 58^0 to 58^5, 58^5 is the largest power below 2^31 */
+    static final int[] POWERS = { 1, 58, 3364, 195112, 11316496, 656356768 };
+
+    static final int GROUP = 5;
+
+    static final long GROUP_BASE = 656356768L;
+
+    static {
+        Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            INDEX[ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
+
+    private Base58() {
+    }
+
+    /**
+     * Decodes the given characters.
+     *
+     * @param value  the encoded value
+     * @param offset the index of the first character to decode
+     * @return the decoded bytes
+     * @throws IllegalArgumentException if the value contains a character outside
+     *                                  of the alphabet
+     */
+    static byte[] decode(final CharSequence value, final int offset) {
+
+        final int zeros = zeros(value, offset);
+
+        final int[] limbs = new int[limbs(value.length() - offset - zeros)];
+        final int used = decode(value, offset + zeros, limbs);
+
+        final byte[] decoded = new byte[zeros + length(limbs, used)];
+        write(limbs, used, decoded, zeros, decoded.length - zeros);
+        return decoded;
+    }
+
+    /**
+     * Decodes the given characters into {@code output}.
+     *
+     * @return the number of decoded bytes
+     * @throws IllegalArgumentException  if the value contains a character outside
+     *                                   of the alphabet
+     * @throws IndexOutOfBoundsException if the decoded value does not fit
+     */
+    static int decode(final CharSequence value, final int offset, final byte[] output, final int outputOffset) {
+
+        final int zeros = zeros(value, offset);
+
+        final int[] limbs = new int[limbs(value.length() - offset - zeros)];
+        final int used = decode(value, offset + zeros, limbs);
+
+        final int size = length(limbs, used);
+
+        if (size + zeros > output.length - outputOffset) {
+            throw new IndexOutOfBoundsException("The decoded value of " + (zeros + size) + " bytes exceeds the output of " + (output.length - outputOffset) + " bytes");
+        }
+
+        Arrays.fill(output, outputOffset, outputOffset + zeros, (byte) 0);
+        write(limbs, used, output, outputOffset + zeros, size);
+        return zeros + size;
+    }
+
+    /**
+     * @return an upper bound of the decoded length
+     */
+    static int maxDecodedLength(final CharSequence value, final int offset) {
+        final int zeros = zeros(value, offset);
+        // log(58) / log(256) ~ 0.7322
+        return zeros + (int) ((value.length() - offset - zeros) * 733L / 1000) + 1;
+    }
+
+    /** @return the number of leading zero digits */
+    static int zeros(final CharSequence value, final int offset) {
+        int zeros = 0;
+        while (offset + zeros < value.length() && value.charAt(offset + zeros) == '1') {
+            zeros++;
+        }
+        return zeros;
+    }
+
+    /** @return the number of 32-bit limbs holding a value of the given digits */
+    static int limbs(final int digits) {
+        return ((int) (digits * 733L / 1000) + 1 + 3) / 4;
+    }
+
+    /**
+     * Accumulates the digits into little-endian limbs.
+     *
+     * @return the number of limbs in use
+     */
+    static int decode(final CharSequence value, final int start, final int[] limbs) {
+
+        final int end = value.length();
+
+        int used = 0;
+
+        // the first group takes the remainder so that others are full
+        int group = (end - start) % GROUP;
+        if (group == 0) {
+            group = GROUP;
+        }
+
+        int index = start;
+
+        while (index < end) {
+
+            int digits = 0;
+
+            for (int i = 0; i < group; i++, index++) {
+                final char ch = value.charAt(index);
+                final int digit = ch < 128 ? INDEX[ch] : -1;
+                if (digit < 0) {
+                    throw new IllegalArgumentException("Invalid base58 character '" + ch + "' at " + index);
+                }
+                digits = digits * 58 + digit;
+            }
+
+            // limbs = limbs * 58^group + digits
+            final long multiplier = POWERS[group];
+            long carry = digits;
+
+            for (int i = 0; i < used; i++) {
+                carry += (limbs[i] & 0xffffffffL) * multiplier;
+                limbs[i] = (int) carry;
+                carry >>>= 32;
+            }
+            while (carry != 0) {
+                limbs[used++] = (int) carry;
+                carry >>>= 32;
+            }
+
+            group = GROUP;
+        }
+        return used;
+    }
+
+    /** @return the number of significant bytes */
+    static int length(final int[] limbs, final int used) {
+        if (used == 0) {
+            return 0;
+        }
+        return (used - 1) * 4 + (32 - Integer.numberOfLeadingZeros(limbs[used - 1]) + 7) / 8;
+    }
+
+    /**
+     * Writes the significant bytes, big-endian.
+     */
+    static void write(final int[] limbs, final int used, final byte[] output, final int offset, final int size) {
+        int index = offset + size - 1;
+        for (int i = 0; i < used; i++) {
+            int limb = limbs[i];
+            for (int j = 0; j < 4 && index >= offset; j++) {
+                output[index--] = (byte) limb;
+                limb >>>= 8;
+            }
+        }
+    }
+
+    /**
+     * @return an upper bound of the encoded length
+     */
+    static int maxEncodedLength(final int length) {
+        // log(256) / log(58) ~ 1.3658
+        return (int) (length * 1366L / 1000) + 1;
+    }
+
+    /**
+     * Encodes the given bytes into {@code output}, which must hold at least
+     * {@link #maxEncodedLength(int)} characters.
+     *
+     * @return the number of characters written
+     */
+    static int encode(final byte[] value, final int offset, final int length, final char[] output, final int outputOffset) {
+
+        final int end = offset + length;
+
+        int zeros = 0;
+        while (zeros < length && value[offset + zeros] == 0) {
+            zeros++;
+        }
+
+        // little-endian limbs holding five digits each
+        final int[] limbs = new int[maxEncodedLength(length - zeros) / GROUP + 1];
+        int used = 0;
+
+        // the first chunk takes the remainder so that others are full
+        int chunk = (length - zeros) % 4;
+        if (chunk == 0) {
+            chunk = 4;
+        }
+
+        int index = offset + zeros;
+
+        while (index < end) {
+
+            long bytes = 0;
+            for (int i = 0; i < chunk; i++) {
+                bytes = (bytes << 8) | (value[index++] & 0xff);
+            }
+
+            // limbs = limbs * 256^chunk + bytes
+            final int shift = 8 * chunk;
+            long carry = bytes;
+
+            for (int i = 0; i < used; i++) {
+                carry += (long) limbs[i] << shift;
+                limbs[i] = (int) (carry % GROUP_BASE);
+                carry /= GROUP_BASE;
+            }
+            while (carry != 0) {
+                limbs[used++] = (int) (carry % GROUP_BASE);
+                carry /= GROUP_BASE;
+            }
+
+            chunk = 4;
+        }
+
+        int position = outputOffset;
+
+        for (int i = 0; i < zeros; i++) {
+            output[position++] = '1';
+        }
+
+        if (used == 0) {
+            return position - outputOffset;
+        }
+
+        // the most significant limb without leading zero digits
+        int top = limbs[used - 1];
+        int digits = 0;
+        for (int rest = top; rest != 0; rest /= 58) {
+            digits++;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            output[position + i] = DIGITS[top % 58];
+            top /= 58;
+        }
+        position += digits;
+
+        for (int i = used - 2; i >= 0; i--) {
+            int limb = limbs[i];
+            for (int j = GROUP - 1; j >= 0; j--) {
+                output[position + j] = DIGITS[limb % 58];
+                limb /= 58;
+            }
+            position += GROUP;
+        }
+
+        return position - outputOffset;
+    }
+}
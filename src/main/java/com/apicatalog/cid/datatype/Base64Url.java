@@ -0,0 +1,146 @@
+package com.apicatalog.cid.datatype;
+
+import java.util.Arrays;
+
+/**
+ * Encodes and decodes the URL and filename safe base64 alphabet, without
+ * padding, used by the {@code base64url} multibase.
+ */
+final class Base64Url {
+
+    static final char[] DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    static final byte[] INDEX = new byte[128];
+
+    static {
+        Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            INDEX[DIGITS[i]] = (byte) i;
+        }
+    }
+
+    private Base64Url() {
+    }
+
+    /**
+     * @return the decoded length, trailing padding is tolerated
+     * @throws IllegalArgumentException if the length is not valid
+     */
+    static int decodedLength(final CharSequence value, final int offset) {
+        final int length = unpadded(value, offset) - offset;
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid base64url length " + length);
+        }
+        return length / 4 * 3 + (length % 4 == 0 ? 0 : length % 4 - 1);
+    }
+
+    /** @return the end of the value without padding */
+    static int unpadded(final CharSequence value, final int offset) {
+        int end = value.length();
+        for (int i = 0; i < 2 && end > offset && value.charAt(end - 1) == '='; i++) {
+            end--;
+        }
+        return end;
+    }
+
+    static byte[] decode(final CharSequence value, final int offset) {
+        final byte[] decoded = new byte[decodedLength(value, offset)];
+        decode(value, offset, decoded, 0);
+        return decoded;
+    }
+
+    /**
+     * Decodes the given characters into {@code output}.
+     *
+     * @return the number of decoded bytes
+     */
+    static int decode(final CharSequence value, final int offset, final byte[] output, final int outputOffset) {
+
+        final int size = decodedLength(value, offset);
+
+        if (size > output.length - outputOffset) {
+            throw new IndexOutOfBoundsException("The decoded value of " + size + " bytes exceeds the output of " + (output.length - outputOffset) + " bytes");
+        }
+
+        final int end = unpadded(value, offset);
+
+        int index = offset;
+        int position = outputOffset;
+
+        // full quantums, 4 characters to 3 bytes
+        for (final int full = end - (end - offset) % 4; index < full; index += 4) {
+            final int bits = digit(value, index) << 18
+                    | digit(value, index + 1) << 12
+                    | digit(value, index + 2) << 6
+                    | digit(value, index + 3);
+            output[position++] = (byte) (bits >> 16);
+            output[position++] = (byte) (bits >> 8);
+            output[position++] = (byte) bits;
+        }
+
+        final int rest = end - index;
+
+        if (rest >= 2) {
+            int bits = digit(value, index) << 18 | digit(value, index + 1) << 12;
+            output[position++] = (byte) (bits >> 16);
+            if (rest == 3) {
+                bits |= digit(value, index + 2) << 6;
+                output[position++] = (byte) (bits >> 8);
+            }
+        }
+
+        return position - outputOffset;
+    }
+
+    static int digit(final CharSequence value, final int index) {
+        final char ch = value.charAt(index);
+        final int digit = ch < 128 ? INDEX[ch] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid base64url character '" + ch + "' at " + index);
+        }
+        return digit;
+    }
+
+    static int encodedLength(final int length) {
+        return length / 3 * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * Encodes the given bytes into {@code output}.
+     *
+     * @return the number of characters written
+     */
+    static int encode(final byte[] value, final int offset, final int length, final char[] output, final int outputOffset) {
+
+        final int end = offset + length;
+
+        int index = offset;
+        int position = outputOffset;
+
+        for (final int full = end - length % 3; index < full; index += 3) {
+            final int bits = (value[index] & 0xff) << 16
+                    | (value[index + 1] & 0xff) << 8
+                    | (value[index + 2] & 0xff);
+            output[position++] = DIGITS[bits >>> 18];
+            output[position++] = DIGITS[(bits >>> 12) & 0x3f];
+            output[position++] = DIGITS[(bits >>> 6) & 0x3f];
+            output[position++] = DIGITS[bits & 0x3f];
+        }
+
+        final int rest = end - index;
+
+        if (rest > 0) {
+            int bits = (value[index] & 0xff) << 16;
+            if (rest == 2) {
+                bits |= (value[index + 1] & 0xff) << 8;
+            }
+            output[position++] = DIGITS[bits >>> 18];
+            output[position++] = DIGITS[(bits >>> 12) & 0x3f];
+            if (rest == 2) {
+                output[position++] = DIGITS[(bits >>> 6) & 0x3f];
+            }
+        }
+
+        return position - outputOffset;
+    }
+}
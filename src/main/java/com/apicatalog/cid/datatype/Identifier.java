@@ -0,0 +1,232 @@
+package com.apicatalog.cid.datatype;
+
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * A compact, immutable identifier, e.g. a verification method or a controller
+ * document identifier.
+ *
+ * <p>
+ * Unlike {@link URI}, an identifier is kept as a single string and is never
+ * parsed unless {@link #uri()} is requested. The hash code and the position of
+ * the fragment are computed once, and the identifier without a fragment, see
+ * {@link #base()}, is created at most once per instance, so deriving a
+ * controller document identifier from a verification method identifier
+ * repeatedly does not allocate.
+ * </p>
+ *
+ * <p>
+ * Two identifiers are equal if they are equal as URIs, see
+ * {@link URI#equals(Object)}, i.e. the case of a scheme, a host, and of
+ * percent-encoded octets is ignored. The normalized form compared is computed
+ * once, when the identifier is created, and allocates only if the identifier
+ * is not in that form already.
+ * </p>
+ */
+public final class Identifier {
+
+    final String value;
+
+    /**
+     * {@link #value} with a lower case scheme and host, and upper case hex
+     * digits of percent-encoded octets, the same instance if already so
+     */
+    final String key;
+
+    /** index of {@code #}, or {@code -1} */
+    final int fragment;
+
+    final int hashCode;
+
+    /** lazily computed, may be computed more than once under contention */
+    volatile URI uri;
+
+    /** lazily computed, may be computed more than once under contention */
+    volatile Identifier base;
+
+    Identifier(final String value, final String key, final int fragment, final URI uri) {
+        this.value = value;
+        this.key = key;
+        this.fragment = fragment;
+        this.hashCode = key.hashCode();
+        this.uri = uri;
+    }
+
+    /**
+     * Creates an identifier from the given string, which is not validated.
+     *
+     * @param value the identifier (must not be {@code null})
+     * @return a new identifier
+     * @throws NullPointerException if {@code value} is {@code null}
+     */
+    public static Identifier of(final String value) {
+        Objects.requireNonNull(value, "value must not be null");
+        return new Identifier(value, normalize(value), value.indexOf('#'), null);
+    }
+
+    /**
+     * Creates an identifier from the given URI, which is retained and returned
+     * by {@link #uri()}.
+     *
+     * @param uri the identifier (must not be {@code null})
+     * @return a new identifier
+     * @throws NullPointerException if {@code uri} is {@code null}
+     */
+    public static Identifier of(final URI uri) {
+        Objects.requireNonNull(uri, "uri must not be null");
+        final String value = uri.toString();
+        return new Identifier(value, normalize(value), uri.getRawFragment() != null ? value.indexOf('#') : -1, uri);
+    }
+
+    /**
+     * Returns the identifier without a fragment, i.e. a controller document
+     * identifier if this is a verification method identifier.
+     *
+     * @return the identifier without a fragment, {@code this} if there is no
+     *         fragment
+     */
+    public Identifier base() {
+        if (fragment == -1) {
+            return this;
+        }
+        Identifier result = base;
+        if (result == null) {
+            // normalization keeps the length, the fragment starts at the same index
+            final String baseValue = value.substring(0, fragment);
+            result = new Identifier(baseValue, key == value ? baseValue : key.substring(0, fragment), -1, null);
+            base = result;
+        }
+        return result;
+    }
+
+    /** @return {@code true} if the identifier has a fragment */
+    public boolean hasFragment() {
+        return fragment != -1;
+    }
+
+    /**
+     * Returns the raw fragment, i.e. the part after {@code #}.
+     *
+     * @return the fragment, or {@code null} if there is no fragment
+     */
+    public String fragment() {
+        return fragment != -1 ? value.substring(fragment + 1) : null;
+    }
+
+    /**
+     * Returns the identifier as a {@link URI}, parsed on first access.
+     *
+     * @return the identifier as a {@link URI}
+     * @throws IllegalArgumentException if the identifier is not a valid URI
+     */
+    public URI uri() {
+        URI result = uri;
+        if (result == null) {
+            result = URI.create(value);
+            uri = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Identifier)) {
+            return false;
+        }
+        final Identifier other = (Identifier) obj;
+        return hashCode == other.hashCode && key.equals(other.key);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    /**
+     * Lower cases the scheme and the host, and upper cases hex digits of
+     * percent-encoded octets, the components {@link URI#equals(Object)}
+     * compares ignoring case.
+     *
+     * @return the normalized value, {@code value} if it is normalized already
+     */
+    static String normalize(final String value) {
+
+        char[] chars = null;
+
+        final int length = value.length();
+
+        // scheme, up to the first colon preceding any of / ? #
+        int index = 0;
+        while (index < length) {
+            final char ch = value.charAt(index);
+            if (ch == ':' || ch == '/' || ch == '?' || ch == '#') {
+                break;
+            }
+            index++;
+        }
+
+        int position = 0;
+
+        if (index < length && value.charAt(index) == ':') {
+            for (; position < index; position++) {
+                final char ch = value.charAt(position);
+                if (ch >= 'A' && ch <= 'Z') {
+                    chars = chars != null ? chars : value.toCharArray();
+                    chars[position] = (char) (ch + ('a' - 'A'));
+                }
+            }
+            position = index + 1;
+
+            // authority, the host follows user info and precedes a port
+            if (value.startsWith("//", position)) {
+                position += 2;
+
+                int end = position;
+                int host = position;
+                while (end < length) {
+                    final char ch = value.charAt(end);
+                    if (ch == '/' || ch == '?' || ch == '#') {
+                        break;
+                    }
+                    if (ch == '@') {
+                        host = end + 1;
+                    }
+                    end++;
+                }
+
+                for (int i = host; i < end; i++) {
+                    final char ch = value.charAt(i);
+                    if (ch == ':' && value.charAt(host) != '[') {
+                        break;
+                    }
+                    if (ch >= 'A' && ch <= 'Z') {
+                        chars = chars != null ? chars : value.toCharArray();
+                        chars[i] = (char) (ch + ('a' - 'A'));
+                    }
+                }
+            }
+        }
+
+        // percent-encoded octets, in the host too
+        for (int i = value.indexOf('%'); i != -1 && i + 2 < length; i = value.indexOf('%', i + 1)) {
+            for (int j = i + 1; j <= i + 2; j++) {
+                final char ch = chars != null ? chars[j] : value.charAt(j);
+                if (ch >= 'a' && ch <= 'f') {
+                    chars = chars != null ? chars : value.toCharArray();
+                    chars[j] = (char) (ch - ('a' - 'A'));
+                }
+            }
+        }
+
+        return chars != null ? new String(chars) : value;
+    }
+}
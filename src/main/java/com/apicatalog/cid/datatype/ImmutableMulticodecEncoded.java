@@ -0,0 +1,30 @@
+package com.apicatalog.cid.datatype;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+final class ImmutableMulticodecEncoded implements MulticodecEncoded {
+
+    final long codecCode;
+    final byte[] decoded;
+
+    ImmutableMulticodecEncoded(final long codecCode, final byte[] decoded) {
+        this.codecCode = codecCode;
+        this.decoded = Objects.requireNonNull(decoded, "decoded must not be null");
+    }
+
+    @Override
+    public long codecCode() {
+        return codecCode;
+    }
+
+    @Override
+    public byte[] decoded() {
+        return decoded;
+    }
+
+    @Override
+    public ByteBuffer decodedBuffer() {
+        return ByteBuffer.wrap(decoded).asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,54 @@
+package com.apicatalog.cid.datatype;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Holds a multibase encoded value and decodes it on first access.
+ */
+final class LazyMultibaseEncoded implements MultibaseEncoded {
+
+    final String encoded;
+    final String baseName;
+
+    /** benign race, decoding is idempotent */
+    volatile byte[] debased;
+
+    LazyMultibaseEncoded(final String encoded, final String baseName) {
+        this.encoded = encoded;
+        this.baseName = baseName;
+    }
+
+    @Override
+    public String baseName() {
+        return baseName;
+    }
+
+    @Override
+    public String encoded() {
+        return encoded;
+    }
+
+    @Override
+    public byte[] debased() {
+        return value().clone();
+    }
+
+    @Override
+    public ByteBuffer debasedBuffer() {
+        return ByteBuffer.wrap(value()).asReadOnlyBuffer();
+    }
+
+    byte[] value() {
+        byte[] value = debased;
+        if (value == null) {
+            value = Multibase.decode(encoded);
+            debased = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return encoded;
+    }
+}
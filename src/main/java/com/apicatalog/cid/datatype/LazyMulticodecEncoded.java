@@ -0,0 +1,70 @@
+package com.apicatalog.cid.datatype;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Holds a multibase encoded multicodec value, decodes it and splits the prefix
+ * on first access.
+ */
+final class LazyMulticodecEncoded implements MulticodecEncoded, MultibaseEncoded {
+
+    final String encoded;
+    final String baseName;
+
+    /** benign race, decoding is idempotent */
+    volatile PrefixedMulticodecEncoded value;
+
+    LazyMulticodecEncoded(final String encoded, final String baseName) {
+        this.encoded = encoded;
+        this.baseName = baseName;
+    }
+
+    @Override
+    public long codecCode() {
+        return value().codecCode;
+    }
+
+    @Override
+    public byte[] decoded() {
+        return value().decoded();
+    }
+
+    @Override
+    public ByteBuffer decodedBuffer() {
+        return value().decodedBuffer();
+    }
+
+    @Override
+    public String baseName() {
+        return baseName;
+    }
+
+    @Override
+    public String encoded() {
+        return encoded;
+    }
+
+    @Override
+    public byte[] debased() {
+        return value().encoded.clone();
+    }
+
+    @Override
+    public ByteBuffer debasedBuffer() {
+        return ByteBuffer.wrap(value().encoded).asReadOnlyBuffer();
+    }
+
+    PrefixedMulticodecEncoded value() {
+        PrefixedMulticodecEncoded decoded = value;
+        if (decoded == null) {
+            decoded = Multicodec.split(Multibase.decode(encoded));
+            value = decoded;
+        }
+        return decoded;
+    }
+
+    @Override
+    public String toString() {
+        return encoded;
+    }
+}
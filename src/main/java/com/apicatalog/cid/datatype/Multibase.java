@@ -0,0 +1,278 @@
+package com.apicatalog.cid.datatype;
+
+import java.util.Objects;
+
+/**
+ * Encodes and decodes <a href=
+ * "https://datatracker.ietf.org/doc/html/draft-multiformats-multibase">Multibase</a>
+ * encoded values.
+ *
+ * <p>
+ * Supported bases are {@code base58btc} ({@code z}), {@code base64url}
+ * ({@code u}), and {@code base16} ({@code f} and {@code F}). The codecs are
+ * table-driven, {@code base58btc} uses 32-bit limb arithmetic rather than
+ * {@link java.math.BigInteger}.
+ * </p>
+ *
+ * <p>
+ * Besides the methods returning new arrays and strings, values can be decoded
+ * into and encoded to buffers supplied by the caller, see
+ * {@link #decode(CharSequence, byte[], int)} and
+ * {@link #encode(char, byte[], int, int, char[], int)}.
+ * </p>
+ */
+public final class Multibase {
+
+    /** The prefix of {@code base58btc}. */
+    public static final char BASE_58_BTC = 'z';
+
+    /** The prefix of {@code base64url}, no padding. */
+    public static final char BASE_64_URL = 'u';
+
+    /** The prefix of {@code base16}, lower case. */
+    public static final char BASE_16 = 'f';
+
+    /** The prefix of {@code base16}, upper case. */
+    public static final char BASE_16_UPPER = 'F';
+
+    private Multibase() {
+    }
+
+    /**
+     * Returns the name of the base identified by the prefix of the given value.
+     *
+     * @param value the multibase encoded value (must not be {@code null})
+     * @return the base name, e.g. {@code base58btc}, or {@code null} if the base
+     *         is not supported
+     */
+    public static String baseName(final String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        switch (value.charAt(0)) {
+        case BASE_58_BTC:
+            return "base58btc";
+        case BASE_64_URL:
+            return "base64url";
+        case BASE_16:
+            return "base16";
+        case BASE_16_UPPER:
+            return "base16upper";
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * @return the prefix of the named base
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    static char prefix(final String baseName) {
+        switch (baseName) {
+        case "base58btc":
+            return BASE_58_BTC;
+        case "base64url":
+            return BASE_64_URL;
+        case "base16":
+            return BASE_16;
+        case "base16upper":
+            return BASE_16_UPPER;
+        default:
+            throw new IllegalArgumentException("Unsupported multibase " + baseName);
+        }
+    }
+
+    /**
+     * Decodes the given multibase encoded value.
+     *
+     * @param value the multibase encoded value (must not be {@code null})
+     * @return the decoded bytes
+     * @throws NullPointerException     if {@code value} is {@code null}
+     * @throws IllegalArgumentException if the base is not supported or the value
+     *                                  is malformed
+     */
+    public static byte[] decode(final CharSequence value) {
+        Objects.requireNonNull(value, "value must not be null");
+
+        switch (base(value)) {
+        case BASE_58_BTC:
+            return Base58.decode(value, 1);
+
+        case BASE_64_URL:
+            return Base64Url.decode(value, 1);
+
+        default:
+            return Base16.decode(value, 1);
+        }
+    }
+
+    /**
+     * Decodes the given multibase encoded value into {@code output}.
+     *
+     * @param value  the multibase encoded value (must not be {@code null})
+     * @param output the array to write to (must not be {@code null})
+     * @param offset the index of the first byte to write
+     * @return the number of decoded bytes
+     * @throws NullPointerException      if any argument is {@code null}
+     * @throws IllegalArgumentException  if the base is not supported or the
+     *                                   value is malformed
+     * @throws IndexOutOfBoundsException if the decoded value does not fit,
+     *                                   {@link #maxDecodedLength(CharSequence)}
+     *                                   bytes are always enough
+     */
+    public static int decode(final CharSequence value, final byte[] output, final int offset) {
+        Objects.requireNonNull(value, "value must not be null");
+        Objects.requireNonNull(output, "output must not be null");
+
+        if (offset < 0 || offset > output.length) {
+            throw new IndexOutOfBoundsException("Invalid offset " + offset + " of " + output.length + " bytes");
+        }
+
+        switch (base(value)) {
+        case BASE_58_BTC:
+            return Base58.decode(value, 1, output, offset);
+
+        case BASE_64_URL:
+            return Base64Url.decode(value, 1, output, offset);
+
+        default:
+            return Base16.decode(value, 1, output, offset);
+        }
+    }
+
+    /**
+     * Returns the maximum number of bytes the given value decodes to, the exact
+     * number for all bases but {@code base58btc}.
+     *
+     * @param value the multibase encoded value (must not be {@code null})
+     * @return the maximum decoded length
+     * @throws NullPointerException     if {@code value} is {@code null}
+     * @throws IllegalArgumentException if the base is not supported or the
+     *                                  length is not valid
+     */
+    public static int maxDecodedLength(final CharSequence value) {
+        Objects.requireNonNull(value, "value must not be null");
+
+        switch (base(value)) {
+        case BASE_58_BTC:
+            return Base58.maxDecodedLength(value, 1);
+
+        case BASE_64_URL:
+            return Base64Url.decodedLength(value, 1);
+
+        default:
+            return Base16.decodedLength(value, 1);
+        }
+    }
+
+    /**
+     * Encodes the given bytes using the base identified by {@code base}.
+     *
+     * @param base  the base prefix, e.g. {@link #BASE_58_BTC}
+     * @param value the bytes to encode (must not be {@code null})
+     * @return the multibase encoded value, including the prefix
+     * @throws NullPointerException     if {@code value} is {@code null}
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    public static String encode(final char base, final byte[] value) {
+        Objects.requireNonNull(value, "value must not be null");
+
+        final char[] encoded = new char[maxEncodedLength(base, value.length)];
+        return new String(encoded, 0, encode(base, value, 0, value.length, encoded, 0));
+    }
+
+    /**
+     * Encodes the given bytes into {@code output}, including the prefix.
+     *
+     * @param base         the base prefix, e.g. {@link #BASE_58_BTC}
+     * @param value        the bytes to encode (must not be {@code null})
+     * @param offset       the index of the first byte to encode
+     * @param length       the number of bytes to encode
+     * @param output       the array to write to, holding at least
+     *                     {@link #maxEncodedLength(char, int)} characters from
+     *                     {@code outputOffset} (must not be {@code null})
+     * @param outputOffset the index of the first character to write
+     * @return the number of characters written
+     * @throws NullPointerException      if any array is {@code null}
+     * @throws IllegalArgumentException  if the base is not supported
+     * @throws IndexOutOfBoundsException if a range is out of the array bounds
+     */
+    public static int encode(final char base, final byte[] value, final int offset, final int length, final char[] output, final int outputOffset) {
+        Objects.requireNonNull(value, "value must not be null");
+        Objects.requireNonNull(output, "output must not be null");
+
+        if (offset < 0 || length < 0 || offset > value.length - length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + offset + ", " + length + "] of " + value.length + " bytes");
+        }
+
+        final int max = maxEncodedLength(base, length);
+
+        if (outputOffset < 0 || outputOffset > output.length - max) {
+            throw new IndexOutOfBoundsException("The output of " + (output.length - Math.max(outputOffset, 0)) + " characters is shorter than " + max);
+        }
+
+        output[outputOffset] = base;
+
+        switch (base) {
+        case BASE_58_BTC:
+            return 1 + Base58.encode(value, offset, length, output, outputOffset + 1);
+
+        case BASE_64_URL:
+            return 1 + Base64Url.encode(value, offset, length, output, outputOffset + 1);
+
+        default:
+            return 1 + Base16.encode(value, offset, length, output, outputOffset + 1, base == BASE_16_UPPER);
+        }
+    }
+
+    /**
+     * Returns the maximum number of characters the given number of bytes encodes
+     * to, including the prefix, the exact number for all bases but
+     * {@code base58btc}.
+     *
+     * @param base   the base prefix, e.g. {@link #BASE_58_BTC}
+     * @param length the number of bytes
+     * @return the maximum encoded length
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    public static int maxEncodedLength(final char base, final int length) {
+        switch (base) {
+        case BASE_58_BTC:
+            return 1 + Base58.maxEncodedLength(length);
+
+        case BASE_64_URL:
+            return 1 + Base64Url.encodedLength(length);
+
+        case BASE_16:
+        case BASE_16_UPPER:
+            return 1 + 2 * length;
+
+        default:
+            throw new IllegalArgumentException("Unsupported multibase prefix '" + base + "'");
+        }
+    }
+
+    /**
+     * @return the supported base prefix of the value
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    static char base(final CharSequence value) {
+
+        if (value.length() == 0) {
+            throw new IllegalArgumentException("Empty multibase value");
+        }
+
+        final char base = value.charAt(0);
+
+        switch (base) {
+        case BASE_58_BTC:
+        case BASE_64_URL:
+        case BASE_16:
+        case BASE_16_UPPER:
+            return base;
+
+        default:
+            throw new IllegalArgumentException("Unsupported multibase prefix '" + base + "'");
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.apicatalog.cid.datatype;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /**
  * A value encoded using the <a href=
  * "https://datatracker.ietf.org/doc/html/draft-multiformats-multibase">Multibase</a>
@@ -24,4 +27,50 @@ public interface MultibaseEncoded {
      * @return raw byte array
      */
     byte[] debased();
+
+    /**
+     * Returns a read-only view of the decoded binary value. Implementations
+     * holding the value avoid copying it.
+     *
+     * @return a read-only buffer positioned at the first byte of the value
+     */
+    default ByteBuffer debasedBuffer() {
+        return ByteBuffer.wrap(debased()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the multibase encoded value, including the base prefix.
+     *
+     * @return the encoded value
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    default String encoded() {
+        return Multibase.encode(Multibase.prefix(baseName()), debased());
+    }
+
+    /**
+     * Creates a {@code MultibaseEncoded} value decoded on first access.
+     *
+     * <p>
+     * Only the base prefix is checked, a malformed value is reported when the
+     * value is accessed. The decoded value is retained, {@link #debased()}
+     * returns a copy of it, {@link #debasedBuffer()} a view.
+     * </p>
+     *
+     * @param encoded the multibase encoded value (must not be {@code null})
+     * @return a new immutable {@code MultibaseEncoded} instance
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    static MultibaseEncoded of(String encoded) {
+        Objects.requireNonNull(encoded, "encoded must not be null");
+        return new LazyMultibaseEncoded(encoded, baseName(encoded));
+    }
+
+    static String baseName(final String encoded) {
+        final String baseName = Multibase.baseName(encoded);
+        if (baseName == null) {
+            throw new IllegalArgumentException("Unsupported multibase value " + (encoded.isEmpty() ? "''" : "prefix '" + encoded.charAt(0) + "'"));
+        }
+        return baseName;
+    }
 }
@@ -0,0 +1,100 @@
+package com.apicatalog.cid.datatype;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Encodes and decodes <a href="https://github.com/multiformats/multicodec">Multicodec</a>
+ * prefixed values.
+ */
+public final class Multicodec {
+
+    /** The longest varint prefix accepted, i.e. a 63-bit code. */
+    static final int MAX_PREFIX_LENGTH = 9;
+
+    private Multicodec() {
+    }
+
+    /**
+     * Splits the given bytes into the unsigned varint codec code and the value.
+     *
+     * @param encoded the multicodec prefixed value (must not be {@code null})
+     * @return a new {@link MulticodecEncoded} holding a copy of the value
+     * @throws NullPointerException     if {@code encoded} is {@code null}
+     * @throws IllegalArgumentException if the prefix is malformed
+     */
+    public static MulticodecEncoded decode(final byte[] encoded) {
+        Objects.requireNonNull(encoded, "encoded must not be null");
+
+        final PrefixedMulticodecEncoded value = split(encoded);
+
+        return MulticodecEncoded.of(value.codecCode, Arrays.copyOfRange(encoded, value.offset, encoded.length));
+    }
+
+    /**
+     * Splits the given bytes into the unsigned varint codec code and the value
+     * without copying the value. The array must not be modified afterwards.
+     *
+     * @param encoded the multicodec prefixed value (must not be {@code null})
+     * @return a new {@link MulticodecEncoded} backed by the given array
+     * @throws NullPointerException     if {@code encoded} is {@code null}
+     * @throws IllegalArgumentException if the prefix is malformed
+     */
+    public static MulticodecEncoded wrap(final byte[] encoded) {
+        Objects.requireNonNull(encoded, "encoded must not be null");
+        return split(encoded);
+    }
+
+    static PrefixedMulticodecEncoded split(final byte[] encoded) {
+
+        long code = 0;
+        int shift = 0;
+        int index = 0;
+
+        while (true) {
+            if (index == encoded.length || index == MAX_PREFIX_LENGTH) {
+                throw new IllegalArgumentException("Invalid multicodec prefix");
+            }
+            final int b = encoded[index++] & 0xff;
+            code |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+
+        return new PrefixedMulticodecEncoded(encoded, index, code);
+    }
+
+    /**
+     * Prefixes the value with the unsigned varint codec code.
+     *
+     * @param value the value to encode (must not be {@code null})
+     * @return a new byte array holding the prefix followed by the value
+     * @throws NullPointerException if {@code value} is {@code null}
+     */
+    public static byte[] encode(final MulticodecEncoded value) {
+        Objects.requireNonNull(value, "value must not be null");
+
+        final ByteBuffer decoded = value.decodedBuffer();
+
+        long code = value.codecCode();
+
+        int prefix = 1;
+        for (long rest = code >>> 7; rest != 0; rest >>>= 7) {
+            prefix++;
+        }
+
+        final byte[] encoded = new byte[prefix + decoded.remaining()];
+
+        for (int i = 0; i < prefix - 1; i++) {
+            encoded[i] = (byte) ((code & 0x7f) | 0x80);
+            code >>>= 7;
+        }
+        encoded[prefix - 1] = (byte) code;
+
+        decoded.get(encoded, prefix, decoded.remaining());
+        return encoded;
+    }
+}
@@ -1,5 +1,8 @@
 package com.apicatalog.cid.datatype;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /**
  * A value encoded using the
  * <a href="https://github.com/multiformats/multicodec">Multicodec</a> format.
@@ -22,4 +25,48 @@ public interface MulticodecEncoded {
      * @return raw byte array
      */
     byte[] decoded();
+
+    /**
+     * Returns a read-only view of the decoded binary value. Implementations
+     * holding the value avoid copying it.
+     *
+     * @return a read-only buffer positioned at the first byte of the value
+     */
+    default ByteBuffer decodedBuffer() {
+        return ByteBuffer.wrap(decoded()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Creates a {@code MulticodecEncoded} value holding the given decoded bytes.
+     *
+     * @param codecCode the multicodec code
+     * @param decoded   the decoded value, without the multicodec prefix (must
+     *                  not be {@code null})
+     * @return a new immutable {@code MulticodecEncoded} instance
+     */
+    static MulticodecEncoded of(long codecCode, byte[] decoded) {
+        return new ImmutableMulticodecEncoded(codecCode, decoded);
+    }
+
+    /**
+     * Creates a {@code MulticodecEncoded} value from a multibase encoded
+     * multicodec value, decoded on first access.
+     *
+     * <p>
+     * Only the base prefix is checked, a malformed value is reported by the
+     * first call to {@link #codecCode()}, {@link #decoded()} or
+     * {@link #decodedBuffer()}. The returned instance is a
+     * {@link MultibaseEncoded} too, holding the given value. The decoded value is
+     * retained, {@link #decoded()} returns a copy of it,
+     * {@link #decodedBuffer()} a view.
+     * </p>
+     *
+     * @param multibase the multibase encoded value (must not be {@code null})
+     * @return a new immutable {@code MulticodecEncoded} instance
+     * @throws IllegalArgumentException if the base is not supported
+     */
+    static MulticodecEncoded ofMultibase(String multibase) {
+        Objects.requireNonNull(multibase, "multibase must not be null");
+        return new LazyMulticodecEncoded(multibase, MultibaseEncoded.baseName(multibase));
+    }
 }
@@ -0,0 +1,35 @@
+package com.apicatalog.cid.datatype;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A multicodec value backed by the prefixed bytes, the value is not copied.
+ */
+final class PrefixedMulticodecEncoded implements MulticodecEncoded {
+
+    final byte[] encoded;
+    final int offset;
+    final long codecCode;
+
+    PrefixedMulticodecEncoded(final byte[] encoded, final int offset, final long codecCode) {
+        this.encoded = encoded;
+        this.offset = offset;
+        this.codecCode = codecCode;
+    }
+
+    @Override
+    public long codecCode() {
+        return codecCode;
+    }
+
+    @Override
+    public byte[] decoded() {
+        return Arrays.copyOfRange(encoded, offset, encoded.length);
+    }
+
+    @Override
+    public ByteBuffer decodedBuffer() {
+        return ByteBuffer.wrap(encoded, offset, encoded.length - offset).slice().asReadOnlyBuffer();
+    }
+}
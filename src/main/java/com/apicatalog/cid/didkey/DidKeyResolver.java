@@ -0,0 +1,245 @@
+package com.apicatalog.cid.didkey;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+import com.apicatalog.cid.IdentifierDocumentResolver;
+import com.apicatalog.cid.cache.BoundedCache;
+import com.apicatalog.cid.datatype.Multibase;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * An {@link IdentifierDocumentResolver} deriving
+ * <a href="https://w3c-ccg.github.io/did-key-spec/">did:key</a> documents from
+ * the identifier itself.
+ *
+ * <p>
+ * The {@code base58btc} multibase encoded public key is decoded and exposed as
+ * a single {@link Multikey} verification method identified by
+ * {@code did:key:<key>#<key>}. The method is bound to the authentication,
+ * assertion, capability invocation and capability delegation relationships, an
+ * {@code X25519} key to the key agreement relationship only.
+ * </p>
+ *
+ * <p>
+ * Derived documents are memoized in a bounded cache, they never expire as a
+ * {@code did:key} document cannot change. The resolver is safe for concurrent
+ * use.
+ * </p>
+ *
+ * @see <a href="https://w3c-ccg.github.io/did-key-spec/">The did:key Method</a>
+ */
+public class DidKeyResolver implements IdentifierDocumentResolver {
+
+    /** The DID method prefix handled by this resolver. */
+    public static final String PREFIX = "did:key";
+
+    /** The default maximum number of memoized documents. */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    /** The multicodec code of an Ed25519 public key. */
+    public static final long ED25519_PUB = 0xed;
+
+    /** The multicodec code of an X25519 public key. */
+    public static final long X25519_PUB = 0xec;
+
+    /** The multicodec code of a compressed secp256k1 public key. */
+    public static final long SECP256K1_PUB = 0xe7;
+
+    /** The multicodec code of a BLS12-381 G2 public key. */
+    public static final long BLS12_381_G2_PUB = 0xeb;
+
+    /** The multicodec code of a compressed P-256 public key. */
+    public static final long P256_PUB = 0x1200;
+
+    /** The multicodec code of a compressed P-384 public key. */
+    public static final long P384_PUB = 0x1201;
+
+    /** The multicodec code of a compressed P-521 public key. */
+    public static final long P521_PUB = 0x1202;
+
+    /** The multicodec code of a DER encoded RSA public key. */
+    public static final long RSA_PUB = 0x1205;
+
+    static final String DID_KEY = PREFIX + ':';
+
+    protected final BoundedCache<URI, IdentifierDocument> cache;
+
+    /**
+     * Creates a resolver memoizing up to {@link #DEFAULT_CACHE_SIZE} documents.
+     */
+    public DidKeyResolver() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a resolver memoizing up to {@code maxSize} documents.
+     *
+     * @param maxSize the maximum number of memoized documents
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public DidKeyResolver(final int maxSize) {
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    @Override
+    public boolean isAccepted(final URI id) {
+        return id.toString().regionMatches(true, 0, DID_KEY, 0, DID_KEY.length());
+    }
+
+    @Override
+    public Collection<String> prefixes() {
+        return Collections.singleton(PREFIX);
+    }
+
+    @Override
+    public IdentifierDocument resolve(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        IdentifierDocument document = cache.get(id);
+
+        if (document == null) {
+            document = derive(id);
+            cache.put(id, document, BoundedCache.NO_EXPIRATION);
+        }
+        return document;
+    }
+
+    /** @return the number of memoized documents */
+    public int size() {
+        return cache.size();
+    }
+
+    /** @return the number of resolutions served from the cache */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /** @return the number of resolutions that had to derive a document */
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * Derives a {@code did:key} document without memoizing it.
+     *
+     * <p>
+     * A fragment or a query, if present, is ignored.
+     * </p>
+     *
+     * @param id the {@code did:key} identifier (must not be {@code null})
+     * @return a new document
+     * @throws IllegalArgumentException if the identifier is not a valid
+     *                                  {@code did:key} or encodes an unsupported
+     *                                  key type
+     */
+    public static IdentifierDocument derive(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        final String value = id.toString();
+
+        if (!value.regionMatches(true, 0, DID_KEY, 0, DID_KEY.length())) {
+            throw new IllegalArgumentException("Not a did:key identifier: " + id);
+        }
+
+        int end = value.length();
+        for (int i = DID_KEY.length(); i < end; i++) {
+            final char ch = value.charAt(i);
+            if (ch == '#' || ch == '?') {
+                end = i;
+            }
+        }
+
+        final String key = value.substring(DID_KEY.length(), end);
+
+        if (key.length() < 2 || key.charAt(0) != Multibase.BASE_58_BTC) {
+            throw new IllegalArgumentException("Invalid did:key, expected base58btc multibase encoded key: " + id);
+        }
+
+        final MulticodecEncoded publicKey;
+        try {
+            publicKey = validate(MulticodecEncoded.ofMultibase(key));
+
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid did:key " + id + ": " + e.getMessage(), e);
+        }
+
+        final URI documentId = end == value.length()
+                ? id
+                : URI.create(value.substring(0, end));
+
+        final Multikey method = Multikey.of(
+                URI.create(documentId.toString() + '#' + key),
+                documentId,
+                publicKey);
+
+        final Set<VerificationMethod> methods = Collections.singleton(method);
+        final Set<VerificationMethod> none = Collections.emptySet();
+
+        final boolean agreement = publicKey.codecCode() == X25519_PUB;
+
+        return IdentifierDocument.of(
+                documentId,
+                null,
+                null,
+                Collections.singletonList(method),
+                agreement ? none : methods,
+                agreement ? none : methods,
+                agreement ? methods : none,
+                agreement ? none : methods,
+                agreement ? none : methods,
+                null);
+    }
+
+    /**
+     * Checks the key type and length, decoding the key.
+     */
+    static MulticodecEncoded validate(final MulticodecEncoded key) {
+
+        final int expected = keyLength(key.codecCode());
+        final int length = key.decodedBuffer().remaining();
+
+        if (expected == -1) {
+            throw new IllegalArgumentException("Unsupported key type 0x" + Long.toHexString(key.codecCode()));
+        }
+        if (expected > 0 && expected != length) {
+            throw new IllegalArgumentException("Invalid key length " + length + ", expected " + expected);
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("Empty key");
+        }
+        return key;
+    }
+
+    /**
+     * @return the expected key length in bytes, {@code 0} if the length is
+     *         variable, or {@code -1} if the codec is not supported
+     */
+    static int keyLength(final long code) {
+        if (code == ED25519_PUB || code == X25519_PUB) {
+            return 32;
+        }
+        if (code == SECP256K1_PUB || code == P256_PUB) {
+            return 33;
+        }
+        if (code == P384_PUB) {
+            return 49;
+        }
+        if (code == P521_PUB) {
+            return 67;
+        }
+        if (code == BLS12_381_G2_PUB) {
+            return 96;
+        }
+        if (code == RSA_PUB) {
+            return 0;
+        }
+        return -1;
+    }
+}
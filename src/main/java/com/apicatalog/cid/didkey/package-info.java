@@ -0,0 +1,9 @@
+/**
+ * Resolution of <a href="https://w3c-ccg.github.io/did-key-spec/">did:key</a>
+ * identifiers.
+ * <p>
+ * A {@code did:key} document is derived from the identifier itself, no network
+ * access is required.
+ * </p>
+ */
+package com.apicatalog.cid.didkey;
@@ -5,6 +5,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 
+import com.apicatalog.cid.datatype.Identifier;
+
 /**
  * Represents a Controlled Identifier Document as defined by the W3C Controlled
  * Identifiers 1.0 specification.
@@ -39,6 +41,21 @@ public interface IdentifierDocument {
      */
     URI id();
 
+    /**
+     * Returns the identifier that this document describes as a compact
+     * {@link Identifier}.
+     *
+     * <p>
+     * Implementations are encouraged to return the same instance on each call.
+     * </p>
+     *
+     * @return the identifier, or {@code null} if {@link #id()} is {@code null}
+     */
+    default Identifier identifier() {
+        final URI id = id();
+        return id != null ? Identifier.of(id) : null;
+    }
+
     /**
      * Returns the entities that are controllers of this identifier.
      *
@@ -130,4 +147,48 @@ public interface IdentifierDocument {
     default boolean hasRequiredProperties() {
         return id() != null;
     }
+
+    /**
+     * Creates an {@code IdentifierDocument} from the given properties.
+     *
+     * <p>
+     * Collections are used as-is, i.e. they are expected to be immutable. A
+     * {@code null} collection is replaced by an empty one.
+     * </p>
+     *
+     * @param id                   the identifier
+     * @param controller           the controllers
+     * @param alsoKnownAs          the alternative identifiers
+     * @param verification         the verification methods
+     * @param authentication       the authentication methods
+     * @param assertion            the assertion methods
+     * @param keyAgreement         the key agreement methods
+     * @param capabilityInvocation the capability invocation methods
+     * @param capabilityDelegation the capability delegation methods
+     * @param service              the services
+     * @return a new immutable {@code IdentifierDocument} instance
+     */
+    static IdentifierDocument of(
+            URI id,
+            Collection<URI> controller,
+            Collection<URI> alsoKnownAs,
+            Collection<VerificationMethod> verification,
+            Set<VerificationMethod> authentication,
+            Set<VerificationMethod> assertion,
+            Set<VerificationMethod> keyAgreement,
+            Set<VerificationMethod> capabilityInvocation,
+            Set<VerificationMethod> capabilityDelegation,
+            Set<Service> service) {
+        return new ImmutableIdentifierDocument(
+                id,
+                controller != null ? controller : Collections.emptySet(),
+                alsoKnownAs != null ? alsoKnownAs : Collections.emptySet(),
+                verification != null ? verification : Collections.emptySet(),
+                authentication != null ? authentication : Collections.emptySet(),
+                assertion != null ? assertion : Collections.emptySet(),
+                keyAgreement != null ? keyAgreement : Collections.emptySet(),
+                capabilityInvocation != null ? capabilityInvocation : Collections.emptySet(),
+                capabilityDelegation != null ? capabilityDelegation : Collections.emptySet(),
+                service != null ? service : Collections.emptySet());
+    }
 }
@@ -0,0 +1,104 @@
+package com.apicatalog.cid.document;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Set;
+
+import com.apicatalog.cid.datatype.Identifier;
+
+final class ImmutableIdentifierDocument implements IdentifierDocument {
+
+    final URI id;
+    final Identifier identifier;
+    final Collection<URI> controller;
+    final Collection<URI> alsoKnownAs;
+
+    final Collection<VerificationMethod> verification;
+
+    final Set<VerificationMethod> authentication;
+    final Set<VerificationMethod> assertion;
+    final Set<VerificationMethod> keyAgreement;
+    final Set<VerificationMethod> capabilityInvocation;
+    final Set<VerificationMethod> capabilityDelegation;
+
+    final Set<Service> service;
+
+    ImmutableIdentifierDocument(
+            final URI id,
+            final Collection<URI> controller,
+            final Collection<URI> alsoKnownAs,
+            final Collection<VerificationMethod> verification,
+            final Set<VerificationMethod> authentication,
+            final Set<VerificationMethod> assertion,
+            final Set<VerificationMethod> keyAgreement,
+            final Set<VerificationMethod> capabilityInvocation,
+            final Set<VerificationMethod> capabilityDelegation,
+            final Set<Service> service) {
+        this.id = id;
+        this.identifier = id != null ? Identifier.of(id) : null;
+        this.controller = controller;
+        this.alsoKnownAs = alsoKnownAs;
+        this.verification = verification;
+        this.authentication = authentication;
+        this.assertion = assertion;
+        this.keyAgreement = keyAgreement;
+        this.capabilityInvocation = capabilityInvocation;
+        this.capabilityDelegation = capabilityDelegation;
+        this.service = service;
+    }
+
+    @Override
+    public URI id() {
+        return id;
+    }
+
+    @Override
+    public Identifier identifier() {
+        return identifier;
+    }
+
+    @Override
+    public Collection<URI> controller() {
+        return controller;
+    }
+
+    @Override
+    public Collection<URI> alsoKnownAs() {
+        return alsoKnownAs;
+    }
+
+    @Override
+    public Collection<VerificationMethod> verification() {
+        return verification;
+    }
+
+    @Override
+    public Set<VerificationMethod> authentication() {
+        return authentication;
+    }
+
+    @Override
+    public Set<VerificationMethod> assertion() {
+        return assertion;
+    }
+
+    @Override
+    public Set<VerificationMethod> keyAgreement() {
+        return keyAgreement;
+    }
+
+    @Override
+    public Set<VerificationMethod> capabilityInvocation() {
+        return capabilityInvocation;
+    }
+
+    @Override
+    public Set<VerificationMethod> capabilityDelegation() {
+        return capabilityDelegation;
+    }
+
+    @Override
+    public Set<Service> service() {
+        return service;
+    }
+}
@@ -3,36 +3,63 @@ package com.apicatalog.cid.document;
 import java.net.URI;
 import java.time.Instant;
 
+import com.apicatalog.cid.datatype.Identifier;
+
 final class ImmutableVerificationMethod implements VerificationMethod {
 
     final URI id;
-    
+    final Identifier identifier;
+    final String type;
+    final URI controller;
+
+    final Instant revoked;
+    final Instant expires;
+
     ImmutableVerificationMethod(URI id) {
+        this(id, null, null, null, null);
+    }
+
+    ImmutableVerificationMethod(
+            URI id,
+            String type,
+            URI controller,
+            Instant revoked,
+            Instant expires) {
         this.id = id;
+        this.identifier = id != null ? Identifier.of(id) : null;
+        this.type = type;
+        this.controller = controller;
+        this.revoked = revoked;
+        this.expires = expires;
     }
-    
+
     @Override
     public URI id() {
         return id;
     }
-    
+
+    @Override
+    public Identifier identifier() {
+        return identifier;
+    }
+
     @Override
     public String type() {
-        return null;
+        return type;
     }
 
     @Override
     public URI controller() {
-        return null;
+        return controller;
     }
 
     @Override
     public Instant revoked() {
-        return null;
+        return revoked;
     }
 
     @Override
     public Instant expires() {
-        return null;
+        return expires;
     }
 }
@@ -0,0 +1,395 @@
+package com.apicatalog.cid.document;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.apicatalog.cid.datatype.Identifier;
+
+/**
+ * An {@link IdentifierDocument} wrapper indexing verification methods by their
+ * identifiers.
+ *
+ * <p>
+ * The index is built once, when the wrapper is created, and maps each
+ * verification method identifier to the method and the set of verification
+ * relationships it is bound to. Looking up a method, or testing whether it may
+ * be used for a relationship, takes constant time regardless of the document
+ * size. Methods are indexed by their {@link Identifier}s, lookups by
+ * {@link URI} compare identifiers as {@link URI#equals(Object)} does.
+ * </p>
+ *
+ * <p>
+ * A relationship entry holding an identifier only, see
+ * {@link VerificationMethod#isReference()}, is dereferenced to the method
+ * declared in {@link #verification()} while indexing, so lookups return the
+ * full method, e.g. a {@code Multikey}, without scanning the document again.
+ * </p>
+ *
+ * <p>
+ * The revocation and expiration times of each method are kept as epoch
+ * milliseconds, so checking the {@link Validity} of a method is a comparison
+ * of primitive values.
+ * </p>
+ *
+ * <p>
+ * All document properties are delegated to the wrapped document, which is
+ * expected to be immutable.
+ * </p>
+ */
+public final class IndexedIdentifierDocument implements IdentifierDocument {
+
+    static final VerificationRelationship[] RELATIONSHIPS = VerificationRelationship.values();
+
+    final IdentifierDocument document;
+
+    final Identifier identifier;
+
+    final Map<Identifier, Entry> index;
+
+    /** relationships with at least one method */
+    final int mask;
+
+    IndexedIdentifierDocument(final IdentifierDocument document, final Map<Identifier, Entry> index, final int mask) {
+        this.document = document;
+        this.identifier = document.identifier();
+        this.index = index;
+        this.mask = mask;
+    }
+
+    /**
+     * Indexes the given document.
+     *
+     * @param document the document to index (must not be {@code null})
+     * @return an indexed document, or {@code document} itself if already indexed
+     * @throws NullPointerException if {@code document} is {@code null}
+     */
+    public static IndexedIdentifierDocument of(final IdentifierDocument document) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        if (document instanceof IndexedIdentifierDocument) {
+            return (IndexedIdentifierDocument) document;
+        }
+
+        final Map<Identifier, Entry> index = new HashMap<>();
+
+        final Collection<VerificationMethod> verification = document.verification();
+        if (verification != null) {
+            for (final VerificationMethod method : verification) {
+                if (method != null && method.id() != null) {
+                    index.computeIfAbsent(method.identifier(), id -> new Entry(method.id())).method = method;
+                }
+            }
+        }
+
+        int mask = 0;
+
+        for (final VerificationRelationship relationship : RELATIONSHIPS) {
+
+            final Set<VerificationMethod> methods = relationship.methods(document);
+            if (methods == null || methods.isEmpty()) {
+                continue;
+            }
+
+            mask |= relationship.mask();
+
+            for (final VerificationMethod method : methods) {
+                if (method != null && method.id() != null) {
+                    index.computeIfAbsent(method.identifier(), id -> new Entry(method.id())).add(relationship, method);
+                }
+            }
+        }
+
+        for (final Entry entry : index.values()) {
+            final VerificationMethod method = entry.preferred();
+            entry.revokedAt = Validity.epochMillis(method.revoked());
+            entry.expiresAt = Validity.epochMillis(method.expires());
+        }
+
+        return new IndexedIdentifierDocument(document, index, mask);
+    }
+
+    /**
+     * Returns the verification method with the given identifier, preferring the
+     * declaration in {@link #verification()} over an entry of a verification
+     * relationship.
+     *
+     * @param id the verification method identifier
+     * @return the verification method, or {@code null} if not found
+     */
+    public VerificationMethod method(final URI id) {
+        return method(identifier(id));
+    }
+
+    /**
+     * Returns the verification method with the given identifier, preferring the
+     * declaration in {@link #verification()} over an entry of a verification
+     * relationship.
+     *
+     * @param id the verification method identifier
+     * @return the verification method, or {@code null} if not found
+     */
+    public VerificationMethod method(final Identifier id) {
+        final Entry entry = entry(id);
+        return entry != null ? entry.preferred() : null;
+    }
+
+    /**
+     * Returns the verification method with the given identifier as listed by the
+     * given relationship, a reference dereferenced to the declared method.
+     *
+     * @param id           the verification method identifier
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return the verification method, or {@code null} if the relationship does
+     *         not list a method with the identifier
+     */
+    public VerificationMethod method(final URI id, final VerificationRelationship relationship) {
+        return method(identifier(id), relationship);
+    }
+
+    /**
+     * Returns the verification method with the given identifier as listed by the
+     * given relationship, a reference dereferenced to the declared method.
+     *
+     * @param id           the verification method identifier
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return the verification method, or {@code null} if the relationship does
+     *         not list a method with the identifier
+     */
+    public VerificationMethod method(final Identifier id, final VerificationRelationship relationship) {
+        final Entry entry = entry(id);
+        return entry != null
+                ? entry.relationships[relationship.ordinal()]
+                : null;
+    }
+
+    /**
+     * Dereferences a verification method known by its identifier only to the
+     * method declared in {@link #verification()}.
+     *
+     * @param method the verification method, or {@code null}
+     * @return the declared method if {@code method} is a reference to it,
+     *         otherwise {@code method}
+     */
+    public VerificationMethod dereference(final VerificationMethod method) {
+        if (method != null && method.isReference()) {
+            final Entry entry = entry(method.identifier());
+            if (entry != null && entry.method != null) {
+                return entry.method;
+            }
+        }
+        return method;
+    }
+
+    /**
+     * Returns the verification relationships the method is bound to.
+     *
+     * @param id the verification method identifier
+     * @return a bit mask of relationships, see
+     *         {@link VerificationRelationship#mask()}, or {@code 0}
+     */
+    public int relationships(final URI id) {
+        return relationships(identifier(id));
+    }
+
+    /**
+     * Returns the verification relationships the method is bound to.
+     *
+     * @param id the verification method identifier
+     * @return a bit mask of relationships, see
+     *         {@link VerificationRelationship#mask()}, or {@code 0}
+     */
+    public int relationships(final Identifier id) {
+        final Entry entry = entry(id);
+        return entry != null ? entry.mask : 0;
+    }
+
+    /**
+     * Returns the validity of the verification method at the given time, see
+     * {@link #method(Identifier)}.
+     *
+     * @param id          the verification method identifier
+     * @param epochMillis the time in milliseconds since the epoch
+     * @return the validity, or {@code null} if the method is not found
+     */
+    public Validity validity(final Identifier id, final long epochMillis) {
+        final Entry entry = entry(id);
+        return entry != null
+                ? Validity.of(entry.revokedAt, entry.expiresAt, epochMillis)
+                : null;
+    }
+
+    /**
+     * Checks whether the verification method is bound to the relationship.
+     *
+     * @param id           the verification method identifier
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return {@code true} if the method can be used for {@code relationship}
+     */
+    public boolean isBound(final URI id, final VerificationRelationship relationship) {
+        return relationship.isIn(relationships(id));
+    }
+
+    /**
+     * Checks whether the verification method is bound to the relationship.
+     *
+     * @param id           the verification method identifier
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return {@code true} if the method can be used for {@code relationship}
+     */
+    public boolean isBound(final Identifier id, final VerificationRelationship relationship) {
+        return relationship.isIn(relationships(id));
+    }
+
+    /**
+     * Checks whether at least one verification method is bound to the
+     * relationship.
+     *
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return {@code true} if the relationship is not empty
+     */
+    public boolean hasMethods(final VerificationRelationship relationship) {
+        return relationship.isIn(mask);
+    }
+
+    /** @return identifiers of all indexed verification methods */
+    public Set<URI> methodIds() {
+        final Set<URI> ids = new LinkedHashSet<>(index.size() * 2);
+        for (final Entry entry : index.values()) {
+            ids.add(entry.id);
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+
+    /** @return the wrapped document */
+    public IdentifierDocument document() {
+        return document;
+    }
+
+    @Override
+    public URI id() {
+        return document.id();
+    }
+
+    @Override
+    public Identifier identifier() {
+        return identifier;
+    }
+
+    @Override
+    public Collection<URI> controller() {
+        return document.controller();
+    }
+
+    @Override
+    public Collection<VerificationMethod> verification() {
+        return document.verification();
+    }
+
+    @Override
+    public Collection<URI> alsoKnownAs() {
+        return document.alsoKnownAs();
+    }
+
+    @Override
+    public Set<VerificationMethod> authentication() {
+        return document.authentication();
+    }
+
+    @Override
+    public Set<VerificationMethod> assertion() {
+        return document.assertion();
+    }
+
+    @Override
+    public Set<VerificationMethod> keyAgreement() {
+        return document.keyAgreement();
+    }
+
+    @Override
+    public Set<VerificationMethod> capabilityInvocation() {
+        return document.capabilityInvocation();
+    }
+
+    @Override
+    public Set<VerificationMethod> capabilityDelegation() {
+        return document.capabilityDelegation();
+    }
+
+    @Override
+    public Set<Service> service() {
+        return document.service();
+    }
+
+    @Override
+    public boolean hasRequiredProperties() {
+        return document.hasRequiredProperties();
+    }
+
+    Entry entry(final Identifier id) {
+        return id != null ? index.get(id) : null;
+    }
+
+    static Identifier identifier(final URI id) {
+        return id != null ? Identifier.of(id) : null;
+    }
+
+    static final class Entry {
+
+        final URI id;
+
+        /** declared in verification() */
+        VerificationMethod method;
+
+        /** as listed by each relationship, indexed by ordinal */
+        final VerificationMethod[] relationships;
+
+        int mask;
+
+        /** epoch milliseconds, see {@link Validity} */
+        long revokedAt;
+        long expiresAt;
+
+        Entry(final URI id) {
+            this.id = id;
+            this.method = null;
+            this.relationships = new VerificationMethod[RELATIONSHIPS.length];
+            this.mask = 0;
+            this.revokedAt = Validity.UNBOUNDED;
+            this.expiresAt = Validity.UNBOUNDED;
+        }
+
+        /** @return the declared method, or the first one listed */
+        VerificationMethod preferred() {
+            if (method != null) {
+                return method;
+            }
+            for (final VerificationMethod listed : relationships) {
+                if (listed != null) {
+                    return listed;
+                }
+            }
+            return null;
+        }
+
+        void add(VerificationRelationship relationship, VerificationMethod method) {
+            if (relationships[relationship.ordinal()] == null) {
+                // methods are declared before relationships are indexed
+                relationships[relationship.ordinal()] = this.method != null && method.isReference()
+                        ? this.method
+                        : method;
+                mask |= relationship.mask();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.apicatalog.cid.document;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The validity of a verification method at a given time, derived from
+ * {@link VerificationMethod#revoked()} and {@link VerificationMethod#expires()}.
+ *
+ * <p>
+ * Times are compared as epoch milliseconds, a method is revoked, or expired,
+ * from the given instant on. Revocation takes precedence over expiration.
+ * </p>
+ */
+public enum Validity {
+
+    /** Neither revoked nor expired. */
+    VALID,
+
+    /** Revoked at or before the given time. */
+    REVOKED,
+
+    /** Expired at or before the given time. */
+    EXPIRED;
+
+    /** An epoch value of an absent bound, i.e. never revoked or never expiring. */
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    /**
+     * Returns the validity of the method at the given time.
+     *
+     * @param method      the verification method (must not be {@code null})
+     * @param epochMillis the time in milliseconds since the epoch
+     * @return the validity
+     */
+    public static Validity of(final VerificationMethod method, final long epochMillis) {
+        return of(epochMillis(method.revoked()), epochMillis(method.expires()), epochMillis);
+    }
+
+    /**
+     * Returns the validity at the given time of a method with the given
+     * bounds.
+     *
+     * @param revokedAt   the revocation time in epoch milliseconds, or
+     *                    {@link #UNBOUNDED}
+     * @param expiresAt   the expiration time in epoch milliseconds, or
+     *                    {@link #UNBOUNDED}
+     * @param epochMillis the time in milliseconds since the epoch
+     * @return the validity
+     */
+    public static Validity of(final long revokedAt, final long expiresAt, final long epochMillis) {
+        if (epochMillis >= revokedAt) {
+            return REVOKED;
+        }
+        if (epochMillis >= expiresAt) {
+            return EXPIRED;
+        }
+        return VALID;
+    }
+
+    /**
+     * Converts an optional instant into epoch milliseconds, rounding down.
+     *
+     * @param instant the instant, or {@code null}
+     * @return the epoch milliseconds, or {@link #UNBOUNDED} if {@code instant} is
+     *         {@code null} or beyond the range of {@code long}
+     */
+    public static long epochMillis(final Instant instant) {
+        if (instant == null) {
+            return UNBOUNDED;
+        }
+        try {
+            return instant.toEpochMilli();
+
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : UNBOUNDED;
+        }
+    }
+
+    /**
+     * Returns the earliest revocation or expiration time of the document
+     * methods that falls after the given time, i.e. the next time a method of
+     * the document becomes invalid.
+     *
+     * @param document    the document (must not be {@code null})
+     * @param epochMillis the time in milliseconds since the epoch
+     * @return the epoch milliseconds, or {@link #UNBOUNDED} if no method becomes
+     *         invalid after the given time
+     */
+    public static long next(final IdentifierDocument document, final long epochMillis) {
+
+        long next = next(document.verification(), epochMillis, UNBOUNDED);
+
+        for (final VerificationRelationship relationship : IndexedIdentifierDocument.RELATIONSHIPS) {
+            final Set<VerificationMethod> methods = relationship.methods(document);
+            next = next(methods, epochMillis, next);
+        }
+        return next;
+    }
+
+    static long next(final Collection<VerificationMethod> methods, final long epochMillis, long next) {
+        if (methods != null) {
+            for (final VerificationMethod method : methods) {
+                if (method != null) {
+                    next = next(epochMillis(method.revoked()), epochMillis, next);
+                    next = next(epochMillis(method.expires()), epochMillis, next);
+                }
+            }
+        }
+        return next;
+    }
+
+    static long next(final long bound, final long epochMillis, final long next) {
+        return bound > epochMillis && bound < next ? bound : next;
+    }
+}
@@ -2,6 +2,9 @@ package com.apicatalog.cid.document;
 
 import java.net.URI;
 import java.time.Instant;
+import java.util.Objects;
+
+import com.apicatalog.cid.datatype.Identifier;
 
 /**
  * Represents a <a href="https://www.w3.org/TR/cid-1.0/#verification-methods">
@@ -23,6 +26,22 @@ public interface VerificationMethod {
      */
     URI id();
 
+    /**
+     * Returns the unique identifier of this verification method as a compact
+     * {@link Identifier}.
+     *
+     * <p>
+     * Implementations are encouraged to return the same instance on each call.
+     * </p>
+     *
+     * @return the verification method identifier, or {@code null} if
+     *         {@link #id()} is {@code null}
+     */
+    default Identifier identifier() {
+        final URI id = id();
+        return id != null ? Identifier.of(id) : null;
+    }
+
     /**
      * Returns the type of this verification method.
      *
@@ -72,4 +91,48 @@ public interface VerificationMethod {
     default boolean hasRequiredProperties() {
         return id() != null && type() != null && controller() != null;
     }
+
+    /**
+     * Checks whether this is a reference to a verification method, i.e. a
+     * method known by its {@link #id()} only, as listed by a verification
+     * relationship. A reference is resolved to the full declaration in
+     * {@link IdentifierDocument#verification()}, see
+     * {@link IndexedIdentifierDocument#dereference(VerificationMethod)}.
+     *
+     * @return {@code true} if the method holds an identifier only
+     */
+    default boolean isReference() {
+        return type() == null
+                && controller() == null
+                && revoked() == null
+                && expires() == null;
+    }
+
+    /**
+     * Creates a reference to a verification method, i.e. a method known by its
+     * {@code id} only, as listed by a verification relationship.
+     *
+     * @param id the verification method identifier (must not be {@code null})
+     * @return a new immutable {@code VerificationMethod} instance
+     * @throws NullPointerException if {@code id} is {@code null}
+     */
+    static VerificationMethod of(URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+        return new ImmutableVerificationMethod(id);
+    }
+
+    /**
+     * Creates a {@code VerificationMethod} of a type not modeled by a dedicated
+     * interface.
+     *
+     * @param id         the verification method identifier
+     * @param type       the verification method type
+     * @param controller the controller
+     * @param revoked    the revocation time, or {@code null}
+     * @param expires    the expiration time, or {@code null}
+     * @return a new immutable {@code VerificationMethod} instance
+     */
+    static VerificationMethod of(URI id, String type, URI controller, Instant revoked, Instant expires) {
+        return new ImmutableVerificationMethod(id, type, controller, revoked, expires);
+    }
 }
@@ -0,0 +1,122 @@
+package com.apicatalog.cid.document;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.apicatalog.cid.datatype.Identifier;
+
+/**
+ * Verification relationships defined by the
+ * <a href="https://www.w3.org/TR/cid-1.0/#verification-relationships">W3C
+ * Controlled Identifiers 1.0</a> specification.
+ *
+ * <p>
+ * Each relationship is identified by an IRI, provides access to the
+ * corresponding set of an {@link IdentifierDocument}, and occupies a single
+ * bit, see {@link #mask()}, allowing a set of relationships to be represented
+ * as an {@code int}.
+ * </p>
+ */
+public enum VerificationRelationship {
+
+    AUTHENTICATION(
+            "https://w3id.org/security#authentication",
+            IdentifierDocument::authentication),
+
+    ASSERTION(
+            "https://w3id.org/security#assertionMethod",
+            IdentifierDocument::assertion),
+
+    KEY_AGREEMENT(
+            "https://w3id.org/security#keyAgreementMethod",
+            IdentifierDocument::keyAgreement),
+
+    CAPABILITY_INVOCATION(
+            "https://w3id.org/security#capabilityInvocationMethod",
+            IdentifierDocument::capabilityInvocation),
+
+    CAPABILITY_DELEGATION(
+            "https://w3id.org/security#capabilityDelegationMethod",
+            IdentifierDocument::capabilityDelegation);
+
+    static final Map<URI, VerificationRelationship> BY_URI;
+
+    static final Map<Identifier, VerificationRelationship> BY_IDENTIFIER;
+
+    static {
+        BY_URI = new HashMap<>();
+        BY_IDENTIFIER = new HashMap<>();
+        for (final VerificationRelationship relationship : values()) {
+            BY_URI.put(relationship.uri, relationship);
+            BY_IDENTIFIER.put(relationship.identifier, relationship);
+        }
+    }
+
+    final URI uri;
+    final Identifier identifier;
+    final Function<IdentifierDocument, Set<VerificationMethod>> accessor;
+
+    VerificationRelationship(String uri, Function<IdentifierDocument, Set<VerificationMethod>> accessor) {
+        this.uri = URI.create(uri);
+        this.identifier = Identifier.of(this.uri);
+        this.accessor = accessor;
+    }
+
+    /**
+     * Returns the relationship identified by the given IRI.
+     *
+     * @param uri the relationship IRI
+     * @return the relationship, or {@code null} if the IRI is not recognized
+     */
+    public static VerificationRelationship of(final URI uri) {
+        return BY_URI.get(uri);
+    }
+
+    /**
+     * Returns the relationship identified by the given IRI.
+     *
+     * @param identifier the relationship IRI
+     * @return the relationship, or {@code null} if the IRI is not recognized
+     */
+    public static VerificationRelationship of(final Identifier identifier) {
+        return BY_IDENTIFIER.get(identifier);
+    }
+
+    /** @return the relationship IRI */
+    public URI uri() {
+        return uri;
+    }
+
+    /** @return the relationship IRI as an {@link Identifier} */
+    public Identifier identifier() {
+        return identifier;
+    }
+
+    /** @return a single bit identifying this relationship */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Returns the verification methods the document binds to this relationship.
+     *
+     * @param document the document to read (must not be {@code null})
+     * @return a set of verification methods, possibly {@code null} or empty
+     */
+    public Set<VerificationMethod> methods(final IdentifierDocument document) {
+        return accessor.apply(document);
+    }
+
+    /**
+     * Checks whether the relationship is present in the given mask.
+     *
+     * @param mask a set of relationships, see {@link #mask()}
+     * @return {@code true} if this relationship is included in {@code mask}
+     */
+    public boolean isIn(final int mask) {
+        return (mask & mask()) != 0;
+    }
+}
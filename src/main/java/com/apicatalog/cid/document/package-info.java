@@ -21,10 +21,19 @@
  * <li>{@link com.apicatalog.cid.document.Service} – a service declaration
  * describing how to interact with the subject,</li>
  * <li>{@link com.apicatalog.cid.document.ServiceEndpoint} – an endpoint entry
- * referenced from a {@code Service}.</li>
+ * referenced from a {@code Service},</li>
+ * <li>{@link com.apicatalog.cid.document.VerificationRelationship} – the
+ * verification relationships a method can be bound to.</li>
  * </ul>
  *
  * <p>
+ * {@link com.apicatalog.cid.document.IndexedIdentifierDocument} wraps a
+ * document with an index providing constant-time verification method lookups,
+ * relationship entries referencing a declared method by its identifier are
+ * dereferenced to the method.
+ * </p>
+ *
+ * <p>
  * All interfaces provide default methods to check for required properties as
  * defined by the specification.
  * </p>
@@ -0,0 +1,718 @@
+package com.apicatalog.cid.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.json.JsonParser.Event;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * Reads a Controlled Identifier Document in compact JSON form into an immutable
+ * {@link IdentifierDocument}.
+ *
+ * <p>
+ * The input is read in a single pass using a pull parser, no intermediate JSON
+ * tree is built. The terms defined by the bundled {@code context-v1},
+ * {@code multikey-v1} and {@code jwk-v1} contexts are recognized, other
+ * properties, including {@code @context}, are skipped without being
+ * materialized. {@code publicKeyJwk} and {@code secretKeyJwk} are read into
+ * maps. Input nested deeper than 64 objects and arrays is rejected with a
+ * {@link JsonParseException}.
+ * </p>
+ *
+ * <p>
+ * Multibase keys are kept encoded and decoded on first access, see
+ * {@link MulticodecEncoded#ofMultibase(String)}, as most keys of a document are
+ * typically never used. A key in an unsupported base is rejected while
+ * reading, a malformed key is reported when accessed.
+ * </p>
+ *
+ * <p>
+ * A verification relationship entry referencing a method by its identifier
+ * resolves to the method embedded in {@code verificationMethod}, if any,
+ * otherwise to a reference holding the identifier only, see
+ * {@link VerificationMethod#of(URI)}.
+ * </p>
+ *
+ * <p>
+ * The reader holds no state and is safe for concurrent use.
+ * </p>
+ */
+public final class IdentifierDocumentReader {
+
+    static final String ID = "id";
+    static final String TYPE = "type";
+    static final String CONTROLLER = "controller";
+    static final String ALSO_KNOWN_AS = "alsoKnownAs";
+    static final String VERIFICATION_METHOD = "verificationMethod";
+    static final String AUTHENTICATION = "authentication";
+    static final String ASSERTION_METHOD = "assertionMethod";
+    static final String KEY_AGREEMENT = "keyAgreement";
+    static final String CAPABILITY_INVOCATION = "capabilityInvocation";
+    static final String CAPABILITY_DELEGATION = "capabilityDelegation";
+    static final String SERVICE = "service";
+    static final String SERVICE_ENDPOINT = "serviceEndpoint";
+    static final String REVOKED = "revoked";
+    static final String EXPIRES = "expires";
+    static final String PUBLIC_KEY_MULTIBASE = "publicKeyMultibase";
+    static final String SECRET_KEY_MULTIBASE = "secretKeyMultibase";
+    static final String PUBLIC_KEY_JWK = "publicKeyJwk";
+    static final String SECRET_KEY_JWK = "secretKeyJwk";
+
+    static final String MULTIKEY = "Multikey";
+    static final String JSON_WEB_KEY = "JsonWebKey";
+
+    static final String[] DOCUMENT_TERMS = {
+            ID,
+            CONTROLLER,
+            ALSO_KNOWN_AS,
+            VERIFICATION_METHOD,
+            AUTHENTICATION,
+            ASSERTION_METHOD,
+            KEY_AGREEMENT,
+            CAPABILITY_INVOCATION,
+            CAPABILITY_DELEGATION,
+            SERVICE
+    };
+
+    static final String[] METHOD_TERMS = {
+            ID,
+            TYPE,
+            CONTROLLER,
+            PUBLIC_KEY_MULTIBASE,
+            PUBLIC_KEY_JWK,
+            REVOKED,
+            EXPIRES,
+            SECRET_KEY_MULTIBASE,
+            SECRET_KEY_JWK
+    };
+
+    static final String[] SERVICE_TERMS = {
+            ID,
+            TYPE,
+            SERVICE_ENDPOINT
+    };
+
+    static final String[] ENDPOINT_TERMS = {
+            ID
+    };
+
+    static final String[] METHOD_TYPES = {
+            MULTIKEY,
+            Multikey.TYPE,
+            JSON_WEB_KEY,
+            JsonWebKey.TYPE
+    };
+
+    static final String[] RELATIONSHIPS = {
+            AUTHENTICATION,
+            ASSERTION_METHOD,
+            KEY_AGREEMENT,
+            CAPABILITY_INVOCATION,
+            CAPABILITY_DELEGATION
+    };
+
+    private IdentifierDocumentReader() {
+    }
+
+    /**
+     * Reads a document from the given UTF-8 encoded stream.
+     *
+     * @param input the input stream (must not be {@code null})
+     * @return a new immutable document
+     * @throws JsonParseException if the input is not a valid document
+     * @throws IOException        if reading the input fails
+     */
+    public static IdentifierDocument read(final InputStream input) throws IOException {
+        Objects.requireNonNull(input, "input must not be null");
+        return read(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a document from the given reader.
+     *
+     * @param reader the reader (must not be {@code null})
+     * @return a new immutable document
+     * @throws JsonParseException if the input is not a valid document
+     * @throws IOException        if reading the input fails
+     */
+    public static IdentifierDocument read(final Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "reader must not be null");
+
+        final JsonParser parser = new JsonParser(reader);
+
+        final IdentifierDocument document = readDocument(parser);
+
+        if (parser.next() != null) {
+            throw parser.error("Unexpected content after document");
+        }
+        return document;
+    }
+
+    static IdentifierDocument readDocument(final JsonParser parser) throws IOException {
+
+        if (parser.next() != Event.START_OBJECT) {
+            throw parser.error("Expected a document object");
+        }
+
+        URI id = null;
+        Collection<URI> controller = null;
+        Collection<URI> alsoKnownAs = null;
+        List<VerificationMethod> verification = null;
+        Set<Service> service = null;
+
+        // raw relationship entries, resolved once all methods are known
+        final List<List<Object>> relationships = new ArrayList<>(RELATIONSHIPS.length);
+        for (int i = 0; i < RELATIONSHIPS.length; i++) {
+            relationships.add(null);
+        }
+
+        Event event;
+        while ((event = parser.next()) == Event.KEY) {
+
+            final String term = parser.term(DOCUMENT_TERMS);
+
+            if (term == null) {
+                parser.skipValue();
+                continue;
+            }
+
+            switch (term) {
+            case ID:
+                id = readUri(parser, parser.next());
+                break;
+
+            case CONTROLLER:
+                controller = readUris(parser);
+                break;
+
+            case ALSO_KNOWN_AS:
+                alsoKnownAs = readUris(parser);
+                break;
+
+            case VERIFICATION_METHOD:
+                verification = readMethods(parser);
+                break;
+
+            case SERVICE:
+                service = readServices(parser);
+                break;
+
+            default:
+                relationships.set(relationship(term), readRelationship(parser));
+                break;
+            }
+        }
+
+        if (event != Event.END_OBJECT) {
+            throw parser.error("Expected a key");
+        }
+
+        final Map<URI, VerificationMethod> embedded = new HashMap<>();
+        if (verification != null) {
+            for (final VerificationMethod method : verification) {
+                if (method.id() != null) {
+                    embedded.putIfAbsent(method.id(), method);
+                }
+            }
+        }
+
+        return IdentifierDocument.of(
+                id,
+                controller,
+                alsoKnownAs,
+                verification != null ? Collections.unmodifiableList(verification) : null,
+                resolve(relationships.get(0), embedded),
+                resolve(relationships.get(1), embedded),
+                resolve(relationships.get(2), embedded),
+                resolve(relationships.get(3), embedded),
+                resolve(relationships.get(4), embedded),
+                service);
+    }
+
+    static int relationship(final String term) {
+        for (int i = 0; i < RELATIONSHIPS.length; i++) {
+            if (RELATIONSHIPS[i].equals(term)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Reads relationship entries, i.e. {@link URI} references or embedded
+     * {@link VerificationMethod}s.
+     */
+    static List<Object> readRelationship(final JsonParser parser) throws IOException {
+
+        final List<Object> entries = new ArrayList<>();
+
+        Event event = parser.next();
+        final boolean array = event == Event.START_ARRAY;
+        if (array) {
+            event = parser.next();
+        }
+
+        while (event != Event.END_ARRAY) {
+            if (event == Event.STRING) {
+                entries.add(readUri(parser, event));
+
+            } else if (event == Event.START_OBJECT) {
+                entries.add(readMethod(parser));
+
+            } else {
+                throw parser.error("Expected a verification method or a reference");
+            }
+
+            if (!array) {
+                break;
+            }
+            event = parser.next();
+        }
+        return entries;
+    }
+
+    static Set<VerificationMethod> resolve(final List<Object> entries, final Map<URI, VerificationMethod> embedded) {
+        if (entries == null) {
+            return null;
+        }
+        final Set<VerificationMethod> methods = new LinkedHashSet<>(entries.size() * 2);
+        for (final Object entry : entries) {
+            if (entry instanceof URI) {
+                final VerificationMethod method = embedded.get(entry);
+                methods.add(method != null ? method : VerificationMethod.of((URI) entry));
+
+            } else {
+                methods.add((VerificationMethod) entry);
+            }
+        }
+        return Collections.unmodifiableSet(methods);
+    }
+
+    static List<VerificationMethod> readMethods(final JsonParser parser) throws IOException {
+
+        final List<VerificationMethod> methods = new ArrayList<>();
+
+        Event event = parser.next();
+        final boolean array = event == Event.START_ARRAY;
+        if (array) {
+            event = parser.next();
+        }
+
+        while (event != Event.END_ARRAY) {
+            if (event != Event.START_OBJECT) {
+                throw parser.error("Expected a verification method");
+            }
+            methods.add(readMethod(parser));
+
+            if (!array) {
+                break;
+            }
+            event = parser.next();
+        }
+        return methods;
+    }
+
+    /**
+     * Reads a verification method, the opening brace has been consumed.
+     */
+    static VerificationMethod readMethod(final JsonParser parser) throws IOException {
+
+        URI id = null;
+        String type = null;
+        URI controller = null;
+        Instant revoked = null;
+        Instant expires = null;
+        String publicKeyMultibase = null;
+        String secretKeyMultibase = null;
+        Map<String, Object> publicKeyJwk = null;
+        Map<String, Object> secretKeyJwk = null;
+
+        Event event;
+        while ((event = parser.next()) == Event.KEY) {
+
+            final String term = parser.term(METHOD_TERMS);
+
+            if (term == null) {
+                parser.skipValue();
+                continue;
+            }
+
+            switch (term) {
+            case ID:
+                id = readUri(parser, parser.next());
+                break;
+
+            case TYPE:
+                type = readType(parser);
+                break;
+
+            case CONTROLLER:
+                controller = readUri(parser, parser.next());
+                break;
+
+            case REVOKED:
+                revoked = readInstant(parser);
+                break;
+
+            case EXPIRES:
+                expires = readInstant(parser);
+                break;
+
+            case PUBLIC_KEY_MULTIBASE:
+                publicKeyMultibase = readString(parser);
+                break;
+
+            case SECRET_KEY_MULTIBASE:
+                secretKeyMultibase = readString(parser);
+                break;
+
+            case PUBLIC_KEY_JWK:
+                publicKeyJwk = readObject(parser);
+                break;
+
+            case SECRET_KEY_JWK:
+                secretKeyJwk = readObject(parser);
+                break;
+
+            default:
+                parser.skipValue();
+                break;
+            }
+        }
+
+        if (event != Event.END_OBJECT) {
+            throw parser.error("Expected a key");
+        }
+
+        if (MULTIKEY.equals(type) || Multikey.TYPE.equals(type)) {
+            return Multikey.of(
+                    id,
+                    controller,
+                    decode(parser, publicKeyMultibase),
+                    decode(parser, secretKeyMultibase),
+                    revoked,
+                    expires);
+        }
+
+        if (JSON_WEB_KEY.equals(type) || JsonWebKey.TYPE.equals(type)) {
+            return JsonWebKey.of(id, controller, publicKeyJwk, secretKeyJwk, revoked, expires);
+        }
+
+        return VerificationMethod.of(id, type, controller, revoked, expires);
+    }
+
+    /**
+     * @return a known type constant, or the type as read
+     */
+    static String readType(final JsonParser parser) throws IOException {
+        if (parser.next() != Event.STRING) {
+            throw parser.error("Expected a type string");
+        }
+        final String type = parser.term(METHOD_TYPES);
+        return type != null ? type : parser.string();
+    }
+
+    static MulticodecEncoded decode(final JsonParser parser, final String multibase) throws IOException {
+        if (multibase == null) {
+            return null;
+        }
+        try {
+            return MulticodecEncoded.ofMultibase(multibase);
+
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Invalid multibase key: " + e.getMessage(), parser.offset(), e);
+        }
+    }
+
+    static Set<Service> readServices(final JsonParser parser) throws IOException {
+
+        final Set<Service> services = new LinkedHashSet<>();
+
+        Event event = parser.next();
+        final boolean array = event == Event.START_ARRAY;
+        if (array) {
+            event = parser.next();
+        }
+
+        while (event != Event.END_ARRAY) {
+            if (event != Event.START_OBJECT) {
+                throw parser.error("Expected a service");
+            }
+            services.add(readService(parser));
+
+            if (!array) {
+                break;
+            }
+            event = parser.next();
+        }
+        return Collections.unmodifiableSet(services);
+    }
+
+    /**
+     * Reads a service, the opening brace has been consumed.
+     */
+    static Service readService(final JsonParser parser) throws IOException {
+
+        URI id = null;
+        Collection<String> type = null;
+        Collection<ServiceEndpoint> endpoint = null;
+
+        Event event;
+        while ((event = parser.next()) == Event.KEY) {
+
+            final String term = parser.term(SERVICE_TERMS);
+
+            if (term == null) {
+                parser.skipValue();
+                continue;
+            }
+
+            switch (term) {
+            case ID:
+                id = readUri(parser, parser.next());
+                break;
+
+            case TYPE:
+                type = readStrings(parser);
+                break;
+
+            default:
+                endpoint = readEndpoints(parser);
+                break;
+            }
+        }
+
+        if (event != Event.END_OBJECT) {
+            throw parser.error("Expected a key");
+        }
+
+        return Service.of(id, type, endpoint);
+    }
+
+    /**
+     * Reads service endpoints, endpoint maps without an {@code id} are skipped.
+     */
+    static Collection<ServiceEndpoint> readEndpoints(final JsonParser parser) throws IOException {
+
+        final List<ServiceEndpoint> endpoints = new ArrayList<>();
+
+        Event event = parser.next();
+        final boolean array = event == Event.START_ARRAY;
+        if (array) {
+            event = parser.next();
+        }
+
+        while (event != Event.END_ARRAY) {
+            if (event == Event.STRING) {
+                endpoints.add(ServiceEndpoint.of(readUri(parser, event)));
+
+            } else if (event == Event.START_OBJECT) {
+                final URI id = readEndpointId(parser);
+                if (id != null) {
+                    endpoints.add(ServiceEndpoint.of(id));
+                }
+
+            } else {
+                throw parser.error("Expected a service endpoint");
+            }
+
+            if (!array) {
+                break;
+            }
+            event = parser.next();
+        }
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    static URI readEndpointId(final JsonParser parser) throws IOException {
+        URI id = null;
+
+        Event event;
+        while ((event = parser.next()) == Event.KEY) {
+            if (parser.term(ENDPOINT_TERMS) != null) {
+                id = readUri(parser, parser.next());
+            } else {
+                parser.skipValue();
+            }
+        }
+
+        if (event != Event.END_OBJECT) {
+            throw parser.error("Expected a key");
+        }
+        return id;
+    }
+
+    static URI readUri(final JsonParser parser, final Event event) throws IOException {
+        if (event != Event.STRING) {
+            throw parser.error("Expected a URI string");
+        }
+        try {
+            return URI.create(parser.string());
+
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Invalid URI: " + e.getMessage(), parser.offset(), e);
+        }
+    }
+
+    /**
+     * Reads a URI or an array of URIs.
+     */
+    static Collection<URI> readUris(final JsonParser parser) throws IOException {
+
+        Event event = parser.next();
+
+        if (event != Event.START_ARRAY) {
+            return Collections.singletonList(readUri(parser, event));
+        }
+
+        final List<URI> uris = new ArrayList<>();
+        while ((event = parser.next()) != Event.END_ARRAY) {
+            uris.add(readUri(parser, event));
+        }
+        return Collections.unmodifiableList(uris);
+    }
+
+    static String readString(final JsonParser parser) throws IOException {
+        if (parser.next() != Event.STRING) {
+            throw parser.error("Expected a string");
+        }
+        return parser.string();
+    }
+
+    /**
+     * Reads a string or an array of strings.
+     */
+    static Collection<String> readStrings(final JsonParser parser) throws IOException {
+
+        Event event = parser.next();
+
+        if (event == Event.STRING) {
+            return Collections.singletonList(parser.string());
+        }
+        if (event != Event.START_ARRAY) {
+            throw parser.error("Expected a string or an array of strings");
+        }
+
+        final List<String> strings = new ArrayList<>();
+        while ((event = parser.next()) == Event.STRING) {
+            strings.add(parser.string());
+        }
+        if (event != Event.END_ARRAY) {
+            throw parser.error("Expected a string");
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    static Instant readInstant(final JsonParser parser) throws IOException {
+        final String value = readString(parser);
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException("Invalid date time " + value, parser.offset(), e);
+        }
+    }
+
+    static Map<String, Object> readObject(final JsonParser parser) throws IOException {
+        if (parser.next() != Event.START_OBJECT) {
+            throw parser.error("Expected an object");
+        }
+        return readMembers(parser);
+    }
+
+    /**
+     * Reads an object into a map, the opening brace has been consumed.
+     */
+    static Map<String, Object> readMembers(final JsonParser parser) throws IOException {
+
+        final Map<String, Object> object = new LinkedHashMap<>();
+
+        Event event;
+        while ((event = parser.next()) == Event.KEY) {
+            final String key = parser.string();
+            object.put(key, readValue(parser, parser.next()));
+        }
+
+        if (event != Event.END_OBJECT) {
+            throw parser.error("Expected a key");
+        }
+        return Collections.unmodifiableMap(object);
+    }
+
+    static Object readValue(final JsonParser parser, final Event event) throws IOException {
+        switch (event) {
+        case START_OBJECT:
+            return readMembers(parser);
+
+        case START_ARRAY:
+            final List<Object> array = new ArrayList<>();
+            Event item;
+            while ((item = parser.next()) != Event.END_ARRAY) {
+                array.add(readValue(parser, item));
+            }
+            return Collections.unmodifiableList(array);
+
+        case STRING:
+            return parser.string();
+
+        case NUMBER:
+            return readNumber(parser);
+
+        case TRUE:
+            return Boolean.TRUE;
+
+        case FALSE:
+            return Boolean.FALSE;
+
+        case NULL:
+            return null;
+
+        default:
+            throw parser.error("Expected a value");
+        }
+    }
+
+    static Number readNumber(final JsonParser parser) throws IOException {
+        final String value = parser.string();
+        try {
+            final BigDecimal number = new BigDecimal(value);
+            if (number.scale() <= 0 && value.indexOf('.') == -1 && value.indexOf('e') == -1 && value.indexOf('E') == -1) {
+                try {
+                    return number.longValueExact();
+
+                } catch (ArithmeticException e) {
+                    return number.toBigIntegerExact();
+                }
+            }
+            return number;
+
+        } catch (NumberFormatException e) {
+            throw new JsonParseException("Invalid number " + value, parser.offset(), e);
+        }
+    }
+}
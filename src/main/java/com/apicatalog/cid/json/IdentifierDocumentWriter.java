@@ -0,0 +1,388 @@
+package com.apicatalog.cid.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.apicatalog.cid.datatype.Multibase;
+import com.apicatalog.cid.datatype.MultibaseEncoded;
+import com.apicatalog.cid.datatype.Multicodec;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * Writes an {@link IdentifierDocument} as compact JSON, the form read by
+ * {@link IdentifierDocumentReader}.
+ *
+ * <p>
+ * The output is streamed through a buffer allocated once per thread and
+ * reused, no intermediate tree or string is built. Empty properties are
+ * omitted. A verification relationship entry is written as an identifier
+ * reference when the method is declared in {@code verificationMethod} or holds
+ * an identifier only, otherwise the method is embedded. {@link Multikey} keys
+ * read from multibase values are written as read, other keys as
+ * {@code base58btc} multibase values.
+ * </p>
+ *
+ * <p>
+ * Secret keys, i.e. {@code secretKeyMultibase} and {@code secretKeyJwk}, are
+ * omitted unless explicitly requested, see
+ * {@link #write(IdentifierDocument, OutputStream, boolean)}, so a document can
+ * be published as written. Service endpoints without an identifier are
+ * skipped.
+ * </p>
+ *
+ * <p>
+ * The writer holds no state and is safe for concurrent use.
+ * </p>
+ */
+public final class IdentifierDocumentWriter {
+
+    /** The context written to each document. */
+    public static final String CONTEXT = "https://www.w3.org/ns/cid/v1";
+
+    static final String CONTEXT_TERM = "@context";
+
+    private IdentifierDocumentWriter() {
+    }
+
+    /**
+     * Writes the document, UTF-8 encoded, to the given stream, omitting secret
+     * keys. The stream is neither flushed nor closed.
+     *
+     * @param document the document to write (must not be {@code null})
+     * @param output   the output stream (must not be {@code null})
+     * @throws IOException if writing fails
+     */
+    public static void write(final IdentifierDocument document, final OutputStream output) throws IOException {
+        write(document, output, false);
+    }
+
+    /**
+     * Writes the document, UTF-8 encoded, to the given stream. The stream is
+     * neither flushed nor closed.
+     *
+     * @param document       the document to write (must not be {@code null})
+     * @param output         the output stream (must not be {@code null})
+     * @param includeSecrets {@code true} to write secret keys as well
+     * @throws IOException if writing fails
+     */
+    public static void write(final IdentifierDocument document, final OutputStream output, final boolean includeSecrets) throws IOException {
+        Objects.requireNonNull(document, "document must not be null");
+        Objects.requireNonNull(output, "output must not be null");
+        write(document, JsonGenerator.of(output), includeSecrets);
+    }
+
+    /**
+     * Writes the document to the given {@link Appendable}, e.g. a
+     * {@link StringBuilder} or a {@link java.io.Writer}, omitting secret keys.
+     *
+     * @param document the document to write (must not be {@code null})
+     * @param output   the output (must not be {@code null})
+     * @throws IOException if writing fails
+     */
+    public static void write(final IdentifierDocument document, final Appendable output) throws IOException {
+        write(document, output, false);
+    }
+
+    /**
+     * Writes the document to the given {@link Appendable}, e.g. a
+     * {@link StringBuilder} or a {@link java.io.Writer}.
+     *
+     * @param document       the document to write (must not be {@code null})
+     * @param output         the output (must not be {@code null})
+     * @param includeSecrets {@code true} to write secret keys as well
+     * @throws IOException if writing fails
+     */
+    public static void write(final IdentifierDocument document, final Appendable output, final boolean includeSecrets) throws IOException {
+        Objects.requireNonNull(document, "document must not be null");
+        Objects.requireNonNull(output, "output must not be null");
+        write(document, JsonGenerator.of(output), includeSecrets);
+    }
+
+    static void write(final IdentifierDocument document, final JsonGenerator generator, final boolean includeSecrets) throws IOException {
+        try {
+            writeDocument(document, generator, includeSecrets);
+
+        } finally {
+            generator.close();
+        }
+    }
+
+    static void writeDocument(final IdentifierDocument document, final JsonGenerator generator, final boolean includeSecrets) throws IOException {
+
+        generator.beginObject();
+
+        generator.name(CONTEXT_TERM).value(CONTEXT);
+
+        if (document.id() != null) {
+            generator.name(IdentifierDocumentReader.ID).value(document.id().toString());
+        }
+
+        writeUris(IdentifierDocumentReader.CONTROLLER, document.controller(), true, generator);
+        writeUris(IdentifierDocumentReader.ALSO_KNOWN_AS, document.alsoKnownAs(), false, generator);
+
+        final Collection<VerificationMethod> verification = document.verification();
+
+        Set<URI> declared = null;
+
+        if (verification != null && !verification.isEmpty()) {
+
+            declared = new HashSet<>(verification.size() * 2);
+
+            generator.name(IdentifierDocumentReader.VERIFICATION_METHOD).beginArray();
+            for (final VerificationMethod method : verification) {
+                writeMethod(method, generator, includeSecrets);
+                if (method.id() != null) {
+                    declared.add(method.id());
+                }
+            }
+            generator.endArray();
+        }
+
+        writeRelationship(IdentifierDocumentReader.AUTHENTICATION, document.authentication(), declared, generator, includeSecrets);
+        writeRelationship(IdentifierDocumentReader.ASSERTION_METHOD, document.assertion(), declared, generator, includeSecrets);
+        writeRelationship(IdentifierDocumentReader.KEY_AGREEMENT, document.keyAgreement(), declared, generator, includeSecrets);
+        writeRelationship(IdentifierDocumentReader.CAPABILITY_INVOCATION, document.capabilityInvocation(), declared, generator, includeSecrets);
+        writeRelationship(IdentifierDocumentReader.CAPABILITY_DELEGATION, document.capabilityDelegation(), declared, generator, includeSecrets);
+
+        final Set<Service> service = document.service();
+
+        if (service != null && !service.isEmpty()) {
+            generator.name(IdentifierDocumentReader.SERVICE).beginArray();
+            for (final Service entry : service) {
+                writeService(entry, generator);
+            }
+            generator.endArray();
+        }
+
+        generator.endObject();
+    }
+
+    static void writeRelationship(final String name, final Set<VerificationMethod> methods, final Set<URI> declared, final JsonGenerator generator, final boolean includeSecrets) throws IOException {
+
+        if (methods == null || methods.isEmpty()) {
+            return;
+        }
+
+        generator.name(name).beginArray();
+
+        for (final VerificationMethod method : methods) {
+            if (method.id() != null
+                    && ((declared != null && declared.contains(method.id()))
+                            || method.isReference())) {
+                generator.value(method.id().toString());
+
+            } else {
+                writeMethod(method, generator, includeSecrets);
+            }
+        }
+        generator.endArray();
+    }
+
+    static void writeMethod(final VerificationMethod method, final JsonGenerator generator, final boolean includeSecrets) throws IOException {
+
+        generator.beginObject();
+
+        if (method.id() != null) {
+            generator.name(IdentifierDocumentReader.ID).value(method.id().toString());
+        }
+
+        final String type = method.type();
+
+        if (type != null) {
+            generator.name(IdentifierDocumentReader.TYPE).value(compactType(type));
+        }
+
+        if (method.controller() != null) {
+            generator.name(IdentifierDocumentReader.CONTROLLER).value(method.controller().toString());
+        }
+
+        writeInstant(IdentifierDocumentReader.REVOKED, method.revoked(), generator);
+        writeInstant(IdentifierDocumentReader.EXPIRES, method.expires(), generator);
+
+        if (method instanceof Multikey) {
+            final Multikey multikey = (Multikey) method;
+            writeKey(IdentifierDocumentReader.PUBLIC_KEY_MULTIBASE, multikey.publicKey(), generator);
+            if (includeSecrets) {
+                writeKey(IdentifierDocumentReader.SECRET_KEY_MULTIBASE, multikey.secretKey(), generator);
+            }
+
+        } else if (method instanceof JsonWebKey) {
+            final JsonWebKey jwk = (JsonWebKey) method;
+            if (jwk.publicKey() != null) {
+                generator.name(IdentifierDocumentReader.PUBLIC_KEY_JWK);
+                writeValue(jwk.publicKey(), generator);
+            }
+            if (includeSecrets && jwk.secretKey() != null) {
+                generator.name(IdentifierDocumentReader.SECRET_KEY_JWK);
+                writeValue(jwk.secretKey(), generator);
+            }
+        }
+
+        generator.endObject();
+    }
+
+    static String compactType(final String type) {
+        if (Multikey.TYPE.equals(type)) {
+            return IdentifierDocumentReader.MULTIKEY;
+        }
+        if (JsonWebKey.TYPE.equals(type)) {
+            return IdentifierDocumentReader.JSON_WEB_KEY;
+        }
+        return type;
+    }
+
+    static void writeKey(final String name, final MulticodecEncoded key, final JsonGenerator generator) throws IOException {
+        if (key instanceof MultibaseEncoded) {
+            // keep the original form, no need to encode
+            generator.name(name).value(((MultibaseEncoded) key).encoded());
+
+        } else if (key != null) {
+            generator.name(name).value(Multibase.encode(Multibase.BASE_58_BTC, Multicodec.encode(key)));
+        }
+    }
+
+    static void writeInstant(final String name, final Instant instant, final JsonGenerator generator) throws IOException {
+        if (instant != null) {
+            generator.name(name).value(instant.toString());
+        }
+    }
+
+    static void writeService(final Service service, final JsonGenerator generator) throws IOException {
+
+        generator.beginObject();
+
+        if (service.id() != null) {
+            generator.name(IdentifierDocumentReader.ID).value(service.id().toString());
+        }
+
+        final Collection<String> type = service.type();
+
+        if (type != null && !type.isEmpty()) {
+            generator.name(IdentifierDocumentReader.TYPE);
+            if (type.size() == 1) {
+                generator.value(type.iterator().next());
+
+            } else {
+                generator.beginArray();
+                for (final String value : type) {
+                    generator.value(value);
+                }
+                generator.endArray();
+            }
+        }
+
+        final Collection<ServiceEndpoint> endpoint = service.endpoint();
+
+        final int count = countEndpoints(endpoint);
+
+        if (count > 0) {
+            generator.name(IdentifierDocumentReader.SERVICE_ENDPOINT);
+            if (count > 1) {
+                generator.beginArray();
+            }
+            for (final ServiceEndpoint value : endpoint) {
+                if (value != null && value.id() != null) {
+                    generator.value(value.id().toString());
+                }
+            }
+            if (count > 1) {
+                generator.endArray();
+            }
+        }
+
+        generator.endObject();
+    }
+
+    /**
+     * @return the number of endpoints with an identifier
+     */
+    static int countEndpoints(final Collection<ServiceEndpoint> endpoints) {
+
+        if (endpoints == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (final ServiceEndpoint endpoint : endpoints) {
+            if (endpoint != null && endpoint.id() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes a single URI, if allowed, or an array of URIs.
+     */
+    static void writeUris(final String name, final Collection<URI> uris, final boolean single, final JsonGenerator generator) throws IOException {
+
+        if (uris == null || uris.isEmpty()) {
+            return;
+        }
+
+        generator.name(name);
+
+        if (single && uris.size() == 1) {
+            generator.value(uris.iterator().next().toString());
+            return;
+        }
+
+        generator.beginArray();
+        for (final URI uri : uris) {
+            generator.value(uri.toString());
+        }
+        generator.endArray();
+    }
+
+    /**
+     * Writes a JSON value represented by a map, a list, a string, a number, a
+     * boolean, or {@code null}.
+     */
+    static void writeValue(final Object value, final JsonGenerator generator) throws IOException {
+
+        if (value == null) {
+            generator.nullValue();
+
+        } else if (value instanceof String) {
+            generator.value((String) value);
+
+        } else if (value instanceof Number) {
+            generator.value((Number) value);
+
+        } else if (value instanceof Boolean) {
+            generator.value(((Boolean) value).booleanValue());
+
+        } else if (value instanceof Map) {
+            generator.beginObject();
+            for (final Map.Entry<?, ?> member : ((Map<?, ?>) value).entrySet()) {
+                generator.name(String.valueOf(member.getKey()));
+                writeValue(member.getValue(), generator);
+            }
+            generator.endObject();
+
+        } else if (value instanceof List) {
+            generator.beginArray();
+            for (final Object item : (List<?>) value) {
+                writeValue(item, generator);
+            }
+            generator.endArray();
+
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value type " + value.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.apicatalog.cid.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes compact JSON text into a buffer flushed to an {@link Appendable} or,
+ * UTF-8 encoded, to an {@link OutputStream}.
+ *
+ * <p>
+ * Buffers are allocated once per thread and reused, see {@link #of(Appendable)}
+ * and {@link #of(OutputStream)}. A generator must be {@link #close() closed}
+ * to flush pending output and to release the buffers.
+ * </p>
+ */
+final class JsonGenerator {
+
+    static final int BUFFER_SIZE = 4096;
+
+    static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    static final ThreadLocal<JsonGenerator> GENERATORS = ThreadLocal.withInitial(JsonGenerator::new);
+
+    final char[] chars;
+    final CharBuffer charView;
+    final byte[] bytes;
+
+    int length;
+
+    /** {@code true} if the container at the given depth has no member yet */
+    boolean[] first;
+    int depth;
+
+    /** {@code true} after a name has been written */
+    boolean member;
+
+    Appendable appendable;
+    OutputStream output;
+
+    boolean inUse;
+
+    JsonGenerator() {
+        this.chars = new char[BUFFER_SIZE];
+        this.charView = CharBuffer.wrap(chars);
+        // each char takes up to 3 bytes, a surrogate pair 4 bytes per 2 chars
+        this.bytes = new byte[BUFFER_SIZE * 3];
+        this.first = new boolean[16];
+    }
+
+    static JsonGenerator of(final Appendable appendable) {
+        final JsonGenerator generator = acquire();
+        generator.appendable = appendable;
+        return generator;
+    }
+
+    static JsonGenerator of(final OutputStream output) {
+        final JsonGenerator generator = acquire();
+        generator.output = output;
+        return generator;
+    }
+
+    static JsonGenerator acquire() {
+        final JsonGenerator generator = GENERATORS.get();
+        if (generator.inUse) {
+            // nested use on the same thread
+            final JsonGenerator nested = new JsonGenerator();
+            nested.inUse = true;
+            return nested;
+        }
+        generator.inUse = true;
+        return generator;
+    }
+
+    /**
+     * Flushes pending output and releases the generator.
+     */
+    void close() throws IOException {
+        try {
+            flush();
+
+        } finally {
+            length = 0;
+            depth = 0;
+            member = false;
+            appendable = null;
+            output = null;
+            inUse = false;
+        }
+    }
+
+    JsonGenerator beginObject() throws IOException {
+        open('{');
+        return this;
+    }
+
+    JsonGenerator endObject() throws IOException {
+        depth--;
+        write('}');
+        return this;
+    }
+
+    JsonGenerator beginArray() throws IOException {
+        open('[');
+        return this;
+    }
+
+    JsonGenerator endArray() throws IOException {
+        depth--;
+        write(']');
+        return this;
+    }
+
+    JsonGenerator name(final String name) throws IOException {
+        separate();
+        string(name);
+        write(':');
+        member = true;
+        return this;
+    }
+
+    JsonGenerator value(final String value) throws IOException {
+        separate();
+        string(value);
+        return this;
+    }
+
+    JsonGenerator value(final Number value) throws IOException {
+        if ((value instanceof Double && !Double.isFinite(value.doubleValue()))
+                || (value instanceof Float && !Float.isFinite(value.floatValue()))) {
+            throw new IllegalArgumentException("Non-finite numbers are not allowed in JSON, but got " + value);
+        }
+        separate();
+        raw(value.toString());
+        return this;
+    }
+
+    JsonGenerator value(final boolean value) throws IOException {
+        separate();
+        raw(value ? "true" : "false");
+        return this;
+    }
+
+    JsonGenerator nullValue() throws IOException {
+        separate();
+        raw("null");
+        return this;
+    }
+
+    void open(final char bracket) throws IOException {
+        separate();
+        write(bracket);
+        if (depth == first.length) {
+            first = Arrays.copyOf(first, depth * 2);
+        }
+        first[depth++] = true;
+    }
+
+    /**
+     * Writes a comma unless this is the first value in a container or a member
+     * value.
+     */
+    void separate() throws IOException {
+        if (member) {
+            member = false;
+            return;
+        }
+        if (depth > 0) {
+            if (first[depth - 1]) {
+                first[depth - 1] = false;
+            } else {
+                write(',');
+            }
+        }
+    }
+
+    void string(final String value) throws IOException {
+        write('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+
+            if (ch == '"' || ch == '\\') {
+                write('\\');
+                write(ch);
+
+            } else if (ch < 0x20) {
+                switch (ch) {
+                case '\n':
+                    raw("\\n");
+                    break;
+                case '\r':
+                    raw("\\r");
+                    break;
+                case '\t':
+                    raw("\\t");
+                    break;
+                case '\b':
+                    raw("\\b");
+                    break;
+                case '\f':
+                    raw("\\f");
+                    break;
+                default:
+                    raw("\\u00");
+                    write(HEX[ch >> 4]);
+                    write(HEX[ch & 0x0f]);
+                }
+
+            } else {
+                write(ch);
+            }
+        }
+        write('"');
+    }
+
+    void raw(final String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            write(value.charAt(i));
+        }
+    }
+
+    void write(final char ch) throws IOException {
+        // never split a surrogate pair on flush
+        if (length == chars.length || (length == chars.length - 1 && Character.isHighSurrogate(ch))) {
+            flush();
+        }
+        chars[length++] = ch;
+    }
+
+    void flush() throws IOException {
+        if (length == 0) {
+            return;
+        }
+
+        if (output != null) {
+            output.write(bytes, 0, encode());
+
+        } else if (appendable instanceof StringBuilder) {
+            ((StringBuilder) appendable).append(chars, 0, length);
+
+        } else if (appendable instanceof Writer) {
+            ((Writer) appendable).write(chars, 0, length);
+
+        } else {
+            appendable.append(charView, 0, length);
+        }
+        length = 0;
+    }
+
+    /**
+     * Encodes the buffered chars as UTF-8.
+     *
+     * @return the number of bytes
+     */
+    int encode() {
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char ch = chars[i];
+
+            if (ch < 0x80) {
+                bytes[count++] = (byte) ch;
+
+            } else if (ch < 0x800) {
+                bytes[count++] = (byte) (0xc0 | (ch >> 6));
+                bytes[count++] = (byte) (0x80 | (ch & 0x3f));
+
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                final int cp = Character.toCodePoint(ch, chars[++i]);
+                bytes[count++] = (byte) (0xf0 | (cp >> 18));
+                bytes[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                bytes[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[count++] = (byte) (0x80 | (cp & 0x3f));
+
+            } else if (Character.isSurrogate(ch)) {
+                // unpaired surrogate
+                bytes[count++] = (byte) '?';
+
+            } else {
+                bytes[count++] = (byte) (0xe0 | (ch >> 12));
+                bytes[count++] = (byte) (0x80 | ((ch >> 6) & 0x3f));
+                bytes[count++] = (byte) (0x80 | (ch & 0x3f));
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,29 @@
+package com.apicatalog.cid.json;
+
+import java.io.IOException;
+
+/**
+ * Thrown when JSON input is malformed or does not describe a valid
+ * Controlled Identifier Document.
+ */
+public class JsonParseException extends IOException {
+
+    private static final long serialVersionUID = 4387305524627916311L;
+
+    private final long offset;
+
+    public JsonParseException(String message, long offset) {
+        super(message + " at offset " + offset);
+        this.offset = offset;
+    }
+
+    public JsonParseException(String message, long offset, Throwable cause) {
+        super(message + " at offset " + offset, cause);
+        this.offset = offset;
+    }
+
+    /** @return the number of characters read when the error was detected */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,462 @@
+package com.apicatalog.cid.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * A pull parser reading JSON text event by event.
+ *
+ * <p>
+ * Keys and scalar values are accumulated in a single reusable buffer, a
+ * {@link String} is created only when requested, see {@link #string()}.
+ * Skipped values are validated, numbers against the RFC 8259 grammar, but
+ * never buffered.
+ * </p>
+ *
+ * <p>
+ * Containers can be nested up to {@link #MAX_DEPTH} levels, deeper input is
+ * rejected so that recursive consumers cannot exhaust the stack. Keys and
+ * scalar values are limited to {@link #MAX_LENGTH} characters, skipped ones
+ * included.
+ * </p>
+ */
+final class JsonParser {
+
+    enum Event {
+        START_OBJECT,
+        END_OBJECT,
+        START_ARRAY,
+        END_ARRAY,
+        KEY,
+        STRING,
+        NUMBER,
+        TRUE,
+        FALSE,
+        NULL
+    }
+
+    /** expects a value */
+    static final int VALUE = 0;
+    /** expects a value or the end of an array */
+    static final int VALUE_OR_END = 1;
+    /** expects a key */
+    static final int KEY = 2;
+    /** expects a key or the end of an object */
+    static final int KEY_OR_END = 3;
+    /** expects a comma or the end of the current container */
+    static final int NEXT_OR_END = 4;
+    /** the top-level value has been read */
+    static final int DONE = 5;
+
+    static final int BUFFER_SIZE = 8192;
+
+    /** the maximum number of nested objects and arrays */
+    static final int MAX_DEPTH = 64;
+
+    /** the maximum number of characters of a key or a scalar value */
+    static final int MAX_LENGTH = 1 << 16;
+
+    final Reader reader;
+    final char[] buffer;
+
+    int position;
+    int limit;
+
+    /** number of characters consumed before the buffer */
+    long consumed;
+
+    /** open containers, '{' or '[' */
+    char[] stack;
+    int depth;
+
+    int state;
+
+    /** the current key or scalar value */
+    char[] text;
+
+    /** the length of the current key or scalar value, counted when skipped too */
+    int length;
+
+    boolean capture;
+
+    JsonParser(final Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.position = 0;
+        this.limit = 0;
+        this.consumed = 0;
+        this.stack = new char[16];
+        this.depth = 0;
+        this.state = VALUE;
+        this.text = new char[64];
+        this.length = 0;
+        this.capture = true;
+    }
+
+    /**
+     * Reads the next event.
+     *
+     * @return the next event, or {@code null} at the end of the input
+     * @throws JsonParseException if the input is not valid JSON
+     */
+    Event next() throws IOException {
+
+        int ch = skipWhitespace();
+
+        if (state == DONE) {
+            if (ch != -1) {
+                throw error("Unexpected character '" + (char) ch + "' after top-level value");
+            }
+            return null;
+        }
+
+        if (ch == -1) {
+            throw error("Unexpected end of input");
+        }
+
+        if (state == NEXT_OR_END) {
+            final char container = stack[depth - 1];
+
+            if (ch == ',') {
+                position++;
+                state = container == '{' ? KEY : VALUE;
+                ch = skipWhitespace();
+                if (ch == -1) {
+                    throw error("Unexpected end of input");
+                }
+
+            } else if (ch == '}' && container == '{') {
+                return close(Event.END_OBJECT);
+
+            } else if (ch == ']' && container == '[') {
+                return close(Event.END_ARRAY);
+
+            } else {
+                throw error("Unexpected character '" + (char) ch + "', expected ',' or '" + (container == '{' ? '}' : ']') + "'");
+            }
+        }
+
+        if (state == KEY || state == KEY_OR_END) {
+            if (ch == '}' && state == KEY_OR_END) {
+                return close(Event.END_OBJECT);
+            }
+            if (ch != '"') {
+                throw error("Unexpected character '" + (char) ch + "', expected a key");
+            }
+            position++;
+            readString();
+
+            if (skipWhitespace() != ':') {
+                throw error("Expected ':'");
+            }
+            position++;
+            state = VALUE;
+            return Event.KEY;
+        }
+
+        if (ch == ']' && state == VALUE_OR_END) {
+            return close(Event.END_ARRAY);
+        }
+
+        switch (ch) {
+        case '{':
+            position++;
+            push('{');
+            state = KEY_OR_END;
+            return Event.START_OBJECT;
+
+        case '[':
+            position++;
+            push('[');
+            state = VALUE_OR_END;
+            return Event.START_ARRAY;
+
+        case '"':
+            position++;
+            readString();
+            return scalar(Event.STRING);
+
+        case 't':
+            literal("true");
+            return scalar(Event.TRUE);
+
+        case 'f':
+            literal("false");
+            return scalar(Event.FALSE);
+
+        case 'n':
+            literal("null");
+            return scalar(Event.NULL);
+
+        default:
+            if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                readNumber();
+                return scalar(Event.NUMBER);
+            }
+            throw error("Unexpected character '" + (char) ch + "'");
+        }
+    }
+
+    /**
+     * Skips the value that follows, i.e. a scalar or a whole object or array,
+     * without buffering it.
+     */
+    void skipValue() throws IOException {
+        capture = false;
+        try {
+            final Event event = next();
+
+            if (event == Event.START_OBJECT || event == Event.START_ARRAY) {
+                final int level = depth - 1;
+                while (depth > level) {
+                    next();
+                }
+
+            } else if (event == Event.END_OBJECT || event == Event.END_ARRAY || event == Event.KEY || event == null) {
+                throw error("Expected a value");
+            }
+
+        } finally {
+            capture = true;
+        }
+    }
+
+    /** @return the current key or scalar value as a new string */
+    String string() {
+        return new String(text, 0, length);
+    }
+
+    /**
+     * Finds the current key or value among the given terms without allocating.
+     *
+     * @return the matching term, or {@code null}
+     */
+    String term(final String[] terms) {
+        for (final String term : terms) {
+            if (term.length() == length && matches(term)) {
+                return term;
+            }
+        }
+        return null;
+    }
+
+    boolean matches(final String term) {
+        for (int i = 0; i < length; i++) {
+            if (text[i] != term.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return the number of characters consumed */
+    long offset() {
+        return consumed + position;
+    }
+
+    JsonParseException error(final String message) {
+        return new JsonParseException(message, offset());
+    }
+
+    Event scalar(final Event event) {
+        state = depth == 0 ? DONE : NEXT_OR_END;
+        return event;
+    }
+
+    Event close(final Event event) {
+        position++;
+        depth--;
+        state = depth == 0 ? DONE : NEXT_OR_END;
+        return event;
+    }
+
+    void push(final char container) throws JsonParseException {
+        if (depth == MAX_DEPTH) {
+            throw error("Maximum nesting depth of " + MAX_DEPTH + " exceeded");
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = container;
+    }
+
+    void append(final char ch) throws JsonParseException {
+        if (length == MAX_LENGTH) {
+            throw error("Maximum length of " + MAX_LENGTH + " characters exceeded");
+        }
+        if (capture) {
+            if (length == text.length) {
+                text = Arrays.copyOf(text, length * 2);
+            }
+            text[length] = ch;
+        }
+        length++;
+    }
+
+    void readString() throws IOException {
+        length = 0;
+
+        while (true) {
+            if (position == limit && !fill()) {
+                throw error("Unterminated string");
+            }
+
+            final char ch = buffer[position++];
+
+            if (ch == '"') {
+                return;
+            }
+
+            if (ch == '\\') {
+                append(readEscape());
+
+            } else if (ch < 0x20) {
+                throw error("Unescaped control character in string");
+
+            } else {
+                append(ch);
+            }
+        }
+    }
+
+    char readEscape() throws IOException {
+        final int ch = read();
+        switch (ch) {
+        case '"':
+        case '\\':
+        case '/':
+            return (char) ch;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                final int digit = Character.digit(read(), 16);
+                if (digit < 0) {
+                    throw error("Invalid unicode escape");
+                }
+                value = (value << 4) | digit;
+            }
+            return (char) value;
+        default:
+            throw error("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * Reads a number, i.e.
+     * {@code -? (0 | [1-9][0-9]*) (.[0-9]+)? ([eE][+-]?[0-9]+)?}.
+     */
+    void readNumber() throws IOException {
+        length = 0;
+
+        if (peek() == '-') {
+            append((char) read());
+        }
+
+        final int first = peek();
+
+        if (first == '0') {
+            append((char) read());
+
+        } else if (first < '1' || first > '9' || digits() == 0) {
+            throw error("Invalid number, expected a digit");
+        }
+
+        if (peek() == '.') {
+            append((char) read());
+            if (digits() == 0) {
+                throw error("Invalid number, expected a fraction digit");
+            }
+        }
+
+        final int exponent = peek();
+
+        if (exponent == 'e' || exponent == 'E') {
+            append((char) read());
+
+            final int sign = peek();
+            if (sign == '+' || sign == '-') {
+                append((char) read());
+            }
+            if (digits() == 0) {
+                throw error("Invalid number, expected an exponent digit");
+            }
+        }
+    }
+
+    /**
+     * @return the number of digits read
+     */
+    int digits() throws IOException {
+        int count = 0;
+        for (int ch = peek(); ch >= '0' && ch <= '9'; ch = peek()) {
+            append((char) read());
+            count++;
+        }
+        return count;
+    }
+
+    void literal(final String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw error("Invalid literal, expected " + literal);
+            }
+        }
+    }
+
+    /**
+     * @return the next character, not consumed, or {@code -1}
+     */
+    int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    int read() throws IOException {
+        if (position == limit && !fill()) {
+            throw error("Unexpected end of input");
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * @return the next non-whitespace character, not consumed, or {@code -1}
+     */
+    int skipWhitespace() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            final char ch = buffer[position];
+            if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') {
+                return ch;
+            }
+            position++;
+        }
+    }
+
+    boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = 0;
+
+        final int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        limit = count;
+        return true;
+    }
+}
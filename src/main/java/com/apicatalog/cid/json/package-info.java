@@ -0,0 +1,11 @@
+/**
+ * Reading Controlled Identifier Documents from compact JSON.
+ * <p>
+ * Documents are read directly into the immutable model, no intermediate JSON
+ * tree is built. No external JSON library is required.
+ * </p>
+ *
+ * @see <a href="https://www.w3.org/TR/cid-1.0/">W3C Controlled Identifiers
+ *      1.0</a>
+ */
+package com.apicatalog.cid.json;
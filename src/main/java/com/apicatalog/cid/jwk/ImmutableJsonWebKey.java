@@ -4,12 +4,28 @@ import java.net.URI;
 import java.time.Instant;
 import java.util.Map;
 
+import com.apicatalog.cid.datatype.Identifier;
+
+/**
+ * A public key held as a typed {@link Jwk} when it is represented exactly,
+ * otherwise as the given members.
+ */
 final class ImmutableJsonWebKey implements JsonWebKey {
 
     final URI id;
+    final Identifier identifier;
     final URI controller;
 
+    /** {@code null} if the key is typed */
     final Map<String, Object> publicKey;
+    final Jwk publicJwk;
+
+    /**
+     * members of the typed key, lazily computed, may be computed more than once
+     * under contention
+     */
+    volatile Map<String, Object> publicMembers;
+
     final Map<String, Object> secretKey;
 
     final Instant revoked;
@@ -23,8 +39,10 @@ final class ImmutableJsonWebKey implements JsonWebKey {
             Instant revoked,
             Instant expires) {
         this.id = id;
+        this.identifier = id != null ? Identifier.of(id) : null;
         this.controller = controller;
-        this.publicKey = publicKey;
+        this.publicJwk = publicKey != null ? Jwk.tryOf(publicKey) : null;
+        this.publicKey = publicJwk == null ? publicKey : null;
         this.secretKey = secretKey;
         this.revoked = revoked;
         this.expires = expires;
@@ -35,6 +53,11 @@ final class ImmutableJsonWebKey implements JsonWebKey {
         return id;
     }
 
+    @Override
+    public Identifier identifier() {
+        return identifier;
+    }
+
     @Override
     public URI controller() {
         return controller;
@@ -50,9 +73,41 @@ final class ImmutableJsonWebKey implements JsonWebKey {
         return expires;
     }
 
+    ImmutableJsonWebKey(
+            URI id,
+            URI controller,
+            Jwk publicKey,
+            Map<String, Object> secretKey,
+            Instant revoked,
+            Instant expires) {
+        this.id = id;
+        this.identifier = id != null ? Identifier.of(id) : null;
+        this.controller = controller;
+        this.publicJwk = publicKey;
+        this.publicKey = null;
+        this.secretKey = secretKey;
+        this.revoked = revoked;
+        this.expires = expires;
+    }
+
     @Override
     public Map<String, Object> publicKey() {
-        return publicKey;
+        if (publicJwk == null) {
+            return publicKey;
+        }
+        Map<String, Object> members = publicMembers;
+        if (members == null) {
+            members = publicJwk.toMap();
+            publicMembers = members;
+        }
+        return members;
+    }
+
+    @Override
+    public Jwk publicJwk() {
+        return publicJwk != null
+                ? publicJwk
+                : JsonWebKey.super.publicJwk();
     }
 
     @Override
@@ -17,6 +17,19 @@ public interface JsonWebKey extends VerificationMethod {
 
     Map<String, Object> publicKey();
 
+    /**
+     * Returns the typed public key.
+     *
+     * @return the public key, or {@code null} if absent
+     * @throws IllegalArgumentException if the key type is not supported or the
+     *                                  key is malformed, see
+     *                                  {@link Jwk#of(Map)}
+     */
+    default Jwk publicJwk() {
+        final Map<String, Object> publicKey = publicKey();
+        return publicKey != null ? Jwk.of(publicKey) : null;
+    }
+
     default Map<String, Object> secretKey() {
         return null;
     }
@@ -25,6 +38,14 @@ public interface JsonWebKey extends VerificationMethod {
         return new ImmutableJsonWebKey(id, controller, publicKey, null, null, null);
     }
 
+    static ImmutableJsonWebKey of(URI id, URI controller, Jwk publicKey) {
+        return new ImmutableJsonWebKey(id, controller, publicKey, null, null, null);
+    }
+
+    static ImmutableJsonWebKey of(URI id, URI controller, Jwk publicKey, Instant revoked, Instant expires) {
+        return new ImmutableJsonWebKey(id, controller, publicKey, null, revoked, expires);
+    }
+
     static ImmutableJsonWebKey of(URI id, URI controller, Map<String, Object> publicKey, Instant revoked, Instant expires) {
         return new ImmutableJsonWebKey(id, controller, publicKey, null, revoked, expires);
     }
@@ -0,0 +1,415 @@
+package com.apicatalog.cid.jwk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A typed, immutable JSON Web Key public key.
+ *
+ * <p>
+ * Holds the required members of {@code EC}, {@code OKP} and {@code RSA} keys
+ * as fixed fields, coordinates and integers decoded into bytes. Other members,
+ * e.g. {@code kid} or {@code alg}, are retained as they are. Instances are
+ * compared by value, {@link #toMap()} provides the JSON member view.
+ * </p>
+ *
+ * <p>
+ * The <a href="https://www.rfc-editor.org/rfc/rfc7638">RFC 7638</a> SHA-256
+ * thumbprint is computed on first use and cached.
+ * </p>
+ */
+public final class Jwk {
+
+    /** Elliptic curve key type. */
+    public static final String EC = "EC";
+
+    /** Octet key pair key type, e.g. {@code Ed25519}. */
+    public static final String OKP = "OKP";
+
+    /** RSA key type. */
+    public static final String RSA = "RSA";
+
+    static final String KTY = "kty";
+    static final String CRV = "crv";
+    static final String X = "x";
+    static final String Y = "y";
+    static final String N = "n";
+    static final String E = "e";
+
+    /** shared instances of well-known curve names */
+    static final String[] CURVES = {
+            "P-256", "P-384", "P-521", "secp256k1", "Ed25519", "Ed448", "X25519", "X448"
+    };
+
+    static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    final String type;
+    final String curve;
+
+    /** {@code x} of an EC or OKP key, {@code n} of an RSA key */
+    final byte[] first;
+
+    /** {@code y} of an EC key, {@code e} of an RSA key, {@code null} otherwise */
+    final byte[] second;
+
+    /** other members, {@code null} if none */
+    final Map<String, Object> parameters;
+
+    final int hashCode;
+
+    /** benign race, computes the same value */
+    String thumbprint;
+
+    Jwk(final String type, final String curve, final byte[] first, final byte[] second, final Map<String, Object> parameters) {
+        this.type = type;
+        this.curve = curve;
+        this.first = first;
+        this.second = second;
+        this.parameters = parameters;
+        this.hashCode = 31 * (31 * (31 * type.hashCode() + Objects.hashCode(curve))
+                + Arrays.hashCode(first)) + Arrays.hashCode(second);
+    }
+
+    /**
+     * Creates an {@code EC} key.
+     *
+     * @param curve the curve name, e.g. {@code P-256} (must not be {@code null})
+     * @param x     the x coordinate (must not be {@code null})
+     * @param y     the y coordinate (must not be {@code null})
+     * @return a new key
+     */
+    public static Jwk ec(final String curve, final byte[] x, final byte[] y) {
+        Objects.requireNonNull(curve, "curve must not be null");
+        Objects.requireNonNull(x, "x must not be null");
+        Objects.requireNonNull(y, "y must not be null");
+        return new Jwk(EC, curve(curve), x.clone(), y.clone(), null);
+    }
+
+    /**
+     * Creates an {@code OKP} key.
+     *
+     * @param curve the curve name, e.g. {@code Ed25519} (must not be
+     *              {@code null})
+     * @param x     the public key (must not be {@code null})
+     * @return a new key
+     */
+    public static Jwk okp(final String curve, final byte[] x) {
+        Objects.requireNonNull(curve, "curve must not be null");
+        Objects.requireNonNull(x, "x must not be null");
+        return new Jwk(OKP, curve(curve), x.clone(), null, null);
+    }
+
+    /**
+     * Creates an {@code RSA} key.
+     *
+     * @param n the modulus, unsigned big-endian (must not be {@code null})
+     * @param e the public exponent, unsigned big-endian (must not be
+     *          {@code null})
+     * @return a new key
+     */
+    public static Jwk rsa(final byte[] n, final byte[] e) {
+        Objects.requireNonNull(n, "n must not be null");
+        Objects.requireNonNull(e, "e must not be null");
+        return new Jwk(RSA, null, n.clone(), e.clone(), null);
+    }
+
+    /**
+     * Creates a key from JSON Web Key members.
+     *
+     * @param members the members (must not be {@code null})
+     * @return a new key
+     * @throws IllegalArgumentException if the key type is not {@code EC},
+     *                                  {@code OKP} or {@code RSA}, or a required
+     *                                  member is missing or malformed
+     */
+    public static Jwk of(final Map<String, Object> members) {
+        Objects.requireNonNull(members, "members must not be null");
+
+        final Object type = members.get(KTY);
+
+        final String curve;
+        final byte[] first;
+        final byte[] second;
+
+        if (EC.equals(type)) {
+            curve = curve(string(members, CRV));
+            first = decode(members, X);
+            second = decode(members, Y);
+
+        } else if (OKP.equals(type)) {
+            curve = curve(string(members, CRV));
+            first = decode(members, X);
+            second = null;
+
+        } else if (RSA.equals(type)) {
+            curve = null;
+            first = decode(members, N);
+            second = decode(members, E);
+
+        } else if (type == null) {
+            throw new IllegalArgumentException("Invalid JWK, missing " + KTY);
+
+        } else {
+            throw new IllegalArgumentException("Unsupported JWK key type " + type);
+        }
+
+        Map<String, Object> parameters = null;
+
+        for (final Map.Entry<String, Object> member : members.entrySet()) {
+            if (!isTyped(member.getKey(), (String) type)) {
+                if (parameters == null) {
+                    parameters = new LinkedHashMap<>();
+                }
+                parameters.put(member.getKey(), member.getValue());
+            }
+        }
+
+        return new Jwk((String) type, curve, first, second,
+                parameters != null ? Collections.unmodifiableMap(parameters) : null);
+    }
+
+    /**
+     * Creates a key only if the members are represented exactly, i.e. the
+     * encoded values are canonical base64url, so {@link #toMap()} returns equal
+     * members.
+     *
+     * @return a new key, or {@code null}
+     */
+    static Jwk tryOf(final Map<String, Object> members) {
+        final Jwk jwk;
+        try {
+            jwk = of(members);
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!canonical(members, X, jwk.type.equals(RSA) ? null : jwk.first)
+                || !canonical(members, Y, jwk.type.equals(EC) ? jwk.second : null)
+                || !canonical(members, N, jwk.type.equals(RSA) ? jwk.first : null)
+                || !canonical(members, E, jwk.type.equals(RSA) ? jwk.second : null)) {
+            return null;
+        }
+        return jwk;
+    }
+
+    static boolean canonical(final Map<String, Object> members, final String name, final byte[] value) {
+        return value == null || ENCODER.encodeToString(value).equals(members.get(name));
+    }
+
+    /** @return the key type, {@code EC}, {@code OKP} or {@code RSA} */
+    public String type() {
+        return type;
+    }
+
+    /** @return the curve name, or {@code null} for an {@code RSA} key */
+    public String curve() {
+        return curve;
+    }
+
+    /** @return a copy of {@code x}, or {@code null} for an {@code RSA} key */
+    public byte[] x() {
+        return RSA.equals(type) ? null : first.clone();
+    }
+
+    /** @return a copy of {@code y}, or {@code null} if not an {@code EC} key */
+    public byte[] y() {
+        return EC.equals(type) ? second.clone() : null;
+    }
+
+    /** @return a copy of {@code n}, or {@code null} if not an {@code RSA} key */
+    public byte[] n() {
+        return RSA.equals(type) ? first.clone() : null;
+    }
+
+    /** @return a copy of {@code e}, or {@code null} if not an {@code RSA} key */
+    public byte[] e() {
+        return RSA.equals(type) ? second.clone() : null;
+    }
+
+    /**
+     * Returns members other than the key type and the key material, e.g.
+     * {@code kid} or {@code alg}.
+     *
+     * @return an unmodifiable map, never {@code null}
+     */
+    public Map<String, Object> parameters() {
+        return parameters != null ? parameters : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the base64url encoded SHA-256 thumbprint, see
+     * <a href="https://www.rfc-editor.org/rfc/rfc7638">RFC 7638</a>.
+     *
+     * @return the thumbprint
+     */
+    public String thumbprint() {
+        String value = thumbprint;
+        if (value == null) {
+            value = ENCODER.encodeToString(sha256(canonicalJson().getBytes(StandardCharsets.UTF_8)));
+            thumbprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the JSON Web Key members, binary values base64url encoded.
+     *
+     * @return a new unmodifiable map
+     */
+    public Map<String, Object> toMap() {
+
+        final Map<String, Object> members = new LinkedHashMap<>(8);
+
+        members.put(KTY, type);
+
+        if (RSA.equals(type)) {
+            members.put(N, ENCODER.encodeToString(first));
+            members.put(E, ENCODER.encodeToString(second));
+
+        } else {
+            members.put(CRV, curve);
+            members.put(X, ENCODER.encodeToString(first));
+            if (second != null) {
+                members.put(Y, ENCODER.encodeToString(second));
+            }
+        }
+
+        if (parameters != null) {
+            members.putAll(parameters);
+        }
+        return Collections.unmodifiableMap(members);
+    }
+
+    /**
+     * @return the required members, lexicographically ordered, without
+     *         whitespace
+     */
+    String canonicalJson() {
+
+        final StringBuilder json = new StringBuilder(64 + 2 * (first.length + (second != null ? second.length : 0)));
+
+        if (RSA.equals(type)) {
+            json.append("{\"e\":\"").append(ENCODER.encodeToString(second))
+                    .append("\",\"kty\":\"RSA\",\"n\":\"").append(ENCODER.encodeToString(first))
+                    .append("\"}");
+            return json.toString();
+        }
+
+        json.append("{\"crv\":");
+        quote(curve, json);
+        json.append(",\"kty\":\"").append(type)
+                .append("\",\"x\":\"").append(ENCODER.encodeToString(first));
+        if (second != null) {
+            json.append("\",\"y\":\"").append(ENCODER.encodeToString(second));
+        }
+        return json.append("\"}").toString();
+    }
+
+    static void quote(final String value, final StringBuilder json) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                json.append('\\').append(ch);
+
+            } else if (ch < 0x20) {
+                json.append(String.format("\\u%04x", (int) ch));
+
+            } else {
+                json.append(ch);
+            }
+        }
+        json.append('"');
+    }
+
+    static byte[] sha256(final byte[] value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value);
+
+        } catch (NoSuchAlgorithmException e) {
+            // every platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean isTyped(final String name, final String type) {
+        if (KTY.equals(name)) {
+            return true;
+        }
+        if (RSA.equals(type)) {
+            return N.equals(name) || E.equals(name);
+        }
+        return CRV.equals(name) || X.equals(name) || (EC.equals(type) && Y.equals(name));
+    }
+
+    static String curve(final String name) {
+        for (final String curve : CURVES) {
+            if (curve.equals(name)) {
+                return curve;
+            }
+        }
+        return name;
+    }
+
+    static String string(final Map<String, Object> members, final String name) {
+        final Object value = members.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid JWK, missing " + name);
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Invalid JWK, " + name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    static byte[] decode(final Map<String, Object> members, final String name) {
+        final String encoded = string(members, name);
+        final byte[] value;
+        try {
+            value = DECODER.decode(encoded);
+
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid JWK, " + name + " is not base64url encoded", e);
+        }
+        if (value.length == 0) {
+            throw new IllegalArgumentException("Invalid JWK, " + name + " is empty");
+        }
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Jwk)) {
+            return false;
+        }
+        final Jwk other = (Jwk) obj;
+        return hashCode == other.hashCode
+                && type.equals(other.type)
+                && Objects.equals(curve, other.curve)
+                && Arrays.equals(first, other.first)
+                && Arrays.equals(second, other.second)
+                && Objects.equals(parameters, other.parameters);
+    }
+
+    @Override
+    public String toString() {
+        return "Jwk[" + type + (curve != null ? ", " + curve : "") + ", " + thumbprint() + "]";
+    }
+}
@@ -0,0 +1,142 @@
+package com.apicatalog.cid.key;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.util.Arrays;
+
+/**
+ * Supported key curves, their multicodec codes and JWK names.
+ */
+enum Curve {
+
+    ED25519(0xed, "Ed25519", null, 32),
+    P_256(0x1200, "P-256", "secp256r1", 32),
+    P_384(0x1201, "P-384", "secp384r1", 48),
+    P_521(0x1202, "P-521", "secp521r1", 66),
+    SECP256K1(0xe7, "secp256k1", "secp256k1", 32);
+
+    /** the multicodec code of a public key */
+    final long codecCode;
+
+    /** the JWK {@code crv} value */
+    final String jwkName;
+
+    /** the JCA name of an EC curve, {@code null} for an Edwards curve */
+    final String jcaName;
+
+    /** the coordinate length in bytes */
+    final int size;
+
+    /** benign race, the parameters are immutable */
+    volatile ECParameterSpec parameters;
+
+    Curve(final long codecCode, final String jwkName, final String jcaName, final int size) {
+        this.codecCode = codecCode;
+        this.jwkName = jwkName;
+        this.jcaName = jcaName;
+        this.size = size;
+    }
+
+    static Curve ofCodec(final long codecCode) {
+        for (final Curve curve : values()) {
+            if (curve.codecCode == codecCode) {
+                return curve;
+            }
+        }
+        return null;
+    }
+
+    static Curve ofJwk(final String name) {
+        for (final Curve curve : values()) {
+            if (curve.jwkName.equals(name)) {
+                return curve;
+            }
+        }
+        return null;
+    }
+
+    boolean isEdwards() {
+        return jcaName == null;
+    }
+
+    /**
+     * @return the EC domain parameters provided by the platform
+     * @throws GeneralSecurityException if the curve is not supported
+     */
+    ECParameterSpec parameters() throws GeneralSecurityException {
+        ECParameterSpec spec = parameters;
+        if (spec == null) {
+            final AlgorithmParameters algorithm = AlgorithmParameters.getInstance("EC");
+            algorithm.init(new ECGenParameterSpec(jcaName));
+            spec = algorithm.getParameterSpec(ECParameterSpec.class);
+            parameters = spec;
+        }
+        return spec;
+    }
+
+    /**
+     * Decodes a SEC 1 encoded point, compressed or uncompressed, and checks it
+     * lies on the curve.
+     *
+     * @throws IllegalArgumentException if the point is malformed
+     */
+    ECPoint decodePoint(final byte[] encoded, final ECParameterSpec spec) {
+
+        if (encoded.length == 1 + 2 * size && encoded[0] == 0x04) {
+            return point(
+                    new BigInteger(1, Arrays.copyOfRange(encoded, 1, 1 + size)),
+                    new BigInteger(1, Arrays.copyOfRange(encoded, 1 + size, encoded.length)),
+                    spec);
+        }
+
+        if (encoded.length != 1 + size || (encoded[0] != 0x02 && encoded[0] != 0x03)) {
+            throw new IllegalArgumentException("Invalid " + jwkName + " point encoding");
+        }
+
+        final BigInteger p = ((ECFieldFp) spec.getCurve().getField()).getP();
+        final BigInteger x = new BigInteger(1, Arrays.copyOfRange(encoded, 1, encoded.length));
+
+        if (x.compareTo(p) >= 0) {
+            throw new IllegalArgumentException("Invalid " + jwkName + " point coordinate");
+        }
+
+        // y^2 = x^3 + ax + b, all supported curves have p = 3 mod 4
+        final BigInteger rhs = x.pow(3)
+                .add(spec.getCurve().getA().multiply(x))
+                .add(spec.getCurve().getB())
+                .mod(p);
+
+        BigInteger y = rhs.modPow(p.add(BigInteger.ONE).shiftRight(2), p);
+
+        if (!y.multiply(y).mod(p).equals(rhs)) {
+            throw new IllegalArgumentException("Invalid " + jwkName + " point, not on the curve");
+        }
+        if (y.testBit(0) != (encoded[0] == 0x03)) {
+            y = p.subtract(y);
+        }
+        return new ECPoint(x, y);
+    }
+
+    /**
+     * @return the point if it lies on the curve
+     * @throws IllegalArgumentException if the point is not on the curve
+     */
+    ECPoint point(final BigInteger x, final BigInteger y, final ECParameterSpec spec) {
+
+        final BigInteger p = ((ECFieldFp) spec.getCurve().getField()).getP();
+
+        if (x.compareTo(p) >= 0 || y.compareTo(p) >= 0
+                || !y.multiply(y).mod(p).equals(x.pow(3)
+                        .add(spec.getCurve().getA().multiply(x))
+                        .add(spec.getCurve().getB())
+                        .mod(p))) {
+            throw new IllegalArgumentException("Invalid " + jwkName + " point, not on the curve");
+        }
+        return new ECPoint(x, y);
+    }
+}
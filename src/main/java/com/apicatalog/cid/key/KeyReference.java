@@ -0,0 +1,88 @@
+package com.apicatalog.cid.key;
+
+import java.net.URI;
+
+import com.apicatalog.cid.cache.IndexSupport;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.document.VerificationRelationship;
+
+/**
+ * A verification method holding an indexed key, see
+ * {@link VerificationKeyIndex}.
+ */
+public final class KeyReference {
+
+    final IdentifierDocument document;
+    final VerificationMethod method;
+    final int relationships;
+    final IndexSupport.Lease lease;
+
+    KeyReference(final IdentifierDocument document, final VerificationMethod method, final int relationships, final IndexSupport.Lease lease) {
+        this.document = document;
+        this.method = method;
+        this.relationships = relationships;
+        this.lease = lease;
+    }
+
+    /** @return the document declaring the method */
+    public IdentifierDocument document() {
+        return document;
+    }
+
+    /** @return the document identifier, or {@code null} */
+    public URI documentId() {
+        return document.id();
+    }
+
+    /** @return the verification method */
+    public VerificationMethod method() {
+        return method;
+    }
+
+    /** @return the verification method identifier */
+    public URI methodId() {
+        return method.id();
+    }
+
+    /**
+     * Returns the verification relationships the method is bound to.
+     *
+     * @return a bit mask of relationships, see
+     *         {@link VerificationRelationship#mask()}, or {@code 0}
+     */
+    public int relationships() {
+        return relationships;
+    }
+
+    /**
+     * Checks whether the verification method is bound to the relationship.
+     *
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return {@code true} if the method can be used for {@code relationship}
+     */
+    public boolean isBound(final VerificationRelationship relationship) {
+        return relationship.isIn(relationships);
+    }
+
+    /**
+     * Returns the time the document expires at, see
+     * {@link VerificationKeyIndex#add(IdentifierDocument, long)}.
+     *
+     * @return the time in milliseconds since the epoch, or
+     *         {@link Long#MAX_VALUE} if the document never expires
+     */
+    public long expiresAt() {
+        return lease.expiresAt();
+    }
+
+    IndexSupport.Lease lease() {
+        return lease;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyReference[" + document.id() + ", " + method.id() + "]";
+    }
+}
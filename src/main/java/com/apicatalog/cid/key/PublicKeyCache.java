@@ -0,0 +1,189 @@
+package com.apicatalog.cid.key;
+
+import java.nio.ByteBuffer;
+import java.security.PublicKey;
+import java.util.Objects;
+
+import com.apicatalog.cid.cache.BoundedCache;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.jwk.Jwk;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * Memoizes {@link PublicKey}s converted by {@link PublicKeyFactory}.
+ *
+ * <p>
+ * Entries are keyed by the verification method identifier and the key
+ * material, i.e. the codec and the decoded bytes of a {@link Multikey}, or the
+ * typed {@link Jwk} of a {@link JsonWebKey}. A method of a re-resolved document holding
+ * the same key reuses the converted key, a rotated key is converted again. A
+ * lookup does not copy the key bytes.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded, the least recently used entries are evicted first,
+ * and safe for concurrent use.
+ * </p>
+ */
+public class PublicKeyCache {
+
+    /** The default maximum number of cached keys. */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    protected final BoundedCache<KeyId, PublicKey> cache;
+
+    /**
+     * Creates a cache holding up to {@link #DEFAULT_CACHE_SIZE} keys.
+     */
+    public PublicKeyCache() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a cache holding up to {@code maxSize} keys.
+     *
+     * @param maxSize the maximum number of cached keys
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public PublicKeyCache(final int maxSize) {
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Returns the public key of the given {@link Multikey} or
+     * {@link JsonWebKey} verification method, converting it on first use.
+     *
+     * @param method the verification method (must not be {@code null})
+     * @return the public key
+     * @throws IllegalArgumentException if the method holds no public key, or the
+     *                                  key is invalid or not supported
+     */
+    public PublicKey get(final VerificationMethod method) {
+        Objects.requireNonNull(method, "method must not be null");
+
+        final KeyId id = KeyId.of(method);
+
+        if (id == null) {
+            // no key material, reported by the factory
+            return PublicKeyFactory.create(method);
+        }
+
+        PublicKey key = cache.get(id);
+
+        if (key == null) {
+            key = PublicKeyFactory.create(method);
+            cache.put(id.retain(), key, BoundedCache.NO_EXPIRATION);
+        }
+        return key;
+    }
+
+    /**
+     * Removes all cached keys.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /** @return the number of cached keys */
+    public int size() {
+        return cache.size();
+    }
+
+    /** @return the number of lookups served from the cache */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /** @return the number of lookups that had to convert a key */
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * A method identifier and key material pair.
+     */
+    static final class KeyId {
+
+        /** the codec of a JWK key */
+        static final long JWK = -1;
+
+        final String method;
+        final long codec;
+
+        /** a {@link ByteBuffer} or a {@link Jwk} */
+        final Object material;
+
+        final int hash;
+
+        KeyId(final String method, final long codec, final Object material) {
+            this.method = method;
+            this.codec = codec;
+            this.material = material;
+            this.hash = 31 * (31 * method.hashCode() + Long.hashCode(codec)) + material.hashCode();
+        }
+
+        /**
+         * @return a lookup key, or {@code null} if the method holds no usable key
+         */
+        static KeyId of(final VerificationMethod method) {
+
+            final String id = method.id() != null ? method.id().toString() : "";
+
+            if (method instanceof Multikey) {
+                final MulticodecEncoded key = ((Multikey) method).publicKey();
+                return key != null
+                        ? new KeyId(id, key.codecCode(), key.decodedBuffer())
+                        : null;
+            }
+            if (method instanceof JsonWebKey) {
+                final Jwk key;
+                try {
+                    key = ((JsonWebKey) method).publicJwk();
+
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+                return key != null
+                        ? new KeyId(id, JWK, key)
+                        : null;
+            }
+            return null;
+        }
+
+        /**
+         * @return an equal key holding its own copy of the material
+         */
+        KeyId retain() {
+            if (material instanceof ByteBuffer) {
+                final ByteBuffer buffer = ((ByteBuffer) material).duplicate();
+                final byte[] copy = new byte[buffer.remaining()];
+                buffer.get(copy);
+                return new KeyId(method, codec, ByteBuffer.wrap(copy).asReadOnlyBuffer());
+            }
+            // immutable
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof KeyId)) {
+                return false;
+            }
+            final KeyId other = (KeyId) obj;
+            return hash == other.hash
+                    && codec == other.codec
+                    && method.equals(other.method)
+                    && material.equals(other.material);
+        }
+    }
+}
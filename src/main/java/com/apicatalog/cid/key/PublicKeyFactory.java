@@ -0,0 +1,198 @@
+package com.apicatalog.cid.key;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.InvalidParameterSpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.jwk.Jwk;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * Converts verification method public keys into JCA {@link PublicKey}s.
+ *
+ * <p>
+ * Supported are {@code Ed25519}, {@code P-256}, {@code P-384}, {@code P-521}
+ * and {@code secp256k1} keys, either {@link Multikey} multicodec encoded, EC
+ * points compressed or uncompressed, or {@link JsonWebKey} {@code EC} and
+ * {@code OKP} keys. A curve or an algorithm unavailable on the platform is
+ * reported as an unsupported key.
+ * </p>
+ *
+ * <p>
+ * A conversion validates the key, i.e. an EC point must lie on the curve, and
+ * is relatively expensive, see {@link PublicKeyCache}.
+ * </p>
+ */
+public final class PublicKeyFactory {
+
+    /** X.509 {@code SubjectPublicKeyInfo} header of an Ed25519 key */
+    static final byte[] ED25519_X509_PREFIX = {
+            0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00
+    };
+
+    private PublicKeyFactory() {
+    }
+
+    /**
+     * Converts the public key of the given {@link Multikey} or
+     * {@link JsonWebKey} verification method.
+     *
+     * @param method the verification method (must not be {@code null})
+     * @return a new public key
+     * @throws IllegalArgumentException if the method holds no public key, or the
+     *                                  key is invalid or not supported
+     */
+    public static PublicKey create(final VerificationMethod method) {
+        Objects.requireNonNull(method, "method must not be null");
+
+        if (method instanceof Multikey) {
+            final MulticodecEncoded key = ((Multikey) method).publicKey();
+            if (key != null) {
+                return create(key);
+            }
+
+        } else if (method instanceof JsonWebKey) {
+            final Jwk key = ((JsonWebKey) method).publicJwk();
+            if (key != null) {
+                return create(key);
+            }
+
+        } else {
+            throw new IllegalArgumentException("Unsupported verification method type " + method.type());
+        }
+        throw new IllegalArgumentException("Verification method " + method.id() + " has no public key");
+    }
+
+    /**
+     * Converts a multicodec encoded public key.
+     *
+     * @param key the key (must not be {@code null})
+     * @return a new public key
+     * @throws IllegalArgumentException if the key is invalid or not supported
+     */
+    public static PublicKey create(final MulticodecEncoded key) {
+        Objects.requireNonNull(key, "key must not be null");
+
+        final Curve curve = Curve.ofCodec(key.codecCode());
+
+        if (curve == null) {
+            throw new IllegalArgumentException("Unsupported key type 0x" + Long.toHexString(key.codecCode()));
+        }
+
+        final ByteBuffer buffer = key.decodedBuffer();
+        final byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+
+        if (curve.isEdwards()) {
+            return ed25519(encoded);
+        }
+
+        try {
+            final ECParameterSpec spec = curve.parameters();
+            return ec(new ECPublicKeySpec(curve.decodePoint(encoded, spec), spec));
+
+        } catch (GeneralSecurityException e) {
+            throw unsupported(curve, e);
+        }
+    }
+
+    /**
+     * Converts a JSON Web Key public key, a {@code EC} or an {@code OKP} key.
+     *
+     * @param jwk the key members (must not be {@code null})
+     * @return a new public key
+     * @throws IllegalArgumentException if the key is invalid or not supported
+     */
+    public static PublicKey create(final Map<String, Object> jwk) {
+        Objects.requireNonNull(jwk, "jwk must not be null");
+        return create(Jwk.of(jwk));
+    }
+
+    /**
+     * Converts a typed JSON Web Key public key, a {@code EC} or an {@code OKP}
+     * key.
+     *
+     * @param jwk the key (must not be {@code null})
+     * @return a new public key
+     * @throws IllegalArgumentException if the key is invalid or not supported
+     */
+    public static PublicKey create(final Jwk jwk) {
+        Objects.requireNonNull(jwk, "jwk must not be null");
+
+        final Curve curve = Curve.ofJwk(jwk.curve());
+
+        if (curve == null) {
+            throw new IllegalArgumentException("Unsupported JWK " + jwk.type()
+                    + (jwk.curve() != null ? " curve " + jwk.curve() : " key"));
+        }
+
+        if (Jwk.OKP.equals(jwk.type()) && curve.isEdwards()) {
+            return ed25519(coordinate(jwk.x(), "x", curve));
+        }
+
+        if (!Jwk.EC.equals(jwk.type()) || curve.isEdwards()) {
+            throw new IllegalArgumentException("Unsupported JWK key type " + jwk.type() + " with curve " + curve.jwkName);
+        }
+
+        final BigInteger x = new BigInteger(1, coordinate(jwk.x(), "x", curve));
+        final BigInteger y = new BigInteger(1, coordinate(jwk.y(), "y", curve));
+
+        try {
+            final ECParameterSpec spec = curve.parameters();
+            return ec(new ECPublicKeySpec(curve.point(x, y, spec), spec));
+
+        } catch (GeneralSecurityException e) {
+            throw unsupported(curve, e);
+        }
+    }
+
+    static PublicKey ec(final ECPublicKeySpec spec) throws GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePublic(spec);
+    }
+
+    static PublicKey ed25519(final byte[] encoded) {
+
+        if (encoded.length != Curve.ED25519.size) {
+            throw new IllegalArgumentException("Invalid Ed25519 key length " + encoded.length + ", expected " + Curve.ED25519.size);
+        }
+
+        final byte[] x509 = new byte[ED25519_X509_PREFIX.length + encoded.length];
+        System.arraycopy(ED25519_X509_PREFIX, 0, x509, 0, ED25519_X509_PREFIX.length);
+        System.arraycopy(encoded, 0, x509, ED25519_X509_PREFIX.length, encoded.length);
+
+        try {
+            // available since Java 15
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(x509));
+
+        } catch (GeneralSecurityException e) {
+            throw unsupported(Curve.ED25519, e);
+        }
+    }
+
+    static IllegalArgumentException unsupported(final Curve curve, final GeneralSecurityException e) {
+        if (e instanceof NoSuchAlgorithmException
+                || e instanceof InvalidParameterSpecException) {
+            return new IllegalArgumentException("Unsupported key type " + curve.jwkName + ", not supported by the platform", e);
+        }
+        return new IllegalArgumentException("Invalid " + curve.jwkName + " key: " + e.getMessage(), e);
+    }
+
+    static byte[] coordinate(final byte[] value, final String name, final Curve curve) {
+        if (value.length != curve.size) {
+            throw new IllegalArgumentException("Invalid JWK, " + name + " length " + value.length + ", expected " + curve.size);
+        }
+        return value;
+    }
+}
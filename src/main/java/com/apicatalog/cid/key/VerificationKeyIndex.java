@@ -0,0 +1,269 @@
+package com.apicatalog.cid.key;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.apicatalog.cid.cache.IndexSupport;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.IndexedIdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.jwk.Jwk;
+import com.apicatalog.cid.multikey.Multikey;
+
+/**
+ * A reverse index from public keys to the verification methods holding them,
+ * across many documents.
+ *
+ * <p>
+ * {@link Multikey} methods are indexed by the codec and the decoded key bytes,
+ * {@link JsonWebKey} methods by the RFC 7638 thumbprint of the key, see
+ * {@link Jwk#thumbprint()}. Only methods with an identifier are indexed,
+ * declared in {@code verificationMethod} or embedded in a verification
+ * relationship. A lookup takes constant time regardless of the number of
+ * indexed documents.
+ * </p>
+ *
+ * <p>
+ * Documents are added and removed incrementally, typically by a cache, see
+ * {@link com.apicatalog.cid.CachingIdentifierDocumentResolver}. Additions of
+ * the same document instance are counted, the document is removed from the
+ * index by the matching number of removals. The index is safe for concurrent
+ * use.
+ * </p>
+ *
+ * <p>
+ * A document can be added with an expiration time, e.g. the end of its cache
+ * lifetime. Lookups skip the methods of expired documents, so a rotated key is
+ * not attributed to its former controller even if the expired document has not
+ * been removed yet.
+ * </p>
+ */
+public class VerificationKeyIndex {
+
+    /** key material to references, replaced on each change */
+    final ConcurrentHashMap<Object, KeyReference[]> keys;
+
+    /** indexed documents */
+    final IndexSupport documents;
+
+    /**
+     * Creates an empty index.
+     */
+    public VerificationKeyIndex() {
+        this.keys = new ConcurrentHashMap<>();
+        this.documents = new IndexSupport();
+    }
+
+    /**
+     * Adds the verification methods of the given document, the document never
+     * expires.
+     *
+     * @param document the document (must not be {@code null})
+     */
+    public void add(final IdentifierDocument document) {
+        add(document, IndexSupport.NO_EXPIRATION);
+    }
+
+    /**
+     * Adds the verification methods of the given document, expiring at the
+     * given time. An addition of an already indexed document extends its
+     * expiration time, if later.
+     *
+     * @param document  the document (must not be {@code null})
+     * @param expiresAt the time in milliseconds since the epoch the document
+     *                  expires at, or {@link Long#MAX_VALUE} if never
+     */
+    public void add(final IdentifierDocument document, final long expiresAt) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        documents.add(document, expiresAt, lease -> {
+            for (final Map.Entry<Object, KeyReference> entry : references(document, lease)) {
+                keys.merge(entry.getKey(), new KeyReference[] { entry.getValue() }, IndexSupport::concat);
+            }
+        });
+    }
+
+    /**
+     * Removes the verification methods of the given document, added by
+     * {@link #add(IdentifierDocument)}. The methods remain indexed until the
+     * document has been removed as many times as added.
+     *
+     * @param document the document (must not be {@code null})
+     */
+    public void remove(final IdentifierDocument document) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        documents.remove(document, () -> {
+            for (final Map.Entry<Object, KeyReference> entry : references(document, null)) {
+                keys.computeIfPresent(entry.getKey(), (material, references) -> IndexSupport.without(references, document, KeyReference::document));
+            }
+        });
+    }
+
+    /**
+     * Removes all documents.
+     */
+    public void clear() {
+        documents.clear();
+        keys.clear();
+    }
+
+    /**
+     * Finds the verification methods holding the given multicodec encoded key.
+     *
+     * @param key the key (must not be {@code null})
+     * @return an unmodifiable list of references of documents not expired,
+     *         possibly empty
+     */
+    public List<KeyReference> find(final MulticodecEncoded key) {
+        Objects.requireNonNull(key, "key must not be null");
+        return live(keys.get(new Material(key.codecCode(), key.decodedBuffer())));
+    }
+
+    /**
+     * Finds the verification methods holding the given raw key.
+     *
+     * @param codecCode the multicodec code of the key
+     * @param key       the key bytes, without the multicodec prefix (must not be
+     *                  {@code null})
+     * @return an unmodifiable list of references of documents not expired,
+     *         possibly empty
+     */
+    public List<KeyReference> find(final long codecCode, final byte[] key) {
+        Objects.requireNonNull(key, "key must not be null");
+        return live(keys.get(new Material(codecCode, ByteBuffer.wrap(key))));
+    }
+
+    /**
+     * Finds the verification methods holding the given JSON Web Key.
+     *
+     * @param key the key (must not be {@code null})
+     * @return an unmodifiable list of references of documents not expired,
+     *         possibly empty
+     */
+    public List<KeyReference> find(final Jwk key) {
+        Objects.requireNonNull(key, "key must not be null");
+        return findByThumbprint(key.thumbprint());
+    }
+
+    /**
+     * Finds the verification methods holding a JSON Web Key with the given
+     * thumbprint.
+     *
+     * @param thumbprint the base64url encoded SHA-256 thumbprint (must not be
+     *                   {@code null})
+     * @return an unmodifiable list of references of documents not expired,
+     *         possibly empty
+     */
+    public List<KeyReference> findByThumbprint(final String thumbprint) {
+        Objects.requireNonNull(thumbprint, "thumbprint must not be null");
+        return live(keys.get(thumbprint));
+    }
+
+    /** @return the number of distinct indexed keys */
+    public int size() {
+        return keys.size();
+    }
+
+    /** @return the number of distinct indexed documents */
+    public int documentCount() {
+        return documents.size();
+    }
+
+    static List<KeyReference> live(final KeyReference[] references) {
+        return IndexSupport.live(references, KeyReference::lease, System.currentTimeMillis());
+    }
+
+    static List<Map.Entry<Object, KeyReference>> references(final IdentifierDocument document, final IndexSupport.Lease lease) {
+
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(document);
+
+        final List<Map.Entry<Object, KeyReference>> references = new ArrayList<>();
+
+        for (final URI id : indexed.methodIds()) {
+
+            final VerificationMethod method = indexed.method(id);
+            final Object material = material(method);
+
+            if (material != null) {
+                references.add(new SimpleImmutableEntry<>(
+                        material,
+                        new KeyReference(document, method, indexed.relationships(id), lease)));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * @return the index key of the method public key, or {@code null}
+     */
+    static Object material(final VerificationMethod method) {
+
+        if (method instanceof Multikey) {
+            final MulticodecEncoded key = ((Multikey) method).publicKey();
+            if (key != null) {
+                try {
+                    return new Material(key.codecCode(), key.decodedBuffer());
+
+                } catch (IllegalArgumentException e) {
+                    // malformed multibase value
+                    return null;
+                }
+            }
+
+        } else if (method instanceof JsonWebKey) {
+            try {
+                final Jwk key = ((JsonWebKey) method).publicJwk();
+                return key != null ? key.thumbprint() : null;
+
+            } catch (IllegalArgumentException e) {
+                // unsupported key type
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A multicodec key.
+     */
+    static final class Material {
+
+        final long codec;
+        final ByteBuffer key;
+        final int hash;
+
+        Material(final long codec, final ByteBuffer key) {
+            this.codec = codec;
+            this.key = key;
+            this.hash = 31 * Long.hashCode(codec) + key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Material)) {
+                return false;
+            }
+            final Material other = (Material) obj;
+            return hash == other.hash
+                    && codec == other.codec
+                    && key.equals(other.key);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Conversion of verification method key material into JCA
+ * {@link java.security.PublicKey}s.
+ * <p>
+ * {@link com.apicatalog.cid.key.PublicKeyFactory} converts {@code Multikey}
+ * and {@code JsonWebKey} public keys, {@link com.apicatalog.cid.key.PublicKeyCache}
+ * keeps the converted keys so that each key is converted once.
+ * </p>
+ */
+package com.apicatalog.cid.key;
@@ -0,0 +1,177 @@
+package com.apicatalog.cid.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative durations with a bounded relative
+ * error.
+ *
+ * <p>
+ * Values below {@code 16} are counted exactly. Larger values fall into
+ * log-linear buckets, eight per power of two, so a bucket spans at most 12.5%
+ * of its lower bound. Buckets can be exported using {@link #bucketCount()},
+ * {@link #count(int)}, {@link #lowerBound(int)}, and {@link #upperBound(int)}.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    static final int LINEAR = 16;
+    static final int SUB_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int LINEAR_BITS = 4;
+
+    /** buckets up to 2^63 - 1 */
+    static final int BUCKETS = LINEAR + (63 - LINEAR_BITS) * SUB_BUCKETS;
+
+    final AtomicLongArray buckets;
+    final LongAdder count;
+    final LongAdder sum;
+    final AtomicLong max;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a value, negative values are recorded as {@code 0}.
+     *
+     * @param value a duration, e.g. in nanoseconds
+     */
+    public void record(final long value) {
+        final long v = Math.max(0, value);
+
+        buckets.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+
+        long current;
+        while (v > (current = max.get()) && !max.compareAndSet(current, v)) {
+            // retry
+        }
+    }
+
+    /** @return the number of recorded values */
+    public long count() {
+        return count.sum();
+    }
+
+    /** @return the sum of recorded values */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /** @return the largest recorded value, or {@code 0} */
+    public long max() {
+        return max.get();
+    }
+
+    /** @return the arithmetic mean of recorded values, or {@code 0} */
+    public double mean() {
+        final long n = count();
+        return n > 0 ? (double) sum() / n : 0;
+    }
+
+    /**
+     * Returns an approximate percentile, i.e. the upper bound of the bucket
+     * containing it, capped by {@link #max()}.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the approximate value, or {@code 0} if nothing has been recorded
+     * @throws IllegalArgumentException if {@code percentile} is out of range
+     */
+    public long percentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100, but was " + percentile);
+        }
+
+        long total = 0;
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100d * total));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /** @return the number of buckets */
+    public int bucketCount() {
+        return BUCKETS;
+    }
+
+    /**
+     * Returns the number of values recorded in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the number of values
+     */
+    public long count(final int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Returns the smallest value counted by a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the inclusive lower bound
+     */
+    public static long lowerBound(final int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        final int exponent = (bucket - LINEAR) / SUB_BUCKETS + LINEAR_BITS;
+        final int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub)) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Returns the largest value counted by a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the inclusive upper bound
+     */
+    public static long upperBound(final int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        final int exponent = (bucket - LINEAR) / SUB_BUCKETS + LINEAR_BITS;
+        return lowerBound(bucket) + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /** Discards all recorded values. */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int index(final long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+}
@@ -0,0 +1,151 @@
+package com.apicatalog.cid.metrics;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.apicatalog.cid.IdentifierDocumentResolver;
+import com.apicatalog.cid.IdentifierDocumentResolverRegistry;
+import com.apicatalog.cid.ResolutionListener;
+import com.apicatalog.cid.VerificationMethodException;
+
+/**
+ * A {@link ResolutionListener} collecting resolution metrics in memory.
+ *
+ * <p>
+ * Collects latency histograms of each {@link ResolutionListener.Phase phase},
+ * of total resolutions, and of document fetches per DID method or URI scheme,
+ * see {@link IdentifierDocumentResolverRegistry#prefix(URI)}. Outcomes are
+ * counted per {@link VerificationMethodException.Code error code} and
+ * dispatches per resolver class.
+ * </p>
+ *
+ * <p>
+ * All durations are in nanoseconds. Collected values can be read at any time
+ * and exported to an external monitoring system.
+ * </p>
+ */
+public class ResolutionMetrics implements ResolutionListener {
+
+    protected final Map<Phase, LatencyHistogram> phases;
+    protected final ConcurrentMap<String, LatencyHistogram> fetches;
+    protected final LatencyHistogram resolutions;
+
+    protected final LongAdder resolved;
+    protected final Map<VerificationMethodException.Code, LongAdder> failed;
+    protected final LongAdder errors;
+
+    protected final ConcurrentMap<String, LongAdder> dispatches;
+
+    public ResolutionMetrics() {
+        final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+        for (final Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+        this.phases = Collections.unmodifiableMap(phases);
+
+        final Map<VerificationMethodException.Code, LongAdder> failed = new EnumMap<>(VerificationMethodException.Code.class);
+        for (final VerificationMethodException.Code code : VerificationMethodException.Code.values()) {
+            failed.put(code, new LongAdder());
+        }
+        this.failed = Collections.unmodifiableMap(failed);
+
+        this.fetches = new ConcurrentHashMap<>();
+        this.resolutions = new LatencyHistogram();
+        this.resolved = new LongAdder();
+        this.errors = new LongAdder();
+        this.dispatches = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onPhase(final Phase phase, final URI documentUri, final long nanos) {
+        phases.get(phase).record(nanos);
+
+        if (phase == Phase.FETCH) {
+            final String prefix = IdentifierDocumentResolverRegistry.prefix(documentUri);
+            if (prefix != null) {
+                fetches.computeIfAbsent(prefix, p -> new LatencyHistogram()).record(nanos);
+            }
+        }
+    }
+
+    @Override
+    public void onDispatch(final URI documentUri, final IdentifierDocumentResolver resolver) {
+        dispatches.computeIfAbsent(resolver.getClass().getName(), name -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onResolved(final URI methodId, final long nanos) {
+        resolved.increment();
+        resolutions.record(nanos);
+    }
+
+    @Override
+    public void onFailed(final URI methodId, final VerificationMethodException.Code code, final long nanos) {
+        failed.get(code).increment();
+        resolutions.record(nanos);
+    }
+
+    @Override
+    public void onError(final URI methodId, final RuntimeException error, final long nanos) {
+        errors.increment();
+        resolutions.record(nanos);
+    }
+
+    /**
+     * Returns the latency histogram of a phase.
+     *
+     * @param phase the phase (must not be {@code null})
+     * @return the histogram
+     */
+    public LatencyHistogram phase(final Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Returns fetch latency histograms keyed by DID method, e.g.
+     * {@code did:web}, or URI scheme.
+     *
+     * @return an unmodifiable live view of the histograms
+     */
+    public Map<String, LatencyHistogram> fetches() {
+        return Collections.unmodifiableMap(fetches);
+    }
+
+    /** @return the latency histogram of all resolutions, regardless of outcome */
+    public LatencyHistogram resolutions() {
+        return resolutions;
+    }
+
+    /** @return the number of resolved verification methods */
+    public long resolvedCount() {
+        return resolved.sum();
+    }
+
+    /**
+     * Returns the number of resolutions failed with the given code.
+     *
+     * @param code the error code (must not be {@code null})
+     * @return the number of failures
+     */
+    public long failedCount(final VerificationMethodException.Code code) {
+        return failed.get(code).sum();
+    }
+
+    /** @return the number of resolutions failed unexpectedly */
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    /** @return a snapshot of dispatch counts keyed by resolver class name */
+    public Map<String, Long> dispatchCounts() {
+        final Map<String, Long> counts = new HashMap<>(dispatches.size() * 2);
+        dispatches.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * In-memory metrics collected through
+ * {@link com.apicatalog.cid.ResolutionListener}.
+ *
+ * <p>
+ * {@link com.apicatalog.cid.metrics.ResolutionMetrics} records latencies of
+ * resolution phases into
+ * {@link com.apicatalog.cid.metrics.LatencyHistogram}s and counts outcomes,
+ * ready to be exported to a monitoring system.
+ * </p>
+ */
+package com.apicatalog.cid.metrics;
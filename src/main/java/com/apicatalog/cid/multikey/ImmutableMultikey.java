@@ -3,11 +3,13 @@ package com.apicatalog.cid.multikey;
 import java.net.URI;
 import java.time.Instant;
 
+import com.apicatalog.cid.datatype.Identifier;
 import com.apicatalog.cid.datatype.MulticodecEncoded;
 
 final class ImmutableMultikey implements Multikey {
 
     final URI id;
+    final Identifier identifier;
     final URI controller;
 
     final MulticodecEncoded publicKey;
@@ -24,6 +26,7 @@ final class ImmutableMultikey implements Multikey {
             Instant revoked,
             Instant expires) {
         this.id = id;
+        this.identifier = id != null ? Identifier.of(id) : null;
         this.controller = controller;
         this.publicKey = publicKey;
         this.secretKey = privateKey;
@@ -36,6 +39,11 @@ final class ImmutableMultikey implements Multikey {
         return id;
     }
 
+    @Override
+    public Identifier identifier() {
+        return identifier;
+    }
+
     @Override
     public String type() {
         return Multikey.TYPE;
@@ -0,0 +1,430 @@
+package com.apicatalog.cid.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.apicatalog.cid.cache.IndexSupport;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+
+/**
+ * An index of services by type, and by document identifier and type, across
+ * many documents.
+ *
+ * <p>
+ * The endpoints of each service are ordered once, when the document is added,
+ * by a pluggable priority, see {@link #preferSchemes(String...)}. Endpoints of
+ * the same priority, or all endpoints if no priority is set, keep the document
+ * order. A lookup takes constant time regardless of the number of indexed
+ * documents and services, the returned lists are shared and never copied.
+ * </p>
+ *
+ * <p>
+ * Documents are added and removed incrementally, typically by a cache, see
+ * {@link com.apicatalog.cid.CachingIdentifierDocumentResolver}. Additions of
+ * the same document instance are counted, the document is removed from the
+ * index by the matching number of removals. The index is safe for concurrent
+ * use.
+ * </p>
+ *
+ * <p>
+ * A document can be added with an expiration time, e.g. the end of its cache
+ * lifetime. Lookups skip the services of expired documents even if the
+ * documents have not been removed yet.
+ * </p>
+ */
+public class ServiceIndex {
+
+    /** {@code null} to keep the document order */
+    protected final Comparator<? super ServiceEndpoint> priority;
+
+    /** service type to references, replaced on each change */
+    final ConcurrentHashMap<String, ServiceReference[]> types;
+
+    /** document identifier and service type to services, replaced on each change */
+    final ConcurrentHashMap<TypeKey, Services> documentTypes;
+
+    /** indexed documents */
+    final IndexSupport documents;
+
+    /**
+     * Creates an empty index keeping endpoints in the document order.
+     */
+    public ServiceIndex() {
+        this(null);
+    }
+
+    /**
+     * Creates an empty index ordering endpoints by the given priority.
+     *
+     * @param priority orders endpoints, the first one is preferred, or
+     *                 {@code null} to keep the document order
+     */
+    public ServiceIndex(final Comparator<? super ServiceEndpoint> priority) {
+        this.priority = priority;
+        this.types = new ConcurrentHashMap<>();
+        this.documentTypes = new ConcurrentHashMap<>();
+        this.documents = new IndexSupport();
+    }
+
+    /**
+     * Returns a priority preferring endpoints by their identifier scheme, in the
+     * given order, e.g. {@code preferSchemes("https", "http")}. Endpoints with
+     * other schemes follow.
+     *
+     * @param schemes the preferred schemes, compared ignoring case (must not be
+     *                {@code null})
+     * @return a new endpoint priority
+     * @throws NullPointerException if {@code schemes} or a scheme is
+     *                              {@code null}
+     */
+    public static Comparator<ServiceEndpoint> preferSchemes(final String... schemes) {
+        Objects.requireNonNull(schemes, "schemes must not be null");
+
+        final String[] preferred = new String[schemes.length];
+        for (int i = 0; i < schemes.length; i++) {
+            preferred[i] = Objects.requireNonNull(schemes[i], "scheme must not be null");
+        }
+
+        return Comparator.comparingInt(endpoint -> rank(endpoint, preferred));
+    }
+
+    /**
+     * Adds the services of the given document, the document never expires.
+     *
+     * @param document the document (must not be {@code null})
+     */
+    public void add(final IdentifierDocument document) {
+        add(document, IndexSupport.NO_EXPIRATION);
+    }
+
+    /**
+     * Adds the services of the given document, expiring at the given time. An
+     * addition of an already indexed document extends its expiration time, if
+     * later.
+     *
+     * @param document  the document (must not be {@code null})
+     * @param expiresAt the time in milliseconds since the epoch the document
+     *                  expires at, or {@link Long#MAX_VALUE} if never
+     */
+    public void add(final IdentifierDocument document, final long expiresAt) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        documents.add(document, expiresAt, lease -> index(document, lease));
+    }
+
+    /**
+     * Removes the services of the given document, added by
+     * {@link #add(IdentifierDocument)}. The services remain indexed until the
+     * document has been removed as many times as added.
+     *
+     * @param document the document (must not be {@code null})
+     */
+    public void remove(final IdentifierDocument document) {
+        Objects.requireNonNull(document, "document must not be null");
+
+        documents.remove(document, () -> unindex(document));
+    }
+
+    /**
+     * Removes all documents.
+     */
+    public void clear() {
+        documents.clear();
+        documentTypes.clear();
+        types.clear();
+    }
+
+    /**
+     * Finds the services of the given type across all indexed documents.
+     *
+     * @param type the service type (must not be {@code null})
+     * @return an unmodifiable list of references of documents not expired,
+     *         possibly empty
+     */
+    public List<ServiceReference> find(final String type) {
+        Objects.requireNonNull(type, "type must not be null");
+        return IndexSupport.live(types.get(type), ServiceReference::lease, System.currentTimeMillis());
+    }
+
+    /**
+     * Finds the services of the given type declared by the document.
+     *
+     * @param documentId the document identifier (must not be {@code null})
+     * @param type       the service type (must not be {@code null})
+     * @return an unmodifiable list of references of documents not expired,
+     *         possibly empty
+     */
+    public List<ServiceReference> find(final URI documentId, final String type) {
+        final Services services = services(documentId, type);
+        return services != null
+                ? IndexSupport.live(services.references, ServiceReference::lease, System.currentTimeMillis())
+                : Collections.emptyList();
+    }
+
+    /**
+     * Returns the endpoints of all services of the given type declared by the
+     * document, ordered by priority. Endpoints of services of the same priority
+     * keep the document order.
+     *
+     * @param documentId the document identifier (must not be {@code null})
+     * @param type       the service type (must not be {@code null})
+     * @return an unmodifiable list of endpoints of documents not expired,
+     *         possibly empty
+     */
+    public List<ServiceEndpoint> endpoints(final URI documentId, final String type) {
+        final Services services = services(documentId, type);
+
+        if (services == null) {
+            return Collections.emptyList();
+        }
+
+        final long now = System.currentTimeMillis();
+
+        for (final ServiceReference reference : services.references) {
+            if (reference.lease.isExpired(now)) {
+                // a document has expired but not yet been removed
+                final List<ServiceReference> live = IndexSupport.live(services.references, ServiceReference::lease, now);
+                return live.isEmpty()
+                        ? Collections.emptyList()
+                        : services(live.toArray(new ServiceReference[live.size()])).endpoints;
+            }
+        }
+        return services.endpoints;
+    }
+
+    /**
+     * Returns the endpoint with the highest priority of all services of the
+     * given type declared by the document, see {@link #endpoints(URI, String)}.
+     *
+     * @param documentId the document identifier (must not be {@code null})
+     * @param type       the service type (must not be {@code null})
+     * @return the endpoint, or {@code null} if none
+     */
+    public ServiceEndpoint endpoint(final URI documentId, final String type) {
+        final List<ServiceEndpoint> endpoints = endpoints(documentId, type);
+        return endpoints.isEmpty() ? null : endpoints.get(0);
+    }
+
+    /** @return the number of distinct indexed service types */
+    public int size() {
+        return types.size();
+    }
+
+    /** @return the number of distinct indexed documents */
+    public int documentCount() {
+        return documents.size();
+    }
+
+    Services services(final URI documentId, final String type) {
+        Objects.requireNonNull(documentId, "documentId must not be null");
+        Objects.requireNonNull(type, "type must not be null");
+        return documentTypes.get(new TypeKey(documentId, type));
+    }
+
+    void index(final IdentifierDocument document, final IndexSupport.Lease lease) {
+
+        final Set<Service> services = document.service();
+
+        if (services == null) {
+            return;
+        }
+
+        final URI documentId = document.id();
+
+        for (final Service service : services) {
+
+            if (service == null) {
+                continue;
+            }
+
+            final ServiceReference[] reference = new ServiceReference[] {
+                    new ServiceReference(document, service, order(service.endpoint()), lease)
+            };
+
+            for (final String type : types(service)) {
+
+                if (type == null) {
+                    continue;
+                }
+
+                types.merge(type, reference, IndexSupport::concat);
+
+                if (documentId != null) {
+                    documentTypes.merge(
+                            new TypeKey(documentId, type),
+                            new Services(reference, reference[0].endpoints),
+                            (existing, added) -> services(IndexSupport.concat(existing.references, added.references)));
+                }
+            }
+        }
+    }
+
+    void unindex(final IdentifierDocument document) {
+
+        final Set<Service> services = document.service();
+
+        if (services == null) {
+            return;
+        }
+
+        final URI documentId = document.id();
+
+        for (final Service service : services) {
+
+            if (service == null) {
+                continue;
+            }
+
+            for (final String type : types(service)) {
+
+                if (type == null) {
+                    continue;
+                }
+
+                types.computeIfPresent(type, (key, references) -> IndexSupport.without(references, document, ServiceReference::document));
+
+                if (documentId != null) {
+                    documentTypes.computeIfPresent(new TypeKey(documentId, type), (key, existing) -> {
+                        final ServiceReference[] references = IndexSupport.without(existing.references, document, ServiceReference::document);
+                        if (references == existing.references) {
+                            return existing;
+                        }
+                        return references != null ? services(references) : null;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * @return services with endpoints merged in priority order
+     */
+    Services services(final ServiceReference[] references) {
+
+        if (references.length == 1) {
+            return new Services(references, references[0].endpoints);
+        }
+
+        final List<ServiceEndpoint> endpoints = new ArrayList<>();
+        for (final ServiceReference reference : references) {
+            endpoints.addAll(reference.endpoints);
+        }
+        if (priority != null) {
+            // stable, services of the same priority keep their order
+            endpoints.sort(priority);
+        }
+        return new Services(references, Collections.unmodifiableList(endpoints));
+    }
+
+    /**
+     * @return an unmodifiable list of endpoints in priority order
+     */
+    List<ServiceEndpoint> order(final Collection<ServiceEndpoint> endpoints) {
+
+        if (endpoints == null || endpoints.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<ServiceEndpoint> ordered = new ArrayList<>(endpoints.size());
+        for (final ServiceEndpoint endpoint : endpoints) {
+            if (endpoint != null) {
+                ordered.add(endpoint);
+            }
+        }
+        if (priority != null) {
+            ordered.sort(priority);
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * @return distinct types of the service, possibly including {@code null}
+     */
+    static Collection<String> types(final Service service) {
+
+        final Collection<String> type = service.type();
+
+        if (type == null || type.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return type instanceof Set
+                ? type
+                : new LinkedHashSet<>(type);
+    }
+
+    static int rank(final ServiceEndpoint endpoint, final String[] schemes) {
+
+        final URI id = endpoint.id();
+        final String scheme = id != null ? id.getScheme() : null;
+
+        if (scheme != null) {
+            for (int i = 0; i < schemes.length; i++) {
+                if (schemes[i].equalsIgnoreCase(scheme)) {
+                    return i;
+                }
+            }
+        }
+        return schemes.length;
+    }
+
+    /**
+     * Services of a type declared by a document.
+     */
+    static final class Services {
+
+        final ServiceReference[] references;
+
+        /** unmodifiable, in priority order */
+        final List<ServiceEndpoint> endpoints;
+
+        Services(final ServiceReference[] references, final List<ServiceEndpoint> endpoints) {
+            this.references = references;
+            this.endpoints = endpoints;
+        }
+    }
+
+    /**
+     * A document identifier and a service type.
+     */
+    static final class TypeKey {
+
+        final URI documentId;
+        final String type;
+        final int hash;
+
+        TypeKey(final URI documentId, final String type) {
+            this.documentId = documentId;
+            this.type = type;
+            this.hash = 31 * documentId.hashCode() + type.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TypeKey)) {
+                return false;
+            }
+            final TypeKey other = (TypeKey) obj;
+            return hash == other.hash
+                    && type.equals(other.type)
+                    && documentId.equals(other.documentId);
+        }
+    }
+}
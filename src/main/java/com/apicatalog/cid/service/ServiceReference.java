@@ -0,0 +1,88 @@
+package com.apicatalog.cid.service;
+
+import java.net.URI;
+import java.util.List;
+
+import com.apicatalog.cid.cache.IndexSupport;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+
+/**
+ * A service of an indexed document, see {@link ServiceIndex}.
+ */
+public final class ServiceReference {
+
+    final IdentifierDocument document;
+    final Service service;
+
+    /** unmodifiable, in priority order */
+    final List<ServiceEndpoint> endpoints;
+
+    final IndexSupport.Lease lease;
+
+    ServiceReference(final IdentifierDocument document, final Service service, final List<ServiceEndpoint> endpoints, final IndexSupport.Lease lease) {
+        this.document = document;
+        this.service = service;
+        this.endpoints = endpoints;
+        this.lease = lease;
+    }
+
+    /** @return the document declaring the service */
+    public IdentifierDocument document() {
+        return document;
+    }
+
+    /** @return the document identifier, or {@code null} */
+    public URI documentId() {
+        return document.id();
+    }
+
+    /** @return the service */
+    public Service service() {
+        return service;
+    }
+
+    /** @return the service identifier */
+    public URI serviceId() {
+        return service.id();
+    }
+
+    /**
+     * Returns the service endpoints ordered by the priority of the index.
+     *
+     * @return an unmodifiable list of endpoints, possibly empty
+     */
+    public List<ServiceEndpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Returns the endpoint with the highest priority.
+     *
+     * @return the endpoint, or {@code null} if the service has no endpoints
+     */
+    public ServiceEndpoint endpoint() {
+        return endpoints.isEmpty() ? null : endpoints.get(0);
+    }
+
+    /**
+     * Returns the time the document expires at, see
+     * {@link ServiceIndex#add(IdentifierDocument, long)}.
+     *
+     * @return the time in milliseconds since the epoch, or
+     *         {@link Long#MAX_VALUE} if the document never expires
+     */
+    public long expiresAt() {
+        return lease.expiresAt();
+    }
+
+    IndexSupport.Lease lease() {
+        return lease;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceReference[" + document.id() + ", " + service.id() + "]";
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Lookup of services declared by many identifier documents.
+ * <p>
+ * {@link com.apicatalog.cid.service.ServiceIndex} indexes services by type and
+ * by document identifier and type, keeping the endpoints of each service in a
+ * pluggable priority order, see
+ * {@link com.apicatalog.cid.service.ServiceIndex#preferSchemes(String...)}.
+ * </p>
+ */
+package com.apicatalog.cid.service;
@@ -0,0 +1,675 @@
+package com.apicatalog.cid.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import com.apicatalog.cid.cbor.IdentifierDocumentCodec;
+import com.apicatalog.cid.document.IdentifierDocument;
+
+/**
+ * An append-only store of {@link IdentifierDocument}s kept in a memory-mapped
+ * file.
+ *
+ * <p>
+ * Documents are appended, encoded by {@link IdentifierDocumentCodec}, as
+ * records holding the document id and an expiration time. Opening a store
+ * scans the records once to build an in-memory index of the record offsets
+ * keyed by the document id; documents are decoded on access only, and are not
+ * retained. A later record for the same id supersedes an earlier one.
+ * </p>
+ *
+ * <p>
+ * Superseded, removed and expired records remain in the file until
+ * {@link #compact() compacted}. Compaction runs on its own when the
+ * unreachable records take more space than the live ones, or when the file
+ * would exceed its maximum size.
+ * </p>
+ *
+ * <p>
+ * Each record is checksummed. A torn record at the end of the file, e.g. left
+ * by a crash while appending, and any record following it are discarded when
+ * the store is opened. Appended records are not forced to the storage device
+ * until {@link #flush()} or {@link #close()} is called.
+ * </p>
+ *
+ * <p>
+ * The file is locked for exclusive use by a single store. The store is safe
+ * for concurrent use, reads share a lock and do not block each other.
+ * </p>
+ */
+public final class MappedDocumentStore implements Closeable {
+
+    /** The default maximum file size, 256 MiB. */
+    public static final long DEFAULT_MAX_FILE_SIZE = 256L * 1024 * 1024;
+
+    /** {@code CIDS} */
+    static final int MAGIC = 0x43494453;
+    static final int VERSION = 1;
+
+    static final int FILE_HEADER_SIZE = 8;
+
+    /** the record length and checksum */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    /** the expiration time and the id length */
+    static final int RECORD_FIXED_SIZE = 12;
+
+    static final int INITIAL_CAPACITY = 1024 * 1024;
+
+    /** garbage below the size never triggers compaction */
+    static final int MIN_COMPACTION_GARBAGE = 1024 * 1024;
+
+    static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+    /** a record location in the file */
+    static final class Entry {
+
+        final int offset;
+        final int length;
+        final int payloadOffset;
+        final int payloadLength;
+        final long expires;
+
+        Entry(final int offset, final int length, final int payloadOffset, final int payloadLength, final long expires) {
+            this.offset = offset;
+            this.length = length;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+            this.expires = expires;
+        }
+
+        boolean isExpired(final long now) {
+            return expires <= now;
+        }
+    }
+
+    final Path file;
+    final long maxFileSize;
+
+    final ReadWriteLock lock;
+
+    final Map<String, Entry> index;
+
+    FileChannel channel;
+    FileLock fileLock;
+    MappedByteBuffer buffer;
+
+    /** the end of the last record */
+    int end;
+
+    /** the total length of the indexed records */
+    long liveBytes;
+
+    boolean closed;
+
+    MappedDocumentStore(final Path file, final long maxFileSize) {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.lock = new ReentrantReadWriteLock();
+        this.index = new HashMap<>();
+    }
+
+    /**
+     * Opens or creates a store limited to {@link #DEFAULT_MAX_FILE_SIZE}.
+     *
+     * @param file the store file (must not be {@code null})
+     * @return an open store
+     * @throws IOException if the file cannot be opened, is locked by another
+     *                     store, or is not a store file
+     */
+    public static MappedDocumentStore open(final Path file) throws IOException {
+        return open(file, DEFAULT_MAX_FILE_SIZE);
+    }
+
+    /**
+     * Opens or creates a store.
+     *
+     * @param file        the store file (must not be {@code null})
+     * @param maxFileSize the maximum file size in bytes, at most
+     *                    {@link Integer#MAX_VALUE}
+     * @return an open store
+     * @throws IOException              if the file cannot be opened, is locked
+     *                                  by another store, or is not a store file
+     * @throws IllegalArgumentException if {@code maxFileSize} is out of range
+     */
+    public static MappedDocumentStore open(final Path file, final long maxFileSize) throws IOException {
+        Objects.requireNonNull(file, "file must not be null");
+
+        if (maxFileSize < INITIAL_CAPACITY || maxFileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maxFileSize must be between " + INITIAL_CAPACITY + " and " + Integer.MAX_VALUE + ", but was " + maxFileSize);
+        }
+
+        final MappedDocumentStore store = new MappedDocumentStore(file, maxFileSize);
+        store.load();
+        return store;
+    }
+
+    /**
+     * Returns a stored document.
+     *
+     * @param id the document id (must not be {@code null})
+     * @return the decoded document, or {@code null} if there is no such document
+     *         or it has expired
+     * @throws IOException if the stored document cannot be decoded
+     */
+    public IdentifierDocument get(final URI id) throws IOException {
+        Objects.requireNonNull(id, "id must not be null");
+
+        final byte[] payload;
+
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+
+            final Entry entry = index.get(id.toString());
+
+            if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+                return null;
+            }
+
+            payload = new byte[entry.payloadLength];
+
+            final ByteBuffer view = buffer.duplicate();
+            view.position(entry.payloadOffset);
+            view.get(payload);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            return IdentifierDocumentCodec.decode(payload);
+
+        } catch (IllegalArgumentException e) {
+            throw new IOException("The stored document " + id + " cannot be decoded", e);
+        }
+    }
+
+    /**
+     * Checks whether a document is stored and has not expired.
+     *
+     * @param id the document id (must not be {@code null})
+     * @return {@code true} if the document is present
+     */
+    public boolean contains(final URI id) {
+        Objects.requireNonNull(id, "id must not be null");
+
+        lock.readLock().lock();
+        try {
+            final Entry entry = index.get(id.toString());
+            return entry != null && !entry.isExpired(System.currentTimeMillis());
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a document, superseding a document stored under the same id.
+     * Secret keys the document holds are not stored.
+     *
+     * @param id       the document id (must not be {@code null})
+     * @param document the document (must not be {@code null})
+     * @param expires  the expiration time, or {@code null} if the document never
+     *                 expires
+     * @throws IOException              if the record cannot be written, e.g. the
+     *                                  file would exceed its maximum size even
+     *                                  after compaction
+     * @throws IllegalArgumentException if the document cannot be encoded, see
+     *                                  {@link IdentifierDocumentCodec#encode(IdentifierDocument)}
+     */
+    public void put(final URI id, final IdentifierDocument document, final Instant expires) throws IOException {
+        Objects.requireNonNull(id, "id must not be null");
+        Objects.requireNonNull(document, "document must not be null");
+
+        long expiresMillis = NO_EXPIRATION;
+        if (expires != null) {
+            try {
+                expiresMillis = expires.toEpochMilli();
+
+            } catch (ArithmeticException e) {
+                expiresMillis = expires.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : NO_EXPIRATION;
+            }
+        }
+
+        final byte[] payload = IdentifierDocumentCodec.encode(document);
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            append(id.toString(), payload, expiresMillis);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document by appending a removal record.
+     *
+     * @param id the document id (must not be {@code null})
+     * @return {@code true} if a document was stored under the id
+     * @throws IOException if the record cannot be written
+     */
+    public boolean remove(final URI id) throws IOException {
+        Objects.requireNonNull(id, "id must not be null");
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+
+            if (!index.containsKey(id.toString())) {
+                return false;
+            }
+            append(id.toString(), new byte[0], NO_EXPIRATION);
+            return true;
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the file keeping live records only.
+     *
+     * @throws IOException if the file cannot be rewritten, the store is left
+     *                     unchanged
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            rewrite();
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces appended records to the storage device.
+     *
+     * @throws IOException if the store is closed
+     */
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            buffer.force();
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes the store, releasing the file lock.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            index.clear();
+
+            try {
+                buffer.force();
+
+            } finally {
+                buffer = null;
+                channel.close();
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return the number of stored documents, including the expired ones */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return the number of bytes taken by records */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return end;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes taken by superseded and removed records,
+     *         reclaimed by compaction
+     */
+    public long garbageBytes() {
+        lock.readLock().lock();
+        try {
+            return end - FILE_HEADER_SIZE - liveBytes;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return the store file */
+    public Path file() {
+        return file;
+    }
+
+    void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The store " + file + " is closed");
+        }
+    }
+
+    void load() throws IOException {
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            try {
+                fileLock = channel.tryLock();
+
+            } catch (OverlappingFileLockException e) {
+                // held by this process
+                fileLock = null;
+            }
+            if (fileLock == null) {
+                throw new IOException("The store " + file + " is used by another store");
+            }
+
+            final long size = channel.size();
+
+            if (size > maxFileSize) {
+                throw new IOException("The store " + file + " exceeds the maximum size of " + maxFileSize + " bytes");
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_CAPACITY));
+
+            if (size < FILE_HEADER_SIZE || buffer.getInt(0) == 0) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                end = FILE_HEADER_SIZE;
+                return;
+            }
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a document store file " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported document store version " + buffer.getInt(4) + " of " + file);
+            }
+
+            scan(System.currentTimeMillis());
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads records into the index, stops at the first empty or invalid one.
+     */
+    void scan(final long now) {
+
+        final CRC32 crc = new CRC32();
+
+        byte[] scratch = new byte[256];
+
+        int position = FILE_HEADER_SIZE;
+
+        final int capacity = buffer.capacity();
+
+        while (capacity - position >= RECORD_HEADER_SIZE + RECORD_FIXED_SIZE) {
+
+            final int length = buffer.getInt(position);
+
+            if (length == 0) {
+                break;
+            }
+            if (length < RECORD_FIXED_SIZE || length > capacity - position - RECORD_HEADER_SIZE) {
+                discard(position);
+                break;
+            }
+
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+
+            final ByteBuffer view = buffer.duplicate();
+            view.position(position + RECORD_HEADER_SIZE);
+            view.get(scratch, 0, length);
+
+            crc.reset();
+            crc.update(scratch, 0, length);
+
+            final int idLength = buffer.getInt(position + RECORD_HEADER_SIZE + 8);
+
+            if ((int) crc.getValue() != buffer.getInt(position + 4)
+                    || idLength < 0
+                    || idLength > length - RECORD_FIXED_SIZE) {
+                discard(position);
+                break;
+            }
+
+            final long expires = buffer.getLong(position + RECORD_HEADER_SIZE);
+
+            final String id = new String(scratch, RECORD_FIXED_SIZE, idLength, StandardCharsets.UTF_8);
+
+            index(id, position, length + RECORD_HEADER_SIZE, idLength, expires, now);
+
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        end = position;
+    }
+
+    /**
+     * Clears an invalid tail so that it cannot be mistaken for records later.
+     */
+    void discard(final int position) {
+        for (int i = position; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    void index(final String id, final int offset, final int length, final int idLength, final long expires, final long now) {
+
+        final int payloadOffset = offset + RECORD_HEADER_SIZE + RECORD_FIXED_SIZE + idLength;
+        final int payloadLength = offset + length - payloadOffset;
+
+        final Entry previous;
+
+        if (payloadLength == 0 || expires <= now) {
+            // a removal or an expired document
+            previous = index.remove(id);
+
+        } else {
+            previous = index.put(id, new Entry(offset, length, payloadOffset, payloadLength, expires));
+            liveBytes += length;
+        }
+
+        if (previous != null) {
+            liveBytes -= previous.length;
+        }
+    }
+
+    void append(final String id, final byte[] payload, final long expires) throws IOException {
+
+        final byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+
+        final long length = (long) RECORD_HEADER_SIZE + RECORD_FIXED_SIZE + idBytes.length + payload.length;
+
+        if (end + length > maxFileSize) {
+            rewrite();
+            if (end + length > maxFileSize) {
+                throw new IOException("The store " + file + " has reached the maximum size of " + maxFileSize + " bytes");
+            }
+        }
+
+        ensureCapacity(end + (int) length);
+
+        final int offset = end;
+
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.putLong(expires);
+        view.putInt(idBytes.length);
+        view.put(idBytes);
+        view.put(payload);
+
+        final CRC32 crc = new CRC32();
+        final ByteBuffer body = buffer.duplicate();
+        body.position(offset + RECORD_HEADER_SIZE);
+        body.limit(offset + (int) length);
+        crc.update(body);
+
+        // the length goes last, an incomplete record reads as the end
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        buffer.putInt(offset, (int) length - RECORD_HEADER_SIZE);
+
+        end += (int) length;
+
+        index(id, offset, (int) length, idBytes.length, expires, System.currentTimeMillis());
+
+        final long garbage = end - FILE_HEADER_SIZE - liveBytes;
+
+        if (garbage > MIN_COMPACTION_GARBAGE && garbage > liveBytes) {
+            rewrite();
+        }
+    }
+
+    void ensureCapacity(final int required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(capacity, maxFileSize));
+    }
+
+    /**
+     * Copies live records into a new file replacing the current one.
+     */
+    void rewrite() throws IOException {
+
+        final long now = System.currentTimeMillis();
+
+        final Path target = file.resolveSibling(file.getFileName() + ".compact");
+
+        final Map<String, Entry> compacted = new HashMap<>(index.size() * 2);
+
+        final FileChannel compactedChannel = FileChannel.open(target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        final MappedByteBuffer compactedBuffer;
+        final FileLock compactedLock;
+        final long live;
+
+        try {
+            compactedLock = compactedChannel.lock();
+
+            final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            compactedChannel.write(header, 0);
+
+            long position = FILE_HEADER_SIZE;
+
+            final Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+
+            while (it.hasNext()) {
+                final Map.Entry<String, Entry> item = it.next();
+                final Entry entry = item.getValue();
+
+                if (entry.isExpired(now)) {
+                    continue;
+                }
+
+                final ByteBuffer record = buffer.duplicate();
+                record.position(entry.offset);
+                record.limit(entry.offset + entry.length);
+
+                while (record.hasRemaining()) {
+                    compactedChannel.write(record, position + record.position() - entry.offset);
+                }
+
+                final int offset = (int) position;
+
+                compacted.put(item.getKey(), new Entry(
+                        offset,
+                        entry.length,
+                        offset + entry.payloadOffset - entry.offset,
+                        entry.payloadLength,
+                        entry.expires));
+
+                position += entry.length;
+            }
+
+            live = position - FILE_HEADER_SIZE;
+
+            compactedChannel.force(true);
+
+            compactedBuffer = compactedChannel.map(
+                    FileChannel.MapMode.READ_WRITE,
+                    0,
+                    Math.min(Math.max(position * 2, INITIAL_CAPACITY), maxFileSize));
+
+            Files.move(target, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException | RuntimeException e) {
+            compactedChannel.close();
+            Files.deleteIfExists(target);
+            throw e;
+        }
+
+        channel.close();
+
+        channel = compactedChannel;
+        fileLock = compactedLock;
+        buffer = compactedBuffer;
+        end = FILE_HEADER_SIZE + (int) live;
+        liveBytes = live;
+
+        index.clear();
+        index.putAll(compacted);
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Persistent storage of resolved Controlled Identifier Documents.
+ *
+ * <p>
+ * {@link com.apicatalog.cid.store.MappedDocumentStore} keeps documents in a
+ * local memory-mapped file, so a restarted process can serve previously
+ * resolved documents without reaching the network.
+ * </p>
+ */
+package com.apicatalog.cid.store;
@@ -0,0 +1,115 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+class AliasVerifierTest {
+
+    static final URI A = URI.create("did:example:a");
+    static final URI B = URI.create("did:example:b");
+
+    static final IdentifierDocumentResolver DOCUMENTS = new IdentifierDocumentResolver() {
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return true;
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            return document(id, A.equals(id) ? B : A);
+        }
+    };
+
+    @Test
+    void testVerified() {
+        final AliasVerifier verifier = new AliasVerifier(DOCUMENTS, Runnable::run, Duration.ofHours(1));
+
+        final IdentifierDocument document = document(A, B);
+
+        assertTrue(verifier.verify(document).isVerified(B));
+        assertTrue(verifier.verify(document).isVerified(B));
+
+        assertEquals(1, verifier.hitCount());
+        assertEquals(1, verifier.missCount());
+    }
+
+    @Test
+    void testNotReciprocal() {
+        final AliasVerifier verifier = new AliasVerifier(DOCUMENTS, Runnable::run, Duration.ofHours(1));
+
+        final URI c = URI.create("did:example:c");
+
+        assertEquals(AliasVerification.Status.NOT_RECIPROCAL, verifier.verify(document(c, B)).status(B));
+    }
+
+    @Test
+    void testFailingTtl() {
+        final AliasVerifier verifier = new AliasVerifier(
+                AsyncIdentifierDocumentResolver.of(DOCUMENTS, Runnable::run),
+                10,
+                document -> {
+                    throw new IllegalStateException();
+                });
+
+        final AliasVerification verification = verifier.verifyAsync(document(A, B)).join();
+
+        assertEquals(AliasVerification.Status.UNRESOLVABLE, verification.status(B));
+    }
+
+    @Test
+    void testCachedDocumentLifetime() throws InterruptedException {
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(
+                DOCUMENTS, 10, Duration.ofMillis(200), Duration.ZERO);
+
+        final AliasVerifier verifier = new AliasVerifier(cache, Runnable::run, 10);
+
+        final IdentifierDocument document = cache.resolve(A);
+
+        final Duration remaining = cache.remainingTtl(document);
+        assertNotNull(remaining);
+        assertTrue(remaining.compareTo(Duration.ofMillis(200)) <= 0);
+
+        assertTrue(verifier.verify(document).isVerified(B));
+        assertTrue(verifier.verify(document).isVerified(B));
+        assertEquals(1, verifier.hitCount());
+
+        Thread.sleep(300);
+
+        // the outcome has expired with the documents
+        assertNull(cache.remainingTtl(document));
+        assertTrue(verifier.verify(document).isVerified(B));
+        assertEquals(2, verifier.missCount());
+    }
+
+    @Test
+    void testNotCachedDocument() {
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(
+                DOCUMENTS, 10, Duration.ofHours(1), Duration.ZERO);
+
+        final AliasVerifier verifier = new AliasVerifier(cache, Runnable::run, 10);
+
+        final IdentifierDocument document = document(A, B);
+
+        assertNull(cache.remainingTtl(document));
+
+        verifier.verify(document);
+        verifier.verify(document);
+
+        assertEquals(0, verifier.hitCount());
+    }
+
+    static IdentifierDocument document(final URI id, final URI alias) {
+        return IdentifierDocument.of(id, null, Collections.singleton(alias), null, null, null, null, null, null, null);
+    }
+}
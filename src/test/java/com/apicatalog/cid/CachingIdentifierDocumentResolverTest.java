@@ -0,0 +1,229 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.multikey.Multikey;
+
+class CachingIdentifierDocumentResolverTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    @Test
+    void testCached() {
+        final Backend backend = new Backend();
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, Duration.ofHours(1), Duration.ZERO);
+
+        final IdentifierDocument document = cache.resolve(ID);
+
+        assertSame(document, cache.resolve(ID));
+        assertEquals(1, backend.calls.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testExpired() throws InterruptedException {
+        final Backend backend = new Backend();
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, Duration.ofMillis(50), Duration.ZERO);
+
+        final IdentifierDocument document = cache.resolve(ID);
+        assertSame(document, cache.resolve(ID));
+
+        Thread.sleep(100);
+
+        assertNotSame(document, cache.resolve(ID));
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    void testTtlPerDocument() {
+        final Backend backend = new Backend();
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, document -> Duration.ZERO, Duration.ZERO);
+
+        // not cached
+        cache.resolve(ID);
+        cache.resolve(ID);
+
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    void testNotFoundCached() throws InterruptedException {
+        final Backend backend = new Backend();
+        backend.failure = () -> new IllegalArgumentException("not found");
+
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, Duration.ofHours(1), Duration.ofMillis(50));
+
+        final IllegalArgumentException failure = assertThrows(IllegalArgumentException.class, () -> cache.resolve(ID));
+
+        // the same instance while cached
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> cache.resolve(ID)));
+        assertEquals(1, backend.calls.get());
+
+        Thread.sleep(100);
+
+        assertNotSame(failure, assertThrows(IllegalArgumentException.class, () -> cache.resolve(ID)));
+        assertEquals(2, backend.calls.get());
+
+        // a document found once the failure has expired
+        Thread.sleep(100);
+        backend.failure = null;
+
+        assertEquals(ID, cache.resolve(ID).id());
+        assertEquals(3, backend.calls.get());
+    }
+
+    @Test
+    void testNotFoundNotCached() {
+        final Backend backend = new Backend();
+        backend.failure = () -> new IllegalArgumentException("not found");
+
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, Duration.ofHours(1), Duration.ZERO);
+
+        assertNotSame(
+                assertThrows(IllegalArgumentException.class, () -> cache.resolve(ID)),
+                assertThrows(IllegalArgumentException.class, () -> cache.resolve(ID)));
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    void testTransientFailureNotCached() {
+        final Backend backend = new Backend();
+        backend.failure = () -> new IllegalStateException("unavailable");
+
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, Duration.ofHours(1), Duration.ofHours(1));
+
+        assertThrows(IllegalStateException.class, () -> cache.resolve(ID));
+        assertThrows(IllegalStateException.class, () -> cache.resolve(ID));
+        assertEquals(2, backend.calls.get());
+
+        backend.failure = null;
+
+        final IdentifierDocument document = cache.resolve(ID);
+
+        assertSame(document, cache.resolve(ID));
+        assertEquals(3, backend.calls.get());
+    }
+
+    @Test
+    void testNullNotCached() {
+        final Backend backend = new Backend();
+        backend.missing = true;
+
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(backend, 10, Duration.ofHours(1), Duration.ofHours(1));
+
+        assertNull(cache.resolve(ID));
+        assertNull(cache.resolve(ID));
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    void testExpiringMethodScheduled() {
+        final CachingIdentifierDocumentResolver cache = cache();
+
+        final IdentifierDocument document = cache.resolve(ID);
+
+        assertEquals(1, cache.pendingInvalidationCount());
+        assertSame(document, cache.resolve(ID));
+
+        cache.invalidate(ID);
+
+        assertEquals(0, cache.pendingInvalidationCount());
+    }
+
+    @Test
+    void testStaleScheduleIgnored() {
+        final CachingIdentifierDocumentResolver cache = cache();
+
+        final IdentifierDocument cached = cache.resolve(ID);
+        final IdentifierDocument stale = document();
+
+        // e.g. a concurrent refresh scheduling a document replaced meanwhile
+        cache.schedule(ID, stale, System.currentTimeMillis());
+
+        assertEquals(1, cache.pendingInvalidationCount());
+        assertSame(cached, cache.timers.get(ID).value().document);
+        assertNotSame(stale, cache.timers.get(ID).value().document);
+
+        // a removal of the stale document keeps the timer
+        cache.onRemoval(ID, stale);
+
+        assertEquals(1, cache.pendingInvalidationCount());
+
+        cache.invalidate(ID);
+
+        assertEquals(0, cache.pendingInvalidationCount());
+    }
+
+    static CachingIdentifierDocumentResolver cache() {
+        return new CachingIdentifierDocumentResolver(
+                new IdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public IdentifierDocument resolve(final URI id) {
+                        return document();
+                    }
+                },
+                10,
+                Duration.ofHours(1),
+                Duration.ZERO);
+    }
+
+    static class Backend implements IdentifierDocumentResolver {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        volatile Supplier<RuntimeException> failure;
+
+        volatile boolean missing;
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return true;
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            calls.incrementAndGet();
+
+            final Supplier<RuntimeException> failure = this.failure;
+            if (failure != null) {
+                throw failure.get();
+            }
+            return missing
+                    ? null
+                    : IdentifierDocument.of(id, null, null, null, null, null, null, null, null, null);
+        }
+    }
+
+    static IdentifierDocument document() {
+        final Multikey method = Multikey.of(
+                URI.create(ID + "#key-1"),
+                ID,
+                MulticodecEncoded.of(0xed, new byte[32]),
+                null,
+                Instant.now().plus(Duration.ofMinutes(10)));
+
+        return IdentifierDocument.of(ID, null, null, Collections.singletonList(method), null, null, null, null, null, null);
+    }
+}
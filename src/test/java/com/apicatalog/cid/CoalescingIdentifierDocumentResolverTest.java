@@ -0,0 +1,199 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+class CoalescingIdentifierDocumentResolverTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    static final int WAITERS = 4;
+
+    final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testCoalesced() throws Exception {
+        final Delegate delegate = new Delegate();
+        final CoalescingIdentifierDocumentResolver resolver = new CoalescingIdentifierDocumentResolver(delegate);
+
+        final List<Future<IdentifierDocument>> results = start(resolver, delegate);
+
+        delegate.release.countDown();
+
+        for (final Future<IdentifierDocument> result : results) {
+            assertSame(delegate.document, result.get(10, TimeUnit.SECONDS));
+        }
+
+        // one fetch of the document, with the fragment removed
+        assertEquals(1, delegate.requests.size());
+        assertEquals(ID, delegate.requests.get(0));
+        assertEquals(0, resolver.inFlightCount());
+    }
+
+    @Test
+    void testFailureShared() throws Exception {
+        final Delegate delegate = new Delegate();
+        final IllegalArgumentException failure = new IllegalArgumentException("not found");
+        delegate.failure.set(failure);
+
+        final CoalescingIdentifierDocumentResolver resolver = new CoalescingIdentifierDocumentResolver(delegate);
+
+        final List<Future<IdentifierDocument>> results = start(resolver, delegate);
+
+        delegate.release.countDown();
+
+        for (final Future<IdentifierDocument> result : results) {
+            assertSame(failure, assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS)).getCause());
+        }
+        assertEquals(1, delegate.requests.size());
+
+        // the failure is not retained
+        assertEquals(0, resolver.inFlightCount());
+
+        delegate.failure.set(null);
+
+        assertSame(delegate.document, resolver.resolve(ID));
+        assertEquals(2, delegate.requests.size());
+    }
+
+    @Test
+    void testFragmentRemoved() {
+        final Delegate delegate = new Delegate();
+        delegate.release.countDown();
+
+        final CoalescingIdentifierDocumentResolver resolver = new CoalescingIdentifierDocumentResolver(delegate);
+
+        resolver.resolve(URI.create(ID + "#key-1"));
+        resolver.resolve(ID);
+
+        assertEquals(2, delegate.requests.size());
+        assertEquals(ID, delegate.requests.get(0));
+        assertEquals(ID, delegate.requests.get(1));
+    }
+
+    @Test
+    void testRecursiveResolution() {
+        final AtomicReference<IdentifierDocumentResolver> outer = new AtomicReference<>();
+
+        final CoalescingIdentifierDocumentResolver resolver = new CoalescingIdentifierDocumentResolver(new IdentifierDocumentResolver() {
+
+            @Override
+            public boolean isAccepted(final URI id) {
+                return true;
+            }
+
+            @Override
+            public IdentifierDocument resolve(final URI id) {
+                // e.g. a controller chain leading back to the document
+                return outer.get().resolve(URI.create(id + "#key-1"));
+            }
+        });
+        outer.set(resolver);
+
+        assertThrows(IllegalStateException.class, () -> resolver.resolve(ID));
+        assertEquals(0, resolver.inFlightCount());
+    }
+
+    /**
+     * Starts a leading resolution blocked in the delegate, and waiters with
+     * different fragments.
+     */
+    List<Future<IdentifierDocument>> start(final CoalescingIdentifierDocumentResolver resolver, final Delegate delegate) throws InterruptedException {
+
+        final List<Future<IdentifierDocument>> results = new ArrayList<>();
+
+        results.add(executor.submit(() -> resolver.resolve(ID)));
+
+        assertTrue(delegate.entered.await(10, TimeUnit.SECONDS));
+        assertEquals(1, resolver.inFlightCount());
+
+        final List<Thread> waiters = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < WAITERS; i++) {
+            final URI id = URI.create(ID + "#key-" + i);
+            results.add(executor.submit(() -> {
+                waiters.add(Thread.currentThread());
+                return resolver.resolve(id);
+            }));
+        }
+
+        // wait until all waiters are blocked on the leading resolution
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!blocked(waiters) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(blocked(waiters));
+
+        return results;
+    }
+
+    static boolean blocked(final List<Thread> threads) {
+        if (threads.size() < WAITERS) {
+            return false;
+        }
+        for (final Thread thread : threads) {
+            if (thread.getState() != Thread.State.WAITING) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class Delegate implements IdentifierDocumentResolver {
+
+        final IdentifierDocument document = IdentifierDocument.of(ID, null, null, null, null, null, null, null, null, null);
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        final List<URI> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return true;
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            requests.add(id);
+            entered.countDown();
+            try {
+                release.await();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return document;
+        }
+    }
+}
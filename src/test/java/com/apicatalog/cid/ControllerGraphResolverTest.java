@@ -0,0 +1,242 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+
+class ControllerGraphResolverTest {
+
+    static final URI A = URI.create("did:example:a");
+    static final URI B = URI.create("did:example:b");
+    static final URI C = URI.create("did:example:c");
+    static final URI D = URI.create("did:example:d");
+
+    /** resolution throws */
+    static final URI FAILED = URI.create("did:example:failed");
+
+    /** resolved to null */
+    static final URI MISSING = URI.create("did:example:missing");
+
+    @Test
+    void testChain() {
+        final Documents documents = new Documents()
+                .add(A, B)
+                .add(B, URI.create(C + "#key-1"))
+                .add(C);
+
+        final ControllerGraph graph = resolver(documents, 8).resolve(A);
+
+        assertEquals(A, graph.root());
+        assertSame(documents.get(A), graph.rootDocument());
+        assertEquals(3, graph.documents().size());
+        assertSame(documents.get(C), graph.document(C));
+
+        assertEquals(0, graph.depth(A));
+        assertEquals(1, graph.depth(B));
+        assertEquals(2, graph.depth(C));
+
+        // fragments removed
+        assertEquals(Collections.singleton(C), graph.links(B));
+
+        assertFalse(graph.isCyclic());
+        assertFalse(graph.isTruncated());
+        assertTrue(graph.failures().isEmpty());
+    }
+
+    @Test
+    void testCycle() {
+        final Documents documents = new Documents()
+                .add(A, B)
+                .add(B, C)
+                .add(C, A);
+
+        final ControllerGraph graph = resolver(documents, 8).resolve(A);
+
+        assertTrue(graph.isCyclic());
+        assertEquals(3, graph.documents().size());
+        assertFalse(graph.isTruncated());
+
+        // each identifier resolved once
+        assertEquals(1, documents.calls(A));
+        assertEquals(1, documents.calls(B));
+        assertEquals(1, documents.calls(C));
+    }
+
+    @Test
+    void testSelfControlled() {
+        final Documents documents = new Documents()
+                .add(A, A, B)
+                .add(B, B);
+
+        final ControllerGraph graph = resolver(documents, 8).resolve(A);
+
+        assertFalse(graph.isCyclic());
+        assertEquals(2, graph.documents().size());
+        assertEquals(1, documents.calls(A));
+    }
+
+    @Test
+    void testDepthBound() {
+        final Documents documents = new Documents()
+                .add(A, B)
+                .add(B, C)
+                .add(C, D)
+                .add(D);
+
+        final ControllerGraph graph = resolver(documents, 2).resolve(A);
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList(A, B, C)), graph.documents().keySet());
+        assertEquals(Collections.singleton(D), graph.truncated());
+        assertEquals(-1, graph.depth(D));
+        assertEquals(0, documents.calls(D));
+
+        final ControllerGraph root = resolver(documents, 0).resolve(A);
+
+        assertEquals(Collections.singleton(A), root.documents().keySet());
+        assertEquals(Collections.singleton(B), root.truncated());
+    }
+
+    @Test
+    void testShortestDepth() {
+        final Documents documents = new Documents()
+                .add(A, B, D)
+                .add(B, C)
+                .add(C, D)
+                .add(D, C);
+
+        final ControllerGraph graph = resolver(documents, 8).resolve(A);
+
+        assertEquals(1, graph.depth(D));
+        assertEquals(2, graph.depth(C));
+        assertTrue(graph.isCyclic());
+    }
+
+    @Test
+    void testNodeBound() {
+        final Documents documents = new Documents()
+                .add(A, B, C, D)
+                .add(B)
+                .add(C)
+                .add(D);
+
+        final ControllerGraph graph = new ControllerGraphResolver(
+                AsyncIdentifierDocumentResolver.of(documents, ForkJoinPool.commonPool()),
+                8, 2, false).resolve(A);
+
+        assertEquals(2, graph.documents().size());
+        assertEquals(2, graph.truncated().size());
+        assertEquals(2, documents.calls(A) + documents.calls(B) + documents.calls(C) + documents.calls(D));
+    }
+
+    @Test
+    void testFailedLinks() {
+        final Documents documents = new Documents()
+                .add(A, B, FAILED, MISSING)
+                .add(B, FAILED);
+
+        final ControllerGraph graph = resolver(documents, 8).resolve(A);
+
+        assertEquals(2, graph.documents().size());
+        assertEquals(new LinkedHashSet<>(Arrays.asList(FAILED, MISSING)), graph.failures().keySet());
+        assertTrue(graph.failures().get(FAILED) instanceof IllegalStateException);
+        assertTrue(graph.failures().get(MISSING) instanceof IllegalArgumentException);
+        assertNull(graph.document(FAILED));
+        assertEquals(1, graph.depth(FAILED));
+        assertFalse(graph.isTruncated());
+        assertEquals(1, documents.calls(FAILED));
+    }
+
+    @Test
+    void testRootFailed() {
+        final ControllerGraphResolver resolver = resolver(new Documents(), 8);
+
+        assertThrows(IllegalStateException.class, () -> resolver.resolve(FAILED));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(MISSING));
+
+        final CompletableFuture<ControllerGraph> graph = resolver.resolveAsync(FAILED);
+
+        assertTrue(assertThrows(CompletionException.class, graph::join).getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testAlsoKnownAs() {
+        final Documents documents = new Documents()
+                .add(IdentifierDocument.of(A, null, Collections.singleton(B), null, null, null, null, null, null, null))
+                .add(B);
+
+        assertEquals(1, resolver(documents, 8).resolve(A).documents().size());
+
+        final ControllerGraph graph = new ControllerGraphResolver(
+                AsyncIdentifierDocumentResolver.of(documents, ForkJoinPool.commonPool()),
+                8, 16, true).resolve(A);
+
+        assertEquals(2, graph.documents().size());
+        assertEquals(Collections.singleton(B), graph.links(A));
+    }
+
+    static ControllerGraphResolver resolver(final Documents documents, final int maxDepth) {
+        return new ControllerGraphResolver(
+                AsyncIdentifierDocumentResolver.of(documents, ForkJoinPool.commonPool()),
+                maxDepth,
+                ControllerGraphResolver.DEFAULT_MAX_NODES,
+                false);
+    }
+
+    static final class Documents implements IdentifierDocumentResolver {
+
+        final Map<URI, IdentifierDocument> documents = new HashMap<>();
+
+        final Map<URI, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        Documents add(final URI id, final URI... controllers) {
+            return add(IdentifierDocument.of(id, Arrays.asList(controllers), null, null, null, null, null, null, null, null));
+        }
+
+        Documents add(final IdentifierDocument document) {
+            documents.put(document.id(), document);
+            return this;
+        }
+
+        IdentifierDocument get(final URI id) {
+            return documents.get(id);
+        }
+
+        int calls(final URI id) {
+            final AtomicInteger count = calls.get(id);
+            return count != null ? count.get() : 0;
+        }
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return true;
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            calls.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+            if (FAILED.equals(id)) {
+                throw new IllegalStateException("unavailable");
+            }
+            return documents.get(id);
+        }
+    }
+}
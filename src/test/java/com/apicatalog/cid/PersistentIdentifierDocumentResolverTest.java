@@ -0,0 +1,89 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.multikey.Multikey;
+import com.apicatalog.cid.store.MappedDocumentStore;
+
+class PersistentIdentifierDocumentResolverTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testStored() throws IOException {
+        final IdentifierDocument document = IdentifierDocument.of(ID, null, null,
+                Collections.singletonList(Multikey.of(URI.create(ID + "#key-1"), ID, MulticodecEncoded.of(0xed, new byte[32]))),
+                null, null, null, null, null, null);
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(dir.resolve("documents"))) {
+
+            final PersistentIdentifierDocumentResolver resolver = new PersistentIdentifierDocumentResolver(
+                    resolver(document), store, Duration.ofHours(1));
+
+            assertSame(document, resolver.resolve(ID));
+            assertNotNull(resolver.resolve(ID));
+
+            assertEquals(1, resolver.hitCount());
+            assertEquals(1, resolver.missCount());
+            assertEquals(0, resolver.errorCount());
+        }
+    }
+
+    @Test
+    void testNotEncodable() throws IOException {
+        final Map<String, Object> publicKey = new LinkedHashMap<>();
+        publicKey.put("kty", "OKP");
+        publicKey.put("crv", "Ed25519");
+        publicKey.put("x", new Object());
+
+        final IdentifierDocument document = IdentifierDocument.of(ID, null, null,
+                Collections.singletonList(JsonWebKey.of(URI.create(ID + "#key-1"), ID, publicKey)),
+                null, null, null, null, null, null);
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(dir.resolve("documents"))) {
+
+            final PersistentIdentifierDocumentResolver resolver = new PersistentIdentifierDocumentResolver(
+                    resolver(document), store, Duration.ofHours(1));
+
+            // served, but not stored
+            assertSame(document, resolver.resolve(ID));
+            assertEquals(1, resolver.errorCount());
+            assertFalse(store.contains(ID));
+        }
+    }
+
+    static IdentifierDocumentResolver resolver(final IdentifierDocument document) {
+        return new IdentifierDocumentResolver() {
+
+            @Override
+            public boolean isAccepted(final URI id) {
+                return true;
+            }
+
+            @Override
+            public IdentifierDocument resolve(final URI id) {
+                return document;
+            }
+        };
+    }
+}
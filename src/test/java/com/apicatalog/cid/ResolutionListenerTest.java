@@ -0,0 +1,210 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.document.VerificationRelationship;
+import com.apicatalog.cid.metrics.ResolutionMetrics;
+import com.apicatalog.cid.multikey.Multikey;
+
+class ResolutionListenerTest {
+
+    static final URI ID = URI.create("did:example:123");
+    static final URI METHOD_ID = URI.create("did:example:123#key-1");
+    static final URI UNKNOWN_ID = URI.create("did:example:123#key-0");
+
+    /** resolution throws */
+    static final URI FAILED_ID = URI.create("did:example:failed#key-1");
+
+    static final URI AUTHENTICATION = VerificationRelationship.AUTHENTICATION.uri();
+
+    static final VerificationMethod METHOD = Multikey.of(METHOD_ID, ID, MulticodecEncoded.of(0xed, new byte[32]));
+
+    static final IdentifierDocument DOCUMENT = IdentifierDocument.of(
+            ID, null, null,
+            Collections.singletonList(METHOD),
+            Collections.singleton(METHOD),
+            null, null, null, null, null);
+
+    static final IllegalStateException FAILURE = new IllegalStateException("unavailable");
+
+    static final IdentifierDocumentResolver DOCUMENTS = new IdentifierDocumentResolver() {
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return id.toString().startsWith("did:example:");
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            if (ID.equals(id)) {
+                return DOCUMENT;
+            }
+            throw FAILURE;
+        }
+    };
+
+    static final List<String> PHASES = Arrays.asList(
+            "phase DOCUMENT_URI did:example:123",
+            "phase DISPATCH did:example:123",
+            "dispatch did:example:123",
+            "phase FETCH did:example:123",
+            "phase ID_CHECK did:example:123");
+
+    @Test
+    void testResolved() throws VerificationMethodException {
+        final Recorder recorder = new Recorder();
+
+        resolver(recorder).resolve(METHOD_ID, AUTHENTICATION);
+
+        assertEquals(resolved(), recorder.events);
+    }
+
+    @Test
+    void testResolvedAsync() {
+        final Recorder recorder = new Recorder();
+
+        resolver(recorder).resolveAsync(METHOD_ID, AUTHENTICATION).join();
+
+        assertEquals(resolved(), recorder.events);
+    }
+
+    @Test
+    void testFailed() {
+        final Recorder recorder = new Recorder();
+
+        final VerificationMethodResolver resolver = resolver(recorder);
+
+        assertThrows(VerificationMethodException.class, () -> resolver.resolve(UNKNOWN_ID, AUTHENTICATION));
+
+        final List<String> expected = new ArrayList<>(PHASES);
+        expected.add("failed INVALID_VERIFICATION_METHOD " + UNKNOWN_ID);
+
+        assertEquals(expected, recorder.events);
+
+        recorder.events.clear();
+
+        assertThrows(RuntimeException.class, () -> resolver.resolveAsync(UNKNOWN_ID, AUTHENTICATION).join());
+
+        assertEquals(expected, recorder.events);
+    }
+
+    @Test
+    void testError() {
+        final Recorder recorder = new Recorder();
+
+        final VerificationMethodResolver resolver = resolver(recorder);
+
+        assertThrows(IllegalStateException.class, () -> resolver.resolve(FAILED_ID, AUTHENTICATION));
+
+        final List<String> expected = Arrays.asList(
+                "phase DOCUMENT_URI did:example:failed",
+                "phase DISPATCH did:example:failed",
+                "dispatch did:example:failed",
+                "error unavailable " + FAILED_ID);
+
+        assertEquals(expected, recorder.events);
+
+        recorder.events.clear();
+
+        assertThrows(RuntimeException.class, () -> resolver.resolveAsync(FAILED_ID, AUTHENTICATION).join());
+
+        assertEquals(expected, recorder.events);
+    }
+
+    @Test
+    void testNoResolver() {
+        final Recorder recorder = new Recorder();
+
+        final URI methodId = URI.create("did:other:123#key-1");
+
+        assertThrows(VerificationMethodException.class, () -> resolver(recorder).resolve(methodId, AUTHENTICATION));
+
+        assertEquals(Arrays.asList(
+                "phase DOCUMENT_URI did:other:123",
+                "failed INVALID_CONTROLLER_DOCUMENT " + methodId),
+                recorder.events);
+    }
+
+    @Test
+    void testMetrics() throws VerificationMethodException {
+        final ResolutionMetrics metrics = new ResolutionMetrics();
+
+        final VerificationMethodResolver resolver = resolver(metrics);
+
+        resolver.resolve(METHOD_ID, AUTHENTICATION);
+        resolver.resolveAsync(METHOD_ID, AUTHENTICATION).join();
+        assertThrows(VerificationMethodException.class, () -> resolver.resolve(UNKNOWN_ID, AUTHENTICATION));
+        assertThrows(IllegalStateException.class, () -> resolver.resolve(FAILED_ID, AUTHENTICATION));
+
+        assertEquals(2, metrics.resolvedCount());
+        assertEquals(1, metrics.failedCount(VerificationMethodException.Code.INVALID_VERIFICATION_METHOD));
+        assertEquals(1, metrics.errorCount());
+        assertEquals(4, metrics.resolutions().count());
+
+        assertEquals(4, metrics.phase(ResolutionListener.Phase.DISPATCH).count());
+        assertEquals(3, metrics.phase(ResolutionListener.Phase.FETCH).count());
+        assertEquals(2, metrics.phase(ResolutionListener.Phase.RELATIONSHIP).count());
+        assertEquals(3, metrics.fetches().get("did:example").count());
+
+        assertEquals(Collections.singletonMap(DOCUMENTS.getClass().getName(), 4L), metrics.dispatchCounts());
+    }
+
+    static List<String> resolved() {
+        final List<String> expected = new ArrayList<>(PHASES);
+        expected.add("phase RELATIONSHIP did:example:123");
+        expected.add("resolved " + METHOD_ID);
+        return expected;
+    }
+
+    static VerificationMethodResolver resolver(final ResolutionListener listener) {
+        return new VerificationMethodResolver(Collections.singletonList(DOCUMENTS), Runnable::run, listener);
+    }
+
+    static final class Recorder implements ResolutionListener {
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onPhase(final Phase phase, final URI documentUri, final long nanos) {
+            assertTrue(nanos >= 0);
+            events.add("phase " + phase + " " + documentUri);
+        }
+
+        @Override
+        public void onDispatch(final URI documentUri, final IdentifierDocumentResolver resolver) {
+            assertEquals(DOCUMENTS, resolver);
+            events.add("dispatch " + documentUri);
+        }
+
+        @Override
+        public void onResolved(final URI methodId, final long nanos) {
+            assertTrue(nanos >= 0);
+            events.add("resolved " + methodId);
+        }
+
+        @Override
+        public void onFailed(final URI methodId, final VerificationMethodException.Code code, final long nanos) {
+            assertTrue(nanos >= 0);
+            events.add("failed " + code + " " + methodId);
+        }
+
+        @Override
+        public void onError(final URI methodId, final RuntimeException error, final long nanos) {
+            assertTrue(nanos >= 0);
+            events.add("error " + error.getMessage() + " " + methodId);
+        }
+    }
+}
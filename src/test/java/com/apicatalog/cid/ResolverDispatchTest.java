@@ -0,0 +1,101 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+class ResolverDispatchTest {
+
+    static final URI DID_WEB = URI.create("did:web:example.com");
+    static final URI DID_KEY = URI.create("did:key:z6Mk");
+    static final URI HTTPS = URI.create("https://example.com");
+
+    /** resolvers declaring no prefixes accept identifiers containing their name */
+    static final BiPredicate<String, URI> ACCEPTS = (resolver, id) -> id.toString().contains(resolver);
+
+    @Test
+    void testPrefixes() {
+        final ResolverDispatch<String> dispatch = dispatch("web", "did:web", "key", "did:key", "https", "https");
+
+        assertEquals("web", dispatch.find(DID_WEB));
+        assertEquals("key", dispatch.find(DID_KEY));
+        assertEquals("https", dispatch.find(HTTPS));
+        assertEquals("web", dispatch.find(URI.create("DID:WEB:example.com")));
+        assertNull(dispatch.find(URI.create("did:example:123")));
+    }
+
+    @Test
+    void testFirstDeclaredWins() {
+        final ResolverDispatch<String> dispatch = dispatch("first", "did:web", "second", "did:web");
+
+        assertEquals("first", dispatch.find(DID_WEB));
+    }
+
+    @Test
+    void testEarlierFallback() {
+        // accepts did:web identifiers although registered without prefixes
+        final ResolverDispatch<String> dispatch = dispatch("web:", null, "web", "did:web", "key", "did:key");
+
+        assertEquals("web:", dispatch.find(DID_WEB));
+        assertEquals("key", dispatch.find(DID_KEY));
+    }
+
+    @Test
+    void testLaterFallback() {
+        final ResolverDispatch<String> dispatch = dispatch("web", "did:web", "web:", null, "example", null);
+
+        assertEquals("web", dispatch.find(DID_WEB));
+        assertEquals("example", dispatch.find(URI.create("did:example:123")));
+        assertNull(dispatch.find(URI.create("urn:uuid:1")));
+    }
+
+    @Test
+    void testSchemeBeforeMethod() {
+        final ResolverDispatch<String> dispatch = dispatch("any", "did", "web", "did:web");
+
+        assertEquals("any", dispatch.find(DID_WEB));
+        assertEquals("any", dispatch.find(DID_KEY));
+    }
+
+    @Test
+    void testMethodBeforeScheme() {
+        final ResolverDispatch<String> dispatch = dispatch("web", "did:web", "any", "did");
+
+        assertEquals("web", dispatch.find(DID_WEB));
+        assertEquals("any", dispatch.find(DID_KEY));
+    }
+
+    @Test
+    void testInvalidPrefix() {
+        assertThrows(IllegalArgumentException.class, () -> dispatch("x", "urn:uuid"));
+        assertThrows(IllegalArgumentException.class, () -> dispatch("x", "did:"));
+    }
+
+    /**
+     * @param resolvers resolver names each followed by its prefix, or
+     *                  {@code null}
+     */
+    static ResolverDispatch<String> dispatch(final String... resolvers) {
+        final Map<String, Collection<String>> prefixes = new HashMap<>();
+        final String[] names = new String[resolvers.length / 2];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = resolvers[2 * i];
+            prefixes.put(names[i], resolvers[2 * i + 1] != null
+                    ? Collections.singleton(resolvers[2 * i + 1])
+                    : Collections.emptySet());
+        }
+
+        return ResolverDispatch.of(Arrays.asList(names), prefixes::get, ACCEPTS);
+    }
+}
@@ -0,0 +1,233 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.VerificationMethodResolution.Reason;
+import com.apicatalog.cid.datatype.Identifier;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.document.VerificationRelationship;
+import com.apicatalog.cid.multikey.Multikey;
+
+class VerificationMethodResolutionTest {
+
+    static final URI ID = URI.create("did:example:123");
+    static final URI OTHER = URI.create("did:example:456");
+
+    static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    static final URI AUTHENTICATION = VerificationRelationship.AUTHENTICATION.uri();
+
+    static final VerificationMethod VALID = multikey("key-1", ID, null, null);
+    static final VerificationMethod FOREIGN = multikey("key-2", OTHER, null, null);
+    static final VerificationMethod REVOKED = multikey("key-3", ID, NOW.minusSeconds(1), null);
+    static final VerificationMethod EXPIRED = multikey("key-4", ID, null, NOW.minusSeconds(1));
+
+    static final IdentifierDocument DOCUMENT = IdentifierDocument.of(
+            ID, null, null,
+            Arrays.asList(VALID, REVOKED, EXPIRED),
+            new LinkedHashSet<>(Arrays.asList(VerificationMethod.of(VALID.id()), FOREIGN, REVOKED, EXPIRED)),
+            null, null, null, null, null);
+
+    static final IllegalStateException FAILURE = new IllegalStateException("unavailable");
+
+    static final IdentifierDocumentResolver DOCUMENTS = new IdentifierDocumentResolver() {
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return id.toString().startsWith("did:example:");
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            if ("did:example:failed".equals(id.toString())) {
+                throw FAILURE;
+            }
+            return DOCUMENT;
+        }
+    };
+
+    final VerificationMethodResolver resolver = new VerificationMethodResolver(
+            Collections.singletonList(DOCUMENTS),
+            Runnable::run,
+            ResolutionListener.NOOP,
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void testResolved() throws VerificationMethodException {
+        final VerificationMethodResolution resolution = resolver.tryResolve(VALID.id(), AUTHENTICATION);
+
+        assertTrue(resolution.isResolved());
+        assertSame(VALID, resolution.method());
+        assertSame(VALID, resolution.get());
+        assertEquals(VALID.id(), resolution.methodId());
+        assertEquals(AUTHENTICATION, resolution.relation());
+        assertNull(resolution.code());
+        assertNull(resolution.detail());
+        assertNull(resolution.cause());
+        assertNull(resolution.exception());
+        assertNull(resolution.exception(true));
+    }
+
+    @Test
+    void testInvalidMethodId() {
+        final VerificationMethodResolution resolution = resolver.tryResolve(
+                Identifier.of("did:example:1 2#key-1"),
+                VerificationRelationship.AUTHENTICATION);
+
+        assertFailed(Reason.INVALID_METHOD_ID, VerificationMethodException.Code.INVALID_METHOD_ID,
+                "Invalid methodId, failed to derive controller document URI",
+                resolution);
+
+        assertNull(resolution.methodId());
+        assertTrue(resolution.cause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testNoResolver() {
+        assertFailed(Reason.NO_RESOLVER, VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT,
+                "No resolver accepted controller document: did:other:123",
+                resolver.tryResolve(URI.create("did:other:123#key-1"), AUTHENTICATION));
+    }
+
+    @Test
+    void testFetchFailed() {
+        final VerificationMethodResolution resolution = resolver.tryResolve(URI.create("did:example:failed#key-1"), AUTHENTICATION);
+
+        assertFailed(Reason.FETCH_FAILED, VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT,
+                "Failed to resolve controller document: did:example:failed",
+                resolution);
+
+        assertSame(FAILURE, resolution.cause());
+        assertSame(FAILURE, resolution.exception().getCause());
+        assertSame(FAILURE, resolution.exception(true).getCause());
+    }
+
+    @Test
+    void testDocumentIdMismatch() {
+        assertFailed(Reason.DOCUMENT_ID_MISMATCH, VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT_ID,
+                "Controller document id mismatch, expected did:example:mismatch but got did:example:123",
+                resolver.tryResolve(URI.create("did:example:mismatch#key-1"), AUTHENTICATION));
+    }
+
+    @Test
+    void testUnsupportedRelationship() {
+        assertFailed(Reason.UNSUPPORTED_RELATIONSHIP, VerificationMethodException.Code.INVALID_RELATIONSHIP_FOR_VERIFICATION_METHOD,
+                "Unsupported verification relationship: https://example.com/unknown",
+                resolver.tryResolve(VALID.id(), URI.create("https://example.com/unknown")));
+    }
+
+    @Test
+    void testNoMethods() {
+        final URI assertion = VerificationRelationship.ASSERTION.uri();
+
+        assertFailed(Reason.NO_METHODS, VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
+                "No verification methods for relation: " + assertion,
+                resolver.tryResolve(VALID.id(), assertion));
+    }
+
+    @Test
+    void testNotFound() {
+        assertFailed(Reason.NOT_FOUND, VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
+                "Verification method not found: did:example:123#key-0",
+                resolver.tryResolve(URI.create("did:example:123#key-0"), AUTHENTICATION));
+    }
+
+    @Test
+    void testControllerMismatch() {
+        assertFailed(Reason.CONTROLLER_MISMATCH, VerificationMethodException.Code.INVALID_VERIFICATION_METHOD,
+                "Verification method controller mismatch, expected did:example:123 but got did:example:456",
+                resolver.tryResolve(FOREIGN.id(), AUTHENTICATION));
+    }
+
+    @Test
+    void testRevoked() {
+        assertFailed(Reason.REVOKED, VerificationMethodException.Code.REVOKED_VERIFICATION_METHOD,
+                "Verification method has been revoked: did:example:123#key-3",
+                resolver.tryResolve(REVOKED.id(), AUTHENTICATION));
+    }
+
+    @Test
+    void testExpired() {
+        assertFailed(Reason.EXPIRED, VerificationMethodException.Code.EXPIRED_VERIFICATION_METHOD,
+                "Verification method has expired: did:example:123#key-4",
+                resolver.tryResolve(EXPIRED.id(), AUTHENTICATION));
+    }
+
+    @Test
+    void testEveryReasonTested() {
+        final Set<Reason> tested = EnumSet.noneOf(Reason.class);
+
+        for (final URI methodId : Arrays.asList(
+                URI.create("did:other:123#key-1"),
+                URI.create("did:example:failed#key-1"),
+                URI.create("did:example:mismatch#key-1"),
+                URI.create("did:example:123#key-0"),
+                FOREIGN.id(),
+                REVOKED.id(),
+                EXPIRED.id())) {
+            tested.add(resolver.tryResolve(methodId, AUTHENTICATION).reason);
+        }
+        tested.add(resolver.tryResolve(Identifier.of("did:example:1 2#key-1"), VerificationRelationship.AUTHENTICATION).reason);
+        tested.add(resolver.tryResolve(VALID.id(), URI.create("https://example.com/unknown")).reason);
+        tested.add(resolver.tryResolve(VALID.id(), VerificationRelationship.ASSERTION.uri()).reason);
+
+        assertEquals(EnumSet.allOf(Reason.class), tested);
+    }
+
+    @Test
+    void testStackless() {
+        final VerificationMethodResolution resolution = resolver.tryResolve(REVOKED.id(), AUTHENTICATION, DOCUMENT);
+
+        final VerificationMethodException stackless = resolution.exception(true);
+        final VerificationMethodException exception = resolution.exception(false);
+
+        assertEquals(0, stackless.getStackTrace().length);
+        assertFalse(exception.getStackTrace().length == 0);
+
+        assertEquals(exception.getCode(), stackless.getCode());
+        assertEquals(exception.getMessage(), stackless.getMessage());
+        assertNull(stackless.getCause());
+
+        // each call creates a new exception
+        assertNotSame(stackless, resolution.exception(true));
+    }
+
+    static void assertFailed(final Reason reason, final VerificationMethodException.Code code, final String detail, final VerificationMethodResolution resolution) {
+        assertFalse(resolution.isResolved());
+        assertNull(resolution.method());
+        assertSame(reason, resolution.reason);
+        assertEquals(code, resolution.code());
+        assertEquals(detail, resolution.detail());
+
+        final VerificationMethodException exception = assertThrows(VerificationMethodException.class, resolution::get);
+        assertEquals(code, exception.getCode());
+        assertEquals(detail, exception.getMessage());
+
+        assertEquals(detail, resolution.exception(true).getMessage());
+        assertTrue(resolution.toString().contains(detail));
+    }
+
+    static VerificationMethod multikey(final String fragment, final URI controller, final Instant revoked, final Instant expires) {
+        return Multikey.of(URI.create(ID + "#" + fragment), controller, MulticodecEncoded.of(0xed, new byte[32]), revoked, expires);
+    }
+}
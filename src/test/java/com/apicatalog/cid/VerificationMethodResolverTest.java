@@ -0,0 +1,308 @@
+package com.apicatalog.cid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.Identifier;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.IndexedIdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.document.VerificationRelationship;
+import com.apicatalog.cid.multikey.Multikey;
+
+class VerificationMethodResolverTest {
+
+    static final URI ID = URI.create("did:example:123");
+    static final URI METHOD_ID = URI.create("did:example:123#key-1");
+
+    static final VerificationMethod METHOD = Multikey.of(METHOD_ID, ID, MulticodecEncoded.of(0xed, new byte[32]));
+
+    static final IdentifierDocument DOCUMENT = IdentifierDocument.of(
+            ID, null, null,
+            Collections.singletonList(METHOD),
+            Collections.singleton(METHOD),
+            null, null, null, null, null);
+
+    static final IdentifierDocumentResolver DOCUMENTS = new IdentifierDocumentResolver() {
+
+        @Override
+        public boolean isAccepted(final URI id) {
+            return true;
+        }
+
+        @Override
+        public IdentifierDocument resolve(final URI id) {
+            return DOCUMENT;
+        }
+    };
+
+    @Test
+    void testResolve() throws VerificationMethodException {
+        final VerificationMethodResolver resolver = resolver();
+
+        assertSame(METHOD, resolver.resolve(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri()));
+        assertSame(METHOD, resolver.resolve(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri()));
+    }
+
+    @Test
+    void testMethodIdentifierKept() {
+        assertSame(METHOD.identifier(), METHOD.identifier());
+        assertEquals(Identifier.of(METHOD_ID), METHOD.identifier());
+    }
+
+    @Test
+    void testDocumentUriReused() {
+        final VerificationMethodResolver resolver = resolver();
+
+        final Identifier documentId = Identifier.of(METHOD_ID).base();
+
+        final URI uri = resolver.documentUri(documentId);
+
+        assertEquals(ID, uri);
+        assertSame(uri, resolver.documentUri(documentId));
+        assertSame(ID, resolver.documentUri(Identifier.of(ID)));
+    }
+
+    @Test
+    void testResolveEquivalentUri() throws VerificationMethodException {
+        final VerificationMethodResolver resolver = resolver();
+
+        // equal to METHOD_ID as URI
+        final URI methodId = URI.create("DID:example:123#key-1");
+
+        assertSame(METHOD, resolver.resolve(methodId, VerificationRelationship.AUTHENTICATION.uri()));
+        assertSame(METHOD, resolver.resolve(methodId, DOCUMENT.authentication(), DOCUMENT));
+    }
+
+    @Test
+    void testAsyncResolver() throws VerificationMethodException {
+        final CompletableFuture<IdentifierDocument> pending = new CompletableFuture<>();
+
+        final VerificationMethodResolver resolver = new VerificationMethodResolver(
+                Collections.singletonList(new AsyncIdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public CompletableFuture<IdentifierDocument> resolveAsync(final URI id) {
+                        return pending;
+                    }
+                }),
+                ResolutionListener.NOOP);
+
+        // returns before the document is fetched
+        final CompletableFuture<VerificationMethod> method = resolver.resolveAsync(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri());
+        assertFalse(method.isDone());
+
+        pending.complete(DOCUMENT);
+
+        assertSame(METHOD, method.join());
+        assertSame(METHOD, resolver.resolve(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri()));
+    }
+
+    @Test
+    void testAsyncResolverFailed() {
+        final CompletableFuture<IdentifierDocument> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalArgumentException("not found"));
+
+        final VerificationMethodResolver resolver = new VerificationMethodResolver(
+                Collections.singletonList(new AsyncIdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public CompletableFuture<IdentifierDocument> resolveAsync(final URI id) {
+                        return failed;
+                    }
+                }),
+                ResolutionListener.NOOP);
+
+        final VerificationMethodResolution resolution = resolver.tryResolve(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri());
+
+        assertEquals(VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT, resolution.code());
+        assertTrue(resolution.cause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testResolveAllInvalidDocumentId() {
+        final URI invalid = URI.create("did:example:invalid#key-1");
+
+        final VerificationMethodResolver resolver = new VerificationMethodResolver(Collections.singletonList(DOCUMENTS)) {
+
+            @Override
+            URI documentUri(final Identifier documentId) {
+                if (documentId.equals(Identifier.of(invalid).base())) {
+                    throw new IllegalArgumentException("invalid");
+                }
+                return super.documentUri(documentId);
+            }
+        };
+
+        final List<VerificationMethodResolution> resolutions = resolver.resolveAll(Arrays.asList(
+                VerificationMethodQuery.of(invalid, VerificationRelationship.AUTHENTICATION.uri()),
+                VerificationMethodQuery.of(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri()),
+                VerificationMethodQuery.of(invalid, VerificationRelationship.ASSERTION.uri())));
+
+        assertEquals(VerificationMethodException.Code.INVALID_METHOD_ID, resolutions.get(0).code());
+        assertSame(METHOD, resolutions.get(1).method());
+        assertEquals(VerificationMethodException.Code.INVALID_METHOD_ID, resolutions.get(2).code());
+    }
+
+    @Test
+    void testResolveAllResolverThrows() {
+        final VerificationMethodResolver resolver = new VerificationMethodResolver(
+                Collections.singletonList(new AsyncIdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public CompletableFuture<IdentifierDocument> resolveAsync(final URI id) {
+                        throw new IllegalStateException();
+                    }
+                }),
+                ResolutionListener.NOOP);
+
+        final List<VerificationMethodResolution> resolutions = resolver.resolveAll(Collections.singletonList(
+                VerificationMethodQuery.of(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri())));
+
+        assertEquals(VerificationMethodException.Code.INVALID_CONTROLLER_DOCUMENT, resolutions.get(0).code());
+        assertTrue(resolutions.get(0).cause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testResolveAsyncResolverThrows() {
+        final IllegalStateException failure = new IllegalStateException();
+
+        final VerificationMethodResolver resolver = new VerificationMethodResolver(
+                Collections.singletonList(new AsyncIdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public CompletableFuture<IdentifierDocument> resolveAsync(final URI id) {
+                        throw failure;
+                    }
+                }),
+                ResolutionListener.NOOP);
+
+        final CompletableFuture<VerificationMethod> method = resolver.resolveAsync(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri());
+
+        assertTrue(method.isCompletedExceptionally());
+        assertSame(failure, assertThrows(CompletionException.class, method::join).getCause());
+    }
+
+    @Test
+    void testRevoked() {
+        final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        final IdentifierDocument document = document(now.minusSeconds(60), null);
+
+        assertFailed(VerificationMethodException.Code.REVOKED_VERIFICATION_METHOD, resolver(document, now), document);
+    }
+
+    @Test
+    void testExpired() {
+        final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        final IdentifierDocument document = document(null, now.minusSeconds(60));
+
+        assertFailed(VerificationMethodException.Code.EXPIRED_VERIFICATION_METHOD, resolver(document, now), document);
+    }
+
+    @Test
+    void testRevokedAndExpired() {
+        final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        // revocation takes precedence
+        final IdentifierDocument document = document(now.minusSeconds(60), now.minusSeconds(120));
+
+        assertFailed(VerificationMethodException.Code.REVOKED_VERIFICATION_METHOD, resolver(document, now), document);
+    }
+
+    @Test
+    void testNotYetRevokedOrExpired() throws VerificationMethodException {
+        final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        final IdentifierDocument document = document(now.plusMillis(1), now.plusMillis(1));
+
+        final VerificationMethod method = resolver(document, now).resolve(METHOD_ID, VerificationRelationship.AUTHENTICATION.uri());
+        assertEquals(METHOD_ID, method.id());
+
+        // bounds are inclusive
+        assertFailed(VerificationMethodException.Code.REVOKED_VERIFICATION_METHOD, resolver(document, now.plusMillis(1)), document);
+
+        final IdentifierDocument expiring = document(null, now);
+        assertFailed(VerificationMethodException.Code.EXPIRED_VERIFICATION_METHOD, resolver(expiring, now), expiring);
+    }
+
+    static VerificationMethodResolver resolver() {
+        return new VerificationMethodResolver(Collections.singletonList(DOCUMENTS));
+    }
+
+    static VerificationMethodResolver resolver(final IdentifierDocument document, final Instant now) {
+        return new VerificationMethodResolver(
+                Collections.singletonList(new IdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public IdentifierDocument resolve(final URI id) {
+                        return document;
+                    }
+                }),
+                Runnable::run,
+                ResolutionListener.NOOP,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    static IdentifierDocument document(final Instant revoked, final Instant expires) {
+        return IdentifierDocument.of(
+                ID, null, null,
+                Collections.singletonList(Multikey.of(METHOD_ID, ID, MulticodecEncoded.of(0xed, new byte[32]), revoked, expires)),
+                Collections.singleton(VerificationMethod.of(METHOD_ID)),
+                null, null, null, null, null);
+    }
+
+    static void assertFailed(final VerificationMethodException.Code code, final VerificationMethodResolver resolver, final IdentifierDocument document) {
+        final URI relation = VerificationRelationship.AUTHENTICATION.uri();
+
+        assertEquals(code, assertThrows(VerificationMethodException.class, () -> resolver.resolve(METHOD_ID, relation)).getCode());
+        assertEquals(code, resolver.tryResolve(METHOD_ID, relation).code());
+        assertEquals(code, resolver.tryResolve(METHOD_ID, relation, document).code());
+        assertEquals(code, resolver.tryResolve(METHOD_ID, relation, IndexedIdentifierDocument.of(document)).code());
+
+        final CompletionException e = assertThrows(CompletionException.class, resolver.resolveAsync(METHOD_ID, relation)::join);
+        assertEquals(code, ((VerificationMethodException) e.getCause()).getCode());
+    }
+}
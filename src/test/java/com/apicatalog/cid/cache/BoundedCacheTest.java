@@ -0,0 +1,158 @@
+package com.apicatalog.cid.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void testGetPut() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10);
+
+        assertNull(cache.get("a"));
+
+        cache.put("a", "1", BoundedCache.NO_EXPIRATION);
+
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testNotCached() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10);
+
+        cache.put("a", "1", 0);
+        cache.put("b", "2", -1);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testExpired() throws InterruptedException {
+        final List<String> removed = new ArrayList<>();
+        final BoundedCache<String, String> cache = new BoundedCache<>(10, (key, value) -> removed.add(key + "=" + value));
+
+        cache.put("a", "1", 1_000_000);
+
+        Thread.sleep(10);
+
+        assertEquals(0, cache.remainingNanos("a", "1"));
+        assertNull(cache.get("a"));
+        assertEquals(Arrays.asList("a=1"), removed);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void testEvictLeastRecentlyUsed() {
+        final List<String> removed = new ArrayList<>();
+
+        // a single segment
+        final BoundedCache<String, String> cache = new BoundedCache<>(1, (key, value) -> removed.add(key));
+
+        cache.put("a", "1", BoundedCache.NO_EXPIRATION);
+        cache.put("b", "2", BoundedCache.NO_EXPIRATION);
+
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+        assertEquals(Arrays.asList("a"), removed);
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testAccessOrder() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(3);
+
+        // even keys share the first of two segments, holding two entries
+        assertEquals(2, cache.segments.length);
+
+        cache.put(0, 0, BoundedCache.NO_EXPIRATION);
+        cache.put(2, 2, BoundedCache.NO_EXPIRATION);
+        cache.get(0);
+        cache.put(4, 4, BoundedCache.NO_EXPIRATION);
+
+        assertEquals(Integer.valueOf(0), cache.get(0));
+        assertNull(cache.get(2));
+        assertEquals(Integer.valueOf(4), cache.get(4));
+    }
+
+    @Test
+    void testReplaceNotified() {
+        final List<String> removed = new ArrayList<>();
+        final BoundedCache<String, String> cache = new BoundedCache<>(10, (key, value) -> removed.add(value));
+
+        cache.put("a", "1", BoundedCache.NO_EXPIRATION);
+        cache.put("a", "2", BoundedCache.NO_EXPIRATION);
+
+        assertEquals(Arrays.asList("1"), removed);
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void testInvalidateValue() {
+        final List<String> removed = new ArrayList<>();
+        final BoundedCache<String, String> cache = new BoundedCache<>(10, (key, value) -> removed.add(value));
+
+        final String value = new String("1");
+
+        cache.put("a", value, BoundedCache.NO_EXPIRATION);
+
+        assertTrue(cache.contains("a", value));
+        assertFalse(cache.contains("a", new String("1")));
+
+        // another instance
+        assertFalse(cache.invalidate("a", new String("1")));
+        assertTrue(removed.isEmpty());
+
+        assertTrue(cache.invalidate("a", value));
+        assertEquals(Arrays.asList("1"), removed);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void testInvalidateAll() {
+        final List<String> removed = new ArrayList<>();
+        final BoundedCache<String, String> cache = new BoundedCache<>(100, (key, value) -> removed.add(key));
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("k" + i, "v", BoundedCache.NO_EXPIRATION);
+        }
+
+        cache.invalidate("k0");
+        cache.invalidateAll();
+
+        assertEquals(50, removed.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testRemainingNanos() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10);
+
+        final String value = "1";
+
+        cache.put("a", value, 60_000_000_000L);
+        cache.put("b", value, BoundedCache.NO_EXPIRATION);
+
+        final long remaining = cache.remainingNanos("a", value);
+        assertTrue(remaining > 0 && remaining <= 60_000_000_000L);
+        assertEquals(BoundedCache.NO_EXPIRATION, cache.remainingNanos("b", value));
+        assertEquals(0, cache.remainingNanos("c", value));
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    }
+}
@@ -0,0 +1,132 @@
+package com.apicatalog.cid.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    static final long NOW = 1_000_000;
+
+    @Test
+    void testNeverEarly() {
+        final TimingWheel<String> wheel = new TimingWheel<>(10, NOW);
+
+        wheel.schedule("a", NOW + 15);
+
+        assertTrue(wheel.advance(NOW + 10).isEmpty());
+        assertTrue(wheel.advance(NOW + 14).isEmpty());
+        assertEquals(Collections.singletonList("a"), wheel.advance(NOW + 20));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCascade() {
+        final TimingWheel<String> wheel = new TimingWheel<>(1, NOW);
+
+        wheel.schedule("level0", NOW + 10);
+        wheel.schedule("level1", NOW + 100);
+        wheel.schedule("level2", NOW + 10_000);
+
+        assertEquals(Collections.singletonList("level0"), wheel.advance(NOW + 99));
+        assertEquals(Collections.singletonList("level1"), wheel.advance(NOW + 9_999));
+        assertEquals(Collections.singletonList("level2"), wheel.advance(NOW + 10_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testBeyondSpan() {
+        final TimingWheel<String> wheel = new TimingWheel<>(1, NOW);
+
+        // the span is 64^4 ticks
+        final long deadline = NOW + (1L << 24) + 5;
+
+        wheel.schedule("parked", deadline);
+
+        assertTrue(wheel.advance(deadline - 1).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(Collections.singletonList("parked"), wheel.advance(deadline));
+    }
+
+    @Test
+    void testCancel() {
+        final TimingWheel<String> wheel = new TimingWheel<>(10, NOW);
+
+        final TimingWheel.Timer<String> a = wheel.schedule("a", NOW + 50);
+        wheel.schedule("b", NOW + 50);
+
+        assertTrue(wheel.cancel(a));
+        assertFalse(wheel.cancel(a));
+        assertEquals(1, wheel.size());
+
+        assertEquals(Collections.singletonList("b"), wheel.advance(NOW + 100));
+    }
+
+    @Test
+    void testPastDeadline() {
+        final TimingWheel<String> wheel = new TimingWheel<>(10, NOW);
+
+        wheel.advance(NOW + 100);
+        wheel.schedule("a", NOW);
+        wheel.schedule("b", NOW + 105);
+
+        assertEquals(
+                new HashSet<>(Arrays.asList("a", "b")),
+                new HashSet<>(wheel.advance(NOW + 110)));
+    }
+
+    @Test
+    void testIdleGap() {
+        final TimingWheel<String> wheel = new TimingWheel<>(1, NOW);
+
+        wheel.schedule("a", NOW + 3);
+        wheel.schedule("b", NOW + 1_000_000);
+        wheel.schedule("c", NOW + (1L << 30));
+
+        assertEquals(Collections.singletonList("a"), wheel.advance(NOW + 999_999));
+        assertEquals(Collections.singletonList("b"), wheel.advance(NOW + (1L << 30) - 1));
+        assertEquals(Collections.singletonList("c"), wheel.advance(NOW + (1L << 30)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testExpiredOnTime() {
+        final Random random = new Random(42);
+
+        final TimingWheel<Long> wheel = new TimingWheel<>(1, NOW);
+
+        final Set<Long> pending = new HashSet<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            // spread over all levels and beyond the span
+            final long deadline = NOW + 1 + (random.nextLong() >>> (64 - 1 - random.nextInt(26)));
+            if (pending.add(deadline)) {
+                wheel.schedule(deadline, deadline);
+            }
+        }
+
+        long now = NOW;
+        while (!pending.isEmpty()) {
+            now += 1 + (random.nextLong() >>> (64 - 1 - random.nextInt(20)));
+
+            final Set<Long> expected = new HashSet<>();
+            for (final Long deadline : pending) {
+                if (deadline <= now) {
+                    expected.add(deadline);
+                }
+            }
+            pending.removeAll(expected);
+
+            assertEquals(expected, new HashSet<>(wheel.advance(now)));
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.apicatalog.cid.cbor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.multikey.Multikey;
+
+class IdentifierDocumentCodecTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    static final Instant REVOKED = Instant.parse("2024-01-01T00:00:00Z");
+    static final Instant EXPIRES = Instant.parse("2030-06-30T12:30:15.123456789Z");
+
+    @Test
+    void testRoundTrip() {
+        final IdentifierDocument decoded = IdentifierDocumentCodec.decode(IdentifierDocumentCodec.encode(document()));
+
+        assertEquals(ID, decoded.id());
+        assertEquals(Arrays.asList(ID, URI.create("did:example:controller")), new ArrayList<>(decoded.controller()));
+        assertEquals(Arrays.asList(URI.create("https://example.com/alias"), URI.create("did:web:example.com")), new ArrayList<>(decoded.alsoKnownAs()));
+
+        final List<VerificationMethod> methods = new ArrayList<>(decoded.verification());
+        assertEquals(3, methods.size());
+
+        final Multikey multikey = (Multikey) methods.get(0);
+        assertEquals(URI.create(ID + "#key-1"), multikey.id());
+        assertEquals(Multikey.TYPE, multikey.type());
+        assertEquals(ID, multikey.controller());
+        assertEquals(0xed, multikey.publicKey().codecCode());
+        assertArrayEquals(key(), multikey.publicKey().decoded());
+        assertEquals(REVOKED, multikey.revoked());
+        assertEquals(EXPIRES, multikey.expires());
+
+        final JsonWebKey jwk = (JsonWebKey) methods.get(1);
+        assertEquals(URI.create(ID + "#key-2"), jwk.id());
+        assertEquals(JsonWebKey.TYPE, jwk.type());
+        assertEquals(jwk(), jwk.publicKey());
+        assertNull(jwk.revoked());
+        assertNull(jwk.expires());
+
+        final VerificationMethod other = methods.get(2);
+        assertEquals("EcdsaSecp256k1VerificationKey2019", other.type());
+        assertEquals(EXPIRES, other.expires());
+
+        // id-only entries of declared methods decode to the declarations
+        final Iterator<VerificationMethod> authentication = decoded.authentication().iterator();
+        assertSame(multikey, authentication.next());
+        assertSame(jwk, authentication.next());
+
+        // a reference to a method declared elsewhere stays a reference
+        final VerificationMethod reference = authentication.next();
+        assertEquals(URI.create("did:example:other#key-1"), reference.id());
+        assertTrue(reference.isReference());
+
+        // an embedded method
+        final Multikey embedded = (Multikey) authentication.next();
+        assertEquals(URI.create(ID + "#key-3"), embedded.id());
+        assertEquals(0xed, embedded.publicKey().codecCode());
+
+        assertSame(multikey, decoded.assertion().iterator().next());
+        assertTrue(decoded.keyAgreement().isEmpty());
+        assertSame(jwk, decoded.capabilityInvocation().iterator().next());
+        assertTrue(decoded.capabilityDelegation().isEmpty());
+
+        final Iterator<Service> services = decoded.service().iterator();
+
+        final Service linked = services.next();
+        assertEquals(URI.create(ID + "#domains"), linked.id());
+        assertEquals(Collections.singletonList("LinkedDomains"), new ArrayList<>(linked.type()));
+        assertEquals(Arrays.asList("https://a.example", "https://b.example"), ids(linked.endpoint()));
+
+        final Service messaging = services.next();
+        assertEquals(Arrays.asList("DIDCommMessaging", "LinkedDomains"), new ArrayList<>(messaging.type()));
+        assertEquals(Collections.singletonList("wss://m.example"), ids(messaging.endpoint()));
+    }
+
+    @Test
+    void testRoundTripStable() throws IOException {
+        final byte[] encoded = IdentifierDocumentCodec.encode(document());
+
+        assertArrayEquals(encoded, IdentifierDocumentCodec.encode(IdentifierDocumentCodec.decode(encoded)));
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        IdentifierDocumentCodec.encode(document(), output);
+        assertArrayEquals(encoded, output.toByteArray());
+    }
+
+    @Test
+    void testEmpty() {
+        final IdentifierDocument decoded = IdentifierDocumentCodec.decode(IdentifierDocumentCodec.encode(
+                IdentifierDocument.of(null, null, null, null, null, null, null, null, null, null)));
+
+        assertNull(decoded.id());
+        assertTrue(decoded.verification().isEmpty());
+        assertTrue(decoded.service().isEmpty());
+    }
+
+    @Test
+    void testRange() {
+        final byte[] encoded = IdentifierDocumentCodec.encode(document());
+
+        final byte[] padded = new byte[encoded.length + 7];
+        System.arraycopy(encoded, 0, padded, 3, encoded.length);
+
+        assertEquals(ID, IdentifierDocumentCodec.decode(padded, 3, encoded.length).id());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> IdentifierDocumentCodec.decode(padded, 8, encoded.length));
+    }
+
+    @Test
+    void testTruncated() {
+        final byte[] encoded = IdentifierDocumentCodec.encode(document());
+
+        for (int length = 0; length < encoded.length; length++) {
+            final int truncated = length;
+            assertThrows(IllegalArgumentException.class, () -> IdentifierDocumentCodec.decode(encoded, 0, truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void testTrailingContent() {
+        final byte[] encoded = IdentifierDocumentCodec.encode(document());
+
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(Arrays.copyOf(encoded, encoded.length + 1)));
+    }
+
+    @Test
+    void testCorrupted() {
+        final byte[] encoded = IdentifierDocumentCodec.encode(document());
+
+        // any outcome but an exception other than IllegalArgumentException
+        for (int i = 0; i < encoded.length; i++) {
+            for (final int value : new int[] { 0x00, 0x1b, 0x5b, 0x7b, 0x9b, 0xbb, 0xff }) {
+                final byte[] corrupted = encoded.clone();
+                corrupted[i] = (byte) value;
+                try {
+                    IdentifierDocumentCodec.decode(corrupted);
+
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMalformed() {
+        // not a map
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0x80 }));
+        // no version
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa0 }));
+        // {0: 2}, an unknown version
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa1, 0x00, 0x02 }));
+        // {0: 1, 1: 7}, id is not text
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x01, 0x07 }));
+        // {0: 1, 1: " "}, not a URI
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x01, 0x61, 0x20 }));
+        // {0: 1, 5: [0]}, an index with no declared methods
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x05, (byte) 0x81, 0x00 }));
+        // {0: 1, 4: [{2: 9}]}, an unknown method type
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x04, (byte) 0x81, (byte) 0xa1, 0x02, 0x09 }));
+        // a declared array size beyond the input
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x03, (byte) 0x9a, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff }));
+    }
+
+    @Test
+    void testUnknownProperty() {
+        // {0: 1, 11: 0}
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x0b, 0x00 }));
+        // {0: 1, 4: [{10: 0}]}
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x04, (byte) 0x81, (byte) 0xa1, 0x0a, 0x00 }));
+        // {0: 1, 10: [{4: 0}]}
+        assertThrows(CborParseException.class, () -> IdentifierDocumentCodec.decode(new byte[] { (byte) 0xa2, 0x00, 0x01, 0x0a, (byte) 0x81, (byte) 0xa1, 0x04, 0x00 }));
+    }
+
+    @Test
+    void testSecretsOmitted() throws IOException {
+        final IdentifierDocument decoded = IdentifierDocumentCodec.decode(IdentifierDocumentCodec.encode(secrets()));
+
+        final Iterator<VerificationMethod> methods = decoded.verification().iterator();
+
+        final Multikey multikey = (Multikey) methods.next();
+        assertEquals(0xed, multikey.publicKey().codecCode());
+        assertNull(multikey.secretKey());
+
+        final JsonWebKey jwk = (JsonWebKey) methods.next();
+        assertEquals("OKP", jwk.publicKey().get("kty"));
+        assertNull(jwk.secretKey());
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        IdentifierDocumentCodec.encode(secrets(), output);
+
+        assertArrayEquals(IdentifierDocumentCodec.encode(secrets()), output.toByteArray());
+    }
+
+    @Test
+    void testSecretsIncluded() {
+        final IdentifierDocument decoded = IdentifierDocumentCodec.decode(IdentifierDocumentCodec.encode(secrets(), true));
+
+        final Iterator<VerificationMethod> methods = decoded.verification().iterator();
+
+        final Multikey multikey = (Multikey) methods.next();
+        assertEquals(0x1300, multikey.secretKey().codecCode());
+        assertArrayEquals(new byte[32], multikey.secretKey().decoded());
+
+        assertEquals("secret", ((JsonWebKey) methods.next()).secretKey().get("d"));
+    }
+
+    @Test
+    void testEndpointWithoutId() {
+        final Service service = Service.of(
+                URI.create(ID + "#service"),
+                "LinkedDomains",
+                Arrays.asList(() -> null, null, ServiceEndpoint.of(URI.create("https://example.com"))));
+
+        final IdentifierDocument document = IdentifierDocument.of(ID, null, null, null, null, null, null, null, null, Collections.singleton(service));
+
+        final Service decoded = IdentifierDocumentCodec.decode(IdentifierDocumentCodec.encode(document)).service().iterator().next();
+
+        assertEquals(1, decoded.endpoint().size());
+        assertEquals(URI.create("https://example.com"), decoded.endpoint().iterator().next().id());
+    }
+
+    static IdentifierDocument document() {
+
+        final Multikey multikey = Multikey.of(
+                URI.create(ID + "#key-1"),
+                ID,
+                MulticodecEncoded.of(0xed, key()),
+                REVOKED,
+                EXPIRES);
+
+        final JsonWebKey jwk = JsonWebKey.of(URI.create(ID + "#key-2"), ID, jwk());
+
+        final VerificationMethod other = VerificationMethod.of(URI.create(ID + "#key-4"), "EcdsaSecp256k1VerificationKey2019", ID, null, EXPIRES);
+
+        final Set<VerificationMethod> authentication = new LinkedHashSet<>();
+        authentication.add(VerificationMethod.of(URI.create(ID + "#key-1")));
+        authentication.add(jwk);
+        authentication.add(VerificationMethod.of(URI.create("did:example:other#key-1")));
+        authentication.add(Multikey.of(URI.create(ID + "#key-3"), ID, MulticodecEncoded.of(0xed, key())));
+
+        final Set<Service> services = new LinkedHashSet<>();
+        services.add(Service.of(
+                URI.create(ID + "#domains"),
+                "LinkedDomains",
+                Arrays.asList(ServiceEndpoint.of(URI.create("https://a.example")), ServiceEndpoint.of(URI.create("https://b.example")))));
+        services.add(Service.of(
+                URI.create(ID + "#messaging"),
+                Arrays.asList("DIDCommMessaging", "LinkedDomains"),
+                Collections.singletonList(ServiceEndpoint.of(URI.create("wss://m.example")))));
+
+        return IdentifierDocument.of(
+                ID,
+                Arrays.asList(ID, URI.create("did:example:controller")),
+                Arrays.asList(URI.create("https://example.com/alias"), URI.create("did:web:example.com")),
+                Arrays.asList(multikey, jwk, other),
+                authentication,
+                Collections.singleton(VerificationMethod.of(URI.create(ID + "#key-1"))),
+                null,
+                Collections.singleton(jwk),
+                null,
+                services);
+    }
+
+    static Map<String, Object> jwk() {
+        final Map<String, Object> jwk = new HashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("x", "f83OJ3D2xF1Bg8vub9tLe1gHMzV76e8Tus9uPHvRVEU");
+        jwk.put("y", "x_FEzRu9m36HLN_tue659LNpXW6pCyStikYjKIWI5a0");
+        return jwk;
+    }
+
+    static byte[] key() {
+        final byte[] key = new byte[32];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) i;
+        }
+        return key;
+    }
+
+    static List<String> ids(final Collection<ServiceEndpoint> endpoints) {
+        final List<String> ids = new ArrayList<>();
+        for (final ServiceEndpoint endpoint : endpoints) {
+            ids.add(endpoint.id().toString());
+        }
+        return ids;
+    }
+
+    static IdentifierDocument secrets() {
+
+        final Multikey multikey = Multikey.of(
+                URI.create(ID + "#key-1"),
+                ID,
+                MulticodecEncoded.of(0xed, new byte[32]),
+                MulticodecEncoded.of(0x1300, new byte[32]));
+
+        final Map<String, Object> publicKey = new HashMap<>();
+        publicKey.put("kty", "OKP");
+        publicKey.put("crv", "Ed25519");
+        publicKey.put("x", "11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo");
+
+        final Map<String, Object> secretKey = new HashMap<>(publicKey);
+        secretKey.put("d", "secret");
+
+        final JsonWebKey jwk = JsonWebKey.of(URI.create(ID + "#key-2"), ID, publicKey, secretKey);
+
+        return IdentifierDocument.of(ID, null, null, Arrays.asList(multikey, jwk), null, null, null, null, null, null);
+    }
+}
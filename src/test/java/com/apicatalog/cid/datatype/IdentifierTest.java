@@ -0,0 +1,92 @@
+package com.apicatalog.cid.datatype;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+
+class IdentifierTest {
+
+    static final String[][] EQUAL = {
+            { "did:example:123#key-1", "DID:example:123#key-1" },
+            { "https://Example.COM/a#key-1", "HTTPS://example.com/a#key-1" },
+            { "https://user@Example.com:8080/a", "https://user@example.com:8080/a" },
+            { "https://example.com/%7e#%aB", "https://example.com/%7E#%Ab" },
+            { "https://%4A.example/a", "https://%4a.example/a" },
+            { "https://[::A]:8080/a", "https://[::a]:8080/a" },
+            { "did:example:%aa", "did:example:%AA" },
+    };
+
+    static final String[][] NOT_EQUAL = {
+            { "did:example:123#key-1", "did:Example:123#key-1" },
+            { "https://example.com/A", "https://example.com/a" },
+            { "https://User@example.com/a", "https://user@example.com/a" },
+            { "https://example.com?Q#F", "https://example.com?q#f" },
+            { "did:example:%aa", "did:example:%ab" },
+    };
+
+    @Test
+    void testEqualAsUri() {
+        for (final String[] pair : EQUAL) {
+            assertEquals(URI.create(pair[0]), URI.create(pair[1]));
+
+            final Identifier a = Identifier.of(pair[0]);
+            final Identifier b = Identifier.of(URI.create(pair[1]));
+
+            assertEquals(a, b, pair[0]);
+            assertEquals(a.hashCode(), b.hashCode(), pair[0]);
+            assertEquals(a.base(), b.base(), pair[0]);
+
+            // the original form is kept
+            assertEquals(pair[0], a.toString());
+            assertEquals(pair[1], b.toString());
+        }
+    }
+
+    @Test
+    void testNotEqualAsUri() {
+        for (final String[] pair : NOT_EQUAL) {
+            assertNotEquals(URI.create(pair[0]), URI.create(pair[1]));
+            assertNotEquals(Identifier.of(pair[0]), Identifier.of(pair[1]), pair[0]);
+        }
+    }
+
+    @Test
+    void testNormalized() {
+        final String value = "did:example:123#key-1";
+
+        assertSame(value, Identifier.normalize(value));
+        assertEquals("https://example.com/A%7E", Identifier.normalize("HTTPS://EXAMPLE.com/A%7e"));
+    }
+
+    @Test
+    void testBase() {
+        final Identifier id = Identifier.of("did:example:123#key-1");
+
+        assertTrue(id.hasFragment());
+        assertEquals("key-1", id.fragment());
+        assertEquals("did:example:123", id.base().toString());
+        assertSame(id.base(), id.base());
+        assertFalse(id.base().hasFragment());
+        assertNull(id.base().fragment());
+        assertSame(id.base(), id.base().base());
+    }
+
+    @Test
+    void testUri() {
+        final URI uri = URI.create("did:example:123#key-1");
+
+        assertSame(uri, Identifier.of(uri).uri());
+
+        final Identifier id = Identifier.of("did:example:123#key-1");
+        assertEquals(uri, id.uri());
+        assertSame(id.uri(), id.uri());
+        assertEquals(URI.create("did:example:123"), id.base().uri());
+    }
+}
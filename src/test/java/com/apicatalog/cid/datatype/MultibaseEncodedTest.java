@@ -0,0 +1,124 @@
+package com.apicatalog.cid.datatype;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MultibaseEncodedTest {
+
+    static final char[] BASES = { Multibase.BASE_58_BTC, Multibase.BASE_64_URL, Multibase.BASE_16 };
+
+    static final long[] CODECS = { 0xed, 0xec, 0xe7, 0x1200, 0x1205, 0x7fffffffL };
+
+    @Test
+    void testMultibaseAsEager() {
+        final Random random = new Random(7);
+
+        for (final char base : BASES) {
+            for (int length = 0; length < 40; length++) {
+                final byte[] value = new byte[length];
+                random.nextBytes(value);
+
+                final String encoded = Multibase.encode(base, value);
+
+                final MultibaseEncoded lazy = MultibaseEncoded.of(encoded);
+
+                assertEquals(encoded, lazy.encoded());
+                assertEquals(Multibase.baseName(encoded), lazy.baseName());
+                assertArrayEquals(Multibase.decode(encoded), lazy.debased());
+                assertArrayEquals(value, bytes(lazy.debasedBuffer()));
+                assertEquals(encoded, lazy.toString());
+            }
+        }
+    }
+
+    @Test
+    void testMulticodecAsEager() {
+        final Random random = new Random(11);
+
+        for (final char base : BASES) {
+            for (final long codec : CODECS) {
+                final byte[] key = new byte[33];
+                random.nextBytes(key);
+
+                final byte[] prefixed = Multicodec.encode(MulticodecEncoded.of(codec, key));
+                final String encoded = Multibase.encode(base, prefixed);
+
+                final MulticodecEncoded eager = Multicodec.decode(Multibase.decode(encoded));
+                final MulticodecEncoded lazy = MulticodecEncoded.ofMultibase(encoded);
+
+                assertEquals(codec, eager.codecCode());
+                assertEquals(eager.codecCode(), lazy.codecCode());
+                assertArrayEquals(eager.decoded(), lazy.decoded());
+                assertArrayEquals(key, bytes(lazy.decodedBuffer()));
+
+                final MultibaseEncoded multibase = (MultibaseEncoded) lazy;
+
+                assertEquals(encoded, multibase.encoded());
+                assertArrayEquals(prefixed, multibase.debased());
+                assertArrayEquals(prefixed, bytes(multibase.debasedBuffer()));
+            }
+        }
+    }
+
+    @Test
+    void testCopies() {
+        final MulticodecEncoded key = MulticodecEncoded.ofMultibase(Multibase.encode(Multibase.BASE_58_BTC, new byte[] { (byte) 0xed, 0x01, 1, 2, 3 }));
+
+        key.decoded()[0] = 9;
+        ((MultibaseEncoded) key).debased()[0] = 9;
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, key.decoded());
+        assertTrue(key.decodedBuffer().isReadOnly());
+        assertTrue(((MultibaseEncoded) key).debasedBuffer().isReadOnly());
+
+        final MultibaseEncoded value = MultibaseEncoded.of("f010203");
+
+        value.debased()[0] = 9;
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, value.debased());
+        assertTrue(value.debasedBuffer().isReadOnly());
+    }
+
+    @Test
+    void testInvalidOnFirstAccess() {
+        // the prefix is checked eagerly
+        assertThrows(IllegalArgumentException.class, () -> MultibaseEncoded.of("x123"));
+        assertThrows(IllegalArgumentException.class, () -> MultibaseEncoded.of(""));
+        assertThrows(IllegalArgumentException.class, () -> MulticodecEncoded.ofMultibase("x123"));
+
+        // invalid base58 characters
+        final MultibaseEncoded value = MultibaseEncoded.of("z0OIl");
+
+        assertEquals("z0OIl", value.encoded());
+        assertThrows(IllegalArgumentException.class, value::debased);
+        assertThrows(IllegalArgumentException.class, value::debasedBuffer);
+
+        for (final String encoded : new String[] {
+                "z0OIl",
+                // no codec
+                "z",
+                // an unterminated varint
+                Multibase.encode(Multibase.BASE_58_BTC, new byte[] { (byte) 0x80 }),
+        }) {
+            final MulticodecEncoded key = MulticodecEncoded.ofMultibase(encoded);
+
+            assertEquals(encoded, ((MultibaseEncoded) key).encoded());
+            assertThrows(IllegalArgumentException.class, key::codecCode, encoded);
+            assertThrows(IllegalArgumentException.class, key::decoded, encoded);
+            assertThrows(IllegalArgumentException.class, key::decodedBuffer, encoded);
+        }
+    }
+
+    static byte[] bytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,160 @@
+package com.apicatalog.cid.datatype;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MultibaseTest {
+
+    static final byte[] YES_MANI = "yes mani !".getBytes(StandardCharsets.UTF_8);
+
+    /** Bitcoin base58 test vectors, hex → base58 */
+    static final String[][] BASE58 = {
+            { "", "" },
+            { "61", "2g" },
+            { "626262", "a3gV" },
+            { "636363", "aPEr" },
+            { "73696d706c792061206c6f6e6720737472696e67", "2cFupjhnEsSn59qHXstmK2ffpLv2" },
+            { "00eb15231dfceb60925886b67d065299925915aeb172c06647", "1NS17iag9jJgTHD1VXjvLCEnZuQ3rJDE9L" },
+            { "516b6fcd0f", "ABnLTmg" },
+            { "bf4f89001e670274dd", "3SEo3LWLoPntC" },
+            { "572e4794", "3EFU7m" },
+            { "ecac89cad93923c02321", "EJDM8drfXA6uyA" },
+            { "10c8511e", "Rt5zm" },
+            { "00000000000000000000", "1111111111" },
+    };
+
+    static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    @Test
+    void testSpecVectors() {
+        assertEquals("z7paNL19xttacUY", Multibase.encode(Multibase.BASE_58_BTC, YES_MANI));
+        assertEquals("ueWVzIG1hbmkgIQ", Multibase.encode(Multibase.BASE_64_URL, YES_MANI));
+        assertEquals("f796573206d616e692021", Multibase.encode(Multibase.BASE_16, YES_MANI));
+        assertEquals("F796573206D616E692021", Multibase.encode(Multibase.BASE_16_UPPER, YES_MANI));
+
+        assertArrayEquals(YES_MANI, Multibase.decode("z7paNL19xttacUY"));
+        assertArrayEquals(YES_MANI, Multibase.decode("ueWVzIG1hbmkgIQ"));
+        assertArrayEquals(YES_MANI, Multibase.decode("f796573206d616e692021"));
+        assertArrayEquals(YES_MANI, Multibase.decode("F796573206D616E692021"));
+    }
+
+    @Test
+    void testLeadingZeros() {
+        final byte[] value = new byte[YES_MANI.length + 2];
+        System.arraycopy(YES_MANI, 0, value, 2, YES_MANI.length);
+
+        assertEquals("z117paNL19xttacUY", Multibase.encode(Multibase.BASE_58_BTC, value));
+        assertArrayEquals(value, Multibase.decode("z117paNL19xttacUY"));
+    }
+
+    @Test
+    void testBase58Vectors() {
+        for (final String[] vector : BASE58) {
+            final byte[] value = hex(vector[0]);
+            assertEquals("z" + vector[1], Multibase.encode(Multibase.BASE_58_BTC, value), vector[0]);
+            assertArrayEquals(value, Multibase.decode("z" + vector[1]), vector[1]);
+        }
+    }
+
+    @Test
+    void testBase58Random() {
+        final Random random = new Random(58);
+
+        for (int i = 0; i < 2000; i++) {
+            final byte[] value = new byte[random.nextInt(80)];
+            random.nextBytes(value);
+            // leading zero bytes are encoded as 1s
+            for (int j = random.nextInt(4); j > 0 && j <= value.length; j--) {
+                value[j - 1] = 0;
+            }
+
+            final String encoded = Multibase.encode(Multibase.BASE_58_BTC, value);
+
+            assertEquals("z" + base58(value), encoded);
+            assertArrayEquals(value, Multibase.decode(encoded));
+        }
+    }
+
+    @Test
+    void testMultikey() {
+        final byte[] key = Multibase.decode("z6MkmM42vxfqZQsv4ehtTjFFxQ4sQKS2w6WR7emozFAn5cxu");
+
+        assertEquals(34, key.length);
+        assertEquals((byte) 0xed, key[0]);
+        assertEquals((byte) 0x01, key[1]);
+    }
+
+    @Test
+    void testBase64UrlPadding() {
+        assertArrayEquals(YES_MANI, Multibase.decode("ueWVzIG1hbmkgIQ=="));
+    }
+
+    @Test
+    void testBuffers() {
+        final char[] chars = new char[2 + Multibase.maxEncodedLength(Multibase.BASE_58_BTC, YES_MANI.length)];
+
+        final int length = Multibase.encode(Multibase.BASE_58_BTC, YES_MANI, 0, YES_MANI.length, chars, 2);
+
+        assertEquals("z7paNL19xttacUY", new String(chars, 2, length));
+
+        final byte[] bytes = new byte[1 + Multibase.maxDecodedLength("z7paNL19xttacUY")];
+
+        final int decoded = Multibase.decode("z7paNL19xttacUY", bytes, 1);
+
+        assertArrayEquals(YES_MANI, Arrays.copyOfRange(bytes, 1, 1 + decoded));
+    }
+
+    @Test
+    void testBufferTooSmall() {
+        final byte[] bytes = new byte[4];
+
+        assertThrows(IndexOutOfBoundsException.class, () -> Multibase.decode("z7paNL19xttacUY", bytes, 0));
+        assertArrayEquals(new byte[4], bytes);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> Multibase.encode(Multibase.BASE_16, YES_MANI, 0, YES_MANI.length, new char[4], 0));
+    }
+
+    @Test
+    void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> Multibase.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.decode("x123"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.decode("z0OIl"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.decode("f7"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.decode("fzz"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.decode("u+/"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.encode('x', YES_MANI));
+    }
+
+    static String base58(final byte[] value) {
+        final StringBuilder result = new StringBuilder();
+
+        BigInteger number = new BigInteger(1, value);
+        final BigInteger base = BigInteger.valueOf(58);
+
+        while (number.signum() > 0) {
+            final BigInteger[] division = number.divideAndRemainder(base);
+            result.append(ALPHABET.charAt(division[1].intValue()));
+            number = division[0];
+        }
+        for (int i = 0; i < value.length && value[i] == 0; i++) {
+            result.append('1');
+        }
+        return result.reverse().toString();
+    }
+
+    static byte[] hex(final String value) {
+        final byte[] bytes = new byte[value.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(value.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+}
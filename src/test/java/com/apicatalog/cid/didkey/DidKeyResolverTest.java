@@ -0,0 +1,180 @@
+package com.apicatalog.cid.didkey;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.Multibase;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.document.VerificationRelationship;
+import com.apicatalog.cid.multikey.Multikey;
+
+class DidKeyResolverTest {
+
+    // did:key specification test vectors, expected keys are the x coordinates
+    // of the JSON Web Keys the vectors list
+
+    static final String ED25519 = "z6MkiTBz1ymuepAQ4HEHYSF1H8quG5GLVVQR3djdX3mDooWp";
+    static final String ED25519_X = "O2onvM62pC1io6jQKm8Nc2UyFXcd4kOmOsBIoYtZ2ik";
+
+    static final String P256 = "zDnaerDaTF5BXEavCrfRZEk316dpbLsfPDZ3WJ5hRTPFU2169";
+    static final String P256_X = "fyNYMN0976ci7xqiSdag3buk-ZCwgXU4kz9XNkBlNUI";
+
+    static final String SECP256K1 = "zQ3shokFTS3brHcDQrn82RUDfCZESWL1ZdCEJwekUDPQiYBme";
+    static final String SECP256K1_X = "h0wVx_2iDlOcblulc8E5iEw1EYh5n1RYtLQfeSTyNc0";
+
+    static final String X25519 = "z6LSeu9HkTHSfLLeUs2nnzUSNedgDUevfNQgQjQC23ZCit6F";
+
+    @Test
+    void testEd25519() {
+        final Multikey method = assertDerived(ED25519, DidKeyResolver.ED25519_PUB);
+
+        assertArrayEquals(Base64.getUrlDecoder().decode(ED25519_X), bytes(method));
+    }
+
+    @Test
+    void testP256() {
+        final Multikey method = assertDerived(P256, DidKeyResolver.P256_PUB);
+
+        assertCompressed(P256_X, bytes(method));
+    }
+
+    @Test
+    void testSecp256k1() {
+        final Multikey method = assertDerived(SECP256K1, DidKeyResolver.SECP256K1_PUB);
+
+        assertCompressed(SECP256K1_X, bytes(method));
+    }
+
+    @Test
+    void testX25519() {
+        final IdentifierDocument document = DidKeyResolver.derive(URI.create("did:key:" + X25519));
+
+        final VerificationMethod method = document.verification().iterator().next();
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            assertEquals(
+                    relationship == VerificationRelationship.KEY_AGREEMENT
+                            ? Collections.singleton(method)
+                            : Collections.emptySet(),
+                    relationship.methods(document),
+                    relationship.name());
+        }
+        assertEquals(DidKeyResolver.X25519_PUB, ((Multikey) method).publicKey().codecCode());
+    }
+
+    @Test
+    void testFragmentIgnored() {
+        final URI id = URI.create("did:key:" + ED25519);
+
+        final IdentifierDocument document = DidKeyResolver.derive(URI.create(id + "#" + ED25519));
+
+        assertEquals(id, document.id());
+        assertEquals(URI.create(id + "#" + ED25519), document.verification().iterator().next().id());
+    }
+
+    @Test
+    void testUnsupportedCodec() {
+        // 0x55 raw binary
+        final byte[] raw = new byte[33];
+        raw[0] = 0x55;
+
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> DidKeyResolver.derive(URI.create("did:key:" + Multibase.encode(Multibase.BASE_58_BTC, raw))));
+
+        assertTrue(e.getMessage().contains("Unsupported key type 0x55"), e.getMessage());
+    }
+
+    @Test
+    void testInvalidKeyLength() {
+        final byte[] key = new byte[32];
+        key[0] = (byte) 0xed;
+        key[1] = 0x01;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DidKeyResolver.derive(URI.create("did:key:" + Multibase.encode(Multibase.BASE_58_BTC, key))));
+    }
+
+    @Test
+    void testMalformed() {
+        for (final String id : new String[] {
+                "did:example:" + ED25519,
+                "did:key:",
+                "did:key:z",
+                "did:key:#" + ED25519,
+                "did:key:u7QE",
+                "did:key:" + ED25519.replace('T', '0'),
+                "did:key:" + ED25519.substring(0, ED25519.length() - 2),
+        }) {
+            assertThrows(IllegalArgumentException.class, () -> DidKeyResolver.derive(URI.create(id)), id);
+        }
+    }
+
+    @Test
+    void testResolve() {
+        final DidKeyResolver resolver = new DidKeyResolver();
+
+        final URI id = URI.create("did:key:" + ED25519);
+
+        assertTrue(resolver.isAccepted(id));
+        assertTrue(resolver.isAccepted(URI.create("DID:KEY:" + ED25519)));
+        assertFalse(resolver.isAccepted(URI.create("did:example:123")));
+
+        final IdentifierDocument document = resolver.resolve(id);
+
+        assertSame(document, resolver.resolve(id));
+        assertEquals(1, resolver.size());
+        assertEquals(1, resolver.hitCount());
+        assertEquals(1, resolver.missCount());
+    }
+
+    static Multikey assertDerived(final String key, final long codec) {
+        final URI id = URI.create("did:key:" + key);
+
+        final IdentifierDocument document = DidKeyResolver.derive(id);
+
+        assertEquals(id, document.id());
+        assertEquals(1, document.verification().size());
+
+        final Multikey method = (Multikey) document.verification().iterator().next();
+
+        assertEquals(URI.create(id + "#" + key), method.id());
+        assertEquals(id, method.controller());
+        assertEquals(codec, method.publicKey().codecCode());
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            assertEquals(
+                    relationship == VerificationRelationship.KEY_AGREEMENT
+                            ? Collections.emptySet()
+                            : Collections.singleton(method),
+                    relationship.methods(document),
+                    relationship.name());
+        }
+        return method;
+    }
+
+    static void assertCompressed(final String x, final byte[] key) {
+        assertEquals(33, key.length);
+        assertTrue(key[0] == 0x02 || key[0] == 0x03);
+        assertArrayEquals(Base64.getUrlDecoder().decode(x), Arrays.copyOfRange(key, 1, key.length));
+    }
+
+    static byte[] bytes(final Multikey method) {
+        final ByteBuffer buffer = method.publicKey().decodedBuffer();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,227 @@
+package com.apicatalog.cid.document;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.IdentifierDocumentResolver;
+import com.apicatalog.cid.ResolutionListener;
+import com.apicatalog.cid.VerificationMethodException;
+import com.apicatalog.cid.VerificationMethodResolution;
+import com.apicatalog.cid.VerificationMethodResolver;
+import com.apicatalog.cid.datatype.Identifier;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.multikey.Multikey;
+
+class IndexedIdentifierDocumentTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    static final Instant PAST = NOW.minusSeconds(3600);
+
+    /** declared, referenced by authentication and assertion */
+    static final VerificationMethod DECLARED = multikey("key-1", ID, null, null);
+
+    /** declared, expired, referenced by assertion */
+    static final VerificationMethod EXPIRED = multikey("key-2", ID, null, PAST);
+
+    /** declared, revoked, referenced by capability invocation */
+    static final VerificationMethod REVOKED = multikey("key-3", ID, PAST, null);
+
+    /** declared, never referenced */
+    static final VerificationMethod UNUSED = multikey("key-4", ID, null, null);
+
+    /** embedded in authentication */
+    static final VerificationMethod EMBEDDED = multikey("key-5", ID, null, null);
+
+    /** embedded in key agreement, controlled by another document */
+    static final VerificationMethod FOREIGN = multikey("key-6", URI.create("did:example:456"), null, null);
+
+    /** referenced by authentication, not declared */
+    static final VerificationMethod DANGLING = VerificationMethod.of(URI.create(ID + "#key-9"));
+
+    static final IdentifierDocument DOCUMENT = IdentifierDocument.of(
+            ID, null, null,
+            Arrays.asList(DECLARED, EXPIRED, REVOKED, UNUSED),
+            set(reference(DECLARED), EMBEDDED, DANGLING),
+            set(reference(EXPIRED), DECLARED),
+            set(FOREIGN),
+            set(reference(REVOKED)),
+            null,
+            null);
+
+    static final URI[] METHOD_IDS = {
+            DECLARED.id(), EXPIRED.id(), REVOKED.id(), UNUSED.id(),
+            EMBEDDED.id(), FOREIGN.id(), DANGLING.id(),
+            URI.create(ID + "#key-0"),
+    };
+
+    @Test
+    void testLookupsEqual() {
+        final VerificationMethodResolver resolver = resolver();
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(DOCUMENT);
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            for (final URI methodId : METHOD_IDS) {
+
+                final VerificationMethodResolution plain = resolver.tryResolve(Identifier.of(methodId), relationship, DOCUMENT);
+                final VerificationMethodResolution fast = resolver.tryResolve(Identifier.of(methodId), relationship, indexed);
+
+                final String message = relationship + " " + methodId;
+
+                assertEquals(plain.isResolved(), fast.isResolved(), message);
+                assertSame(plain.method(), fast.method(), message);
+                assertEquals(plain.code(), fast.code(), message);
+                assertEquals(plain.detail(), fast.detail(), message);
+            }
+        }
+    }
+
+    @Test
+    void testReferenceDereferenced() {
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(DOCUMENT);
+
+        assertSame(DECLARED, indexed.method(DECLARED.id(), VerificationRelationship.AUTHENTICATION));
+        assertSame(DECLARED, indexed.method(DECLARED.id(), VerificationRelationship.ASSERTION));
+        assertSame(EXPIRED, indexed.method(EXPIRED.id(), VerificationRelationship.ASSERTION));
+        assertSame(REVOKED, indexed.method(REVOKED.id(), VerificationRelationship.CAPABILITY_INVOCATION));
+        assertSame(EMBEDDED, indexed.method(EMBEDDED.id(), VerificationRelationship.AUTHENTICATION));
+
+        assertSame(DECLARED, indexed.dereference(reference(DECLARED)));
+        assertSame(EMBEDDED, indexed.dereference(EMBEDDED));
+        assertNull(indexed.dereference(null));
+    }
+
+    @Test
+    void testDanglingReference() {
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(DOCUMENT);
+
+        final VerificationMethod method = indexed.method(DANGLING.id(), VerificationRelationship.AUTHENTICATION);
+
+        assertSame(DANGLING, method);
+        assertTrue(method.isReference());
+        assertSame(DANGLING, indexed.dereference(DANGLING));
+        assertSame(DANGLING, indexed.method(DANGLING.id()));
+        assertEquals(Validity.VALID, indexed.validity(DANGLING.identifier(), NOW.toEpochMilli()));
+    }
+
+    @Test
+    void testRelationships() {
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(DOCUMENT);
+
+        assertEquals(VerificationRelationship.AUTHENTICATION.mask() | VerificationRelationship.ASSERTION.mask(),
+                indexed.relationships(DECLARED.id()));
+        assertEquals(0, indexed.relationships(UNUSED.id()));
+        assertEquals(0, indexed.relationships(URI.create(ID + "#key-0")));
+        assertEquals(0, indexed.relationships((URI) null));
+
+        assertTrue(indexed.isBound(DECLARED.identifier(), VerificationRelationship.ASSERTION));
+        assertFalse(indexed.isBound(DECLARED.identifier(), VerificationRelationship.KEY_AGREEMENT));
+        assertTrue(indexed.isBound(FOREIGN.id(), VerificationRelationship.KEY_AGREEMENT));
+
+        assertTrue(indexed.hasMethods(VerificationRelationship.CAPABILITY_INVOCATION));
+        assertFalse(indexed.hasMethods(VerificationRelationship.CAPABILITY_DELEGATION));
+
+        assertEquals(new HashSet<>(Arrays.asList(METHOD_IDS).subList(0, 7)), indexed.methodIds());
+    }
+
+    @Test
+    void testValidity() {
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(DOCUMENT);
+
+        final long now = NOW.toEpochMilli();
+
+        assertEquals(Validity.VALID, indexed.validity(DECLARED.identifier(), now));
+        assertEquals(Validity.EXPIRED, indexed.validity(EXPIRED.identifier(), now));
+        assertEquals(Validity.REVOKED, indexed.validity(REVOKED.identifier(), now));
+        assertEquals(Validity.VALID, indexed.validity(EXPIRED.identifier(), PAST.toEpochMilli() - 1));
+        assertNull(indexed.validity(Identifier.of(URI.create(ID + "#key-0")), now));
+    }
+
+    @Test
+    void testValidityOfDeclaredMethod() {
+
+        // a relationship embedding a method with the identifier of a declared one
+        final VerificationMethod embedded = multikey("key-1", ID, null, PAST);
+
+        final IdentifierDocument document = IdentifierDocument.of(
+                ID, null, null,
+                Collections.singletonList(DECLARED),
+                null,
+                set(embedded),
+                null, null, null, null);
+
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(document);
+
+        assertSame(embedded, indexed.method(DECLARED.id(), VerificationRelationship.ASSERTION));
+
+        // the index takes revocation and expiration times from the declared
+        // method, the one method(Identifier) returns, not from the listed copy
+        assertEquals(Validity.VALID, indexed.validity(DECLARED.identifier(), NOW.toEpochMilli()));
+
+        final VerificationMethodResolver resolver = resolver();
+
+        final VerificationMethodResolution fast = resolver.tryResolve(DECLARED.identifier(), VerificationRelationship.ASSERTION, indexed);
+        assertTrue(fast.isResolved());
+        assertSame(embedded, fast.method());
+
+        // a plain document checks the listed copy
+        final VerificationMethodResolution plain = resolver.tryResolve(DECLARED.identifier(), VerificationRelationship.ASSERTION, document);
+        assertFalse(plain.isResolved());
+        assertEquals(VerificationMethodException.Code.EXPIRED_VERIFICATION_METHOD, plain.code());
+    }
+
+    @Test
+    void testIndexedOnce() {
+        final IndexedIdentifierDocument indexed = IndexedIdentifierDocument.of(DOCUMENT);
+
+        assertSame(indexed, IndexedIdentifierDocument.of(indexed));
+        assertSame(DOCUMENT, indexed.document());
+    }
+
+    static VerificationMethodResolver resolver() {
+        return new VerificationMethodResolver(
+                Collections.singletonList(new IdentifierDocumentResolver() {
+
+                    @Override
+                    public boolean isAccepted(final URI id) {
+                        return true;
+                    }
+
+                    @Override
+                    public IdentifierDocument resolve(final URI id) {
+                        return DOCUMENT;
+                    }
+                }),
+                Runnable::run,
+                ResolutionListener.NOOP,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    static VerificationMethod multikey(final String fragment, final URI controller, final Instant revoked, final Instant expires) {
+        return Multikey.of(URI.create(ID + "#" + fragment), controller, MulticodecEncoded.of(0xed, new byte[32]), revoked, expires);
+    }
+
+    static VerificationMethod reference(final VerificationMethod method) {
+        return VerificationMethod.of(method.id());
+    }
+
+    static Set<VerificationMethod> set(final VerificationMethod... methods) {
+        return new LinkedHashSet<>(Arrays.asList(methods));
+    }
+}
@@ -0,0 +1,140 @@
+package com.apicatalog.cid.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+
+class IdentifierDocumentReaderTest {
+
+    static final String DOCUMENT = "{"
+            + "\"id\":\"did:example:123\","
+            + "\"verificationMethod\":[{"
+            + "\"id\":\"did:example:123#key-1\","
+            + "\"type\":\"JsonWebKey\","
+            + "\"controller\":\"did:example:123\","
+            + "\"publicKeyJwk\":%s"
+            + "}],"
+            + "\"authentication\":[\"did:example:123#key-1\"]"
+            + "}";
+
+    static final String UNKNOWN = "{\"id\":\"did:example:123\",\"unknown\":%s}";
+
+    @Test
+    void testRead() throws IOException {
+        final IdentifierDocument document = read(String.format(DOCUMENT, "{\"kty\":\"OKP\",\"crv\":\"Ed25519\",\"x\":\"11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo\"}"));
+
+        assertEquals(URI.create("did:example:123"), document.id());
+        assertEquals(1, document.verification().size());
+
+        final VerificationMethod method = document.authentication().iterator().next();
+        assertTrue(method instanceof JsonWebKey);
+        assertEquals("OKP", ((JsonWebKey) method).publicKey().get("kty"));
+    }
+
+    @Test
+    void testNestedJwk() throws IOException {
+        final IdentifierDocument document = read(String.format(DOCUMENT, nested(JsonParser.MAX_DEPTH - 4)));
+
+        final Map<String, Object> jwk = ((JsonWebKey) document.verification().iterator().next()).publicKey();
+        assertTrue(jwk.containsKey("a"));
+    }
+
+    @Test
+    void testDeeplyNestedJwk() {
+        final JsonParseException e = assertThrows(
+                JsonParseException.class,
+                () -> read(String.format(DOCUMENT, nested(100_000))));
+
+        assertTrue(e.getMessage().contains("nesting depth"));
+    }
+
+    @Test
+    void testDeeplyNestedSkippedValue() {
+        assertThrows(
+                JsonParseException.class,
+                () -> read(String.format(UNKNOWN, nested(100_000))));
+    }
+
+    @Test
+    void testDeeplyNestedArray() {
+        final StringBuilder arrays = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            arrays.append('[');
+        }
+        assertThrows(
+                JsonParseException.class,
+                () -> read(String.format(DOCUMENT, "{\"a\":" + arrays + "}")));
+    }
+
+    @Test
+    void testSkippedNumber() throws IOException {
+        for (final String number : new String[] { "0", "-0", "10", "1.5", "-0.25", "1e10", "1E+2", "-1.25e-3" }) {
+            assertEquals(URI.create("did:example:123"), read(String.format(UNKNOWN, number)).id(), number);
+            assertEquals(URI.create("did:example:123"), read(String.format(UNKNOWN, "[" + number + "]")).id(), number);
+        }
+    }
+
+    @Test
+    void testInvalidSkippedNumber() {
+        for (final String number : new String[] { "1-e+.", "01", "-", "-a", "1.", ".5", "1.e3", "1e", "1e+", "+1", "--1", "0x10" }) {
+            assertThrows(JsonParseException.class, () -> read(String.format(UNKNOWN, number)), number);
+            assertThrows(JsonParseException.class, () -> read(String.format(UNKNOWN, "[" + number + "]")), number);
+        }
+    }
+
+    @Test
+    void testLongString() throws IOException {
+        assertEquals(URI.create("did:example:123"), read(String.format(UNKNOWN, "\"" + repeat('a', JsonParser.MAX_LENGTH) + "\"")).id());
+
+        final JsonParseException e = assertThrows(
+                JsonParseException.class,
+                () -> read(String.format(UNKNOWN, "\"" + repeat('a', JsonParser.MAX_LENGTH + 1) + "\"")));
+
+        assertTrue(e.getMessage().contains("length"));
+
+        assertThrows(
+                JsonParseException.class,
+                () -> read("{\"id\":\"did:example:" + repeat('a', JsonParser.MAX_LENGTH) + "\"}"));
+
+        assertThrows(
+                JsonParseException.class,
+                () -> read(String.format(UNKNOWN, repeat('1', JsonParser.MAX_LENGTH + 1))));
+    }
+
+    static String repeat(final char ch, final int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, ch);
+        return new String(chars);
+    }
+
+    static IdentifierDocument read(final String json) throws IOException {
+        return IdentifierDocumentReader.read(new StringReader(json));
+    }
+
+    /**
+     * @return an object nested {@code depth} levels
+     */
+    static String nested(final int depth) {
+        final StringBuilder json = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            json.append("{\"a\":");
+        }
+        json.append("true");
+        for (int i = 0; i < depth; i++) {
+            json.append('}');
+        }
+        return json.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.apicatalog.cid.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.jwk.JsonWebKey;
+import com.apicatalog.cid.multikey.Multikey;
+
+class IdentifierDocumentWriterTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    @Test
+    void testSecretsOmitted() throws IOException {
+        final String json = write(document(), false);
+
+        assertTrue(json.contains("\"publicKeyMultibase\""));
+        assertTrue(json.contains("\"publicKeyJwk\""));
+        assertFalse(json.contains("secretKey"));
+        assertFalse(json.contains("\"d\""));
+    }
+
+    @Test
+    void testSecretsOmittedFromStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        IdentifierDocumentWriter.write(document(), output);
+
+        assertFalse(new String(output.toByteArray(), StandardCharsets.UTF_8).contains("secretKey"));
+    }
+
+    @Test
+    void testSecretsIncluded() throws IOException {
+        final String json = write(document(), true);
+
+        assertTrue(json.contains("\"secretKeyMultibase\""));
+        assertTrue(json.contains("\"secretKeyJwk\""));
+
+        final IdentifierDocument read = IdentifierDocumentReader.read(new StringReader(json));
+
+        for (final VerificationMethod method : read.verification()) {
+            if (method instanceof Multikey) {
+                assertNotNull(((Multikey) method).secretKey());
+
+            } else {
+                assertEquals("secret", ((JsonWebKey) method).secretKey().get("d"));
+            }
+        }
+    }
+
+    @Test
+    void testEndpointWithoutId() throws IOException {
+        final Service service = Service.of(
+                URI.create("did:example:123#service"),
+                "LinkedDomains",
+                Arrays.asList(() -> null, ServiceEndpoint.of(URI.create("https://example.com"))));
+
+        final IdentifierDocument document = IdentifierDocument.of(ID, null, null, null, null, null, null, null, null, Collections.singleton(service));
+
+        final String json = write(document, false);
+
+        assertTrue(json.contains("\"serviceEndpoint\":\"https://example.com\""), json);
+    }
+
+    static IdentifierDocument document() {
+
+        final Multikey multikey = Multikey.of(
+                URI.create("did:example:123#key-1"),
+                ID,
+                MulticodecEncoded.of(0xed, new byte[32]),
+                MulticodecEncoded.of(0x1300, new byte[32]));
+
+        final Map<String, Object> publicKey = new HashMap<>();
+        publicKey.put("kty", "OKP");
+        publicKey.put("crv", "Ed25519");
+        publicKey.put("x", "public");
+
+        final Map<String, Object> secretKey = new HashMap<>(publicKey);
+        secretKey.put("d", "secret");
+
+        final JsonWebKey jwk = JsonWebKey.of(URI.create("did:example:123#key-2"), ID, publicKey, secretKey);
+
+        return IdentifierDocument.of(ID, null, null, Arrays.asList(multikey, jwk), null, null, null, null, null, null);
+    }
+
+    static String write(final IdentifierDocument document, final boolean includeSecrets) throws IOException {
+        final StringBuilder json = new StringBuilder();
+        IdentifierDocumentWriter.write(document, json, includeSecrets);
+        return json.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.apicatalog.cid.jwk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonWebKeyTest {
+
+    static final URI ID = URI.create("did:example:123#key-1");
+    static final URI CONTROLLER = URI.create("did:example:123");
+
+    @Test
+    void testTypedPublicKey() {
+        final Map<String, Object> members = members(Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[32]));
+
+        final JsonWebKey key = JsonWebKey.of(ID, CONTROLLER, members);
+
+        assertNotNull(((ImmutableJsonWebKey) key).publicJwk);
+        assertEquals(members, key.publicKey());
+        assertSame(key.publicKey(), key.publicKey());
+    }
+
+    @Test
+    void testUntypedPublicKey() {
+        // not canonical base64url, kept as given
+        final Map<String, Object> members = members("AA==");
+
+        final JsonWebKey key = JsonWebKey.of(ID, CONTROLLER, members);
+
+        assertNull(((ImmutableJsonWebKey) key).publicJwk);
+        assertSame(members, key.publicKey());
+    }
+
+    static Map<String, Object> members(final String x) {
+        final Map<String, Object> members = new LinkedHashMap<>();
+        members.put("kty", "OKP");
+        members.put("crv", "Ed25519");
+        members.put("x", x);
+        return members;
+    }
+}
@@ -0,0 +1,167 @@
+package com.apicatalog.cid.key;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.multikey.Multikey;
+
+class PublicKeyFactoryTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    @Test
+    void testEd25519() throws GeneralSecurityException {
+        final PublicKey expected;
+        try {
+            expected = KeyPairGenerator.getInstance("Ed25519").generateKeyPair().getPublic();
+
+        } catch (NoSuchAlgorithmException e) {
+            assumeTrue(false, "Ed25519 is not supported by the platform");
+            return;
+        }
+
+        final byte[] x509 = expected.getEncoded();
+        final byte[] raw = Arrays.copyOfRange(x509, x509.length - 32, x509.length);
+
+        assertArrayEquals(x509, PublicKeyFactory.create(MulticodecEncoded.of(0xed, raw)).getEncoded());
+
+        final Map<String, Object> jwk = new HashMap<>();
+        jwk.put("kty", "OKP");
+        jwk.put("crv", "Ed25519");
+        jwk.put("x", base64(raw));
+
+        assertArrayEquals(x509, PublicKeyFactory.create(jwk).getEncoded());
+
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(MulticodecEncoded.of(0xed, new byte[31])));
+    }
+
+    @Test
+    void testP256() throws GeneralSecurityException {
+        final ECPublicKey expected = p256();
+
+        final byte[] x = coordinate(expected.getW().getAffineX());
+        final byte[] y = coordinate(expected.getW().getAffineY());
+
+        final byte[] uncompressed = new byte[65];
+        uncompressed[0] = 0x04;
+        System.arraycopy(x, 0, uncompressed, 1, 32);
+        System.arraycopy(y, 0, uncompressed, 33, 32);
+
+        final byte[] compressed = new byte[33];
+        compressed[0] = (byte) (expected.getW().getAffineY().testBit(0) ? 0x03 : 0x02);
+        System.arraycopy(x, 0, compressed, 1, 32);
+
+        assertArrayEquals(expected.getEncoded(), PublicKeyFactory.create(MulticodecEncoded.of(0x1200, uncompressed)).getEncoded());
+        assertArrayEquals(expected.getEncoded(), PublicKeyFactory.create(MulticodecEncoded.of(0x1200, compressed)).getEncoded());
+
+        final Map<String, Object> jwk = new HashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("x", base64(x));
+        jwk.put("y", base64(y));
+
+        assertArrayEquals(expected.getEncoded(), PublicKeyFactory.create(jwk).getEncoded());
+    }
+
+    @Test
+    void testPointNotOnCurve() throws GeneralSecurityException {
+        final ECPublicKey key = p256();
+
+        final byte[] x = coordinate(key.getW().getAffineX());
+        final byte[] y = coordinate(key.getW().getAffineY().add(BigInteger.ONE));
+
+        final Map<String, Object> jwk = new HashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("x", base64(x));
+        jwk.put("y", base64(y));
+
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(jwk));
+
+        final byte[] uncompressed = new byte[65];
+        uncompressed[0] = 0x04;
+        System.arraycopy(x, 0, uncompressed, 1, 32);
+        System.arraycopy(y, 0, uncompressed, 33, 32);
+
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(MulticodecEncoded.of(0x1200, uncompressed)));
+
+        final byte[] malformed = new byte[33];
+        malformed[0] = 0x05;
+
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(MulticodecEncoded.of(0x1200, malformed)));
+    }
+
+    @Test
+    void testUnsupported() {
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(MulticodecEncoded.of(0x1205, new byte[32])));
+
+        final Map<String, Object> jwk = new HashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("n", base64(new byte[256]));
+        jwk.put("e", "AQAB");
+
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(jwk));
+
+        final Multikey method = Multikey.of(URI.create(ID + "#key-1"), ID, null);
+
+        assertThrows(IllegalArgumentException.class, () -> PublicKeyFactory.create(method));
+    }
+
+    @Test
+    void testCache() throws GeneralSecurityException {
+        final ECPublicKey expected = p256();
+
+        final byte[] compressed = new byte[33];
+        compressed[0] = (byte) (expected.getW().getAffineY().testBit(0) ? 0x03 : 0x02);
+        System.arraycopy(coordinate(expected.getW().getAffineX()), 0, compressed, 1, 32);
+
+        final PublicKeyCache cache = new PublicKeyCache();
+
+        final PublicKey key = cache.get(Multikey.of(URI.create(ID + "#key-1"), ID, MulticodecEncoded.of(0x1200, compressed)));
+        assertArrayEquals(expected.getEncoded(), key.getEncoded());
+
+        // an equal method read again
+        assertSame(key, cache.get(Multikey.of(URI.create(ID + "#key-1"), ID, MulticodecEncoded.of(0x1200, compressed.clone()))));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    static ECPublicKey p256() throws GeneralSecurityException {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return (ECPublicKey) generator.generateKeyPair().getPublic();
+    }
+
+    static byte[] coordinate(final BigInteger value) {
+        final byte[] bytes = value.toByteArray();
+        final byte[] coordinate = new byte[32];
+        final int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, coordinate, 32 - length, length);
+        return coordinate;
+    }
+
+    static String base64(final byte[] value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+}
@@ -0,0 +1,131 @@
+package com.apicatalog.cid.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.CachingIdentifierDocumentResolver;
+import com.apicatalog.cid.IdentifierDocumentResolver;
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.VerificationMethod;
+import com.apicatalog.cid.multikey.Multikey;
+
+class VerificationKeyIndexTest {
+
+    static final URI ID = URI.create("did:example:123");
+
+    static final MulticodecEncoded KEY = MulticodecEncoded.of(0xed, key((byte) 1));
+
+    @Test
+    void testFind() {
+        final VerificationKeyIndex index = new VerificationKeyIndex();
+        final IdentifierDocument document = document(KEY);
+
+        index.add(document);
+
+        final List<KeyReference> found = index.find(0xed, key((byte) 1));
+        assertEquals(1, found.size());
+        assertSame(document, found.get(0).document());
+        assertEquals(Long.MAX_VALUE, found.get(0).expiresAt());
+
+        assertTrue(index.find(0xed, key((byte) 2)).isEmpty());
+    }
+
+    @Test
+    void testRemoveCounted() {
+        final VerificationKeyIndex index = new VerificationKeyIndex();
+        final IdentifierDocument document = document(KEY);
+
+        index.add(document);
+        index.add(document);
+        index.remove(document);
+
+        assertEquals(1, index.find(KEY).size());
+
+        index.remove(document);
+
+        assertTrue(index.find(KEY).isEmpty());
+        assertEquals(0, index.size());
+        assertEquals(0, index.documentCount());
+    }
+
+    @Test
+    void testExpired() {
+        final VerificationKeyIndex index = new VerificationKeyIndex();
+        final IdentifierDocument expired = document(KEY);
+        final IdentifierDocument valid = document(KEY);
+
+        index.add(expired, System.currentTimeMillis() - 1);
+        index.add(valid, System.currentTimeMillis() + 60_000);
+
+        final List<KeyReference> found = index.find(KEY);
+        assertEquals(1, found.size());
+        assertSame(valid, found.get(0).document());
+
+        // still indexed until removed
+        assertEquals(2, index.documentCount());
+    }
+
+    @Test
+    void testExtendExpiration() {
+        final VerificationKeyIndex index = new VerificationKeyIndex();
+        final IdentifierDocument document = document(KEY);
+
+        index.add(document, System.currentTimeMillis() - 1);
+        assertTrue(index.find(KEY).isEmpty());
+
+        index.add(document, System.currentTimeMillis() + 60_000);
+        assertEquals(1, index.find(KEY).size());
+    }
+
+    @Test
+    void testCachedDocumentExpired() throws InterruptedException {
+        final IdentifierDocumentResolver resolver = new IdentifierDocumentResolver() {
+
+            @Override
+            public boolean isAccepted(final URI id) {
+                return true;
+            }
+
+            @Override
+            public IdentifierDocument resolve(final URI id) {
+                return document(KEY);
+            }
+        };
+
+        final VerificationKeyIndex index = new VerificationKeyIndex();
+
+        final CachingIdentifierDocumentResolver cache = new CachingIdentifierDocumentResolver(
+                resolver, 10, document -> Duration.ofMillis(50), Duration.ZERO, index);
+
+        cache.resolve(ID);
+        assertEquals(1, index.find(KEY).size());
+
+        Thread.sleep(100);
+
+        // the cache has not noticed the expiration yet
+        assertEquals(1, index.documentCount());
+        assertTrue(index.find(KEY).isEmpty());
+    }
+
+    static IdentifierDocument document(final MulticodecEncoded key) {
+        final Multikey method = Multikey.of(URI.create(ID + "#key-1"), ID, key);
+        final List<VerificationMethod> methods = Collections.singletonList(method);
+        return IdentifierDocument.of(ID, null, null, methods, null, null, null, null, null, null);
+    }
+
+    static byte[] key(final byte value) {
+        final byte[] key = new byte[32];
+        Arrays.fill(key, value);
+        return key;
+    }
+}
@@ -0,0 +1,97 @@
+package com.apicatalog.cid.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testExactBuckets() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.index(value));
+            assertEquals(value, LatencyHistogram.lowerBound(value));
+            assertEquals(value, LatencyHistogram.upperBound(value));
+        }
+        assertEquals(16, LatencyHistogram.index(16));
+    }
+
+    @Test
+    void testBucketBoundaries() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, LatencyHistogram.lowerBound(0));
+
+        for (int bucket = 0; bucket < histogram.bucketCount(); bucket++) {
+
+            final long lower = LatencyHistogram.lowerBound(bucket);
+            final long upper = LatencyHistogram.upperBound(bucket);
+
+            assertEquals(bucket, LatencyHistogram.index(lower), "lower bound of " + bucket);
+            assertEquals(bucket, LatencyHistogram.index(upper), "upper bound of " + bucket);
+
+            if (bucket > 0) {
+                // buckets are contiguous
+                assertEquals(LatencyHistogram.upperBound(bucket - 1) + 1, lower, "bucket " + bucket);
+            }
+            if (bucket >= 16) {
+                // eight buckets per power of two
+                assertTrue(upper - lower + 1 <= lower / 8, "bucket " + bucket);
+            }
+        }
+
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(histogram.bucketCount() - 1));
+        assertEquals(histogram.bucketCount() - 1, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testPowersOfTwo() {
+        for (int exponent = 4; exponent < 63; exponent++) {
+            final long value = 1L << exponent;
+
+            final int bucket = LatencyHistogram.index(value);
+
+            assertEquals(value, LatencyHistogram.lowerBound(bucket));
+            assertEquals(value - 1, LatencyHistogram.upperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    void testRecord() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(100);
+        histogram.record(1_000);
+
+        assertEquals(4, histogram.count());
+        assertEquals(1_103, histogram.sum());
+        assertEquals(1_000, histogram.max());
+        assertEquals(1_103 / 4d, histogram.mean());
+
+        assertEquals(1, histogram.count(0));
+        assertEquals(1, histogram.count(3));
+        assertEquals(1, histogram.count(LatencyHistogram.index(100)));
+
+        assertEquals(0, histogram.percentile(0));
+        assertEquals(3, histogram.percentile(50));
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.index(100)), histogram.percentile(75));
+        // capped by the maximum
+        assertEquals(1_000, histogram.percentile(100));
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(100.1));
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean());
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.count(0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.apicatalog.cid.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.document.Service;
+import com.apicatalog.cid.document.ServiceEndpoint;
+
+class ServiceIndexTest {
+
+    static final URI A = URI.create("did:example:a");
+    static final URI B = URI.create("did:example:b");
+
+    @Test
+    void testFindByType() {
+        final ServiceIndex index = new ServiceIndex();
+        final IdentifierDocument a = document(A);
+        final IdentifierDocument b = document(B);
+
+        index.add(a);
+        index.add(b);
+
+        assertEquals(4, index.find("LinkedDomains").size());
+        assertEquals(2, index.find("DIDCommMessaging").size());
+        assertEquals(2, index.find(A, "LinkedDomains").size());
+        assertSame(a, index.find(A, "DIDCommMessaging").get(0).document());
+        assertTrue(index.find("Unknown").isEmpty());
+        assertEquals(2, index.size());
+        assertEquals(2, index.documentCount());
+
+        index.remove(a);
+
+        assertEquals(2, index.find("LinkedDomains").size());
+        assertTrue(index.find(A, "LinkedDomains").isEmpty());
+        assertNull(index.endpoint(A, "LinkedDomains"));
+    }
+
+    @Test
+    void testEndpointPriority() {
+        final ServiceIndex index = new ServiceIndex(ServiceIndex.preferSchemes("https", "wss"));
+
+        index.add(document(A));
+
+        assertEquals(
+                Arrays.asList("https://a.example", "https://m.example", "wss://m.example", "http://a.example", "ws://m.example"),
+                ids(index.endpoints(A, "LinkedDomains")));
+
+        assertEquals(URI.create("https://m.example"), index.endpoint(A, "DIDCommMessaging").id());
+    }
+
+    @Test
+    void testDocumentOrder() {
+        final ServiceIndex index = new ServiceIndex();
+
+        index.add(document(A));
+
+        assertEquals(
+                Arrays.asList("ws://m.example", "wss://m.example", "https://m.example"),
+                ids(index.endpoints(A, "DIDCommMessaging")));
+    }
+
+    @Test
+    void testExpired() {
+        final ServiceIndex index = new ServiceIndex();
+        final IdentifierDocument expired = document(A);
+        final IdentifierDocument refreshed = document(A);
+
+        index.add(expired, System.currentTimeMillis() - 1);
+
+        assertTrue(index.find("LinkedDomains").isEmpty());
+        assertTrue(index.endpoints(A, "LinkedDomains").isEmpty());
+
+        index.add(refreshed, System.currentTimeMillis() + 60_000);
+
+        assertEquals(2, index.find(A, "LinkedDomains").size());
+        assertSame(refreshed, index.find("LinkedDomains").get(0).document());
+        assertEquals(5, index.endpoints(A, "LinkedDomains").size());
+    }
+
+    static IdentifierDocument document(final URI id) {
+
+        final Set<Service> services = new LinkedHashSet<>();
+
+        services.add(Service.of(
+                URI.create(id + "#domains"),
+                "LinkedDomains",
+                Arrays.asList(endpoint("http://a.example"), endpoint("https://a.example"))));
+
+        services.add(Service.of(
+                URI.create(id + "#messaging"),
+                Arrays.asList("DIDCommMessaging", "LinkedDomains"),
+                Arrays.asList(endpoint("ws://m.example"), endpoint("wss://m.example"), endpoint("https://m.example"))));
+
+        return IdentifierDocument.of(id, null, null, null, null, null, null, null, null, services);
+    }
+
+    static ServiceEndpoint endpoint(final String id) {
+        return ServiceEndpoint.of(URI.create(id));
+    }
+
+    static List<String> ids(final List<ServiceEndpoint> endpoints) {
+        final List<String> ids = new ArrayList<>();
+        for (final ServiceEndpoint endpoint : endpoints) {
+            ids.add(endpoint.id().toString());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,174 @@
+package com.apicatalog.cid.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apicatalog.cid.datatype.MulticodecEncoded;
+import com.apicatalog.cid.document.IdentifierDocument;
+import com.apicatalog.cid.multikey.Multikey;
+
+class MappedDocumentStoreTest {
+
+    static final URI A = URI.create("did:example:a");
+    static final URI B = URI.create("did:example:b");
+    static final URI C = URI.create("did:example:c");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReopen() throws IOException {
+        final Path file = dir.resolve("documents");
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            store.put(A, document(A), null);
+            store.put(B, document(B), null);
+            store.put(C, document(C), Instant.now().plusSeconds(3600));
+            assertTrue(store.remove(B));
+            assertFalse(store.remove(B));
+        }
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            assertEquals(2, store.size());
+            assertEquals(A, store.get(A).id());
+            assertNull(store.get(B));
+            assertEquals(C, store.get(C).id());
+        }
+    }
+
+    @Test
+    void testExpired() throws IOException {
+        try (MappedDocumentStore store = MappedDocumentStore.open(dir.resolve("documents"))) {
+            store.put(A, document(A), Instant.now().minusSeconds(1));
+
+            assertNull(store.get(A));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void testCompact() throws IOException {
+        final Path file = dir.resolve("documents");
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            store.put(A, document(A), null);
+            store.put(B, document(B), null);
+            store.put(A, document(A), null);
+            store.remove(B);
+
+            assertTrue(store.garbageBytes() > 0);
+
+            final long used = store.usedBytes();
+
+            store.compact();
+
+            assertEquals(0, store.garbageBytes());
+            assertTrue(store.usedBytes() < used);
+            assertEquals(A, store.get(A).id());
+
+            // appends after compaction
+            store.put(C, document(C), null);
+        }
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            assertEquals(2, store.size());
+            assertEquals(A, store.get(A).id());
+            assertEquals(C, store.get(C).id());
+        }
+    }
+
+    @Test
+    void testAutoCompact() throws IOException {
+        try (MappedDocumentStore store = MappedDocumentStore.open(dir.resolve("documents"))) {
+
+            while (store.usedBytes() < 2 * MappedDocumentStore.MIN_COMPACTION_GARBAGE) {
+                final long used = store.usedBytes();
+                store.put(A, document(A), null);
+                if (store.usedBytes() < used) {
+                    break;
+                }
+            }
+
+            assertTrue(store.garbageBytes() <= MappedDocumentStore.MIN_COMPACTION_GARBAGE);
+            assertEquals(A, store.get(A).id());
+        }
+    }
+
+    @Test
+    void testTornTail() throws IOException {
+        final Path file = dir.resolve("documents");
+
+        final long tail;
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            store.put(A, document(A), null);
+            tail = store.usedBytes();
+            store.put(B, document(B), null);
+        }
+
+        // a crash while appending the last record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[16]), tail + MappedDocumentStore.RECORD_HEADER_SIZE + 4);
+        }
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            assertEquals(1, store.size());
+            assertEquals(A, store.get(A).id());
+            assertNull(store.get(B));
+            assertEquals(tail, store.usedBytes());
+
+            store.put(C, document(C), null);
+        }
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            assertEquals(2, store.size());
+            assertEquals(C, store.get(C).id());
+        }
+    }
+
+    @Test
+    void testSecretsNotStored() throws IOException {
+        final IdentifierDocument document = IdentifierDocument.of(A, null, null,
+                Collections.singletonList(Multikey.of(URI.create(A + "#key-1"), A, MulticodecEncoded.of(0xed, new byte[32]), MulticodecEncoded.of(0x1300, new byte[32]))),
+                null, null, null, null, null, null);
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(dir.resolve("documents"))) {
+            store.put(A, document, null);
+
+            final Multikey method = (Multikey) store.get(A).verification().iterator().next();
+
+            assertEquals(0xed, method.publicKey().codecCode());
+            assertNull(method.secretKey());
+        }
+    }
+
+    @Test
+    void testLocked() throws IOException {
+        final Path file = dir.resolve("documents");
+
+        try (MappedDocumentStore store = MappedDocumentStore.open(file)) {
+            assertThrows(IOException.class, () -> MappedDocumentStore.open(file));
+        }
+    }
+
+    static IdentifierDocument document(final URI id) {
+        return IdentifierDocument.of(id, null, null,
+                Collections.singletonList(Multikey.of(URI.create(id + "#key-1"), id, MulticodecEncoded.of(0xed, new byte[32]))),
+                null, null, null, null, null, null);
+    }
+}